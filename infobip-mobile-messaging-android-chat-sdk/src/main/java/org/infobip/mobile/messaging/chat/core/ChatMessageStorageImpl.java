@@ -10,7 +10,7 @@ import org.infobip.mobile.messaging.chat.repository.Participant;
 import org.infobip.mobile.messaging.chat.repository.ParticipantRepository;
 import org.infobip.mobile.messaging.chat.repository.RepositoryMapper;
 import org.infobip.mobile.messaging.dal.sqlite.PrimaryKeyViolationException;
-import org.infobip.mobile.messaging.mobile.common.MAsyncTask;
+import org.infobip.mobile.messaging.platform.TaskExecutors;
 import org.infobip.mobile.messaging.platform.Time;
 
 import java.util.ArrayList;
@@ -172,18 +172,7 @@ public class ChatMessageStorageImpl implements ChatMessageStorage {
     }
 
     private void invokeOnUiThread(final Runnable runnable) {
-        new MAsyncTask<Void, Void>() {
-
-            @Override
-            public Void run(Void[] objects) {
-                return null;
-            }
-
-            @Override
-            public void after(Void o) {
-                runnable.run();
-            }
-        }.execute();
+        TaskExecutors.mainThread().execute(runnable);
     }
 
     // endregion
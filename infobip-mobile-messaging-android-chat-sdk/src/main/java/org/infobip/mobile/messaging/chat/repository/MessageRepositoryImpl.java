@@ -10,6 +10,7 @@ import org.infobip.mobile.messaging.chat.repository.db.DatabaseHelperImpl;
 import org.infobip.mobile.messaging.dal.sqlite.DatabaseHelper;
 import org.infobip.mobile.messaging.dal.sqlite.PrimaryKeyViolationException;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -82,15 +83,17 @@ public class MessageRepositoryImpl implements MessageRepository {
     @Override
     public Set<String> markAllMessagesRead(long time) {
         Set<String> ids = new HashSet<>();
+        List<Message> updated = new ArrayList<>();
         for (Message message : databaseHelper().findAll(Message.class)) {
             if (message.readAt != null && message.readAt > 0) {
                 continue;
             }
 
             message.readAt = time;
-            databaseHelper().save(message);
+            updated.add(message);
             ids.add(message.id);
         }
+        databaseHelper().saveAll(updated);
         return ids;
     }
 
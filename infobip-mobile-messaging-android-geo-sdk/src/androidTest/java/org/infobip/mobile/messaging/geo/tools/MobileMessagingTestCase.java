@@ -13,6 +13,7 @@ import org.infobip.mobile.messaging.api.messages.MobileApiMessages;
 import org.infobip.mobile.messaging.api.support.http.serialization.JsonSerializer;
 import org.infobip.mobile.messaging.dal.json.InternalDataMapper;
 import org.infobip.mobile.messaging.dal.sqlite.DatabaseHelper;
+import org.infobip.mobile.messaging.dal.sqlite.OutboxQueue;
 import org.infobip.mobile.messaging.dal.sqlite.SqliteDatabaseProvider;
 import org.infobip.mobile.messaging.geo.Area;
 import org.infobip.mobile.messaging.geo.Geo;
@@ -108,6 +109,7 @@ public abstract class MobileMessagingTestCase extends MobileMessagingBaseTestCas
         super.setUp();
 
         PreferenceHelper.getDefaultMMSharedPreferences(context).edit().clear().commit();
+        PreferenceHelper.invalidateCache();
 
         PreferenceHelper.saveString(context, MobileMessagingProperty.API_URI, "http://127.0.0.1:" + debugServer.getListeningPort() + "/");
         PreferenceHelper.saveString(context, MobileMessagingProperty.APPLICATION_CODE, "TestApplicationCode");
@@ -132,7 +134,7 @@ public abstract class MobileMessagingTestCase extends MobileMessagingBaseTestCas
         geofencingHelper = new GeofencingHelper(context);
 
         geoBroadcaster = mock(GeoBroadcaster.class);
-        geofencingHelper.removeUnreportedGeoEvents();
+        MobileMessagingCore.getOutbox(context).clear(OutboxQueue.GEO_EVENTS);
 
         databaseHelper = MobileMessagingCore.getDatabaseHelper(context);
         databaseProvider = MobileMessagingCore.getDatabaseProvider(context);
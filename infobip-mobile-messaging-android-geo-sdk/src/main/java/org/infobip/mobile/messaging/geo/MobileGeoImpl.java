@@ -5,6 +5,7 @@ import android.content.Context;
 import org.infobip.mobile.messaging.Message;
 import org.infobip.mobile.messaging.MessageHandlerModule;
 import org.infobip.mobile.messaging.MobileMessagingCore;
+import org.infobip.mobile.messaging.dal.sqlite.OutboxQueue;
 import org.infobip.mobile.messaging.geo.geofencing.Geofencing;
 import org.infobip.mobile.messaging.geo.geofencing.GeofencingHelper;
 import org.infobip.mobile.messaging.geo.push.PushMessageHandler;
@@ -75,6 +76,7 @@ public class MobileGeoImpl extends MobileGeo implements MessageHandlerModule {
         PreferenceHelper.remove(context, MobileMessagingGeoProperty.SUSPENDED_CAMPAIGN_IDS.getKey());
         PreferenceHelper.remove(context, MobileMessagingGeoProperty.GEOFENCING_ACTIVATED.getKey());
         PreferenceHelper.remove(context, MobileMessagingGeoProperty.UNREPORTED_GEO_EVENTS.getKey());
+        MobileMessagingCore.getOutbox(context).clear(OutboxQueue.GEO_EVENTS);
     }
 
     @Override
@@ -85,6 +87,7 @@ public class MobileGeoImpl extends MobileGeo implements MessageHandlerModule {
         PreferenceHelper.remove(context, MobileMessagingGeoProperty.FINISHED_CAMPAIGN_IDS.getKey());
         PreferenceHelper.remove(context, MobileMessagingGeoProperty.SUSPENDED_CAMPAIGN_IDS.getKey());
         PreferenceHelper.remove(context, MobileMessagingGeoProperty.UNREPORTED_GEO_EVENTS.getKey());
+        MobileMessagingCore.getOutbox(context).clear(OutboxQueue.GEO_EVENTS);
     }
 
     @Override
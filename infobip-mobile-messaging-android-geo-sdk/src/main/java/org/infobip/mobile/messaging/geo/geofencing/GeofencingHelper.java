@@ -12,13 +12,16 @@ import android.support.v4.util.ArraySet;
 import org.infobip.mobile.messaging.MobileMessagingCore;
 import org.infobip.mobile.messaging.MobileMessagingProperty;
 import org.infobip.mobile.messaging.api.support.http.serialization.JsonSerializer;
+import org.infobip.mobile.messaging.dal.sqlite.Outbox;
+import org.infobip.mobile.messaging.dal.sqlite.OutboxQueue;
 import org.infobip.mobile.messaging.geo.MobileMessagingGeoProperty;
 import org.infobip.mobile.messaging.geo.report.GeoReport;
 import org.infobip.mobile.messaging.geo.storage.GeoSQLiteMessageStore;
 import org.infobip.mobile.messaging.storage.MessageStore;
 import org.infobip.mobile.messaging.util.PreferenceHelper;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 public class GeofencingHelper {
@@ -39,35 +42,68 @@ public class GeofencingHelper {
         return internalStoreForGeo;
     }
 
-    public GeoReport[] removeUnreportedGeoEvents() {
-        return PreferenceHelper.runTransaction(new PreferenceHelper.Transaction<GeoReport[]>() {
-            @Override
-            public GeoReport[] run() {
-                String[] unreportedGeoEventsJsons = PreferenceHelper.findStringArray(context, MobileMessagingGeoProperty.UNREPORTED_GEO_EVENTS.getKey(), new String[0]);
-                Set<GeoReport> reports = new HashSet<>();
-                for (String unreportedGeoEventJson : unreportedGeoEventsJsons) {
-                    try {
-                        GeoReport report = serializer.deserialize(unreportedGeoEventJson, GeoReport.class);
-                        reports.add(report);
-                    } catch (Exception ignored) {
-                    }
-                }
-                PreferenceHelper.remove(context, MobileMessagingGeoProperty.UNREPORTED_GEO_EVENTS.getKey());
-                return reports.toArray(new GeoReport[0]);
+    /**
+     * Takes a batch of unreported geo events from the head of the queue,
+     * use {@link #putBackUnreportedGeoEvents(List)} if they could not be reported
+     * @return queue items in the order events occurred
+     */
+    @NonNull
+    public List<Outbox.Item> takeUnreportedGeoEvents() {
+        migrateUnreportedGeoEvents();
+        return MobileMessagingCore.getOutbox(context).take(OutboxQueue.GEO_EVENTS, OutboxQueue.GEO_EVENTS.getBatchSize());
+    }
+
+    /**
+     * Returns events which failed to be reported back to their original place in the queue
+     * @param items items taken with {@link #takeUnreportedGeoEvents()}
+     */
+    public void putBackUnreportedGeoEvents(List<Outbox.Item> items) {
+        MobileMessagingCore.getOutbox(context).putBack(items);
+    }
+
+    /**
+     * Deserializes geo events of the queue items, items which cannot be deserialized are skipped
+     * @param items items taken with {@link #takeUnreportedGeoEvents()}
+     * @return reports in the same order
+     */
+    @NonNull
+    public GeoReport[] toGeoReports(List<Outbox.Item> items) {
+        List<GeoReport> reports = new ArrayList<>(items.size());
+        for (Outbox.Item item : items) {
+            try {
+                reports.add(serializer.deserialize(item.getPayload(), GeoReport.class));
+            } catch (Exception ignored) {
             }
-        });
+        }
+        return reports.toArray(new GeoReport[0]);
     }
 
     public void addUnreportedGeoEvents(final GeoReport... reports) {
-        PreferenceHelper.runTransaction(new PreferenceHelper.Transaction<Void>() {
+        migrateUnreportedGeoEvents();
+        String[] jsons = new String[reports.length];
+        for (int i = 0; i < reports.length; i++) {
+            jsons[i] = serializer.serialize(reports[i]);
+        }
+        MobileMessagingCore.getOutbox(context).append(OutboxQueue.GEO_EVENTS, jsons);
+    }
+
+    /**
+     * Moves geo events stored by previous SDK versions in shared preferences to the outbox
+     */
+    private void migrateUnreportedGeoEvents() {
+        if (!PreferenceHelper.contains(context, MobileMessagingGeoProperty.UNREPORTED_GEO_EVENTS.getKey())) {
+            return;
+        }
+
+        PreferenceHelper.runTransaction(context, new PreferenceHelper.Transaction<Void>() {
             @Override
             public Void run() {
-                for (GeoReport report : reports) {
-                    PreferenceHelper.appendToStringArray(context, MobileMessagingGeoProperty.UNREPORTED_GEO_EVENTS.getKey(), serializer.serialize(report));
-                }
+                String[] unreportedGeoEventsJsons = PreferenceHelper.findStringArray(context, MobileMessagingGeoProperty.UNREPORTED_GEO_EVENTS.getKey(), new String[0]);
+                MobileMessagingCore.getOutbox(context).append(OutboxQueue.GEO_EVENTS, unreportedGeoEventsJsons);
+                PreferenceHelper.remove(context, MobileMessagingGeoProperty.UNREPORTED_GEO_EVENTS.getKey());
                 return null;
             }
-        });
+        }, MobileMessagingGeoProperty.UNREPORTED_GEO_EVENTS.getKey());
     }
 
     public void removeExpiredAreas() {
@@ -83,7 +119,7 @@ public class GeofencingHelper {
     }
 
     public static void addCampaignStatus(final Context context, final Set<String> finishedCampaignIds, final Set<String> suspendedCampaignIds) {
-        PreferenceHelper.runTransaction(new PreferenceHelper.Transaction<Void>() {
+        PreferenceHelper.runTransaction(context, new PreferenceHelper.Transaction<Void>() {
             @Override
             public Void run() {
                 PreferenceHelper.saveStringSet(context, MobileMessagingGeoProperty.FINISHED_CAMPAIGN_IDS.getKey(),
@@ -92,7 +128,7 @@ public class GeofencingHelper {
                         suspendedCampaignIds != null ? suspendedCampaignIds : new ArraySet<String>());
                 return null;
             }
-        });
+        }, MobileMessagingGeoProperty.FINISHED_CAMPAIGN_IDS.getKey(), MobileMessagingGeoProperty.SUSPENDED_CAMPAIGN_IDS.getKey());
     }
 
     public void handleBootCompleted() {
@@ -28,6 +28,7 @@ import org.infobip.mobile.messaging.ConfigurationException;
 import org.infobip.mobile.messaging.ConfigurationException.Reason;
 import org.infobip.mobile.messaging.Message;
 import org.infobip.mobile.messaging.cloud.PlayServicesSupport;
+import org.infobip.mobile.messaging.dal.sqlite.DatabaseCursor;
 import org.infobip.mobile.messaging.geo.Area;
 import org.infobip.mobile.messaging.geo.BootReceiver;
 import org.infobip.mobile.messaging.geo.Geo;
@@ -36,10 +37,12 @@ import org.infobip.mobile.messaging.geo.GeofencingConsistencyIntentService;
 import org.infobip.mobile.messaging.geo.GeofencingConsistencyReceiver;
 import org.infobip.mobile.messaging.geo.mapper.GeoDataMapper;
 import org.infobip.mobile.messaging.geo.storage.GeoSQLiteMessageStore;
+import org.infobip.mobile.messaging.geo.storage.SQLiteGeoMessage;
 import org.infobip.mobile.messaging.geo.transition.GeofenceTransitionsIntentService;
 import org.infobip.mobile.messaging.geo.transition.GeofenceTransitionsReceiver;
 import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 import org.infobip.mobile.messaging.platform.Time;
+import org.infobip.mobile.messaging.storage.MessageQuery;
 import org.infobip.mobile.messaging.storage.MessageStore;
 import org.infobip.mobile.messaging.util.ComponentUtil;
 
@@ -112,32 +115,40 @@ public class GeofencingImpl extends Geofencing implements GoogleApiClient.Connec
 
     void removeExpiredAreasFromStorage() {
         GeoSQLiteMessageStore messageStoreForGeo = (GeoSQLiteMessageStore) geofencingHelper.getMessageStoreForGeo();
-        List<Message> messages = messageStoreForGeo.findAll(context);
-        List<String> messageIdsToDelete = new ArrayList<>(messages.size());
+        DatabaseCursor<SQLiteGeoMessage> messages = messageStoreForGeo.iterate(context, new MessageQuery.Builder().build());
+        List<String> messageIdsToDelete = new ArrayList<>();
         Date now = Time.date();
 
-        for (Message message : messages) {
-            Geo geo = GeoDataMapper.geoFromInternalData(message.getInternalData());
-            if (geo == null) {
-                continue;
-            }
+        try {
+            for (Message message : messages) {
+                if (message == null) {
+                    continue;
+                }
 
-            List<Area> areasList = geo.getAreasList();
-            Date expiryDate = geo.getExpiryDate();
+                Geo geo = GeoDataMapper.geoFromInternalData(message.getInternalData());
+                if (geo == null) {
+                    continue;
+                }
 
-            if (areasList == null || areasList.isEmpty()) {
-                continue;
-            }
+                List<Area> areasList = geo.getAreasList();
+                Date expiryDate = geo.getExpiryDate();
 
-            for (Area area : areasList) {
-                if (!area.isValid() || expiryDate == null) {
+                if (areasList == null || areasList.isEmpty()) {
                     continue;
                 }
 
-                if (expiryDate.before(now)) {
-                    messageIdsToDelete.add(message.getMessageId());
+                for (Area area : areasList) {
+                    if (!area.isValid() || expiryDate == null) {
+                        continue;
+                    }
+
+                    if (expiryDate.before(now)) {
+                        messageIdsToDelete.add(message.getMessageId());
+                    }
                 }
             }
+        } finally {
+            messages.close();
         }
 
         if (!messageIdsToDelete.isEmpty()) {
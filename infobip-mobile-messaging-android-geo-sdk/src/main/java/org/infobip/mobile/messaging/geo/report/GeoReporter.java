@@ -12,6 +12,7 @@ import org.infobip.mobile.messaging.api.geo.EventType;
 import org.infobip.mobile.messaging.api.geo.MessagePayload;
 import org.infobip.mobile.messaging.api.geo.MobileApiGeo;
 import org.infobip.mobile.messaging.dal.json.InternalDataMapper;
+import org.infobip.mobile.messaging.dal.sqlite.Outbox;
 import org.infobip.mobile.messaging.geo.geofencing.GeofencingHelper;
 import org.infobip.mobile.messaging.geo.platform.GeoBroadcaster;
 import org.infobip.mobile.messaging.geo.transition.GeoAreasHandler;
@@ -57,7 +58,8 @@ public class GeoReporter {
     }
 
     public void synchronize() {
-        final GeoReport[] reports = geofenceHelper.removeUnreportedGeoEvents();
+        final List<Outbox.Item> items = geofenceHelper.takeUnreportedGeoEvents();
+        final GeoReport[] reports = geofenceHelper.toGeoReports(items);
         if (reports.length == 0 || !mobileMessagingCore.isPushRegistrationEnabled()) {
             return;
         }
@@ -77,7 +79,7 @@ public class GeoReporter {
             @Override
             public void error(Throwable error) {
                 MobileMessagingLogger.e("Error reporting geo areas!", error);
-                handleError(context, error, reports);
+                handleError(context, error, items);
                 GeoAreasHandler.handleGeoReportingResult(context, new GeoReportingResult(error));
             }
         }
@@ -116,15 +118,15 @@ public class GeoReporter {
     /**
      * Handles any error that happens during reporting to the server.
      *
-     * @param error      error that happens
-     * @param geoReports reports sent to server
+     * @param error error that happens
+     * @param items queue items of reports sent to server
      */
-    private void handleError(Context context, Throwable error, GeoReport[] geoReports) {
+    private void handleError(Context context, Throwable error, List<Outbox.Item> items) {
         MobileMessagingLogger.e("Error reporting geo areas: " + error);
         MobileMessagingCore.getInstance(context).setLastHttpException(error);
         stats.reportError(MobileMessagingStatsError.GEO_REPORTING_ERROR);
 
-        geofenceHelper.addUnreportedGeoEvents(geoReports);
+        geofenceHelper.putBackUnreportedGeoEvents(items);
         broadcaster.error(MobileMessagingError.createFrom(error));
     }
 
@@ -1,11 +1,14 @@
 package org.infobip.mobile.messaging.geo.storage;
 
+import android.content.ContentValues;
 import android.content.Context;
 
 import org.infobip.mobile.messaging.Message;
 import org.infobip.mobile.messaging.MobileMessagingCore;
-import org.infobip.mobile.messaging.dal.sqlite.DatabaseHelper;
-import org.infobip.mobile.messaging.storage.MessageStore;
+import org.infobip.mobile.messaging.dal.sqlite.DatabaseContract.MessageColumns;
+import org.infobip.mobile.messaging.dal.sqlite.DatabaseCursor;
+import org.infobip.mobile.messaging.storage.MessageQuery;
+import org.infobip.mobile.messaging.storage.SeenStatusAwareMessageStore;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -15,19 +18,51 @@ import java.util.List;
  * @since 13/02/2017.
  */
 
-public class GeoSQLiteMessageStore implements MessageStore {
+public class GeoSQLiteMessageStore implements SeenStatusAwareMessageStore {
 
     public void save(Context context, Message... messages) {
-        DatabaseHelper helper = MobileMessagingCore.getDatabaseHelper(context);
+        List<SQLiteGeoMessage> sqliteMessages = new ArrayList<>(messages.length);
         for (Message message : messages) {
-            helper.save(new SQLiteGeoMessage(message));
+            sqliteMessages.add(new SQLiteGeoMessage(message));
         }
+        MobileMessagingCore.getDatabaseHelper(context).saveAll(sqliteMessages);
+    }
+
+    public void markSeen(Context context, long seenTimestamp, String... messageIds) {
+        ContentValues values = new ContentValues();
+        values.put(MessageColumns.SEEN_TIMESTAMP, seenTimestamp);
+        MobileMessagingCore.getDatabaseHelper(context).update(SQLiteGeoMessage.class, values, messageIds);
     }
 
     public List<Message> findAll(Context context) {
         return new ArrayList<Message>(MobileMessagingCore.getDatabaseHelper(context).findAll(SQLiteGeoMessage.class));
     }
 
+    /**
+     * Finds a page of stored messages, newest messages first
+     *
+     * @param context current context
+     * @param query   query describing the page
+     * @return messages matching the query
+     */
+    public List<Message> find(Context context, MessageQuery query) {
+        return new ArrayList<Message>(MobileMessagingCore.getDatabaseHelper(context).findAll(SQLiteGeoMessage.class,
+                query.getSelection(), query.getSelectionArgs(), MessageQuery.ORDER_BY, query.getLimit(), query.getOffset()));
+    }
+
+    /**
+     * Iterates over stored messages, newest messages first, mapping each message only when it is reached.
+     * Limit and offset of the query are ignored.
+     *
+     * @param context current context
+     * @param query   query to filter messages with
+     * @return lazy cursor over messages, has to be closed if not iterated until the end
+     */
+    public DatabaseCursor<SQLiteGeoMessage> iterate(Context context, MessageQuery query) {
+        return MobileMessagingCore.getDatabaseHelper(context).iterate(SQLiteGeoMessage.class,
+                query.getSelection(), query.getSelectionArgs(), MessageQuery.ORDER_BY);
+    }
+
     public Message findById(Context context, String messageId) {
         return MobileMessagingCore.getDatabaseHelper(context).find(SQLiteGeoMessage.class, messageId);
     }
@@ -14,6 +14,11 @@ public class SQLiteGeoMessage extends SqliteMessage {
         super(m);
     }
 
+    @Override
+    protected SqliteMessage newInstance() {
+        return new SQLiteGeoMessage();
+    }
+
     @Override
     public String getTableName() {
         return DatabaseContract.Tables.GEO_MESSAGES;
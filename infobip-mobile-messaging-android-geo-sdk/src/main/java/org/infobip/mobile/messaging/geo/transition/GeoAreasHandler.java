@@ -8,6 +8,7 @@ import android.support.annotation.VisibleForTesting;
 import org.infobip.mobile.messaging.Message;
 import org.infobip.mobile.messaging.MessageHandlerModule;
 import org.infobip.mobile.messaging.MobileMessagingCore;
+import org.infobip.mobile.messaging.dal.sqlite.Outbox;
 import org.infobip.mobile.messaging.geo.Area;
 import org.infobip.mobile.messaging.geo.GeoEventType;
 import org.infobip.mobile.messaging.geo.MobileGeoImpl;
@@ -17,6 +18,7 @@ import org.infobip.mobile.messaging.geo.report.GeoReport;
 import org.infobip.mobile.messaging.geo.report.GeoReportHelper;
 import org.infobip.mobile.messaging.geo.report.GeoReporter;
 import org.infobip.mobile.messaging.geo.report.GeoReportingResult;
+import org.infobip.mobile.messaging.logging.Level;
 import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 import org.infobip.mobile.messaging.mobile.MobileApiResourceProvider;
 import org.infobip.mobile.messaging.platform.AndroidBroadcaster;
@@ -100,7 +102,8 @@ public class GeoAreasHandler {
         logGeofences(messagesAndAreas.values(), transition.getEventType());
 
         geofencingHelper.addUnreportedGeoEvents(GeoReportHelper.createReportsForMultipleMessages(context, messagesAndAreas, transition.getEventType(), transition.getTriggeringLocation()));
-        GeoReport[] unreportedEvents = geofencingHelper.removeUnreportedGeoEvents();
+        List<Outbox.Item> items = geofencingHelper.takeUnreportedGeoEvents();
+        GeoReport[] unreportedEvents = geofencingHelper.toGeoReports(items);
         if (unreportedEvents.length == 0) {
             MobileMessagingLogger.d(TAG, "No geofencing events to report at current time");
             return;
@@ -111,6 +114,7 @@ public class GeoAreasHandler {
             handleReportingResultWithNewMessagesAndNotifications(unreportedEvents, result);
         } catch (Exception e) {
             MobileMessagingLogger.e(TAG, "Failed to report geo events " + e.toString());
+            geofencingHelper.putBackUnreportedGeoEvents(items);
             handleGeoReportingResult(context, new GeoReportingResult(e));
         }
     }
@@ -214,6 +218,10 @@ public class GeoAreasHandler {
      * @param event      transition event type
      */
     private static void logGeofences(Collection<List<Area>> collection, @NonNull GeoEventType event) {
+        if (!MobileMessagingLogger.isLoggable(Level.VERBOSE)) {
+            return;
+        }
+
         for (List<Area> areas : collection) {
             for (Area a : areas) {
                 MobileMessagingLogger.v(TAG, event.name().toUpperCase() + " (" + a.getTitle() + ") LAT:" + a.getLatitude() + " LON:" + a.getLongitude() + " RAD:" + a.getRadius());
@@ -5,6 +5,11 @@ import org.infobip.mobile.messaging.tools.MobileMessagingTestCase;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
 /**
  * @author sslavin
  * @since 07/07/16.
@@ -54,4 +59,35 @@ public class BatchReporterTest extends MobileMessagingTestCase {
         Mockito.verify(runnable, Mockito.times(1)).run();
         Mockito.verify(runnable, Mockito.after(200).times(2)).run();
     }
+
+    @Test
+    public void test_flushRightAwayWhenBatchIsFull() throws Exception {
+
+        batchReporter = new BatchReporter(TimeUnit.HOURS.toMillis(1), 3);
+        batchReporter.put(runnable);
+        batchReporter.put(runnable);
+        batchReporter.put(runnable);
+        assertEquals(2, batchReporter.getQueueDepth());
+
+        batchReporter.put(3, runnable);
+
+        Mockito.verify(runnable, Mockito.times(2)).run();
+        assertEquals(0, batchReporter.getQueueDepth());
+    }
+
+    @Test
+    public void test_flushPendingItemsOnDemand() throws Exception {
+
+        batchReporter = new BatchReporter(TimeUnit.HOURS.toMillis(1));
+        batchReporter.put(runnable);
+        batchReporter.put(runnable);
+        batchReporter.put(runnable);
+        Thread.sleep(50);
+
+        batchReporter.flush();
+        batchReporter.flush();
+
+        Mockito.verify(runnable, Mockito.times(2)).run();
+        assertTrue(batchReporter.getLastFlushLatency() >= 50);
+    }
 }
@@ -2,16 +2,20 @@ package org.infobip.mobile.messaging.dal.sqlite;
 
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
 
 import org.infobip.mobile.messaging.tools.MobileMessagingTestCase;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.fail;
 import static org.junit.Assert.assertNotEquals;
 
 /**
@@ -160,4 +164,62 @@ public class DatabaseHelperTest extends MobileMessagingTestCase {
 
         assertEquals(100, databaseHelper.countAll(SomethingInDatabase.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void test_shouldSaveAllObjectsAndReplaceOnConflict() {
+        database.insert(SomethingInDatabase.getTable(), null, new SomethingInDatabase("Something1", 1, 2).getContentValues());
+
+        databaseHelper.saveAll(Arrays.asList(
+                new SomethingInDatabase("Something1", 3, 4),
+                new SomethingInDatabase("Something2", 5, 6)));
+
+        assertEquals(2, databaseHelper.countAll(SomethingInDatabase.class));
+        SomethingInDatabase something1 = databaseHelper.find(SomethingInDatabase.class, "Something1");
+        assertEquals(3, something1.longValue);
+        assertEquals(4, something1.doubleValue, 0.001);
+        SomethingInDatabase something2 = databaseHelper.find(SomethingInDatabase.class, "Something2");
+        assertEquals(5, something2.longValue);
+        assertEquals(6, something2.doubleValue, 0.001);
+    }
+
+    @Test
+    public void test_shouldNotInsertAnyObjectsOnPrimaryKeyViolation() {
+        database.insert(SomethingInDatabase.getTable(), null, new SomethingInDatabase("Something2", 1, 2).getContentValues());
+
+        try {
+            databaseHelper.insertAll(Arrays.asList(
+                    new SomethingInDatabase("Something1", 3, 4),
+                    new SomethingInDatabase("Something2", 5, 6)));
+            fail();
+        } catch (PrimaryKeyViolationException ignored) {
+        }
+
+        assertEquals(1, databaseHelper.countAll(SomethingInDatabase.class));
+        assertNull(databaseHelper.find(SomethingInDatabase.class, "Something1"));
+    }
+
+    @Test
+    public void test_shouldSaveThousandObjectsInBatch() {
+        int numOfSomethings = 1000;
+        List<SomethingInDatabase> somethings = new ArrayList<>(numOfSomethings);
+        for (int i = 0; i < numOfSomethings; i++) {
+            somethings.add(new SomethingInDatabase("Something" + i, i, i + 0.5));
+        }
+
+        long start = System.nanoTime();
+        for (SomethingInDatabase something : somethings) {
+            databaseHelper.save(something);
+        }
+        long oneByOneMillis = (System.nanoTime() - start) / 1000000;
+
+        databaseHelper.deleteAll(SomethingInDatabase.class);
+
+        start = System.nanoTime();
+        databaseHelper.saveAll(somethings);
+        long batchMillis = (System.nanoTime() - start) / 1000000;
+
+        Log.i("DatabaseHelperTest", "Saved " + numOfSomethings + " objects one by one in " + oneByOneMillis + "ms, in batch in " + batchMillis + "ms");
+        assertEquals(numOfSomethings, databaseHelper.countAll(SomethingInDatabase.class));
+        assertEquals(999, databaseHelper.find(SomethingInDatabase.class, "Something999").longValue);
+    }
+}
@@ -0,0 +1,126 @@
+package org.infobip.mobile.messaging.dal.sqlite;
+
+import org.infobip.mobile.messaging.tools.MobileMessagingTestCase;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.Assert.assertEquals;
+import static org.junit.Assert.assertArrayEquals;
+
+public class OutboxTest extends MobileMessagingTestCase {
+
+    private Outbox outbox;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+
+        outbox = new Outbox(databaseProvider);
+        outbox.clear(OutboxQueue.values());
+    }
+
+    @Test
+    public void test_shouldReturnItemsInOrderOfAppending() {
+        outbox.append(OutboxQueue.DELIVERY_REPORTS, "id1", "id2");
+        outbox.append(OutboxQueue.DELIVERY_REPORTS, "id3");
+        outbox.append(OutboxQueue.SEEN_REPORTS, "seen1");
+
+        assertArrayEquals(new String[]{"id1", "id2", "id3"}, Outbox.payloads(outbox.peek(OutboxQueue.DELIVERY_REPORTS, 0)));
+        assertArrayEquals(new String[]{"id1", "id2"}, Outbox.payloads(outbox.peek(OutboxQueue.DELIVERY_REPORTS, 2)));
+        assertArrayEquals(new String[]{"seen1"}, Outbox.payloads(outbox.peek(OutboxQueue.SEEN_REPORTS, 0)));
+    }
+
+    @Test
+    public void test_shouldNotTakeItemsInFlightAgain() {
+        outbox.append(OutboxQueue.DELIVERY_REPORTS, "id1", "id2", "id3");
+
+        List<Outbox.Item> items = outbox.take(OutboxQueue.DELIVERY_REPORTS, 2);
+
+        assertArrayEquals(new String[]{"id1", "id2"}, Outbox.payloads(items));
+        assertArrayEquals(new String[]{"id3"}, Outbox.payloads(outbox.take(OutboxQueue.DELIVERY_REPORTS, 0)));
+        assertArrayEquals(new String[]{"id1", "id2", "id3"}, Outbox.payloads(outbox.peek(OutboxQueue.DELIVERY_REPORTS, 0)));
+    }
+
+    @Test
+    public void test_shouldKeepTakenItems_untilRemoved() {
+        outbox.append(OutboxQueue.MO_MESSAGES, "message1", "message2");
+        List<Outbox.Item> items = outbox.take(OutboxQueue.MO_MESSAGES, 1);
+
+        // process died before the items were reported
+        Outbox restarted = new Outbox(databaseProvider);
+        assertArrayEquals(new String[]{"message1", "message2"}, Outbox.payloads(restarted.take(OutboxQueue.MO_MESSAGES, 0)));
+
+        outbox.remove(items);
+        assertArrayEquals(new String[]{"message2"}, Outbox.payloads(outbox.peek(OutboxQueue.MO_MESSAGES, 0)));
+    }
+
+    @Test
+    public void test_shouldRemoveTakenItemsOnly_whenPayloadsAreEqual() {
+        outbox.append(OutboxQueue.SEEN_REPORTS, "id1, 1000", "id1, 1000");
+
+        outbox.remove(outbox.take(OutboxQueue.SEEN_REPORTS, 1));
+
+        assertEquals(1, outbox.count(OutboxQueue.SEEN_REPORTS));
+    }
+
+    @Test
+    public void test_shouldTakeReleasedItemsAgain_withoutCountingAttempt() {
+        outbox.append(OutboxQueue.DELIVERY_REPORTS, "id1");
+
+        outbox.release(outbox.take(OutboxQueue.DELIVERY_REPORTS, 0));
+
+        List<Outbox.Item> items = outbox.take(OutboxQueue.DELIVERY_REPORTS, 0);
+        assertArrayEquals(new String[]{"id1"}, Outbox.payloads(items));
+        assertEquals(0, items.get(0).getAttempts());
+    }
+
+    @Test
+    public void test_shouldPutBackItemsToTheHeadOfQueue() {
+        outbox.append(OutboxQueue.DELIVERY_REPORTS, "id1", "id2");
+        List<Outbox.Item> items = outbox.take(OutboxQueue.DELIVERY_REPORTS, 1);
+        outbox.append(OutboxQueue.DELIVERY_REPORTS, "id3");
+
+        outbox.putBack(items);
+
+        List<Outbox.Item> stored = outbox.peek(OutboxQueue.DELIVERY_REPORTS, 0);
+        assertArrayEquals(new String[]{"id1", "id2", "id3"}, Outbox.payloads(stored));
+        assertEquals(1, stored.get(0).getAttempts());
+    }
+
+    @Test
+    public void test_shouldDropItemsWhichFailedTooManyTimes() {
+        outbox.append(OutboxQueue.SEEN_REPORTS, "id1");
+
+        for (int i = 0; i < OutboxQueue.SEEN_REPORTS.getMaxAttempts(); i++) {
+            outbox.markFailed(outbox.peek(OutboxQueue.SEEN_REPORTS, 0));
+        }
+
+        assertEquals(0, outbox.count(OutboxQueue.SEEN_REPORTS));
+    }
+
+    @Test
+    public void test_shouldDropOldestItemsWhenQueueIsFull() {
+        int maxSize = OutboxQueue.MO_MESSAGES.getMaxSize();
+        String[] payloads = new String[maxSize + 10];
+        for (int i = 0; i < payloads.length; i++) {
+            payloads[i] = "message" + i;
+        }
+
+        outbox.append(OutboxQueue.MO_MESSAGES, payloads);
+
+        List<Outbox.Item> items = outbox.peek(OutboxQueue.MO_MESSAGES, 0);
+        assertEquals(maxSize, items.size());
+        assertEquals("message10", items.get(0).getPayload());
+    }
+
+    @Test
+    public void test_shouldDropExpiredItems() {
+        outbox.append(OutboxQueue.CUSTOM_EVENTS, "event1");
+        time.forward(OutboxQueue.CUSTOM_EVENTS.getMaxAgeMillis() + 1, TimeUnit.MILLISECONDS);
+        outbox.append(OutboxQueue.CUSTOM_EVENTS, "event2");
+
+        assertArrayEquals(new String[]{"event2"}, Outbox.payloads(outbox.peek(OutboxQueue.CUSTOM_EVENTS, 0)));
+    }
+}
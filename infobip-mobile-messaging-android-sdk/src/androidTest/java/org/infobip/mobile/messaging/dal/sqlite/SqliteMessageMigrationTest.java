@@ -131,6 +131,35 @@ public class SqliteMessageMigrationTest extends MobileMessagingTestCase {
         cursor.close();
     }
 
+    @Test
+    public void test_shouldAddIndexesDuringMigration() throws Exception {
+        // Create SQLiteOpenHelper directly to perform raw operations on database
+        SQLiteOpenHelper sqLiteOpenHelper = new SQLiteOpenHelper(context, PushDatabaseHelperImpl.DATABASE_NAME, null, PushDatabaseHelperImpl.VER_2017_FEB_14) {
+            @Override
+            public void onCreate(SQLiteDatabase db) {
+                db.execSQL(SQL_CREATE_OLD_MESSAGES_TABLE);
+                db.execSQL(SQL_CREATE_GEO_MESSAGES_TABLE);
+            }
+
+            @Override
+            public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+
+            }
+        };
+
+        SQLiteDatabase db = sqLiteOpenHelper.getWritableDatabase();
+        db.close();
+        sqLiteOpenHelper.close();
+
+        // Check that indexes exist for both tables
+        SQLiteDatabase database = databaseProvider.getDatabase();
+        for (String table : new String[]{DatabaseContract.Tables.MESSAGES, DatabaseContract.Tables.GEO_MESSAGES}) {
+            Cursor cursor = database.rawQuery("SELECT * FROM sqlite_master WHERE tbl_name ='" + table + "' and type='index' and name LIKE '%_idx'", null);
+            assertEquals(4, cursor.getCount());
+            cursor.close();
+        }
+    }
+
     @Test
     public void test_shouldAddSendDateTimeToInternalData() throws Exception {
         // Create SQLiteOpenHelper directly to perform raw operations on database
@@ -90,4 +90,20 @@ public class SqliteMessageTest extends MobileMessagingTestCase {
         } catch (SQLiteConstraintException ignored) {
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void test_message_shouldKeepCustomPayloadWhenResavedWithoutAccessingIt() throws Exception {
+        Message message = new Message();
+        message.setMessageId("SomeMessageId");
+        message.setCustomPayload(new JSONObject("{'key':'value'}"));
+        databaseHelper.save(new SqliteMessage(message));
+
+        SqliteMessage loaded = databaseHelper.find(SqliteMessage.class, "SomeMessageId");
+        loaded.setTitle("SomeTitle");
+        databaseHelper.save(loaded);
+
+        SqliteMessage reloaded = databaseHelper.find(SqliteMessage.class, "SomeMessageId");
+        assertEquals("SomeTitle", reloaded.getTitle());
+        JSONAssert.assertEquals("{'key':'value'}", reloaded.getCustomPayload(), true);
+    }
+}
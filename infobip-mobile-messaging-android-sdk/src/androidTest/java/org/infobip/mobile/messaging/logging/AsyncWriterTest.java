@@ -0,0 +1,101 @@
+package org.infobip.mobile.messaging.logging;
+
+import android.support.annotation.Nullable;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class AsyncWriterTest {
+
+    private final List<String> written = Collections.synchronizedList(new ArrayList<String>());
+
+    @Test
+    public void test_shouldWriteMessagesInOrder() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(3);
+        AsyncWriter asyncWriter = new AsyncWriter(new Writer() {
+            @Override
+            public void write(Level level, String tag, String message, @Nullable Throwable throwable) {
+                written.add(message);
+                latch.countDown();
+            }
+        });
+
+        asyncWriter.write(Level.DEBUG, "tag", "first", null);
+        asyncWriter.write(Level.DEBUG, "tag", "second", null);
+        asyncWriter.write(Level.DEBUG, "tag", "third", null);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals("first", written.get(0));
+        assertEquals("second", written.get(1));
+        assertEquals("third", written.get(2));
+    }
+
+    @Test
+    public void test_shouldDropMessages_whenQueueIsFull() throws Exception {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(3);
+        AsyncWriter asyncWriter = new AsyncWriter(new Writer() {
+            @Override
+            public void write(Level level, String tag, String message, @Nullable Throwable throwable) {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                }
+                written.add(message);
+                done.countDown();
+            }
+        }, 1);
+
+        asyncWriter.write(Level.DEBUG, "tag", "first", null);
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        asyncWriter.write(Level.DEBUG, "tag", "second", null);
+        asyncWriter.write(Level.DEBUG, "tag", "third", null);
+        release.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals("first", written.get(0));
+        assertEquals("Dropped 1 log messages", written.get(1));
+        assertEquals("second", written.get(2));
+    }
+
+    @Test
+    public void test_shouldWriteErrorsDirectly_whenQueueIsFull() throws Exception {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        AsyncWriter asyncWriter = new AsyncWriter(new Writer() {
+            @Override
+            public void write(Level level, String tag, String message, @Nullable Throwable throwable) {
+                if (level != Level.ERROR) {
+                    blocked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException ignored) {
+                    }
+                }
+                written.add(message);
+            }
+        }, 1);
+
+        asyncWriter.write(Level.DEBUG, "tag", "first", null);
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        asyncWriter.write(Level.DEBUG, "tag", "second", null);
+        asyncWriter.write(Level.ERROR, "tag", "error", null);
+
+        assertEquals(1, written.size());
+        assertEquals("error", written.get(0));
+        release.countDown();
+    }
+}
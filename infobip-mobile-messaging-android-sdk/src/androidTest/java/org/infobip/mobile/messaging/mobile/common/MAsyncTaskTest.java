@@ -9,12 +9,15 @@ import org.infobip.mobile.messaging.mobile.common.exceptions.BackendBaseExceptio
 import org.infobip.mobile.messaging.mobile.common.exceptions.BackendCommunicationExceptionWithContent;
 import org.infobip.mobile.messaging.mobile.common.exceptions.BackendInvalidParameterException;
 import org.infobip.mobile.messaging.mobile.common.exceptions.BackendInvalidParameterExceptionWithContent;
+import org.infobip.mobile.messaging.platform.TaskExecutors;
 import org.infobip.mobile.messaging.tools.MobileMessagingTestCase;
 import org.junit.Test;
 import org.mockito.ArgumentMatcher;
 import org.mockito.Mockito;
 
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.argThat;
@@ -113,6 +116,33 @@ public class MAsyncTaskTest extends MobileMessagingTestCase {
         Mockito.verify(tester, Mockito.never()).error(any(Throwable.class));
     }
 
+    @Test
+    public void shouldNotRunCancelledTask() {
+
+        // Given
+        ExecutorService singleThreadExecutor = TaskExecutors.newSerialExecutor("test");
+        final CountDownLatch latch = new CountDownLatch(1);
+        singleThreadExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    latch.await();
+                } catch (InterruptedException ignored) {
+                }
+            }
+        });
+
+        // When
+        asyncTask.execute(singleThreadExecutor);
+        asyncTask.cancel();
+        latch.countDown();
+
+        // Then
+        Mockito.verify(tester, Mockito.after(100).times(1)).cancelled(any(Object[].class));
+        Mockito.verify(tester, Mockito.never()).run(any(Object[].class));
+        Mockito.verify(tester, Mockito.never()).after(any());
+    }
+
     @Test
     public void shouldExecuteErrorCallbackOnException() {
 
@@ -32,7 +32,6 @@ import java.util.TimeZone;
 import java.util.concurrent.Executor;
 
 import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNull;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyString;
@@ -102,10 +101,10 @@ public class UserEventsSynchronizerTest extends MobileMessagingTestCase {
 
         userEventsSynchronizer.reportCustomEvent(customEvent, eventResultListener);
 
-        assertNull(PreferenceHelper.findStringArray(context, MobileMessagingProperty.USER_CUSTOM_EVENTS));
+        assertEquals(0, mobileMessagingCore.getUnreportedUserCustomEvents().length);
         verify(mobileApiAppInstance, times(1)).sendUserCustomEvents(anyString(), eq(true), customEventCaptor.capture());
         verifyCustomEventRequestBody(customEvent);
-        assertNull(PreferenceHelper.findStringArray(context, MobileMessagingProperty.USER_CUSTOM_EVENTS));
+        assertEquals(0, mobileMessagingCore.getUnreportedUserCustomEvents().length);
         verify(broadcaster, after(300).times(1)).customEventsReported();
     }
 
@@ -117,25 +116,25 @@ public class UserEventsSynchronizerTest extends MobileMessagingTestCase {
 
         userEventsSynchronizer.reportCustomEvent(customEvent, eventResultListener);
 
-        assertNull(PreferenceHelper.findStringArray(context, MobileMessagingProperty.USER_CUSTOM_EVENTS));
+        assertEquals(0, mobileMessagingCore.getUnreportedUserCustomEvents().length);
         verify(mobileApiAppInstance, times(1)).sendUserCustomEvents(anyString(), eq(true), customEventCaptor.capture());
         verifyCustomEventRequestBody(customEvent);
         verify(broadcaster, after(300).times(1)).error(any(MobileMessagingError.class));
-        assertNull(PreferenceHelper.findStringArray(context, MobileMessagingProperty.USER_CUSTOM_EVENTS));
+        assertEquals(0, mobileMessagingCore.getUnreportedUserCustomEvents().length);
     }
 
     @Test
     public void shouldReportOneCustomEventOnServerAsync() throws Exception {
         CustomEvent customEvent = setupCustomEventWithProperties();
         mobileMessagingCore.addUnreportedUserCustomEvent(customEvent);
-        assertEquals(1, PreferenceHelper.findStringArray(context, MobileMessagingProperty.USER_CUSTOM_EVENTS).length);
+        assertEquals(1, mobileMessagingCore.getUnreportedUserCustomEvents().length);
 
         userEventsSynchronizer.reportCustomEvents();
 
         verify(mobileApiAppInstance, times(1)).sendUserCustomEvents(anyString(), eq(false), customEventCaptor.capture());
         verifyCustomEventRequestBody(customEvent);
         verify(broadcaster, after(300).times(1)).customEventsReported();
-        assertNull(PreferenceHelper.findStringArray(context, MobileMessagingProperty.USER_CUSTOM_EVENTS));
+        assertEquals(0, mobileMessagingCore.getUnreportedUserCustomEvents().length);
     }
 
     @Test
@@ -146,7 +145,7 @@ public class UserEventsSynchronizerTest extends MobileMessagingTestCase {
         customEvent2.setDefinitionId("9876");
         mobileMessagingCore.addUnreportedUserCustomEvent(customEvent);
         mobileMessagingCore.addUnreportedUserCustomEvent(customEvent2);
-        assertEquals(2, PreferenceHelper.findStringArray(context, MobileMessagingProperty.USER_CUSTOM_EVENTS).length);
+        assertEquals(2, mobileMessagingCore.getUnreportedUserCustomEvents().length);
 
         userEventsSynchronizer.reportCustomEvents();
 
@@ -154,7 +153,7 @@ public class UserEventsSynchronizerTest extends MobileMessagingTestCase {
         UserCustomEventBody userCustomEventBody = customEventCaptor.getValue();
         assertEquals(2, userCustomEventBody.getEvents().length);
         verify(broadcaster, after(300).times(1)).customEventsReported();
-        assertNull(PreferenceHelper.findStringArray(context, MobileMessagingProperty.USER_CUSTOM_EVENTS));
+        assertEquals(0, mobileMessagingCore.getUnreportedUserCustomEvents().length);
     }
 
     @NonNull
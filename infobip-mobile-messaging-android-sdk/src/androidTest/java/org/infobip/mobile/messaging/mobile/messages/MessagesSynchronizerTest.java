@@ -2,9 +2,11 @@ package org.infobip.mobile.messaging.mobile.messages;
 
 import org.infobip.mobile.messaging.Message;
 import org.infobip.mobile.messaging.api.messages.MessageResponse;
+import org.infobip.mobile.messaging.api.messages.MobileApiMessagesAsync;
 import org.infobip.mobile.messaging.api.messages.SyncMessagesBody;
 import org.infobip.mobile.messaging.api.messages.SyncMessagesResponse;
 import org.infobip.mobile.messaging.cloud.MobileMessageHandler;
+import org.infobip.mobile.messaging.mobile.ReportAggregator;
 import org.infobip.mobile.messaging.mobile.common.MRetryPolicy;
 import org.infobip.mobile.messaging.mobile.common.RetryPolicyProvider;
 import org.infobip.mobile.messaging.tools.MobileMessagingTestCase;
@@ -15,7 +17,11 @@ import org.mockito.Mockito;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Callable;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 
 import static java.util.Arrays.asList;
 import static junit.framework.Assert.assertEquals;
@@ -27,6 +33,8 @@ import static org.mockito.BDDMockito.given;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.after;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -54,7 +62,7 @@ public class MessagesSynchronizerTest extends MobileMessagingTestCase {
         retryPolicy = new RetryPolicyProvider(context).DEFAULT();
 
         messagesSynchronizer = new MessagesSynchronizer(mobileMessagingCore, mobileMessagingCore.getStats(),
-                Executors.newSingleThreadExecutor(), broadcaster, retryPolicy, mobileMessageHandler, mobileApiMessages);
+                Executors.newSingleThreadExecutor(), broadcaster, retryPolicy, mobileMessageHandler, mobileApiMessages, new ReportAggregator(100L, 100));
     }
 
     @Override
@@ -124,18 +132,35 @@ public class MessagesSynchronizerTest extends MobileMessagingTestCase {
         mobileMessagingCore.setMessagesDelivered("3");
         mobileMessagingCore.setMessagesDelivered("4");
         mobileMessagingCore.setMessagesDelivered("5");
+        mobileMessagingCore.setMessagesDelivered("3", "4");
 
         // Then
         verify(mobileApiMessages, after(3000).times(1)).sync(any(SyncMessagesBody.class));
-        mobileMessagingCore.setMessagesDelivered("3", "4");
-
-        verify(mobileApiMessages, after(3000).times(2)).sync(any(SyncMessagesBody.class));
-        assertEquals(2, syncBodyCaptor.getAllValues().size());
         List<String> reportedDlrs = getReportedDLRs(syncBodyCaptor.getAllValues());
         assertEquals(5, reportedDlrs.size());
         assertTrue(reportedDlrs.containsAll(asList("1", "2", "3", "4", "5")));
     }
 
+    @Test
+    public void should_report_dlr_immediately_when_batch_is_full() {
+        // Given
+        mobileMessagingCore.getAndRemoveUnreportedMessageIds();
+        given(mobileApiMessages.sync(syncBodyCaptor.capture()))
+                .willReturn(new SyncMessagesResponse());
+        messagesSynchronizer = new MessagesSynchronizer(mobileMessagingCore, mobileMessagingCore.getStats(),
+                Executors.newSingleThreadExecutor(), broadcaster, retryPolicy, mobileMessageHandler, mobileApiMessages, new ReportAggregator(TimeUnit.HOURS.toMillis(1), 3));
+
+        // When
+        mobileMessagingCore.addUnreportedMessageIds("1", "2");
+        messagesSynchronizer.reportDelivery(2);
+        mobileMessagingCore.addUnreportedMessageIds("3");
+        messagesSynchronizer.reportDelivery(1);
+
+        // Then
+        verify(mobileApiMessages, timeout(1000).times(1)).sync(any(SyncMessagesBody.class));
+        assertEquals(asList("1", "2", "3"), getReportedDLRs(syncBodyCaptor.getAllValues()));
+    }
+
     @Test
     public void should_deserialize_messages_with_appropriate_vibration_from_fetched_payload() {
 
@@ -176,6 +201,37 @@ public class MessagesSynchronizerTest extends MobileMessagingTestCase {
         assertFalse(actualMessages.get(2).isVibrate());
     }
 
+    @Test
+    public void should_sync_with_async_api_when_available() {
+        // Given
+        MobileApiMessagesAsync mobileApiMessagesAsync = mock(MobileApiMessagesAsync.class);
+        mobileMessagingCore.getAndRemoveUnreportedMessageIds();
+        mobileMessagingCore.addUnreportedMessageIds("1");
+        given(mobileApiMessagesAsync.sync(syncBodyCaptor.capture()))
+                .willReturn(completed(new SyncMessagesResponse()));
+        messagesSynchronizer = new MessagesSynchronizer(mobileMessagingCore, mobileMessagingCore.getStats(),
+                Executors.newSingleThreadExecutor(), broadcaster, retryPolicy, mobileMessageHandler, mobileApiMessages, mobileApiMessagesAsync, new ReportAggregator(100L, 100));
+
+        // When
+        messagesSynchronizer.sync();
+
+        // Then
+        verify(broadcaster, timeout(1000)).deliveryReported("1");
+        verify(mobileApiMessages, never()).sync(any(SyncMessagesBody.class));
+        assertEquals(asList("1"), getReportedDLRs(syncBodyCaptor.getAllValues()));
+    }
+
+    private static <T> Future<T> completed(final T result) {
+        FutureTask<T> future = new FutureTask<>(new Callable<T>() {
+            @Override
+            public T call() {
+                return result;
+            }
+        });
+        future.run();
+        return future;
+    }
+
     private static List<String> getReportedDLRs(List<SyncMessagesBody> bodies) {
         List<String> ids = new ArrayList<>();
         for (SyncMessagesBody body : bodies) {
@@ -4,19 +4,19 @@ import android.support.annotation.NonNull;
 
 import org.infobip.mobile.messaging.Message;
 import org.infobip.mobile.messaging.MobileMessagingCore;
-import org.infobip.mobile.messaging.MobileMessagingProperty;
 import org.infobip.mobile.messaging.api.messages.MoMessage;
 import org.infobip.mobile.messaging.api.messages.MoMessageDelivery;
 import org.infobip.mobile.messaging.api.messages.MoMessagesBody;
 import org.infobip.mobile.messaging.api.messages.MoMessagesResponse;
 import org.infobip.mobile.messaging.api.messages.MobileApiMessages;
 import org.infobip.mobile.messaging.api.support.http.serialization.JsonSerializer;
+import org.infobip.mobile.messaging.dal.sqlite.Outbox;
+import org.infobip.mobile.messaging.dal.sqlite.OutboxQueue;
 import org.infobip.mobile.messaging.mobile.common.MRetryPolicy;
 import org.infobip.mobile.messaging.platform.Time;
 import org.infobip.mobile.messaging.storage.MessageStoreWrapper;
 import org.infobip.mobile.messaging.storage.SQLiteMessageStore;
 import org.infobip.mobile.messaging.tools.MobileMessagingTestCase;
-import org.infobip.mobile.messaging.util.PreferenceHelper;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 
@@ -214,7 +214,7 @@ public class MoMessageSenderTest extends MobileMessagingTestCase {
     }
 
     private Message[] getSavedMessages() {
-        String[] jsons = PreferenceHelper.findStringArray(context, MobileMessagingProperty.UNSENT_MO_MESSAGES);
+        String[] jsons = Outbox.payloads(MobileMessagingCore.getOutbox(context).peek(OutboxQueue.MO_MESSAGES, 0));
         List<Message> messages = new ArrayList<>(jsons.length);
         for (String json : jsons) {
             messages.add(jsonSerializer.deserialize(json, Message.class));
@@ -0,0 +1,79 @@
+package org.infobip.mobile.messaging.mobile.messages;
+
+import org.infobip.mobile.messaging.MobileMessagingProperty;
+import org.infobip.mobile.messaging.tools.MobileMessagingTestCase;
+import org.infobip.mobile.messaging.util.PreferenceHelper;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+import static org.junit.Assert.assertArrayEquals;
+
+public class ProcessedMessageIdsTest extends MobileMessagingTestCase {
+
+    private static final long EXPIRY_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    private ProcessedMessageIds processedMessageIds;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+
+        processedMessageIds = new ProcessedMessageIds(context, 3, EXPIRY_MILLIS);
+    }
+
+    @Test
+    public void test_shouldFindAddedIds() {
+        processedMessageIds.add("id1", null, "id2");
+
+        assertTrue(processedMessageIds.contains("id1"));
+        assertTrue(processedMessageIds.contains("id2"));
+        assertFalse(processedMessageIds.contains("id3"));
+        assertFalse(processedMessageIds.contains(null));
+    }
+
+    @Test
+    public void test_shouldEvictOldestIdsOverLimit() {
+        processedMessageIds.add("id1");
+        time.forward(1, TimeUnit.SECONDS);
+        processedMessageIds.add("id2", "id3");
+        time.forward(1, TimeUnit.SECONDS);
+        processedMessageIds.add("id1", "id4");
+
+        assertArrayEquals(new String[]{"id3", "id1", "id4"}, processedMessageIds.getAll());
+        assertFalse(processedMessageIds.contains("id2"));
+    }
+
+    @Test
+    public void test_shouldExpireIds() {
+        processedMessageIds.add("id1");
+        time.forward(EXPIRY_MILLIS + 1, TimeUnit.MILLISECONDS);
+
+        assertFalse(processedMessageIds.contains("id1"));
+        assertEquals(0, processedMessageIds.getAll().length);
+        assertEquals(0, PreferenceHelper.findStringArray(context, MobileMessagingProperty.INFOBIP_SYNC_MESSAGES_IDS).length);
+    }
+
+    @Test
+    public void test_shouldLoadIdsPersistedByPreviousInstance() {
+        processedMessageIds.add("id1", "id2");
+
+        ProcessedMessageIds reloaded = new ProcessedMessageIds(context, 3, EXPIRY_MILLIS);
+
+        assertTrue(reloaded.contains("id1"));
+        assertTrue(reloaded.contains("id2"));
+    }
+
+    @Test
+    public void test_shouldRemoveAllIdsOnClear() {
+        processedMessageIds.add("id1");
+
+        processedMessageIds.clear();
+
+        assertFalse(processedMessageIds.contains("id1"));
+        assertFalse(PreferenceHelper.contains(context, MobileMessagingProperty.INFOBIP_SYNC_MESSAGES_IDS));
+    }
+}
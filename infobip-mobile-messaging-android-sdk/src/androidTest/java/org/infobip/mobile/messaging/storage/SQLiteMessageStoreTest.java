@@ -0,0 +1,175 @@
+package org.infobip.mobile.messaging.storage;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import org.infobip.mobile.messaging.Message;
+import org.infobip.mobile.messaging.dal.sqlite.DatabaseCursor;
+import org.infobip.mobile.messaging.dal.sqlite.SqliteMessage;
+import org.infobip.mobile.messaging.tools.MobileMessagingTestCase;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+
+public class SQLiteMessageStoreTest extends MobileMessagingTestCase {
+
+    private SQLiteMessageStore sqliteMessageStore;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+
+        sqliteMessageStore = new SQLiteMessageStore();
+        sqliteMessageStore.deleteAll(context);
+        for (int i = 0; i < 10; i++) {
+            Message message = new Message();
+            message.setMessageId("message" + i);
+            message.setReceivedTimestamp(1000L + i * 100L);
+            message.setSeenTimestamp(i % 2 == 0 ? 5000L : 0L);
+            sqliteMessageStore.save(context, message);
+        }
+    }
+
+    @Test
+    public void test_shouldFindPagesUsingKeyset() {
+        List<Message> firstPage = sqliteMessageStore.find(context, new MessageQuery.Builder()
+                .withLimit(4)
+                .build());
+        List<Message> secondPage = sqliteMessageStore.find(context, new MessageQuery.Builder()
+                .withStartAfter(firstPage.get(firstPage.size() - 1))
+                .withLimit(4)
+                .build());
+
+        assertEquals(ids("message9", "message8", "message7", "message6"), ids(firstPage));
+        assertEquals(ids("message5", "message4", "message3", "message2"), ids(secondPage));
+    }
+
+    @Test
+    public void test_shouldFindPagesUsingOffset() {
+        List<Message> page = sqliteMessageStore.find(context, new MessageQuery.Builder()
+                .withLimit(3)
+                .withOffset(8)
+                .build());
+
+        assertEquals(ids("message1", "message0"), ids(page));
+    }
+
+    @Test
+    public void test_shouldFilterBySeenAndTimeRange() {
+        List<Message> unseen = sqliteMessageStore.find(context, new MessageQuery.Builder()
+                .onlyUnseen()
+                .withReceivedFrom(1300L)
+                .withReceivedTo(1700L)
+                .build());
+        List<Message> seen = sqliteMessageStore.find(context, new MessageQuery.Builder()
+                .onlySeen()
+                .withReceivedTo(1300L)
+                .build());
+
+        assertEquals(ids("message5", "message3"), ids(unseen));
+        assertEquals(ids("message2", "message0"), ids(seen));
+    }
+
+    @Test
+    public void test_shouldIterateOverMessagesLazily() {
+        DatabaseCursor<SqliteMessage> cursor = sqliteMessageStore.iterate(context, new MessageQuery.Builder()
+                .onlySeen()
+                .build());
+
+        List<Message> messages = new ArrayList<>();
+        for (Message message : cursor) {
+            messages.add(message);
+        }
+
+        assertEquals(5, cursor.getCount());
+        assertFalse(cursor.hasNext());
+        assertEquals(ids("message8", "message6", "message4", "message2", "message0"), ids(messages));
+    }
+
+    @Test
+    public void test_shouldFindLatestByCategoryAndCountUnseen() {
+        Message message = new Message();
+        message.setMessageId("categorized");
+        message.setReceivedTimestamp(500L);
+        message.setCategory("SomeCategory");
+        sqliteMessageStore.save(context, message);
+
+        assertEquals(ids("message9", "message8"), ids(sqliteMessageStore.findLatest(context, 2)));
+        assertEquals(ids("categorized"), ids(sqliteMessageStore.findByCategory(context, "SomeCategory")));
+        assertEquals(6, sqliteMessageStore.countUnseen(context));
+    }
+
+    @Test
+    public void test_shouldMarkSeenInChunks() {
+        List<String> messageIds = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            messageIds.add("unknown" + i);
+        }
+        messageIds.add("message1");
+        messageIds.add("message3");
+
+        sqliteMessageStore.markSeen(context, 9000L, messageIds.toArray(new String[messageIds.size()]));
+
+        assertEquals(9000L, sqliteMessageStore.findById(context, "message1").getSeenTimestamp());
+        assertEquals(9000L, sqliteMessageStore.findById(context, "message3").getSeenTimestamp());
+        assertEquals(0L, sqliteMessageStore.findById(context, "message5").getSeenTimestamp());
+        assertEquals(3, sqliteMessageStore.countUnseen(context));
+    }
+
+    @Test
+    public void test_shouldQueryLargeTableUsingIndexes() {
+        int numOfMessages = 50000;
+        List<Message> messages = new ArrayList<>(numOfMessages);
+        for (int i = 0; i < numOfMessages; i++) {
+            Message message = new Message();
+            message.setMessageId("large" + i);
+            message.setReceivedTimestamp(10000L + i);
+            message.setSeenTimestamp(i % 10 == 0 ? 0L : 20000L + i);
+            message.setCategory("category" + i % 100);
+            messages.add(message);
+        }
+        sqliteMessageStore.save(context, messages.toArray(new Message[messages.size()]));
+
+        long indexed = timeTypedQueries();
+
+        SQLiteDatabase database = databaseProvider.getDatabase();
+        String[] indexes = {"messages_received_idx", "messages_seen_idx", "messages_category_idx", "messages_status_idx"};
+        for (String index : indexes) {
+            database.execSQL("DROP INDEX IF EXISTS " + index);
+        }
+        long scanned = timeTypedQueries();
+
+        Log.i("SQLiteMessageStoreTest", "Typed queries over " + numOfMessages + " messages took " + indexed + "ms with indexes, " + scanned + "ms without");
+        assertEquals(ids("large49999", "large49998"), ids(sqliteMessageStore.findLatest(context, 2)));
+    }
+
+    private long timeTypedQueries() {
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(5005, sqliteMessageStore.countUnseen(context));
+            assertEquals(20, sqliteMessageStore.findLatest(context, 20).size());
+            assertEquals(500, sqliteMessageStore.findByCategory(context, "category" + i).size());
+        }
+        return (System.nanoTime() - start) / 1000000;
+    }
+
+    private static List<String> ids(String... ids) {
+        List<String> list = new ArrayList<>();
+        for (String id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+
+    private static List<String> ids(List<Message> messages) {
+        List<String> ids = new ArrayList<>();
+        for (Message message : messages) {
+            ids.add(message.getMessageId());
+        }
+        return ids;
+    }
+}
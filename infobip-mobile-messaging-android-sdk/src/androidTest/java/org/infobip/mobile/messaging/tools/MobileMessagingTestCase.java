@@ -126,6 +126,7 @@ public abstract class MobileMessagingTestCase extends MobileMessagingBaseTestCas
     public void setUp() throws Exception {
         super.setUp();
 
+        PreferenceHelper.saveUseBinaryStorage(context, false);
         PreferenceHelper.getPublicSharedPreferences(context).edit().clear().commit();
         PreferenceHelper.getPrivateMMSharedPreferences(context).edit().clear().commit();
         PreferenceHelper.saveUsePrivateSharedPrefs(context, false);
@@ -136,6 +137,7 @@ public abstract class MobileMessagingTestCase extends MobileMessagingBaseTestCas
         PreferenceHelper.saveString(context, MobileMessagingProperty.CLOUD_TOKEN, "TestRegistrationId");
         PreferenceHelper.saveBoolean(context, MobileMessagingProperty.CLOUD_TOKEN_REPORTED, true);
         PreferenceHelper.saveLong(context, MobileMessagingProperty.BATCH_REPORTING_DELAY, 100);
+        PreferenceHelper.saveLong(context, MobileMessagingProperty.DELIVERY_REPORTING_DELAY, 100);
 
         MobileMessagingLogger.enforce();
 
@@ -0,0 +1,62 @@
+package org.infobip.mobile.messaging.util;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import org.infobip.mobile.messaging.tools.MobileMessagingTestCase;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.Assert.assertEquals;
+
+/**
+ * Measures cold load time and write amplification of {@link BinaryPreferences}, results are written to logcat.
+ */
+public class BinaryPreferencesBenchmarkTest extends MobileMessagingTestCase {
+
+    private static final String TAG = "MMBenchmark";
+    private static final String PREFS_NAME = "BinaryPreferencesBenchmark";
+    private static final int PROPERTIES = 100;
+    private static final int ITERATIONS = 50;
+
+    @SuppressLint("ApplySharedPref")
+    @Test
+    public void benchmark_coldLoadAndWriteAmplification() throws Exception {
+        File file = new File(context.getCacheDir(), PREFS_NAME + ".kv");
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+        BinaryPreferences binaryPreferences = new BinaryPreferences(file);
+        SharedPreferences sharedPreferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        sharedPreferences.edit().clear().commit();
+        fill(binaryPreferences);
+        fill(sharedPreferences);
+
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertEquals(PROPERTIES, new BinaryPreferences(file).getAll().size());
+        }
+        long coldLoadNanos = (System.nanoTime() - startedAt) / ITERATIONS;
+
+        long sizeBefore = binaryPreferences.getFileSize();
+        binaryPreferences.edit().putString("key0", "changed value").commit();
+        long binaryBytesPerWrite = binaryPreferences.getFileSize() - sizeBefore;
+
+        sharedPreferences.edit().putString("key0", "changed value").commit();
+        long xmlBytesPerWrite = new File(new File(context.getApplicationInfo().dataDir, "shared_prefs"), PREFS_NAME + ".xml").length();
+
+        Log.i(TAG, String.format("BinaryPreferences cold load of %d properties: %d us", PROPERTIES, TimeUnit.NANOSECONDS.toMicros(coldLoadNanos)));
+        Log.i(TAG, String.format("Bytes written per single property change: binary %d, shared preferences %d", binaryBytesPerWrite, xmlBytesPerWrite));
+    }
+
+    private static void fill(SharedPreferences preferences) {
+        SharedPreferences.Editor editor = preferences.edit();
+        for (int i = 0; i < PROPERTIES; i++) {
+            editor.putString("key" + i, "org.infobip.mobile.messaging.benchmark.value" + i);
+        }
+        editor.commit();
+    }
+}
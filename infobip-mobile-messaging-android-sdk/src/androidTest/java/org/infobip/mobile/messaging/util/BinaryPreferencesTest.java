@@ -0,0 +1,157 @@
+package org.infobip.mobile.messaging.util;
+
+import org.infobip.mobile.messaging.tools.MobileMessagingTestCase;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+
+public class BinaryPreferencesTest extends MobileMessagingTestCase {
+
+    private File file;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+
+        file = new File(context.getCacheDir(), "BinaryPreferencesTest.kv");
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+
+    @Test
+    public void test_shouldLoadCommittedValues() {
+        BinaryPreferences preferences = new BinaryPreferences(file);
+        preferences.edit()
+                .putString("string", "value")
+                .putInt("int", 1)
+                .putLong("long", 2L)
+                .putFloat("float", 3.5f)
+                .putBoolean("boolean", true)
+                .putStringSet("set", new HashSet<>(Arrays.asList("a", "b")))
+                .commit();
+        preferences.edit().remove("int").commit();
+
+        BinaryPreferences reloaded = new BinaryPreferences(file);
+
+        assertEquals("value", reloaded.getString("string", null));
+        assertFalse(reloaded.contains("int"));
+        assertEquals(2L, reloaded.getLong("long", 0));
+        assertEquals(3.5f, reloaded.getFloat("float", 0));
+        assertTrue(reloaded.getBoolean("boolean", false));
+        assertEquals(new HashSet<>(Arrays.asList("a", "b")), reloaded.getStringSet("set", null));
+    }
+
+    @Test
+    public void test_shouldDiscardIncompleteRecord() throws Exception {
+        BinaryPreferences preferences = new BinaryPreferences(file);
+        preferences.edit().putString("first", "value").commit();
+        preferences.edit().putString("second", "value").commit();
+        truncate(file, 3);
+
+        BinaryPreferences reloaded = new BinaryPreferences(file);
+        reloaded.edit().putString("third", "value").commit();
+        reloaded = new BinaryPreferences(file);
+
+        assertEquals("value", reloaded.getString("first", null));
+        assertNull(reloaded.getString("second", null));
+        assertEquals("value", reloaded.getString("third", null));
+    }
+
+    @Test
+    public void test_shouldStoreTransactionAtomically() throws Exception {
+        final BinaryPreferences preferences = new BinaryPreferences(file);
+        preferences.runTransaction(new PreferenceHelper.Transaction<Void>() {
+            @Override
+            public Void run() {
+                preferences.edit().putString("first", "value").apply();
+                preferences.edit().putString("second", "value").apply();
+                return null;
+            }
+        });
+        preferences.awaitWrites();
+        truncate(file, 1);
+
+        BinaryPreferences reloaded = new BinaryPreferences(file);
+
+        assertFalse(reloaded.contains("first"));
+        assertFalse(reloaded.contains("second"));
+    }
+
+    @Test
+    public void test_shouldRollBackTransaction_whenItThrows() {
+        final BinaryPreferences preferences = new BinaryPreferences(file);
+        preferences.edit().putString("first", "value").commit();
+
+        try {
+            preferences.runTransaction(new PreferenceHelper.Transaction<Void>() {
+                @Override
+                public Void run() {
+                    preferences.edit().putString("first", "changed").putString("second", "value").apply();
+                    preferences.edit().clear().apply();
+                    throw new IllegalStateException();
+                }
+            });
+        } catch (IllegalStateException ignored) {
+        }
+        preferences.awaitWrites();
+
+        assertEquals("value", preferences.getString("first", null));
+        assertFalse(preferences.contains("second"));
+        BinaryPreferences reloaded = new BinaryPreferences(file);
+        assertEquals("value", reloaded.getString("first", null));
+        assertFalse(reloaded.contains("second"));
+    }
+
+    @Test
+    public void test_shouldCompactLog() {
+        BinaryPreferences preferences = new BinaryPreferences(file);
+        char[] chars = new char[1024];
+        Arrays.fill(chars, 'x');
+        String value = new String(chars);
+        for (int i = 0; i < 100; i++) {
+            preferences.edit().putString("key", value + i).apply();
+        }
+
+        assertTrue(preferences.getFileSize() < 50 * 1024);
+        assertEquals(value + 99, new BinaryPreferences(file).getString("key", null));
+    }
+
+    @Test
+    public void test_shouldClearValues() {
+        BinaryPreferences preferences = new BinaryPreferences(file);
+        preferences.edit().putString("first", "value").commit();
+
+        preferences.edit().clear().putString("second", "value").commit();
+        BinaryPreferences reloaded = new BinaryPreferences(file);
+
+        assertFalse(reloaded.contains("first"));
+        assertEquals("value", reloaded.getString("second", null));
+    }
+
+    @Test
+    public void test_commitShouldFail_whenFileCannotBeWritten() {
+        File directory = new File(context.getCacheDir(), "BinaryPreferencesTest.dir");
+        //noinspection ResultOfMethodCallIgnored
+        directory.mkdirs();
+
+        BinaryPreferences preferences = new BinaryPreferences(directory);
+
+        assertFalse(preferences.edit().putString("first", "value").commit());
+        //noinspection ResultOfMethodCallIgnored
+        directory.delete();
+    }
+
+    private static void truncate(File file, int bytes) throws Exception {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        randomAccessFile.setLength(file.length() - bytes);
+        randomAccessFile.close();
+    }
+}
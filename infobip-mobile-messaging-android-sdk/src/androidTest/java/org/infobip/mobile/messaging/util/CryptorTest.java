@@ -7,6 +7,8 @@ import org.junit.Test;
 
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertSame;
+import static org.junit.Assert.assertArrayEquals;
 
 /**
  * @author sslavin
@@ -26,4 +28,35 @@ public class CryptorTest extends MobileMessagingTestCase {
         assertFalse(data.equals(new String(Base64.decode(encrypted, Base64.DEFAULT))));
         assertEquals(data, decrypted);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void test_encryptDecryptBatch() throws Exception {
+        Cryptor cryptor = new Cryptor("thisIsMySuperSecretKey");
+        String[] data = {"first", "second", "third"};
+
+        String[] encrypted = cryptor.encrypt(data);
+
+        assertEquals(cryptor.encrypt("second"), encrypted[1]);
+        assertArrayEquals(data, new Cryptor("thisIsMySuperSecretKey").decrypt(encrypted));
+    }
+
+    @Test
+    public void test_encryptKey_shouldMemoizeEncryptedKey() throws Exception {
+        Cryptor cryptor = new Cryptor("thisIsMySuperSecretKey");
+
+        String encryptedKey = cryptor.encryptKey("thisIsMyKey");
+
+        assertEquals(cryptor.encrypt("thisIsMyKey"), encryptedKey);
+        assertSame(encryptedKey, cryptor.encryptKey("thisIsMyKey"));
+    }
+
+    @Test
+    public void test_shouldDecryptAfterFailedDecryption() throws Exception {
+        Cryptor cryptor = new Cryptor("thisIsMySuperSecretKey");
+        String encrypted = cryptor.encrypt("thisIsMyTestData");
+
+        cryptor.decrypt(Base64.encodeToString("notEncrypted".getBytes(), Base64.NO_WRAP));
+
+        assertEquals("thisIsMyTestData", cryptor.decrypt(encrypted));
+    }
+}
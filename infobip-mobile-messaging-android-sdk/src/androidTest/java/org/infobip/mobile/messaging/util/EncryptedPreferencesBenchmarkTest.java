@@ -0,0 +1,39 @@
+package org.infobip.mobile.messaging.util;
+
+import android.util.Log;
+
+import org.infobip.mobile.messaging.tools.MobileMessagingTestCase;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.Assert.assertEquals;
+
+/**
+ * Measures throughput of encrypted preference lookups, results are written to logcat.
+ */
+public class EncryptedPreferencesBenchmarkTest extends MobileMessagingTestCase {
+
+    private static final String TAG = "MMBenchmark";
+    private static final int WARMUP_ITERATIONS = 500;
+    private static final int ITERATIONS = 5000;
+
+    @Test
+    public void benchmark_findEncryptedString() throws Exception {
+        String key = "org.infobip.mobile.messaging.benchmark.ENCRYPTED_VALUE";
+        PreferenceHelper.saveString(context, key, "StubEncryptedValue", true);
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            PreferenceHelper.findString(context, key, null, true);
+        }
+
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertEquals("StubEncryptedValue", PreferenceHelper.findString(context, key, null, true));
+        }
+        long elapsed = System.nanoTime() - startedAt;
+
+        Log.i(TAG, String.format("findString(encrypted=true): %d ops/s, %d ns/op",
+                ITERATIONS * TimeUnit.SECONDS.toNanos(1) / elapsed, elapsed / ITERATIONS));
+    }
+}
@@ -0,0 +1,143 @@
+package org.infobip.mobile.messaging.util;
+
+import android.util.Log;
+
+import org.infobip.mobile.messaging.MobileMessagingProperty;
+import org.infobip.mobile.messaging.tools.MobileMessagingTestCase;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * Stress test of concurrent set updates, throughput is written to logcat.
+ */
+public class PreferenceHelperConcurrencyTest extends MobileMessagingTestCase {
+
+    private static final String TAG = "MMBenchmark";
+    private static final int WRITERS = 8;
+    private static final int WRITES_PER_WRITER = 200;
+
+    @Test
+    public void test_shouldNotLoseUpdates_whenWritersShareKey() throws Exception {
+        long elapsed = runWriters(true);
+
+        String[] ids = PreferenceHelper.findStringArray(context, "shared", new String[0]);
+        assertEquals(WRITERS * WRITES_PER_WRITER, ids.length);
+        logThroughput("shared key", elapsed);
+    }
+
+    @Test
+    public void test_shouldNotLoseUpdates_whenWritersUseOwnKeys() throws Exception {
+        long elapsed = runWriters(false);
+
+        for (int writer = 0; writer < WRITERS; writer++) {
+            assertEquals(WRITES_PER_WRITER, PreferenceHelper.findStringArray(context, "key" + writer, new String[0]).length);
+        }
+        logThroughput("own keys", elapsed);
+    }
+
+    @Test
+    public void test_compareAndSet_shouldFail_whenSetChanged() {
+        HashSet<String> first = new HashSet<>();
+        first.add("first");
+        HashSet<String> second = new HashSet<>();
+        second.add("second");
+
+        assertTrue(PreferenceHelper.compareAndSetStringSet(context, "set", null, first));
+        assertFalse(PreferenceHelper.compareAndSetStringSet(context, "set", null, second));
+        assertTrue(PreferenceHelper.compareAndSetStringSet(context, "set", first, second));
+        assertEquals(second, PreferenceHelper.findStringSet(context, "set", null));
+    }
+
+    @Test
+    public void test_shouldNotDeadlock_whenPropertyWritesMixWithKeyedTransactions_onBinaryStorage() throws Exception {
+        PreferenceHelper.saveUseBinaryStorage(context, true);
+        final MobileMessagingProperty property = MobileMessagingProperty.ACTIVE_SESSION_START_TIME_MILLIS;
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            final int writer = i;
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    start.await();
+                    final String key = "key" + writer;
+                    for (int j = 0; j < WRITES_PER_WRITER; j++) {
+                        final long value = j;
+                        if (writer % 2 == 0) {
+                            PreferenceHelper.saveLong(context, property, value);
+                            continue;
+                        }
+                        PreferenceHelper.runTransaction(context, new PreferenceHelper.Transaction<Void>() {
+                            @Override
+                            public Void run() {
+                                PreferenceHelper.remove(context, key);
+                                PreferenceHelper.saveString(context, key, String.valueOf(value));
+                                PreferenceHelper.saveLong(context, property, value);
+                                return null;
+                            }
+                        }, key);
+                    }
+                    return null;
+                }
+            }));
+        }
+
+        start.countDown();
+        for (Future<Void> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertEquals(PreferenceHelper.findLong(context, property.getKey(), -1), PreferenceHelper.findLong(context, property));
+        PreferenceHelper.saveUseBinaryStorage(context, false);
+    }
+
+    private long runWriters(final boolean sharedKey) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            final int writer = i;
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    start.await();
+                    String key = sharedKey ? "shared" : "key" + writer;
+                    for (int j = 0; j < WRITES_PER_WRITER; j++) {
+                        PreferenceHelper.appendToStringArray(context, key, writer + "-" + j);
+                    }
+                    return null;
+                }
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<Void> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        executor.shutdown();
+        return elapsed;
+    }
+
+    private static void logThroughput(String scenario, long elapsedNanos) {
+        long writes = WRITERS * WRITES_PER_WRITER;
+        Log.i(TAG, String.format("Set updates with %d writers on %s: %d ops/s", WRITERS, scenario,
+                writes * TimeUnit.SECONDS.toNanos(1) / elapsedNanos));
+    }
+}
@@ -141,4 +141,86 @@ public class PreferenceHelperTest extends MobileMessagingTestCase {
         assertFalse(PreferenceHelper.contains(context, MobileMessagingProperty.INFOBIP_REGISTRATION_ID));
         assertNull(PreferenceHelper.findString(context, MobileMessagingProperty.INFOBIP_REGISTRATION_ID));
     }
+
+    @Test
+    public void test_shouldReturnValueWrittenThroughCache() throws Exception {
+        PreferenceHelper.saveString(context, MobileMessagingProperty.APPLICATION_CODE, "StubApplicationCode");
+        PreferenceHelper.saveLong(context, MobileMessagingProperty.BATCH_REPORTING_DELAY, 500L);
+
+        assertEquals("StubApplicationCode", PreferenceHelper.findString(context, MobileMessagingProperty.APPLICATION_CODE));
+        assertEquals("StubApplicationCode", PreferenceHelper.findString(context, MobileMessagingProperty.APPLICATION_CODE.getKey(), null, true));
+        assertEquals(500L, PreferenceHelper.findLong(context, MobileMessagingProperty.BATCH_REPORTING_DELAY));
+    }
+
+    @Test
+    public void test_shouldInvalidateCachedValue_whenWrittenByKey() throws Exception {
+        PreferenceHelper.saveBoolean(context, MobileMessagingProperty.PUSH_REGISTRATION_ENABLED, true);
+        assertTrue(PreferenceHelper.findBoolean(context, MobileMessagingProperty.PUSH_REGISTRATION_ENABLED));
+
+        PreferenceHelper.saveBoolean(context, MobileMessagingProperty.PUSH_REGISTRATION_ENABLED.getKey(), false);
+
+        assertFalse(PreferenceHelper.findBoolean(context, MobileMessagingProperty.PUSH_REGISTRATION_ENABLED));
+    }
+
+    @Test
+    public void test_shouldInvalidateCachedValue_whenRemoved() throws Exception {
+        PreferenceHelper.saveInt(context, MobileMessagingProperty.DEFAULT_MAX_RETRY_COUNT, 7);
+        assertEquals(7, PreferenceHelper.findInt(context, MobileMessagingProperty.DEFAULT_MAX_RETRY_COUNT));
+
+        PreferenceHelper.remove(context, MobileMessagingProperty.DEFAULT_MAX_RETRY_COUNT);
+
+        assertEquals(MobileMessagingProperty.DEFAULT_MAX_RETRY_COUNT.getDefaultValue(), PreferenceHelper.findInt(context, MobileMessagingProperty.DEFAULT_MAX_RETRY_COUNT));
+    }
+
+    @Test
+    public void test_shouldDropCachedValues_whenPreferencesCleared() throws Exception {
+        PreferenceHelper.saveString(context, MobileMessagingProperty.SENDER_ID, "StubSenderId");
+        assertEquals("StubSenderId", PreferenceHelper.findString(context, MobileMessagingProperty.SENDER_ID));
+
+        PreferenceHelper.getDefaultMMSharedPreferences(context).edit().clear().commit();
+        PreferenceHelper.invalidateCache();
+
+        assertNull(PreferenceHelper.findString(context, MobileMessagingProperty.SENDER_ID));
+    }
+
+    @Test
+    public void test_shouldMoveDataToBinaryStorageAndBack() throws Exception {
+        PreferenceHelper.saveString(context, MobileMessagingProperty.APP_USER_ID, "StubAppUserId");
+        PreferenceHelper.saveString(context, MobileMessagingProperty.INFOBIP_REGISTRATION_ID, "StubRegistrationId");
+
+        PreferenceHelper.saveUseBinaryStorage(context, true);
+
+        assertTrue(PreferenceHelper.getDefaultMMSharedPreferences(context) instanceof BinaryPreferences);
+        assertFalse(PreferenceHelper.publicPrefsContains(context, MobileMessagingProperty.APP_USER_ID));
+        assertEquals("StubAppUserId", PreferenceHelper.findString(context, MobileMessagingProperty.APP_USER_ID));
+        assertEquals("StubRegistrationId", PreferenceHelper.findString(context, MobileMessagingProperty.INFOBIP_REGISTRATION_ID));
+
+        PreferenceHelper.saveString(context, MobileMessagingProperty.APP_USER_ID, "OtherAppUserId");
+        PreferenceHelper.saveUseBinaryStorage(context, false);
+
+        assertFalse(PreferenceHelper.getDefaultMMSharedPreferences(context) instanceof BinaryPreferences);
+        assertEquals("OtherAppUserId", PreferenceHelper.findString(context, MobileMessagingProperty.APP_USER_ID));
+        assertEquals(0, BinaryPreferences.getInstance(context).getAll().size());
+    }
+
+    @Test
+    public void test_keyedTransaction_shouldStoreNothing_whenItThrowsOnBinaryStorage() throws Exception {
+        PreferenceHelper.saveUseBinaryStorage(context, true);
+
+        try {
+            PreferenceHelper.runTransaction(context, new PreferenceHelper.Transaction<Void>() {
+                @Override
+                public Void run() {
+                    PreferenceHelper.saveString(context, "first", "value");
+                    PreferenceHelper.saveString(context, "second", "value");
+                    throw new IllegalStateException();
+                }
+            }, "first", "second");
+        } catch (IllegalStateException ignored) {
+        }
+
+        assertNull(PreferenceHelper.findString(context, "first", null));
+        assertNull(PreferenceHelper.findString(context, "second", null));
+        PreferenceHelper.saveUseBinaryStorage(context, false);
+    }
 }
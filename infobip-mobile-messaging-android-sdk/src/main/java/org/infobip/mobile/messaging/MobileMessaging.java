@@ -481,6 +481,7 @@ public abstract class MobileMessaging {
         private boolean storeAppCodeOnDisk = true;
         private boolean allowUntrustedSSLOnError = false;
         private boolean usePrivateSharedPrefs = false;
+        private boolean useBinaryStorage = false;
         private ApplicationCodeProvider applicationCodeProvider = null;
 
         @SuppressWarnings("unchecked")
@@ -817,6 +818,26 @@ public abstract class MobileMessaging {
             return this;
         }
 
+        /**
+         * It will move all MobileMessaging data from shared preferences to a single binary file in the private files directory of the application.
+         * Only the changed values are written to the file on each change, which is faster than rewriting whole shared preferences.
+         * <p>
+         * <b>NOTE:</b> data is moved back to shared preferences if the library is later built without this option,
+         * switching to MM SDK versions which do not support binary storage is not backwards compatible.
+         *
+         * <pre>
+         * {@code new MobileMessaging.Builder(application)
+         *       .withBinaryStorage()
+         *       .build();}
+         * </pre>
+         *
+         * @return {@link Builder}
+         */
+        public Builder withBinaryStorage() {
+            this.useBinaryStorage = true;
+            return this;
+        }
+
         /**
          * Builds the <i>MobileMessaging</i> configuration. Registration token patch is started by default.
          * Any messages received in the past will be reported as delivered!
@@ -847,6 +868,7 @@ public abstract class MobileMessaging {
             MobileMessagingCore.setShouldSaveAppCode(application, storeAppCodeOnDisk);
             MobileMessagingCore.setAllowUntrustedSSLOnError(application, allowUntrustedSSLOnError);
             MobileMessagingCore.setSharedPrefsStorage(application, usePrivateSharedPrefs);
+            MobileMessagingCore.setBinaryStorage(application, useBinaryStorage);
 
             MobileMessagingCore.Builder mobileMessagingCoreBuilder = new MobileMessagingCore.Builder(application)
                     .withDisplayNotification(notificationSettings);
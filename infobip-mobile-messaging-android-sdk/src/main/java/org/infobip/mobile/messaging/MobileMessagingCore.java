@@ -21,6 +21,8 @@ import org.infobip.mobile.messaging.cloud.MobileMessageHandler;
 import org.infobip.mobile.messaging.cloud.MobileMessagingCloudService;
 import org.infobip.mobile.messaging.cloud.PlayServicesSupport;
 import org.infobip.mobile.messaging.dal.sqlite.DatabaseHelper;
+import org.infobip.mobile.messaging.dal.sqlite.Outbox;
+import org.infobip.mobile.messaging.dal.sqlite.OutboxQueue;
 import org.infobip.mobile.messaging.dal.sqlite.PushDatabaseHelperImpl;
 import org.infobip.mobile.messaging.dal.sqlite.SqliteDatabaseProvider;
 import org.infobip.mobile.messaging.interactive.MobileInteractiveImpl;
@@ -30,6 +32,7 @@ import org.infobip.mobile.messaging.mobile.BatchReporter;
 import org.infobip.mobile.messaging.mobile.InternalSdkError;
 import org.infobip.mobile.messaging.mobile.MobileApiResourceProvider;
 import org.infobip.mobile.messaging.mobile.MobileMessagingError;
+import org.infobip.mobile.messaging.mobile.ReportAggregator;
 import org.infobip.mobile.messaging.mobile.Result;
 import org.infobip.mobile.messaging.mobile.appinstance.InstallationSynchronizer;
 import org.infobip.mobile.messaging.mobile.common.MAsyncTask;
@@ -38,6 +41,7 @@ import org.infobip.mobile.messaging.mobile.events.UserEventsRequestMapper;
 import org.infobip.mobile.messaging.mobile.events.UserEventsSynchronizer;
 import org.infobip.mobile.messaging.mobile.messages.MessagesSynchronizer;
 import org.infobip.mobile.messaging.mobile.messages.MoMessageSender;
+import org.infobip.mobile.messaging.mobile.messages.ProcessedMessageIds;
 import org.infobip.mobile.messaging.mobile.seen.SeenStatusReporter;
 import org.infobip.mobile.messaging.mobile.user.DepersonalizeActionListener;
 import org.infobip.mobile.messaging.mobile.user.DepersonalizeServerListener;
@@ -49,11 +53,13 @@ import org.infobip.mobile.messaging.platform.AndroidBroadcaster;
 import org.infobip.mobile.messaging.platform.Broadcaster;
 import org.infobip.mobile.messaging.platform.MobileMessagingJobService;
 import org.infobip.mobile.messaging.platform.Platform;
+import org.infobip.mobile.messaging.platform.TaskExecutors;
 import org.infobip.mobile.messaging.platform.Time;
 import org.infobip.mobile.messaging.stats.MobileMessagingStats;
 import org.infobip.mobile.messaging.storage.MessageStore;
 import org.infobip.mobile.messaging.storage.MessageStoreWrapper;
 import org.infobip.mobile.messaging.storage.MessageStoreWrapperImpl;
+import org.infobip.mobile.messaging.storage.SeenStatusAwareMessageStore;
 import org.infobip.mobile.messaging.telephony.MobileNetworkStateListener;
 import org.infobip.mobile.messaging.util.ComponentUtil;
 import org.infobip.mobile.messaging.util.DateTimeUtil;
@@ -81,7 +87,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
@@ -111,6 +116,7 @@ public class MobileMessagingCore
     private static Map<String, String> applicationCodeHashMap;
     static ApplicationCodeProvider applicationCodeProvider;
     private static DatabaseHelper databaseHelper;
+    private static Outbox outbox;
     private static MobileMessagingSynchronizationReceiver mobileMessagingSynchronizationReceiver;
     private final MobileMessagingStats stats;
     private final ExecutorService registrationAlignedExecutor;
@@ -118,6 +124,7 @@ public class MobileMessagingCore
     private final Broadcaster broadcaster;
     private final ModuleLoader moduleLoader;
     private final NotificationHandler notificationHandler;
+    private final ProcessedMessageIds processedMessageIds;
 
     private MessagesSynchronizer messagesSynchronizer;
     private UserDataReporter userDataReporter;
@@ -142,7 +149,7 @@ public class MobileMessagingCore
     private volatile Long lastForegroundSyncMillis;
 
     protected MobileMessagingCore(Context context) {
-        this(context, new AndroidBroadcaster(context), Executors.newSingleThreadExecutor(), new ModuleLoader(context));
+        this(context, new AndroidBroadcaster(context), TaskExecutors.newSerialExecutor("mm-registration"), new ModuleLoader(context));
     }
 
     protected MobileMessagingCore(Context context, Broadcaster broadcaster, ExecutorService registrationAlignedExecutor, ModuleLoader moduleLoader) {
@@ -155,6 +162,7 @@ public class MobileMessagingCore
         this.retryPolicyProvider = new RetryPolicyProvider(context);
         this.moduleLoader = moduleLoader;
         this.notificationHandler = new InteractiveNotificationHandler(context);
+        this.processedMessageIds = new ProcessedMessageIds(context, MESSAGE_ID_PARAMETER_LIMIT, MESSAGE_EXPIRY_TIME);
         this.messageHandlerModules = loadMessageHandlerModules();
 
         if (mobileMessagingSynchronizationReceiver == null) {
@@ -297,6 +305,17 @@ public class MobileMessagingCore
         return (SqliteDatabaseProvider) getDatabaseHelper(context);
     }
 
+    public static Outbox getOutbox(Context context) {
+        if (null == outbox) {
+            outbox = new Outbox(getDatabaseProvider(context));
+        }
+        return outbox;
+    }
+
+    public Outbox getOutbox() {
+        return getOutbox(context);
+    }
+
     @Nullable
     public ActivityLifecycleMonitor getActivityLifecycleMonitor() {
         return activityLifecycleMonitor;
@@ -321,13 +340,7 @@ public class MobileMessagingCore
             return;
         }
 
-        if (!MobileNetworkInformation.isNetworkAvailableSafely(context)) {
-            registerForNetworkAvailability();
-            return;
-        }
-
-        if (TextUtils.isEmpty(MobileMessagingCore.getApplicationCode(context))) {
-            MobileMessagingLogger.w("Application code is not found, check your setup");
+        if (!isReadyToSync()) {
             return;
         }
 
@@ -343,6 +356,19 @@ public class MobileMessagingCore
         performSyncActions();
     }
 
+    private boolean isReadyToSync() {
+        if (!MobileNetworkInformation.isNetworkAvailableSafely(context)) {
+            registerForNetworkAvailability();
+            return false;
+        }
+
+        if (TextUtils.isEmpty(MobileMessagingCore.getApplicationCode(context))) {
+            MobileMessagingLogger.w("Application code is not found, check your setup");
+            return false;
+        }
+        return true;
+    }
+
     private boolean didSyncRecently() {
         return lastSyncTimeMillis != null && Time.now() - lastSyncTimeMillis < LAZY_SYNC_THROTTLE_INTERVAL_MILLIS;
     }
@@ -388,7 +414,7 @@ public class MobileMessagingCore
     }
 
     public Boolean getUnreportedPrimarySetting() {
-        return PreferenceHelper.runTransaction(new PreferenceHelper.Transaction<Boolean>() {
+        return PreferenceHelper.runTransaction(context, new PreferenceHelper.Transaction<Boolean>() {
             @Override
             public Boolean run() {
                 if (PreferenceHelper.contains(context, MobileMessagingProperty.IS_PRIMARY_UNREPORTED)) {
@@ -396,7 +422,7 @@ public class MobileMessagingCore
                 }
                 return null;
             }
-        });
+        }, MobileMessagingProperty.IS_PRIMARY_UNREPORTED.getKey());
     }
 
     public void setUnreportedPrimarySetting() {
@@ -462,13 +488,15 @@ public class MobileMessagingCore
         PreferenceHelper.remove(context, MobileMessagingProperty.USER_DATA);
         PreferenceHelper.remove(context, MobileMessagingProperty.INFOBIP_UNREPORTED_MESSAGE_IDS);
         PreferenceHelper.remove(context, MobileMessagingProperty.INFOBIP_UNREPORTED_SEEN_MESSAGE_IDS);
-        PreferenceHelper.remove(context, MobileMessagingProperty.INFOBIP_SYNC_MESSAGES_IDS);
+        processedMessageIds.clear();
         PreferenceHelper.remove(context, MobileMessagingProperty.IS_PRIMARY_UNREPORTED);
         PreferenceHelper.remove(context, MobileMessagingProperty.UNSENT_MO_MESSAGES);
         PreferenceHelper.remove(context, MobileMessagingProperty.CUSTOM_ATTRIBUTES);
         PreferenceHelper.remove(context, MobileMessagingProperty.UNREPORTED_CUSTOM_ATTRIBUTES);
         PreferenceHelper.remove(context, MobileMessagingProperty.APP_USER_ID);
         PreferenceHelper.remove(context, MobileMessagingProperty.IS_APP_USER_ID_UNREPORTED);
+        getOutbox().clear(OutboxQueue.DELIVERY_REPORTS, OutboxQueue.SEEN_REPORTS, OutboxQueue.MO_MESSAGES);
+        mobileApiResourceProvider().clearResponseCache(context);
 
         if (!forceDepersonalize) {
             PreferenceHelper.saveBoolean(context, MobileMessagingProperty.IS_DEPERSONALIZE_UNREPORTED, true);
@@ -592,7 +620,7 @@ public class MobileMessagingCore
     }
 
     private boolean isPrimaryDevice() {
-        return PreferenceHelper.runTransaction(new PreferenceHelper.Transaction<Boolean>() {
+        return PreferenceHelper.runTransaction(context, new PreferenceHelper.Transaction<Boolean>() {
             @Override
             public Boolean run() {
                 if (PreferenceHelper.contains(context, MobileMessagingProperty.IS_PRIMARY_UNREPORTED)) {
@@ -600,7 +628,7 @@ public class MobileMessagingCore
                 }
                 return PreferenceHelper.findBoolean(context, MobileMessagingProperty.IS_PRIMARY);
             }
-        });
+        }, MobileMessagingProperty.IS_PRIMARY_UNREPORTED.getKey(), MobileMessagingProperty.IS_PRIMARY.getKey());
     }
 
     private void saveApplicationUserId(String applicationUserId) {
@@ -668,58 +696,29 @@ public class MobileMessagingCore
     }
 
     public String[] getAndRemoveUnreportedMessageIds() {
-        return PreferenceHelper.findAndRemoveStringArray(context, MobileMessagingProperty.INFOBIP_UNREPORTED_MESSAGE_IDS);
+        List<Outbox.Item> items = getOutbox().take(OutboxQueue.DELIVERY_REPORTS, OutboxQueue.DELIVERY_REPORTS.getBatchSize());
+        getOutbox().remove(items);
+        return Outbox.payloads(items);
     }
 
     public void addUnreportedMessageIds(String... messageIDs) {
-        PreferenceHelper.appendToStringArray(context, MobileMessagingProperty.INFOBIP_UNREPORTED_MESSAGE_IDS, messageIDs);
+        getOutbox().append(OutboxQueue.DELIVERY_REPORTS, messageIDs);
     }
 
     public void addSyncMessagesIds(String... messageIDs) {
-        String[] timestampMessageIdPair = concatTimestampToMessageId(messageIDs);
-        PreferenceHelper.appendToStringArray(context, MobileMessagingProperty.INFOBIP_SYNC_MESSAGES_IDS, timestampMessageIdPair);
+        processedMessageIds.add(messageIDs);
     }
 
     public String[] getSyncMessagesIds() {
-        String[] messageIds = PreferenceHelper.findStringArray(context, MobileMessagingProperty.INFOBIP_SYNC_MESSAGES_IDS);
-        ArrayList<String> messageIdsArrayList = new ArrayList<>(Arrays.asList(messageIds));
-        Set<String> messageIdsToSync = new HashSet<>(messageIdsArrayList.size() <= MESSAGE_ID_PARAMETER_LIMIT ? messageIdsArrayList.size() : MESSAGE_ID_PARAMETER_LIMIT);
-        boolean shouldUpdateMessageIds = false;
-
-        for (int i = 0; i < messageIdsArrayList.size(); i++) {
-            String syncMessage = messageIdsArrayList.get(i);
-            String[] messageIdWithTimestamp = syncMessage.split(StringUtils.COMMA_WITH_SPACE);
-
-            String strTimeMessageReceived = messageIdWithTimestamp[1];
-
-            long timeMessageReceived = Long.valueOf(strTimeMessageReceived);
-            long timeInterval = Time.now() - timeMessageReceived;
-
-            if (timeInterval > MESSAGE_EXPIRY_TIME || i >= MESSAGE_ID_PARAMETER_LIMIT) {
-                messageIdsArrayList.remove(i);
-                shouldUpdateMessageIds = true;
-                i--;
-            } else {
-                messageIdsToSync.add(messageIdWithTimestamp[0]);
-            }
-        }
-
-        if (shouldUpdateMessageIds) {
-            String[] messageIdsToUpdate = new String[messageIdsArrayList.size()];
-            messageIdsToUpdate = messageIdsArrayList.toArray(messageIdsToUpdate);
-            PreferenceHelper.remove(context, MobileMessagingProperty.INFOBIP_SYNC_MESSAGES_IDS);
-            PreferenceHelper.appendToStringArray(context, MobileMessagingProperty.INFOBIP_SYNC_MESSAGES_IDS, messageIdsToUpdate);
-        }
-
-        return messageIdsToSync.toArray(new String[0]);
+        return processedMessageIds.getAll();
     }
 
     public boolean isMessageAlreadyProcessed(String messageId) {
-        return Arrays.asList(getSyncMessagesIds()).contains(messageId);
+        return processedMessageIds.contains(messageId);
     }
 
     public String[] getUnreportedSeenMessageIds() {
-        String[] ids = PreferenceHelper.findStringArray(context, MobileMessagingProperty.INFOBIP_UNREPORTED_SEEN_MESSAGE_IDS);
+        String[] ids = Outbox.payloads(getOutbox().peek(OutboxQueue.SEEN_REPORTS, OutboxQueue.SEEN_REPORTS.getBatchSize()));
         return filterOutGeneratedMessageIds(ids);
     }
 
@@ -733,26 +732,14 @@ public class MobileMessagingCore
             return;
         }
 
-        PreferenceHelper.runTransaction(new PreferenceHelper.Transaction<Void>() {
-            @Override
-            public Void run() {
-                String[] reports = PreferenceHelper.findStringArray(context, MobileMessagingProperty.INFOBIP_UNREPORTED_SEEN_MESSAGE_IDS);
-                if (reports.length == 0) {
-                    return null;
-                }
-
-                for (int i = 0; i < reports.length; i++) {
-                    String[] messageIdAndTimestamp = reports[i].split(StringUtils.COMMA_WITH_SPACE);
-                    String newMessageId = messageIdMap.get(messageIdAndTimestamp[0]);
-                    if (newMessageId != null) {
-                        reports[i] = StringUtils.concat(newMessageId, messageIdAndTimestamp[1], StringUtils.COMMA_WITH_SPACE);
-                    }
-                }
-
-                PreferenceHelper.saveStringArray(context, MobileMessagingProperty.INFOBIP_UNREPORTED_SEEN_MESSAGE_IDS, reports);
-                return null;
+        Outbox outbox = getOutbox();
+        for (Outbox.Item report : outbox.peek(OutboxQueue.SEEN_REPORTS, 0)) {
+            String[] messageIdAndTimestamp = report.getPayload().split(StringUtils.COMMA_WITH_SPACE);
+            String newMessageId = messageIdMap.get(messageIdAndTimestamp[0]);
+            if (newMessageId != null) {
+                outbox.replace(report, StringUtils.concat(newMessageId, messageIdAndTimestamp[1], StringUtils.COMMA_WITH_SPACE));
             }
-        });
+        }
     }
 
     public void updateGeneratedMessageIds(final Map<String, String> messageIdMap) {
@@ -760,7 +747,7 @@ public class MobileMessagingCore
             return;
         }
 
-        PreferenceHelper.runTransaction(new PreferenceHelper.Transaction<Void>() {
+        PreferenceHelper.runTransaction(context, new PreferenceHelper.Transaction<Void>() {
             @Override
             public Void run() {
                 String[] generatedMessageIds = getGeneratedMessageIds();
@@ -771,7 +758,7 @@ public class MobileMessagingCore
                 }
                 return null;
             }
-        });
+        }, MobileMessagingProperty.INFOBIP_GENERATED_MESSAGE_IDS.getKey());
     }
 
     public void addGeneratedMessageIds(final String... messageIDs) {
@@ -788,7 +775,7 @@ public class MobileMessagingCore
 
     private void addUnreportedSeenMessageIds(final String... messageIDs) {
         String[] seenMessages = concatTimestampToMessageId(messageIDs);
-        PreferenceHelper.appendToStringArray(context, MobileMessagingProperty.INFOBIP_UNREPORTED_SEEN_MESSAGE_IDS, seenMessages);
+        getOutbox().append(OutboxQueue.SEEN_REPORTS, seenMessages);
     }
 
     private String[] concatTimestampToMessageId(String[] messageIDs) {
@@ -860,15 +847,36 @@ public class MobileMessagingCore
         return reportContents.length > 0 ? reportContents[0] : null;
     }
 
-    public void removeUnreportedSeenMessageIds(final String... messageIDs) {
-        PreferenceHelper.deleteFromStringArray(context, MobileMessagingProperty.INFOBIP_UNREPORTED_SEEN_MESSAGE_IDS, messageIDs);
+    /**
+     * Takes next batch of seen reports from the outbox, reports of generated message ids are left in it
+     *
+     * @return reports to send, which have to be removed, put back or released afterwards
+     * @see Outbox#take(OutboxQueue, int)
+     */
+    public List<Outbox.Item> takeUnreportedSeenReports() {
+        Outbox outbox = getOutbox();
+        List<Outbox.Item> items = outbox.take(OutboxQueue.SEEN_REPORTS, OutboxQueue.SEEN_REPORTS.getBatchSize());
+        Set<String> reportable = new HashSet<>(Arrays.asList(filterOutGeneratedMessageIds(Outbox.payloads(items))));
+        List<Outbox.Item> reports = new ArrayList<>(items.size());
+        List<Outbox.Item> skipped = new ArrayList<>();
+        for (Outbox.Item item : items) {
+            if (reportable.contains(item.getPayload())) {
+                reports.add(item);
+            } else {
+                skipped.add(item);
+            }
+        }
+        outbox.release(skipped);
+        return reports;
     }
 
     public void setMessagesDelivered(String... messageIds) {
         if (messageIds != null) {
             addUnreportedMessageIds(messageIds);
             addSyncMessagesIds(messageIds);
-            sync();
+            if (isReadyToSync()) {
+                messagesSynchronizer().reportDelivery(messageIds.length);
+            }
         }
     }
 
@@ -893,13 +901,23 @@ public class MobileMessagingCore
         }
 
         MessageStore messageStore = getMessageStore();
-        List<String> messageIdList = Arrays.asList(messageIds);
-        for (Message m : new ArrayList<>(messageStore.findAll(context))) {
-            if (messageIdList.contains(m.getMessageId())) {
-                m.setSeenTimestamp(Time.now());
-                messageStore.save(context, m);
+        long seenTimestamp = Time.now();
+        if (messageStore instanceof SeenStatusAwareMessageStore) {
+            ((SeenStatusAwareMessageStore) messageStore).markSeen(context, seenTimestamp, messageIds);
+            return;
+        }
+
+        Set<String> messageIdSet = new HashSet<>(Arrays.asList(messageIds));
+        List<Message> seenMessages = new ArrayList<>(messageIds.length);
+        for (Message m : messageStore.findAll(context)) {
+            if (messageIdSet.contains(m.getMessageId())) {
+                m.setSeenTimestamp(seenTimestamp);
+                seenMessages.add(m);
             }
         }
+        if (!seenMessages.isEmpty()) {
+            messageStore.save(context, seenMessages.toArray(new Message[seenMessages.size()]));
+        }
     }
 
     @Nullable
@@ -1225,6 +1243,10 @@ public class MobileMessagingCore
         PreferenceHelper.saveUsePrivateSharedPrefs(context, usePrivateSharedPrefs);
     }
 
+    public static void setBinaryStorage(Context context, boolean useBinaryStorage) {
+        PreferenceHelper.saveUseBinaryStorage(context, useBinaryStorage);
+    }
+
     static boolean shouldSaveApplicationCode(Context context) {
         return PreferenceHelper.findBoolean(context, MobileMessagingProperty.SAVE_APP_CODE_ON_DISK.getKey(), true);
     }
@@ -1245,6 +1267,7 @@ public class MobileMessagingCore
             mobileMessagingSynchronizationReceiver = null;
         }
         ComponentUtil.setConnectivityComponentsStateEnabled(context, false);
+        Platform.mobileMessagingCore.get(context).mobileApiResourceProvider().clearResponseCache(context);
         resetMobileApi();
 
         String senderID = PreferenceHelper.findString(context, MobileMessagingProperty.SENDER_ID);
@@ -1265,7 +1288,7 @@ public class MobileMessagingCore
         PreferenceHelper.remove(context, MobileMessagingProperty.IS_PRIMARY_UNREPORTED);
         PreferenceHelper.remove(context, MobileMessagingProperty.UNSENT_MO_MESSAGES);
 
-        PreferenceHelper.remove(context, MobileMessagingProperty.INFOBIP_SYNC_MESSAGES_IDS);
+        Platform.mobileMessagingCore.get(context).processedMessageIds.clear();
         PreferenceHelper.remove(context, MobileMessagingProperty.CUSTOM_ATTRIBUTES);
         PreferenceHelper.remove(context, MobileMessagingProperty.UNREPORTED_CUSTOM_ATTRIBUTES);
         PreferenceHelper.remove(context, MobileMessagingProperty.APP_USER_ID);
@@ -1273,6 +1296,7 @@ public class MobileMessagingCore
         PreferenceHelper.remove(context, MobileMessagingProperty.PUSH_REGISTRATION_ENABLED);
         PreferenceHelper.remove(context, MobileMessagingProperty.UNREPORTED_PUSH_REGISTRATION_ENABLED);
         PreferenceHelper.remove(context, MobileMessagingProperty.IS_DEPERSONALIZE_UNREPORTED);
+        getOutbox(context).clear(OutboxQueue.values());
     }
 
     public void resetCloudToken(boolean force) {
@@ -1513,20 +1537,19 @@ public class MobileMessagingCore
         if (customEventRequest == null) return;
         UserCustomEventBody.CustomEvent customEvents = customEventRequest.getEvents()[0];
         String customEventRequestJsonString = UserEventsRequestMapper.toJson(customEvents);
-        PreferenceHelper.appendToStringArray(context, MobileMessagingProperty.USER_CUSTOM_EVENTS, customEventRequestJsonString);
+        getOutbox().append(OutboxQueue.CUSTOM_EVENTS, customEventRequestJsonString);
     }
 
     public UserCustomEventBody.CustomEvent[] getUnreportedUserCustomEvents() {
-        String[] customEventsStringArray = PreferenceHelper.findStringArray(context, MobileMessagingProperty.USER_CUSTOM_EVENTS);
-        List<UserCustomEventBody.CustomEvent> customEvents = new ArrayList<>();
-        for (String eventJsonString : customEventsStringArray) {
-            customEvents.add(UserEventsRequestMapper.fromJson(eventJsonString));
-        }
-        return customEvents.toArray(new UserCustomEventBody.CustomEvent[0]);
+        return toCustomEvents(getOutbox().peek(OutboxQueue.CUSTOM_EVENTS, OutboxQueue.CUSTOM_EVENTS.getBatchSize()));
     }
 
-    public void setUserCustomEventsReported() {
-        PreferenceHelper.remove(context, MobileMessagingProperty.USER_CUSTOM_EVENTS);
+    private UserCustomEventBody.CustomEvent[] toCustomEvents(List<Outbox.Item> items) {
+        List<UserCustomEventBody.CustomEvent> customEvents = new ArrayList<>(items.size());
+        for (Outbox.Item item : items) {
+            customEvents.add(UserEventsRequestMapper.fromJson(item.getPayload()));
+        }
+        return customEvents.toArray(new UserCustomEventBody.CustomEvent[0]);
     }
 
     public void saveSessionBounds(Context context, long sessionStartTimeMillis, long sessionEndTimeMillis) {
@@ -1534,21 +1557,23 @@ public class MobileMessagingCore
         String sessionEndDateTime = DateTimeUtil.dateToISO8601UTCString(new Date(sessionEndTimeMillis));
         String sessionBound = sessionStartDateTime + SESSION_BOUNDS_DELIMITER + sessionEndDateTime;
 
-        PreferenceHelper.appendToStringArray(context, MobileMessagingProperty.SESSION_BOUNDS, sessionBound);
+        getOutbox().append(OutboxQueue.SESSION_BOUNDS, sessionBound);
     }
 
     public void reportSessions() {
         userEventsSynchronizer().reportSessions();
     }
 
+    public List<Outbox.Item> getStoredSessionBoundItems() {
+        return getOutbox().peek(OutboxQueue.SESSION_BOUNDS, OutboxQueue.SESSION_BOUNDS.getBatchSize());
+    }
+
     public String[] getStoredSessionBounds() {
-        return PreferenceHelper.findStringArray(context, MobileMessagingProperty.SESSION_BOUNDS);
+        return Outbox.payloads(getStoredSessionBoundItems());
     }
 
-    public void setUserSessionsReported(String[] storedSessionBounds, long sessionStartsMillis) {
-        if (storedSessionBounds != null && storedSessionBounds.length != 0) {
-            PreferenceHelper.remove(context, MobileMessagingProperty.SESSION_BOUNDS);
-        }
+    public void setUserSessionsReported(List<Outbox.Item> reportedSessionBounds, long sessionStartsMillis) {
+        getOutbox().remove(reportedSessionBounds);
         PreferenceHelper.saveLong(context, MobileMessagingProperty.LAST_REPORTED_ACTIVE_SESSION_START_TIME_MILLIS, sessionStartsMillis);
     }
 
@@ -1783,7 +1808,8 @@ public class MobileMessagingCore
     private MoMessageSender moMessageSender() {
         if (moMessageSender == null) {
             moMessageSender = new MoMessageSender(context, this, broadcaster,
-                    registrationAlignedExecutor, stats, retryPolicyProvider.DEFAULT(), mobileApiResourceProvider().getMobileApiMessages(context), getMessageStoreWrapper());
+                    registrationAlignedExecutor, stats, retryPolicyProvider.DEFAULT(), mobileApiResourceProvider().getMobileApiMessages(context),
+                    mobileApiResourceProvider().getMobileApiMessagesAsync(context), getMessageStoreWrapper());
         }
         return moMessageSender;
     }
@@ -1817,7 +1843,9 @@ public class MobileMessagingCore
         if (messagesSynchronizer == null) {
             MobileMessageHandler mobileMessageHandler = new MobileMessageHandler(this, broadcaster, getNotificationHandler(), getMessageStoreWrapper());
             messagesSynchronizer = new MessagesSynchronizer(this, stats, registrationAlignedExecutor,
-                    broadcaster, retryPolicyProvider.DEFAULT(), mobileMessageHandler, mobileApiResourceProvider().getMobileApiMessages(context));
+                    broadcaster, retryPolicyProvider.DEFAULT(), mobileMessageHandler, mobileApiResourceProvider().getMobileApiMessages(context),
+                    mobileApiResourceProvider().getMobileApiMessagesAsync(context),
+                    new ReportAggregator(PreferenceHelper.findLong(context, MobileMessagingProperty.DELIVERY_REPORTING_DELAY), OutboxQueue.DELIVERY_REPORTS.getBatchSize()));
         }
         return messagesSynchronizer;
     }
@@ -1826,7 +1854,9 @@ public class MobileMessagingCore
     private SeenStatusReporter seenStatusReporter() {
         if (seenStatusReporter == null) {
             seenStatusReporter = new SeenStatusReporter(this, stats, registrationAlignedExecutor, broadcaster,
-                    mobileApiResourceProvider().getMobileApiMessages(context), new BatchReporter(PreferenceHelper.findLong(context, MobileMessagingProperty.BATCH_REPORTING_DELAY)));
+                    mobileApiResourceProvider().getMobileApiMessages(context),
+                    mobileApiResourceProvider().getMobileApiMessagesAsync(context),
+                    new BatchReporter(PreferenceHelper.findLong(context, MobileMessagingProperty.BATCH_REPORTING_DELAY), OutboxQueue.SEEN_REPORTS.getBatchSize()));
         }
         return seenStatusReporter;
     }
@@ -1863,7 +1893,7 @@ public class MobileMessagingCore
                     mobileApiResourceProvider().getMobileApiAppInstance(context),
                     retryPolicyProvider.DEFAULT(),
                     registrationAlignedExecutor,
-                    new BatchReporter(PreferenceHelper.findLong(context, MobileMessagingProperty.BATCH_REPORTING_DELAY)));
+                    new BatchReporter(PreferenceHelper.findLong(context, MobileMessagingProperty.BATCH_REPORTING_DELAY), OutboxQueue.CUSTOM_EVENTS.getBatchSize()));
         }
         return userEventsSynchronizer;
     }
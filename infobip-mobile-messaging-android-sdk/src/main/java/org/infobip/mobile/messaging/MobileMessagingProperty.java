@@ -19,10 +19,12 @@ public enum MobileMessagingProperty {
     REPORTED_PUSH_SERVICE_TYPE("org.infobip.mobile.messaging.REPORTED_PUSH_SERVICE_TYPE"),
     PERFORMED_USER_DATA_MIGRATION("org.infobip.mobile.messaging.PERFORMED_USER_DATA_MIGRATION"),
     USE_PRIVATE_SHARED_PREFS("org.infobip.mobile.messaging.infobip.USE_PRIVATE_SHARED_PREFS", false),
+    USE_BINARY_STORAGE("org.infobip.mobile.messaging.infobip.USE_BINARY_STORAGE", false),
     // END
 
     // START: prefs required for keeping up-to-date state of MM SDK
     BATCH_REPORTING_DELAY("org.infobip.mobile.messaging.notification.BATCH_REPORTING_DELAY", 5000L),
+    DELIVERY_REPORTING_DELAY("org.infobip.mobile.messaging.notification.DELIVERY_REPORTING_DELAY", 1000L),
     VERSION_CHECK_INTERVAL_DAYS("org.infobip.mobile.messaging.notification.VERSION_CHECK_INTERVAL_DAYS", 1),
     VERSION_CHECK_LAST_TIME("org.infobip.mobile.messaging.notification.VERSION_CHECK_LAST_TIME", 0L),
 
@@ -3,6 +3,7 @@ package org.infobip.mobile.messaging.cloud;
 import org.infobip.mobile.messaging.Message;
 import org.infobip.mobile.messaging.MessageHandlerModule;
 import org.infobip.mobile.messaging.MobileMessagingCore;
+import org.infobip.mobile.messaging.logging.MessageSupplier;
 import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 import org.infobip.mobile.messaging.mobile.InternalSdkError;
 import org.infobip.mobile.messaging.notification.NotificationHandler;
@@ -34,7 +35,7 @@ public class MobileMessageHandler {
      *
      * @param message new message
      */
-    public void handleMessage(Message message) {
+    public void handleMessage(final Message message) {
         if (!mobileMessagingCore.isPushRegistrationEnabled() || mobileMessagingCore.isDepersonalizeInProgress()) {
             return;
         }
@@ -57,8 +58,13 @@ public class MobileMessageHandler {
         message.setReceivedTimestamp(Time.now());
         sendDeliveryReport(message);
 
-        for (MessageHandlerModule handler : mobileMessagingCore.getMessageHandlerModules()) {
-            MobileMessagingLogger.d("Dispatching message to " + handler.getClass().getName());
+        for (final MessageHandlerModule handler : mobileMessagingCore.getMessageHandlerModules()) {
+            MobileMessagingLogger.d(new MessageSupplier() {
+                @Override
+                public String get() {
+                    return "Dispatching message to " + handler.getClass().getName();
+                }
+            });
             if (handler.handleMessage(message)) {
                 return;
             }
@@ -67,14 +73,24 @@ public class MobileMessageHandler {
         saveMessage(message);
         broadcaster.messageReceived(message);
 
-        MobileMessagingLogger.d("Message is silent: " + message.isSilent());
+        MobileMessagingLogger.d(new MessageSupplier() {
+            @Override
+            public String get() {
+                return "Message is silent: " + message.isSilent();
+            }
+        });
         if (!message.isSilent()) {
             notificationHandler.displayNotification(message);
         }
     }
 
-    private void saveMessage(Message message) {
-        MobileMessagingLogger.d("Saving message: " + message.getMessageId());
+    private void saveMessage(final Message message) {
+        MobileMessagingLogger.d(new MessageSupplier() {
+            @Override
+            public String get() {
+                return "Saving message: " + message.getMessageId();
+            }
+        });
         try {
             messageStoreWrapper.upsert(message);
         } catch (Exception e) {
@@ -82,12 +98,17 @@ public class MobileMessageHandler {
         }
     }
 
-    private void sendDeliveryReport(Message message) {
+    private void sendDeliveryReport(final Message message) {
         if (StringUtils.isBlank(message.getMessageId())) {
             MobileMessagingLogger.e("No ID received for message: " + message);
             return;
         }
-        MobileMessagingLogger.d("Sending DR: " + message.getMessageId());
+        MobileMessagingLogger.d(new MessageSupplier() {
+            @Override
+            public String get() {
+                return "Sending DR: " + message.getMessageId();
+            }
+        });
         mobileMessagingCore.setMessagesDelivered(message.getMessageId());
     }
 }
\ No newline at end of file
@@ -48,6 +48,14 @@ public class InternalDataMapper {
                 this.atts = createAttachments(contentUrl);
             }
         }
+
+        public long getSendDateTime() {
+            return sendDateTime;
+        }
+
+        public long getInAppExpiryDateTime() {
+            return inAppExpiryDateTime;
+        }
     }
 
     private static class Attachment {
@@ -184,6 +192,21 @@ public class InternalDataMapper {
         }
     }
 
+    /**
+     * Parses internal data json once, so that several fields can be read without parsing it again
+     *
+     * @param json internal data json
+     * @return internal data if json is valid or null otherwise
+     */
+    @Nullable
+    public static InternalData<?> parseInternalData(String json) {
+        try {
+            return serializer.deserialize(json, InternalData.class);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     /**
      * Returns send date time from internal data
      *
@@ -1,17 +1,21 @@
 package org.infobip.mobile.messaging.dal.sqlite;
 
+import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
 import android.database.DatabaseUtils;
 import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
 import android.support.annotation.NonNull;
 import android.util.Log;
 
 import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +29,12 @@ public abstract class BaseDatabaseHelper extends SQLiteOpenHelper implements Dat
 
     private static final Map<Class<? extends DatabaseContract.DatabaseObject>, DatabaseContract.DatabaseObject> databaseObjectsCache = new HashMap<>();
 
+    /**
+     * SQLite limits number of bound parameters per statement to 999 on older versions,
+     * so "IN (...)" conditions are split to chunks leaving room for the rest of the statement
+     */
+    private static final int MAX_IN_CLAUSE_ARGUMENTS = 900;
+
     protected final Context context;
     private SQLiteDatabase sqLiteDatabase;
 
@@ -48,6 +58,26 @@ public abstract class BaseDatabaseHelper extends SQLiteOpenHelper implements Dat
         return objects;
     }
 
+    @Override
+    public <T extends DatabaseContract.DatabaseObject> List<T> findAll(Class<T> cls, String sqlWhereCondition, String[] args, String orderBy, int limit, int offset) {
+        String limitClause = null;
+        if (limit > 0) {
+            limitClause = offset > 0 ? offset + "," + limit : String.valueOf(limit);
+        } else if (offset > 0) {
+            limitClause = offset + ",-1";
+        }
+        Cursor cursor = db().query(getTableName(cls), null, sqlWhereCondition, args, null, null, orderBy, limitClause);
+        List<T> objects = loadFromCursor(cursor, cls);
+        cursor.close();
+        return objects;
+    }
+
+    @Override
+    public <T extends DatabaseContract.DatabaseObject> DatabaseCursor<T> iterate(Class<T> cls, String sqlWhereCondition, String[] args, String orderBy) {
+        Cursor cursor = db().query(getTableName(cls), null, sqlWhereCondition, args, null, null, orderBy);
+        return new DatabaseCursor<>(cursor, rowMapper(cls, cursor));
+    }
+
     @Override
     public <T extends DatabaseContract.DatabaseObject> T find(Class<T> cls, @NonNull String primaryKey) {
         Cursor cursor = db().rawQuery("SELECT * FROM " + getTableName(cls) + " WHERE " + getPrimaryKeyColumn(cls) + " = ?", new String[]{primaryKey});
@@ -80,6 +110,43 @@ public abstract class BaseDatabaseHelper extends SQLiteOpenHelper implements Dat
         }
     }
 
+    @Override
+    public void saveAll(Collection<? extends DatabaseContract.DatabaseObject> objects) {
+        writeAll(objects, "INSERT OR REPLACE INTO ");
+    }
+
+    @Override
+    public void insertAll(Collection<? extends DatabaseContract.DatabaseObject> objects) throws PrimaryKeyViolationException {
+        try {
+            writeAll(objects, "INSERT INTO ");
+        } catch (SQLException ignored) {
+            throw new PrimaryKeyViolationException();
+        }
+    }
+
+    @Override
+    public <T extends DatabaseContract.DatabaseObject> int update(Class<T> cls, ContentValues values, String[] primaryKeys) {
+        if (primaryKeys == null || primaryKeys.length == 0) {
+            return 0;
+        }
+
+        SQLiteDatabase db = db();
+        String tableName = getTableName(cls);
+        String primaryKeyColumn = getPrimaryKeyColumn(cls);
+        int updated = 0;
+        db.beginTransaction();
+        try {
+            for (int from = 0; from < primaryKeys.length; from += MAX_IN_CLAUSE_ARGUMENTS) {
+                String[] chunk = Arrays.copyOfRange(primaryKeys, from, Math.min(primaryKeys.length, from + MAX_IN_CLAUSE_ARGUMENTS));
+                updated += db.update(tableName, values, primaryKeyColumn + " IN (" + placeholders(chunk.length) + ")", chunk);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return updated;
+    }
+
     @Override
     public <T extends DatabaseContract.DatabaseObject> void deleteAll(Class<T> cls) {
         db().delete(getTableName(cls), null, new String[0]);
@@ -96,6 +163,78 @@ public abstract class BaseDatabaseHelper extends SQLiteOpenHelper implements Dat
                 " IN (" + new String(new char[primaryKeys.length - 1]).replace("\0", "?,") + "?)", primaryKeys);
     }
 
+    /**
+     * Writes all objects inside one transaction, compiling a statement once per table and column set
+     * and rebinding it for every object instead of going through {@link SQLiteDatabase#insertWithOnConflict}.
+     */
+    private void writeAll(Collection<? extends DatabaseContract.DatabaseObject> objects, String insertClause) {
+        if (objects == null || objects.isEmpty()) {
+            return;
+        }
+
+        SQLiteDatabase db = db();
+        Map<String, SQLiteStatement> statements = new HashMap<>();
+        db.beginTransaction();
+        try {
+            for (DatabaseContract.DatabaseObject object : objects) {
+                ContentValues values = object.getContentValues();
+                String[] columns = values.keySet().toArray(new String[values.size()]);
+                Arrays.sort(columns);
+
+                String sql = insertStatement(insertClause, object.getTableName(), columns);
+                SQLiteStatement statement = statements.get(sql);
+                if (statement == null) {
+                    statement = db.compileStatement(sql);
+                    statements.put(sql, statement);
+                }
+
+                statement.clearBindings();
+                for (int i = 0; i < columns.length; i++) {
+                    bind(statement, i + 1, values.get(columns[i]));
+                }
+                statement.executeInsert();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            for (SQLiteStatement statement : statements.values()) {
+                statement.close();
+            }
+        }
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            placeholders.append(i > 0 ? ",?" : "?");
+        }
+        return placeholders.toString();
+    }
+
+    private static String insertStatement(String insertClause, String tableName, String[] columns) {
+        StringBuilder sql = new StringBuilder(insertClause).append(tableName).append(" (");
+        for (int i = 0; i < columns.length; i++) {
+            sql.append(i > 0 ? "," : "").append(columns[i]);
+        }
+        return sql.append(") VALUES (").append(placeholders(columns.length)).append(")").toString();
+    }
+
+    private static void bind(SQLiteStatement statement, int index, Object value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else if (value instanceof Double || value instanceof Float) {
+            statement.bindDouble(index, ((Number) value).doubleValue());
+        } else if (value instanceof Number) {
+            statement.bindLong(index, ((Number) value).longValue());
+        } else if (value instanceof Boolean) {
+            statement.bindLong(index, (Boolean) value ? 1 : 0);
+        } else if (value instanceof byte[]) {
+            statement.bindBlob(index, (byte[]) value);
+        } else {
+            statement.bindString(index, value.toString());
+        }
+    }
+
     private DatabaseContract.DatabaseObject emptyDatabaseObject(Class<? extends DatabaseContract.DatabaseObject> cls) {
         DatabaseContract.DatabaseObject emptyInstance = databaseObjectsCache.get(cls);
         if (emptyInstance != null) {
@@ -118,13 +257,12 @@ public abstract class BaseDatabaseHelper extends SQLiteOpenHelper implements Dat
             return new ArrayList<>();
         }
 
-        List<T> objects = new ArrayList<>();
+        List<T> objects = new ArrayList<>(cursor.getCount());
         if (cursor.moveToFirst()) {
+            DatabaseContract.RowMapper<T> rowMapper = rowMapper(cls, cursor);
             do {
                 try {
-                    T object = cls.newInstance();
-                    object.fillFromCursor(cursor);
-                    objects.add(object);
+                    objects.add(rowMapper.mapRow(cursor));
                 } catch (Exception e) {
                     MobileMessagingLogger.e(Log.getStackTraceString(e));
                 }
@@ -133,6 +271,23 @@ public abstract class BaseDatabaseHelper extends SQLiteOpenHelper implements Dat
         return objects;
     }
 
+    @SuppressWarnings("unchecked")
+    private <T extends DatabaseContract.DatabaseObject> DatabaseContract.RowMapper<T> rowMapper(final Class<T> cls, Cursor cursor) {
+        DatabaseContract.DatabaseObject o = emptyDatabaseObject(cls);
+        if (o instanceof DatabaseContract.RowMapperFactory) {
+            return ((DatabaseContract.RowMapperFactory<T>) o).createRowMapper(cursor);
+        }
+
+        return new DatabaseContract.RowMapper<T>() {
+            @Override
+            public T mapRow(Cursor cursor) throws Exception {
+                T object = cls.newInstance();
+                object.fillFromCursor(cursor);
+                return object;
+            }
+        };
+    }
+
     private String getTableName(Class<? extends DatabaseContract.DatabaseObject> cls) {
         DatabaseContract.DatabaseObject o = emptyDatabaseObject(cls);
         return o != null ? o.getTableName() : null;
@@ -20,6 +20,11 @@ public interface DatabaseContract {
          * Table for geo messages
          */
         String  GEO_MESSAGES = "geo_messages";
+
+        /**
+         * Table for items waiting to be reported to server
+         */
+        String OUTBOX = "outbox";
     }
 
     interface MessageColumns {
@@ -132,6 +137,38 @@ public interface DatabaseContract {
         String IN_APP_STYLE = "in_app_style";
     }
 
+    interface OutboxColumns {
+        /**
+         * Auto incremented identifier, defines order of items, primary key
+         *  [INTEGER]
+         */
+        String ID = "id";
+
+        /**
+         * Name of the queue item belongs to
+         *  [TEXT]
+         */
+        String QUEUE = "queue";
+
+        /**
+         * Serialized item
+         *  [TEXT]
+         */
+        String PAYLOAD = "payload";
+
+        /**
+         * Timestamp when item was added
+         *  [INTEGER]
+         */
+        String CREATED_TIMESTAMP = "created_timestamp";
+
+        /**
+         * Number of failed attempts to report item
+         *  [INTEGER]
+         */
+        String ATTEMPTS = "attempts";
+    }
+
     interface DatabaseObject {
 
         /**
@@ -158,4 +195,25 @@ public interface DatabaseContract {
          */
         ContentValues getContentValues();
     }
+
+    interface RowMapper<T extends DatabaseObject> {
+
+        /**
+         * Creates object from database row
+         * @param cursor for current database row
+         * @return object for the row
+         */
+        T mapRow(Cursor cursor) throws Exception;
+    }
+
+    interface RowMapperFactory<T extends DatabaseObject> {
+
+        /**
+         * Creates mapper for all rows of the cursor,
+         * mapper can prepare anything that does not change between rows, such as column indices
+         * @param cursor cursor to map rows of
+         * @return row mapper
+         */
+        RowMapper<T> createRowMapper(Cursor cursor);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,98 @@
+package org.infobip.mobile.messaging.dal.sqlite;
+
+import android.database.Cursor;
+import android.util.Log;
+
+import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazy view over query results which maps database rows to objects only when they are requested.
+ * <br>
+ * Underlying cursor is closed when iteration is finished, make sure to call {@link #close()}
+ * if you stop iterating earlier.
+ * <pre>
+ * {@code
+ * DatabaseCursor<SqliteMessage> cursor = databaseHelper.iterate(SqliteMessage.class, null, null, null);
+ * try {
+ *     for (SqliteMessage message : cursor) {
+ *         ...
+ *     }
+ * } finally {
+ *     cursor.close();
+ * }}
+ * </pre>
+ *
+ * @param <T> object type
+ */
+public class DatabaseCursor<T extends DatabaseContract.DatabaseObject> implements Iterator<T>, Iterable<T>, Closeable {
+
+    private final Cursor cursor;
+    private final DatabaseContract.RowMapper<T> rowMapper;
+    private final int count;
+    private boolean hasNext;
+
+    DatabaseCursor(Cursor cursor, DatabaseContract.RowMapper<T> rowMapper) {
+        this.cursor = cursor;
+        this.rowMapper = rowMapper;
+        this.count = cursor.getCount();
+        this.hasNext = cursor.moveToFirst();
+        if (!hasNext) {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Total number of rows in the result
+     * @return number of rows
+     */
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext) {
+            throw new NoSuchElementException();
+        }
+
+        T object = null;
+        try {
+            object = rowMapper.mapRow(cursor);
+        } catch (Exception e) {
+            MobileMessagingLogger.e(Log.getStackTraceString(e));
+        }
+
+        hasNext = cursor.moveToNext();
+        if (!hasNext) {
+            cursor.close();
+        }
+        return object;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return this;
+    }
+
+    @Override
+    public void close() {
+        hasNext = false;
+        if (!cursor.isClosed()) {
+            cursor.close();
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package org.infobip.mobile.messaging.dal.sqlite;
 
+import android.content.ContentValues;
+
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -16,6 +19,30 @@ public interface DatabaseHelper {
      */
     <T extends DatabaseContract.DatabaseObject> List<T> findAll(Class<T> cls);
 
+    /**
+     * Finds a page of instances of specified type in database
+     * @param cls object class
+     * @param sqlWhereCondition condition to filter objects with, null to match all objects
+     * @param args arguments for the condition placeholders
+     * @param orderBy order by clause, null for database order
+     * @param limit maximum number of objects to return, zero or less for no limit
+     * @param offset number of objects to skip
+     * @param <T> object type
+     * @return list of objects matching the condition
+     */
+    <T extends DatabaseContract.DatabaseObject> List<T> findAll(Class<T> cls, String sqlWhereCondition, String[] args, String orderBy, int limit, int offset);
+
+    /**
+     * Queries instances of specified type in database without loading all of them into memory
+     * @param cls object class
+     * @param sqlWhereCondition condition to filter objects with, null to match all objects
+     * @param args arguments for the condition placeholders
+     * @param orderBy order by clause, null for database order
+     * @param <T> object type
+     * @return lazy cursor over objects matching the condition, has to be closed if not iterated until the end
+     */
+    <T extends DatabaseContract.DatabaseObject> DatabaseCursor<T> iterate(Class<T> cls, String sqlWhereCondition, String[] args, String orderBy);
+
     /**
      * Finds instance of object by primary key
      * @param cls object class
@@ -54,6 +81,28 @@ public interface DatabaseHelper {
      */
     void insert(DatabaseContract.DatabaseObject object) throws PrimaryKeyViolationException;
 
+    /**
+     * Saves objects to database in a single transaction, replaces on conflict. If any write fails, none of the objects are saved and the error is rethrown
+     * @param objects objects to save
+     */
+    void saveAll(Collection<? extends DatabaseContract.DatabaseObject> objects);
+
+    /**
+     * Inserts objects to database in a single transaction, fails on conflict.
+     * Nothing is inserted if any of the objects violates primary key.
+     * @param objects objects to insert
+     */
+    void insertAll(Collection<? extends DatabaseContract.DatabaseObject> objects) throws PrimaryKeyViolationException;
+
+    /**
+     * Updates columns of objects with provided primary keys in a single transaction
+     * @param cls object class
+     * @param values new values of columns to update
+     * @param primaryKeys object primary keys
+     * @return number of updated objects
+     */
+    <T extends DatabaseContract.DatabaseObject> int update(Class<T> cls, ContentValues values, String[] primaryKeys);
+
     /**
      * Deletes all objects of the specified type from the database
      * @param cls object class
@@ -0,0 +1,327 @@
+package org.infobip.mobile.messaging.dal.sqlite;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.support.annotation.NonNull;
+import android.text.TextUtils;
+
+import org.infobip.mobile.messaging.dal.sqlite.DatabaseContract.OutboxColumns;
+import org.infobip.mobile.messaging.dal.sqlite.DatabaseContract.Tables;
+import org.infobip.mobile.messaging.platform.Time;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Durable FIFO queues of items which have to be reported to server.
+ * <br>
+ * Items are appended to the end of a queue and taken from its head in batches.
+ * Taken items stay stored until they are removed after successful report, so they are not lost
+ * if the process dies in the meantime. Until then they are only marked as in flight in memory
+ * and are not taken again.
+ * Each queue is bounded, items expire after {@link OutboxQueue#getMaxAgeMillis()}
+ * and are dropped after {@link OutboxQueue#getMaxAttempts()} failed attempts.
+ *
+ * @see OutboxQueue
+ */
+public class Outbox {
+
+    private static final String SQL_INSERT = "INSERT INTO " + Tables.OUTBOX + " (" +
+            OutboxColumns.QUEUE + ", " + OutboxColumns.PAYLOAD + ", " + OutboxColumns.CREATED_TIMESTAMP + ", " + OutboxColumns.ATTEMPTS +
+            ") VALUES (?, ?, ?, 0)";
+
+    private final SqliteDatabaseProvider databaseProvider;
+    private final Set<Long> inFlight = new HashSet<>();
+
+    public static class Item {
+        private final long id;
+        private final OutboxQueue queue;
+        private final String payload;
+        private final long createdTimestamp;
+        private final int attempts;
+
+        Item(long id, OutboxQueue queue, String payload, long createdTimestamp, int attempts) {
+            this.id = id;
+            this.queue = queue;
+            this.payload = payload;
+            this.createdTimestamp = createdTimestamp;
+            this.attempts = attempts;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public OutboxQueue getQueue() {
+            return queue;
+        }
+
+        public String getPayload() {
+            return payload;
+        }
+
+        public long getCreatedTimestamp() {
+            return createdTimestamp;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+    }
+
+    public Outbox(SqliteDatabaseProvider databaseProvider) {
+        this.databaseProvider = databaseProvider;
+    }
+
+    /**
+     * Appends items to the end of the queue, drops the oldest items if queue becomes too large
+     * @param queue queue to append to
+     * @param payloads serialized items
+     */
+    public void append(@NonNull OutboxQueue queue, String... payloads) {
+        if (payloads == null || payloads.length == 0) {
+            return;
+        }
+
+        SQLiteDatabase db = db();
+        db.beginTransaction();
+        SQLiteStatement statement = null;
+        try {
+            statement = db.compileStatement(SQL_INSERT);
+            long now = Time.now();
+            for (String payload : payloads) {
+                if (payload == null) {
+                    continue;
+                }
+                statement.clearBindings();
+                statement.bindString(1, queue.name());
+                statement.bindString(2, payload);
+                statement.bindLong(3, now);
+                statement.executeInsert();
+            }
+            trim(db, queue);
+            db.setTransactionSuccessful();
+        } finally {
+            if (statement != null) {
+                statement.close();
+            }
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Returns items from the head of the queue without removing them, including items in flight
+     * @param queue queue to read
+     * @param limit maximum number of items
+     * @return items in the order they were appended
+     */
+    @NonNull
+    public List<Item> peek(@NonNull OutboxQueue queue, int limit) {
+        return query(queue, limit, Collections.<Long>emptySet());
+    }
+
+    /**
+     * Returns items from the head of the queue which are not in flight already and marks them as in flight.
+     * Items stay in the queue until they are removed with {@link #remove(Collection)} after successful report,
+     * use {@link #putBack(Collection)} if they could not be reported or {@link #release(Collection)} if they were not sent
+     * @param queue queue to take from
+     * @param limit maximum number of items
+     * @return items in the order they were appended
+     */
+    @NonNull
+    public List<Item> take(@NonNull OutboxQueue queue, int limit) {
+        synchronized (inFlight) {
+            List<Item> items = query(queue, limit, inFlight);
+            for (Item item : items) {
+                inFlight.add(item.id);
+            }
+            return items;
+        }
+    }
+
+    @NonNull
+    private List<Item> query(@NonNull OutboxQueue queue, int limit, Set<Long> excludedIds) {
+        SQLiteDatabase db = db();
+        removeExpired(db, queue);
+        StringBuilder selection = new StringBuilder(OutboxColumns.QUEUE + " = ?");
+        if (!excludedIds.isEmpty()) {
+            selection.append(" AND ").append(OutboxColumns.ID).append(" NOT IN (").append(TextUtils.join(", ", excludedIds)).append(")");
+        }
+        Cursor cursor = db.query(Tables.OUTBOX, null, selection.toString(), new String[]{queue.name()},
+                null, null, OutboxColumns.ID, limit > 0 ? String.valueOf(limit) : null);
+        try {
+            List<Item> items = new ArrayList<>(cursor.getCount());
+            int idIndex = cursor.getColumnIndexOrThrow(OutboxColumns.ID);
+            int payloadIndex = cursor.getColumnIndexOrThrow(OutboxColumns.PAYLOAD);
+            int createdIndex = cursor.getColumnIndexOrThrow(OutboxColumns.CREATED_TIMESTAMP);
+            int attemptsIndex = cursor.getColumnIndexOrThrow(OutboxColumns.ATTEMPTS);
+            while (cursor.moveToNext()) {
+                items.add(new Item(cursor.getLong(idIndex), queue, cursor.getString(payloadIndex),
+                        cursor.getLong(createdIndex), cursor.getInt(attemptsIndex)));
+            }
+            return items;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Counts failed attempt of items which could not be reported and makes them available to be taken again,
+     * items which failed too many times are dropped
+     * @param items items taken with {@link #take(OutboxQueue, int)}
+     */
+    public void putBack(Collection<Item> items) {
+        try {
+            markFailed(items);
+        } finally {
+            release(items);
+        }
+    }
+
+    /**
+     * Makes items which were not sent available to be taken again without counting an attempt
+     * @param items items taken with {@link #take(OutboxQueue, int)}
+     */
+    public void release(Collection<Item> items) {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+
+        synchronized (inFlight) {
+            for (Item item : items) {
+                inFlight.remove(item.id);
+            }
+        }
+    }
+
+    /**
+     * Increments attempt count of items which stay in the queue after failed report,
+     * items which failed too many times are dropped
+     * @param items items obtained with {@link #peek(OutboxQueue, int)}
+     */
+    public void markFailed(Collection<Item> items) {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+
+        SQLiteDatabase db = db();
+        db.beginTransaction();
+        try {
+            for (Item item : items) {
+                if (item.attempts + 1 >= item.queue.getMaxAttempts()) {
+                    db.delete(Tables.OUTBOX, OutboxColumns.ID + " = ?", new String[]{String.valueOf(item.id)});
+                } else {
+                    ContentValues values = new ContentValues();
+                    values.put(OutboxColumns.ATTEMPTS, item.attempts + 1);
+                    db.update(Tables.OUTBOX, values, OutboxColumns.ID + " = ?", new String[]{String.valueOf(item.id)});
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Removes items from the queue, e.g. after they were reported
+     * @param items items to remove
+     */
+    public void remove(Collection<Item> items) {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+
+        try {
+            delete(items);
+        } finally {
+            release(items);
+        }
+    }
+
+    private void delete(Collection<Item> items) {
+        SQLiteDatabase db = db();
+        db.beginTransaction();
+        SQLiteStatement statement = null;
+        try {
+            statement = db.compileStatement("DELETE FROM " + Tables.OUTBOX + " WHERE " + OutboxColumns.ID + " = ?");
+            for (Item item : items) {
+                statement.bindLong(1, item.id);
+                statement.executeUpdateDelete();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            if (statement != null) {
+                statement.close();
+            }
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Replaces payload of an item keeping its place in the queue
+     * @param item item to update
+     * @param payload new payload
+     */
+    public void replace(@NonNull Item item, @NonNull String payload) {
+        ContentValues values = new ContentValues();
+        values.put(OutboxColumns.PAYLOAD, payload);
+        db().update(Tables.OUTBOX, values, OutboxColumns.ID + " = ?", new String[]{String.valueOf(item.id)});
+    }
+
+    /**
+     * Removes all items from the queues
+     * @param queues queues to clear
+     */
+    public void clear(@NonNull OutboxQueue... queues) {
+        for (OutboxQueue queue : queues) {
+            db().delete(Tables.OUTBOX, OutboxColumns.QUEUE + " = ?", new String[]{queue.name()});
+        }
+    }
+
+    /**
+     * Counts items in the queue
+     * @param queue queue to count
+     * @return number of items
+     */
+    public long count(@NonNull OutboxQueue queue) {
+        SQLiteDatabase db = db();
+        removeExpired(db, queue);
+        return DatabaseUtils.queryNumEntries(db, Tables.OUTBOX, OutboxColumns.QUEUE + " = ?", new String[]{queue.name()});
+    }
+
+    /**
+     * Returns payloads of the items
+     * @param items outbox items
+     * @return payloads in the same order
+     */
+    @NonNull
+    public static String[] payloads(Collection<Item> items) {
+        List<String> payloads = new ArrayList<>(items.size());
+        for (Item item : items) {
+            payloads.add(item.payload);
+        }
+        return payloads.toArray(new String[payloads.size()]);
+    }
+
+    private void trim(SQLiteDatabase db, OutboxQueue queue) {
+        db.delete(Tables.OUTBOX, OutboxColumns.QUEUE + " = ? AND " + OutboxColumns.ID + " NOT IN (SELECT " + OutboxColumns.ID +
+                        " FROM " + Tables.OUTBOX + " WHERE " + OutboxColumns.QUEUE + " = ? ORDER BY " + OutboxColumns.ID + " DESC LIMIT " + queue.getMaxSize() + ")",
+                new String[]{queue.name(), queue.name()});
+    }
+
+    private void removeExpired(SQLiteDatabase db, OutboxQueue queue) {
+        db.delete(Tables.OUTBOX, OutboxColumns.QUEUE + " = ? AND " + OutboxColumns.CREATED_TIMESTAMP + " < ?",
+                new String[]{queue.name(), String.valueOf(Time.now() - queue.getMaxAgeMillis())});
+    }
+
+    private SQLiteDatabase db() {
+        return databaseProvider.getDatabase();
+    }
+}
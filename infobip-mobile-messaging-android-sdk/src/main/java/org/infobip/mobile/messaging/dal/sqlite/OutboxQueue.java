@@ -0,0 +1,55 @@
+package org.infobip.mobile.messaging.dal.sqlite;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queues of the {@link Outbox} together with their limits
+ */
+public enum OutboxQueue {
+    DELIVERY_REPORTS(1000, 100, TimeUnit.DAYS.toMillis(7), 10),
+    SEEN_REPORTS(1000, 100, TimeUnit.DAYS.toMillis(7), 10),
+    MO_MESSAGES(100, 100, TimeUnit.DAYS.toMillis(2), 10),
+    CUSTOM_EVENTS(1000, 100, TimeUnit.DAYS.toMillis(7), 10),
+    SESSION_BOUNDS(1000, 100, TimeUnit.DAYS.toMillis(30), 10),
+    GEO_EVENTS(1000, 100, TimeUnit.DAYS.toMillis(7), 10);
+
+    private final int maxSize;
+    private final int batchSize;
+    private final long maxAgeMillis;
+    private final int maxAttempts;
+
+    OutboxQueue(int maxSize, int batchSize, long maxAgeMillis, int maxAttempts) {
+        this.maxSize = maxSize;
+        this.batchSize = batchSize;
+        this.maxAgeMillis = maxAgeMillis;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Maximum number of items in the queue, the oldest items are dropped when it is exceeded
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Number of items to report at once
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Time after which an item expires and is dropped without being reported
+     */
+    public long getMaxAgeMillis() {
+        return maxAgeMillis;
+    }
+
+    /**
+     * Number of failed attempts after which an item is dropped
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+}
@@ -8,6 +8,7 @@ import android.util.Log;
 
 import org.infobip.mobile.messaging.api.support.http.serialization.JsonSerializer;
 import org.infobip.mobile.messaging.dal.sqlite.DatabaseContract.MessageColumns;
+import org.infobip.mobile.messaging.dal.sqlite.DatabaseContract.OutboxColumns;
 import org.infobip.mobile.messaging.dal.sqlite.DatabaseContract.Tables;
 import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 
@@ -28,7 +29,9 @@ public class PushDatabaseHelperImpl extends BaseDatabaseHelper {
     static final int VER_2017_MAY_15 = 3; // Added "content_url" column to messages/geo_messages table
     static final int VER_2017_AUG_25 = 4; // Added "sendDateTime" to internal data (must be present for all messages)
     static final int VER_2019_JAN_21 = 5; // Added "inAppStyle" to internal data
-    private static final int VER_CURRENT = VER_2019_JAN_21;
+    static final int VER_2026_OCT_17 = 6; // Added indexes on timestamps, category and status to messages/geo_messages tables
+    static final int VER_2026_OCT_17_OUTBOX = 7; // Added "outbox" table for unreported items previously kept in shared preferences
+    private static final int VER_CURRENT = VER_2026_OCT_17_OUTBOX;
 
     @SuppressWarnings("WeakerAccess")
     static final String DATABASE_NAME = "mm_infobip_database.db";
@@ -81,6 +84,26 @@ public class PushDatabaseHelperImpl extends BaseDatabaseHelper {
     private static final String SQL_ALTER_TABLE_GEO_MESSAGES_WITH_IN_APP_STYLE  = "ALTER TABLE "
             + Tables.GEO_MESSAGES + " ADD COLUMN " + MessageColumns.IN_APP_STYLE + " TEXT;";
 
+    private static final String SQL_CREATE_OUTBOX_TABLE = "CREATE TABLE IF NOT EXISTS " + Tables.OUTBOX + " (" +
+            OutboxColumns.ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            OutboxColumns.QUEUE + " TEXT NOT NULL, " +
+            OutboxColumns.PAYLOAD + " TEXT NOT NULL, " +
+            OutboxColumns.CREATED_TIMESTAMP + " INTEGER NOT NULL, " +
+            OutboxColumns.ATTEMPTS + " INTEGER NOT NULL DEFAULT 0)";
+
+    private static final String SQL_CREATE_OUTBOX_INDEX = createIndex(Tables.OUTBOX, "queue", OutboxColumns.QUEUE, OutboxColumns.ID);
+
+    private static final String[] SQL_CREATE_INDEXES = {
+            createIndex(Tables.MESSAGES, "received", MessageColumns.RECEIVED_TIMESTAMP, MessageColumns.MESSAGE_ID),
+            createIndex(Tables.MESSAGES, "seen", MessageColumns.SEEN_TIMESTAMP, MessageColumns.RECEIVED_TIMESTAMP),
+            createIndex(Tables.MESSAGES, "category", MessageColumns.CATEGORY),
+            createIndex(Tables.MESSAGES, "status", MessageColumns.STATUS),
+            createIndex(Tables.GEO_MESSAGES, "received", MessageColumns.RECEIVED_TIMESTAMP, MessageColumns.MESSAGE_ID),
+            createIndex(Tables.GEO_MESSAGES, "seen", MessageColumns.SEEN_TIMESTAMP, MessageColumns.RECEIVED_TIMESTAMP),
+            createIndex(Tables.GEO_MESSAGES, "category", MessageColumns.CATEGORY),
+            createIndex(Tables.GEO_MESSAGES, "status", MessageColumns.STATUS)
+    };
+
     public PushDatabaseHelperImpl(Context context) {
         super(context, DATABASE_NAME, VER_CURRENT);
     }
@@ -94,9 +117,13 @@ public class PushDatabaseHelperImpl extends BaseDatabaseHelper {
         db.execSQL(SQL_ALTER_TABLE_GEO_MESSAGES_WITH_CONTENT_URL);
         db.execSQL(SQL_ALTER_TABLE_MESSAGES_WITH_IN_APP_STYLE);
         db.execSQL(SQL_ALTER_TABLE_GEO_MESSAGES_WITH_IN_APP_STYLE);
+        createIndexes(db);
+        db.execSQL(SQL_CREATE_OUTBOX_TABLE);
+        db.execSQL(SQL_CREATE_OUTBOX_INDEX);
         db.setTransactionSuccessful();
         db.endTransaction();
         SharedPreferencesMigrator.migrateMessages(context, db);
+        SharedPreferencesMigrator.migrateOutbox(context, db);
     }
 
     @Override
@@ -124,11 +151,38 @@ public class PushDatabaseHelperImpl extends BaseDatabaseHelper {
             version = VER_2019_JAN_21;
         }
 
+        if (version <= VER_2019_JAN_21) {
+            createIndexes(db);
+            version = VER_2026_OCT_17;
+        }
+
+        if (version <= VER_2026_OCT_17) {
+            db.execSQL(SQL_CREATE_OUTBOX_TABLE);
+            db.execSQL(SQL_CREATE_OUTBOX_INDEX);
+            SharedPreferencesMigrator.migrateOutbox(context, db);
+            version = VER_2026_OCT_17_OUTBOX;
+        }
+
         if (version != VER_CURRENT) {
             MobileMessagingLogger.e("SQLite DB version is not what expected: " + VER_CURRENT);
         }
     }
 
+    private static String createIndex(String table, String name, String... columns) {
+        StringBuilder sql = new StringBuilder("CREATE INDEX IF NOT EXISTS ")
+                .append(table).append("_").append(name).append("_idx ON ").append(table).append(" (");
+        for (int i = 0; i < columns.length; i++) {
+            sql.append(i > 0 ? ", " : "").append(columns[i]);
+        }
+        return sql.append(")").toString();
+    }
+
+    private static void createIndexes(SQLiteDatabase db) {
+        for (String sql : SQL_CREATE_INDEXES) {
+            db.execSQL(sql);
+        }
+    }
+
     private void setSendDateTimeToReceivedTimeIfAbsent(SQLiteDatabase db) {
         // Read existing data from database
         class Message {
@@ -1,10 +1,15 @@
 package org.infobip.mobile.messaging.dal.sqlite;
 
+import android.content.ContentValues;
 import android.content.Context;
 import android.database.sqlite.SQLiteDatabase;
 
 import org.infobip.mobile.messaging.Message;
+import org.infobip.mobile.messaging.MobileMessagingProperty;
+import org.infobip.mobile.messaging.dal.sqlite.DatabaseContract.OutboxColumns;
+import org.infobip.mobile.messaging.platform.Time;
 import org.infobip.mobile.messaging.storage.SharedPreferencesMessageStore;
+import org.infobip.mobile.messaging.util.PreferenceHelper;
 
 import java.util.List;
 
@@ -26,4 +31,37 @@ class SharedPreferencesMigrator {
             db.insert(SqliteMessage.getTable(), null, SqliteMessage.save(message));
         }
     }
+
+    static void migrateOutbox(Context context, SQLiteDatabase db) {
+        migrateOutbox(context, db, MobileMessagingProperty.INFOBIP_UNREPORTED_MESSAGE_IDS, OutboxQueue.DELIVERY_REPORTS);
+        migrateOutbox(context, db, MobileMessagingProperty.INFOBIP_UNREPORTED_SEEN_MESSAGE_IDS, OutboxQueue.SEEN_REPORTS);
+        migrateOutbox(context, db, MobileMessagingProperty.UNSENT_MO_MESSAGES, OutboxQueue.MO_MESSAGES);
+        migrateOutbox(context, db, MobileMessagingProperty.USER_CUSTOM_EVENTS, OutboxQueue.CUSTOM_EVENTS);
+        migrateOutbox(context, db, MobileMessagingProperty.SESSION_BOUNDS, OutboxQueue.SESSION_BOUNDS);
+    }
+
+    /**
+     * Moves string set stored in shared preferences to outbox queue, the set does not have any order
+     * so items get the order in which set returns them
+     */
+    static void migrateOutbox(Context context, SQLiteDatabase db, String key, OutboxQueue queue) {
+        String[] payloads = PreferenceHelper.findStringArray(context, key, new String[0]);
+        if (payloads.length == 0) {
+            return;
+        }
+
+        long now = Time.now();
+        for (String payload : payloads) {
+            ContentValues values = new ContentValues();
+            values.put(OutboxColumns.QUEUE, queue.name());
+            values.put(OutboxColumns.PAYLOAD, payload);
+            values.put(OutboxColumns.CREATED_TIMESTAMP, now);
+            db.insert(DatabaseContract.Tables.OUTBOX, null, values);
+        }
+        PreferenceHelper.remove(context, key);
+    }
+
+    private static void migrateOutbox(Context context, SQLiteDatabase db, MobileMessagingProperty property, OutboxQueue queue) {
+        migrateOutbox(context, db, property.getKey(), queue);
+    }
 }
@@ -7,6 +7,8 @@ import org.infobip.mobile.messaging.Message;
 import org.infobip.mobile.messaging.dal.json.InternalDataMapper;
 import org.infobip.mobile.messaging.dal.sqlite.DatabaseContract.MessageColumns;
 import org.infobip.mobile.messaging.dal.sqlite.DatabaseContract.Tables;
+import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
+import org.json.JSONException;
 import org.json.JSONObject;
 
 /**
@@ -14,7 +16,9 @@ import org.json.JSONObject;
  * @since 09/01/2017.
  */
 
-public class SqliteMessage extends Message implements DatabaseContract.DatabaseObject {
+public class SqliteMessage extends Message implements DatabaseContract.DatabaseObject, DatabaseContract.RowMapperFactory<SqliteMessage> {
+
+    private String customPayloadJson;
 
     public SqliteMessage() {
         super(null, null, null, null, true, null, false, null, null, 0, 0, 0, null, null, null, Status.UNKNOWN, null, null, null, 0);
@@ -61,39 +65,89 @@ public class SqliteMessage extends Message implements DatabaseContract.DatabaseO
 
     @Override
     public void fillFromCursor(Cursor cursor) throws Exception {
-        setMessageId(cursor.getString(cursor.getColumnIndexOrThrow(MessageColumns.MESSAGE_ID)));
-        setTitle(cursor.getString(cursor.getColumnIndexOrThrow(MessageColumns.TITLE)));
-        setBody(cursor.getString(cursor.getColumnIndexOrThrow(MessageColumns.BODY)));
-        setSound(cursor.getString(cursor.getColumnIndexOrThrow(MessageColumns.SOUND)));
-        setVibrate(cursor.getInt(cursor.getColumnIndexOrThrow(MessageColumns.VIBRATE)) != 0);
-        setIcon(cursor.getString(cursor.getColumnIndexOrThrow(MessageColumns.ICON)));
-        setSilent(cursor.getShort(cursor.getColumnIndexOrThrow(MessageColumns.SILENT)) != 0);
-        setCategory(cursor.getString(cursor.getColumnIndexOrThrow(MessageColumns.CATEGORY)));
-        setFrom(cursor.getString(cursor.getColumnIndexOrThrow(MessageColumns.FROM)));
-        setReceivedTimestamp(cursor.getLong(cursor.getColumnIndexOrThrow(MessageColumns.RECEIVED_TIMESTAMP)));
-        setSeenTimestamp(cursor.getLong(cursor.getColumnIndexOrThrow(MessageColumns.SEEN_TIMESTAMP)));
-        setContentUrl(cursor.getString(cursor.getColumnIndexOrThrow(MessageColumns.CONTENT_URL)));
-
-        String dataJson = cursor.getString(cursor.getColumnIndexOrThrow(MessageColumns.INTERNAL_DATA));
+        fillFromCursor(cursor, new ColumnIndices(cursor));
+    }
+
+    @Override
+    public DatabaseContract.RowMapper<SqliteMessage> createRowMapper(Cursor cursor) {
+        final ColumnIndices columns = new ColumnIndices(cursor);
+        return new DatabaseContract.RowMapper<SqliteMessage>() {
+            @Override
+            public SqliteMessage mapRow(Cursor cursor) {
+                SqliteMessage message = newInstance();
+                message.fillFromCursor(cursor, columns);
+                return message;
+            }
+        };
+    }
+
+    /**
+     * Creates an empty message for a database row, subclasses stored in other tables have to return own type
+     * @return empty message
+     */
+    protected SqliteMessage newInstance() {
+        return new SqliteMessage();
+    }
+
+    private void fillFromCursor(Cursor cursor, ColumnIndices columns) {
+        setMessageId(cursor.getString(columns.messageId));
+        setTitle(cursor.getString(columns.title));
+        setBody(cursor.getString(columns.body));
+        setSound(cursor.getString(columns.sound));
+        setVibrate(cursor.getInt(columns.vibrate) != 0);
+        setIcon(cursor.getString(columns.icon));
+        setSilent(cursor.getShort(columns.silent) != 0);
+        setCategory(cursor.getString(columns.category));
+        setFrom(cursor.getString(columns.from));
+        setReceivedTimestamp(cursor.getLong(columns.receivedTimestamp));
+        setSeenTimestamp(cursor.getLong(columns.seenTimestamp));
+        setContentUrl(cursor.getString(columns.contentUrl));
+
+        String dataJson = cursor.getString(columns.internalData);
         setInternalData(dataJson);
-        setSentTimestamp(InternalDataMapper.getInternalDataSendDateTime(dataJson));
-        setInAppExpiryTimestamp(InternalDataMapper.getInternalDataInAppExpiryDateTime(dataJson));
+        InternalDataMapper.InternalData<?> internalData = InternalDataMapper.parseInternalData(dataJson);
+        setSentTimestamp(internalData != null ? internalData.getSendDateTime() : 0);
+        setInAppExpiryTimestamp(internalData != null ? internalData.getInAppExpiryDateTime() : 0);
 
-        dataJson = cursor.getString(cursor.getColumnIndexOrThrow(MessageColumns.CUSTOM_PAYLOAD));
-        setCustomPayload(dataJson == null ? null : new JSONObject(dataJson));
+        setCustomPayload(null);
+        customPayloadJson = cursor.getString(columns.customPayload);
 
-        setDestination(cursor.getString(cursor.getColumnIndex(MessageColumns.DESTINATION)));
-        String statusName = cursor.getString(cursor.getColumnIndex(MessageColumns.STATUS));
+        setDestination(columns.destination != -1 ? cursor.getString(columns.destination) : null);
+        String statusName = columns.status != -1 ? cursor.getString(columns.status) : null;
         setStatus(statusName != null ? Status.valueOf(statusName) : null);
-        setStatusMessage(cursor.getString(cursor.getColumnIndex(MessageColumns.STATUS_MESSAGE)));
+        setStatusMessage(columns.statusMessage != -1 ? cursor.getString(columns.statusMessage) : null);
         try {
-            String inAppStyle = cursor.getString(cursor.getColumnIndex(MessageColumns.IN_APP_STYLE));
+            String inAppStyle = cursor.getString(columns.inAppStyle);
             setInAppStyle(InAppStyle.valueOf(inAppStyle));
         } catch (Exception ignored) {
 
         }
     }
 
+    /**
+     * Custom payload is parsed only when requested for the first time,
+     * most of the messages loaded from database are never asked for it.
+     */
+    @Override
+    public JSONObject getCustomPayload() {
+        if (customPayloadJson != null) {
+            String json = customPayloadJson;
+            customPayloadJson = null;
+            try {
+                super.setCustomPayload(new JSONObject(json));
+            } catch (JSONException e) {
+                MobileMessagingLogger.e("Cannot parse custom payload of message " + getMessageId() + ": " + e.getMessage());
+            }
+        }
+        return super.getCustomPayload();
+    }
+
+    @Override
+    public void setCustomPayload(JSONObject customPayload) {
+        customPayloadJson = null;
+        super.setCustomPayload(customPayload);
+    }
+
     @Override
     public ContentValues getContentValues() {
         ContentValues contentValues = new ContentValues();
@@ -109,7 +163,8 @@ public class SqliteMessage extends Message implements DatabaseContract.DatabaseO
         contentValues.put(MessageColumns.RECEIVED_TIMESTAMP, getReceivedTimestamp());
         contentValues.put(MessageColumns.SEEN_TIMESTAMP, getSeenTimestamp());
         contentValues.put(MessageColumns.INTERNAL_DATA, InternalDataMapper.createInternalDataBasedOnMessageContents(this));
-        contentValues.put(MessageColumns.CUSTOM_PAYLOAD, getCustomPayload() != null ? getCustomPayload().toString() : null);
+        contentValues.put(MessageColumns.CUSTOM_PAYLOAD, customPayloadJson != null ? customPayloadJson :
+                getCustomPayload() != null ? getCustomPayload().toString() : null);
         contentValues.put(MessageColumns.DESTINATION, getDestination());
         contentValues.put(MessageColumns.STATUS, getStatus() != null ? getStatus().name() : null);
         contentValues.put(MessageColumns.STATUS_MESSAGE, getStatusMessage());
@@ -127,4 +182,46 @@ public class SqliteMessage extends Message implements DatabaseContract.DatabaseO
     public String getPrimaryKeyColumnName() {
         return MessageColumns.MESSAGE_ID;
     }
-}
\ No newline at end of file
+
+    private static class ColumnIndices {
+        final int messageId;
+        final int title;
+        final int body;
+        final int sound;
+        final int vibrate;
+        final int icon;
+        final int silent;
+        final int category;
+        final int from;
+        final int receivedTimestamp;
+        final int seenTimestamp;
+        final int contentUrl;
+        final int internalData;
+        final int customPayload;
+        final int destination;
+        final int status;
+        final int statusMessage;
+        final int inAppStyle;
+
+        ColumnIndices(Cursor cursor) {
+            messageId = cursor.getColumnIndexOrThrow(MessageColumns.MESSAGE_ID);
+            title = cursor.getColumnIndexOrThrow(MessageColumns.TITLE);
+            body = cursor.getColumnIndexOrThrow(MessageColumns.BODY);
+            sound = cursor.getColumnIndexOrThrow(MessageColumns.SOUND);
+            vibrate = cursor.getColumnIndexOrThrow(MessageColumns.VIBRATE);
+            icon = cursor.getColumnIndexOrThrow(MessageColumns.ICON);
+            silent = cursor.getColumnIndexOrThrow(MessageColumns.SILENT);
+            category = cursor.getColumnIndexOrThrow(MessageColumns.CATEGORY);
+            from = cursor.getColumnIndexOrThrow(MessageColumns.FROM);
+            receivedTimestamp = cursor.getColumnIndexOrThrow(MessageColumns.RECEIVED_TIMESTAMP);
+            seenTimestamp = cursor.getColumnIndexOrThrow(MessageColumns.SEEN_TIMESTAMP);
+            contentUrl = cursor.getColumnIndexOrThrow(MessageColumns.CONTENT_URL);
+            internalData = cursor.getColumnIndexOrThrow(MessageColumns.INTERNAL_DATA);
+            customPayload = cursor.getColumnIndexOrThrow(MessageColumns.CUSTOM_PAYLOAD);
+            destination = cursor.getColumnIndex(MessageColumns.DESTINATION);
+            status = cursor.getColumnIndex(MessageColumns.STATUS);
+            statusMessage = cursor.getColumnIndex(MessageColumns.STATUS_MESSAGE);
+            inAppStyle = cursor.getColumnIndex(MessageColumns.IN_APP_STYLE);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.infobip.mobile.messaging.logging;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes log messages to the provided writer on a background thread.
+ * <br>
+ * Messages are queued in a bounded queue, if the queue is full new messages are dropped
+ * and the number of dropped messages is written once there is space again. Callers never block,
+ * except for errors which are written directly on the calling thread so they are never dropped
+ * or lost when the process dies right after.
+ */
+public class AsyncWriter implements Writer {
+
+    private static final int DEFAULT_CAPACITY = 512;
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private final Writer writer;
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger dropped = new AtomicInteger(0);
+
+    public AsyncWriter(Writer writer) {
+        this(writer, DEFAULT_CAPACITY);
+    }
+
+    public AsyncWriter(Writer writer, int capacity) {
+        this.writer = writer;
+        this.executor = new ThreadPoolExecutor(1, 1, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(capacity),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(@NonNull Runnable runnable) {
+                        Thread thread = new Thread(runnable, "mm-log");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                },
+                new RejectedExecutionHandler() {
+                    @Override
+                    public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+                        dropped.incrementAndGet();
+                    }
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void write(final Level level, final String tag, final String message, @Nullable final Throwable throwable) {
+        if (level == Level.ERROR) {
+            writer.write(level, tag, message, throwable);
+            return;
+        }
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                int droppedMessages = dropped.getAndSet(0);
+                if (droppedMessages > 0) {
+                    writer.write(Level.WARN, MobileMessagingLogger.TAG, "Dropped " + droppedMessages + " log messages", null);
+                }
+                writer.write(level, tag, message, throwable);
+            }
+        });
+    }
+}
@@ -0,0 +1,8 @@
+package org.infobip.mobile.messaging.logging;
+
+/**
+ * Provides log message only when it is going to be written.
+ */
+public interface MessageSupplier {
+    String get();
+}
@@ -11,14 +11,15 @@ import java.util.Arrays;
 public final class MobileMessagingLogger {
 
     public static final String TAG = "MobileMessaging";
-    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
-    private static Context context;
-    private static Writer writer = new LogcatWriter();
-    private static boolean isEnforced = false;
+    private static final Gson gson = new Gson();
+    private static Gson prettyGson = null;
+    private static volatile Writer writer = new AsyncWriter(new LogcatWriter());
+    private static volatile boolean isDebuggable = false;
+    private static volatile boolean isEnforced = false;
 
 
     public static void init(Context context) {
-        MobileMessagingLogger.context = context;
+        isDebuggable = context != null && 0 != (context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE);
     }
 
     public static void enforce() {
@@ -33,10 +34,28 @@ public final class MobileMessagingLogger {
     }
 
     public static boolean loggingEnabled() {
-        boolean isDebuggable = (context != null && 0 != (context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE));
         return isDebuggable || isEnforced;
     }
 
+    /**
+     * Checks if messages of the level are written, can be used to skip building expensive messages
+     */
+    public static boolean isLoggable(Level level) {
+        return level == Level.ERROR || isDebuggable || isEnforced;
+    }
+
+    public static void v(MessageSupplier supplier) {
+        log(Level.VERBOSE, TAG, supplier);
+    }
+
+    public static void d(MessageSupplier supplier) {
+        log(Level.DEBUG, TAG, supplier);
+    }
+
+    public static void i(MessageSupplier supplier) {
+        log(Level.INFO, TAG, supplier);
+    }
+
     public static void v(String tag, String msg) {
         log(Level.VERBOSE, tag, msg, null);
     }
@@ -130,17 +149,37 @@ public final class MobileMessagingLogger {
             return "";
         }
 
+        if (prettyGson == null) {
+            prettyGson = new GsonBuilder().setPrettyPrinting().create();
+        }
+        return prettyGson.toJson(o);
+    }
+
+    /**
+     * Formats object as compact single-line JSON
+     */
+    public static String objectToString(Object o) {
+        if (!loggingEnabled()) {
+            return "";
+        }
+
         return gson.toJson(o);
     }
 
+    private static void log(Level level, String tag, MessageSupplier supplier) {
+        if (isLoggable(level)) {
+            writer.write(level, tag, supplier.get(), null);
+        }
+    }
+
     private static void log(Level level, String tag, String msg, Object o) {
-        if (loggingEnabled() || level == Level.ERROR) {
-            log(level, tag, msg + "\n" + objectToPrettyString(o), null);
+        if (isLoggable(level)) {
+            writer.write(level, tag, msg + " " + objectToString(o), null);
         }
     }
 
     private static void log(Level level, String tag, String msg, Throwable tr) {
-        if (loggingEnabled() || level == Level.ERROR) {
+        if (isLoggable(level)) {
             writer.write(level, tag, msg, tr);
         }
     }
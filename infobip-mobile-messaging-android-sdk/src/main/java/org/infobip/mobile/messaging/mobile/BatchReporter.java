@@ -1,60 +1,147 @@
 package org.infobip.mobile.messaging.mobile;
 
 import org.infobip.mobile.messaging.platform.SystemTimeProvider;
+import org.infobip.mobile.messaging.platform.TaskExecutors;
 import org.infobip.mobile.messaging.platform.TimeProvider;
 
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * Batches reports and flushes them with a single run of the report task.
+ * <br>
+ * Items are accumulated until either the batch reaches its maximum size, the oldest pending item
+ * waited for the batch reporting delay or {@link #flush()} is called. If nothing was flushed within
+ * the last delay, the first item is flushed right away. All reporters share the SDK scheduler thread.
+ *
  * @author sslavin
  * @since 07/07/16.
  */
 public class BatchReporter {
 
     private final long delay;
+    private final int maxBatchSize;
     private final TimeProvider timeProvider;
-    private final Timer timer = new Timer();
-    private volatile TimerTask timerTask = null;
-    private volatile long lastSubmitted = 0;
+    private ScheduledFuture<?> scheduledFlush = null;
+    private Runnable pendingTask = null;
+    private int queueDepth = 0;
+    private long firstPendingAt = 0;
+    private long lastFlushedAt = 0;
+    private volatile long lastFlushLatency = 0;
 
-    public BatchReporter(Long batchReportingDelay, TimeProvider timeProvider) {
+    public BatchReporter(Long batchReportingDelay, int maxBatchSize, TimeProvider timeProvider) {
         this.delay = batchReportingDelay;
+        this.maxBatchSize = maxBatchSize;
         this.timeProvider = timeProvider;
     }
 
+    public BatchReporter(Long batchReportingDelay, int maxBatchSize) {
+        this(batchReportingDelay, maxBatchSize, new SystemTimeProvider());
+    }
+
+    public BatchReporter(Long batchReportingDelay, TimeProvider timeProvider) {
+        this(batchReportingDelay, Integer.MAX_VALUE, timeProvider);
+    }
+
     public BatchReporter(Long batchReportingDelay) {
         this(batchReportingDelay, new SystemTimeProvider());
     }
 
-    public synchronized void put(final Runnable task) {
-        if (timerTask != null) {
-            timerTask.cancel();
-            timer.purge();
+    /**
+     * Adds one item to the batch
+     * @param task task which reports all pending items
+     */
+    public void put(Runnable task) {
+        Runnable taskToRun;
+        synchronized (this) {
+            taskToRun = add(queueDepth + 1, task);
+        }
+        if (taskToRun != null) {
+            taskToRun.run();
         }
+    }
 
-        long now = timeProvider.now();
-        if (now - lastSubmitted >= delay) {
-            runNow(task);
-            return;
+    /**
+     * Updates the batch with the number of items waiting to be reported
+     * @param pendingItems number of items waiting to be reported, including the ones already put before
+     * @param task task which reports all pending items
+     */
+    public void put(int pendingItems, Runnable task) {
+        Runnable taskToRun;
+        synchronized (this) {
+            taskToRun = add(pendingItems, task);
         }
+        if (taskToRun != null) {
+            taskToRun.run();
+        }
+    }
 
-        long after = lastSubmitted + delay - now;
-        scheduleWithDelay(task, after);
+    /**
+     * Reports all pending items right away
+     */
+    public void flush() {
+        Runnable taskToRun;
+        synchronized (this) {
+            taskToRun = takePending();
+        }
+        if (taskToRun != null) {
+            taskToRun.run();
+        }
     }
 
-    private void runNow(Runnable task) {
-        lastSubmitted = timeProvider.now();
-        task.run();
+    /**
+     * Returns number of items waiting to be reported
+     */
+    public synchronized int getQueueDepth() {
+        return queueDepth;
     }
 
-    private void scheduleWithDelay(final Runnable task, long delay) {
-        timerTask = new TimerTask() {
-            @Override
-            public void run() {
-                runNow(task);
-            }
-        };
-        timer.schedule(timerTask, delay);
+    /**
+     * Returns time in milliseconds the oldest item of the last flushed batch waited to be reported
+     */
+    public long getLastFlushLatency() {
+        return lastFlushLatency;
+    }
+
+    private Runnable add(int pendingItems, Runnable task) {
+        long now = timeProvider.now();
+        if (pendingTask == null) {
+            firstPendingAt = now;
+        }
+        pendingTask = task;
+        queueDepth = Math.max(pendingItems, 1);
+
+        if (queueDepth >= maxBatchSize || now - lastFlushedAt >= delay) {
+            return takePending();
+        }
+
+        if (scheduledFlush == null) {
+            long after = lastFlushedAt + delay - now;
+            scheduledFlush = TaskExecutors.scheduler().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    flush();
+                }
+            }, after, TimeUnit.MILLISECONDS);
+        }
+        return null;
+    }
+
+    private Runnable takePending() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+
+        Runnable task = pendingTask;
+        if (task == null) {
+            return null;
+        }
+
+        lastFlushedAt = timeProvider.now();
+        lastFlushLatency = lastFlushedAt - firstPendingAt;
+        pendingTask = null;
+        queueDepth = 0;
+        return task;
     }
 }
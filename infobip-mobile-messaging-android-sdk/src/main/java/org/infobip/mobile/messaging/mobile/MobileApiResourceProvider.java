@@ -7,8 +7,10 @@ import org.infobip.mobile.messaging.MobileMessagingProperty;
 import org.infobip.mobile.messaging.api.appinstance.MobileApiAppInstance;
 import org.infobip.mobile.messaging.api.geo.MobileApiGeo;
 import org.infobip.mobile.messaging.api.messages.MobileApiMessages;
+import org.infobip.mobile.messaging.api.messages.MobileApiMessagesAsync;
 import org.infobip.mobile.messaging.api.support.CustomApiHeaders;
 import org.infobip.mobile.messaging.api.support.Generator;
+import org.infobip.mobile.messaging.api.support.http.client.DiskResponseCache;
 import org.infobip.mobile.messaging.api.support.http.client.Logger;
 import org.infobip.mobile.messaging.api.support.http.client.Request;
 import org.infobip.mobile.messaging.api.support.http.client.RequestInterceptor;
@@ -23,6 +25,7 @@ import org.infobip.mobile.messaging.util.SoftwareInformation;
 import org.infobip.mobile.messaging.util.StringUtils;
 import org.infobip.mobile.messaging.util.SystemInformation;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -82,9 +85,13 @@ public class MobileApiResourceProvider {
         }
     }
 
+    private static final String RESPONSE_CACHE_DIRECTORY = "mm_api_responses";
+    private static final long RESPONSE_CACHE_MAX_SIZE = 256 * 1024;
+
     private BaseUrlManager mobileMessagingRequestInterceptor;
     private Generator generator;
     private MobileApiMessages mobileApiMessages;
+    private MobileApiMessagesAsync mobileApiMessagesAsync;
     private MobileApiVersion mobileApiVersion;
     private MobileApiGeo mobileApiGeo;
     private MobileApiAppInstance mobileApiAppInstance;
@@ -99,6 +106,16 @@ public class MobileApiResourceProvider {
         return mobileApiMessages;
     }
 
+    public MobileApiMessagesAsync getMobileApiMessagesAsync(Context context) {
+        if (null != mobileApiMessagesAsync) {
+            return mobileApiMessagesAsync;
+        }
+
+        mobileApiMessagesAsync = getGenerator(context).create(MobileApiMessagesAsync.class);
+
+        return mobileApiMessagesAsync;
+    }
+
     public MobileApiVersion getMobileApiVersion(Context context) {
         if (null != mobileApiVersion) {
             return mobileApiVersion;
@@ -129,6 +146,22 @@ public class MobileApiResourceProvider {
         return mobileApiAppInstance;
     }
 
+    /**
+     * Removes all stored API responses, they belong to the current user
+     */
+    public void clearResponseCache(Context context) {
+        if (null != generator) {
+            generator.getResponseCache().clear();
+            return;
+        }
+
+        new DiskResponseCache(getResponseCacheDirectory(context), RESPONSE_CACHE_MAX_SIZE, DeviceInformation.getDeviceID(context)).clear();
+    }
+
+    private File getResponseCacheDirectory(Context context) {
+        return new File(context.getCacheDir(), RESPONSE_CACHE_DIRECTORY);
+    }
+
     private String[] getUserAgentAdditions(Context context) {
         List<String> userAgentAdditions = new ArrayList<>();
         if (PreferenceHelper.findBoolean(context, MobileMessagingProperty.REPORT_SYSTEM_INFO)) {
@@ -180,6 +213,8 @@ public class MobileApiResourceProvider {
                 .withResponseHeaderInterceptors(baseUrlManager(context))
                 .withLogger(new AndroidHTTPLogger())
                 .withAllowUntrustedSSLOnError(shouldAllowUntrustedSSLOnError(context))
+                .withRequestCoalescing(true)
+                .withResponseCache(getResponseCacheDirectory(context), RESPONSE_CACHE_MAX_SIZE, DeviceInformation.getDeviceID(context))
                 .build();
 
         return generator;
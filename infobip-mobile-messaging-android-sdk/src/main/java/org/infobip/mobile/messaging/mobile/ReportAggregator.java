@@ -0,0 +1,72 @@
+package org.infobip.mobile.messaging.mobile;
+
+import org.infobip.mobile.messaging.platform.TaskExecutors;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces reports into batches.
+ * <br>
+ * The first report opens a window of {@code maxDelay} milliseconds, reports put within the window are flushed
+ * together with a single run of the last provided task once the window closes. The window is closed early
+ * as soon as {@code maxBatchSize} reports are pending, so no report waits longer than {@code maxDelay}
+ * and no batch grows over {@code maxBatchSize}. Windows are scheduled on the SDK scheduler thread.
+ */
+public class ReportAggregator {
+
+    private final long maxDelay;
+    private final int maxBatchSize;
+    private ScheduledFuture<?> scheduledFlush = null;
+    private Runnable pendingTask = null;
+    private int pendingCount = 0;
+
+    public ReportAggregator(long maxDelay, int maxBatchSize) {
+        this.maxDelay = maxDelay;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Adds reports to the current batch
+     * @param count number of reports added
+     * @param task task which flushes all pending reports
+     */
+    public void put(int count, Runnable task) {
+        Runnable taskToRun = null;
+        synchronized (this) {
+            pendingTask = task;
+            pendingCount += count;
+            if (pendingCount >= maxBatchSize) {
+                taskToRun = takePending();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = TaskExecutors.scheduler().schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        Runnable task;
+                        synchronized (ReportAggregator.this) {
+                            task = takePending();
+                        }
+                        if (task != null) {
+                            task.run();
+                        }
+                    }
+                }, maxDelay, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        if (taskToRun != null) {
+            taskToRun.run();
+        }
+    }
+
+    private Runnable takePending() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        Runnable task = pendingTask;
+        pendingTask = null;
+        pendingCount = 0;
+        return task;
+    }
+}
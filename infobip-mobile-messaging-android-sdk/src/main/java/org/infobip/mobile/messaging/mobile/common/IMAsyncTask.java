@@ -1,5 +1,8 @@
 package org.infobip.mobile.messaging.mobile.common;
 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
 @SuppressWarnings({"unused", "WeakerAccess"})
 public abstract class IMAsyncTask<IN, OUT> {
 
@@ -72,4 +75,30 @@ public abstract class IMAsyncTask<IN, OUT> {
     public void cancelled(IN[] ins) {
 
     }
+
+    /**
+     * Waits for the result of a call started with an asynchronous API proxy.
+     * Exceptions of the call are rethrown as they are, so they are handled the same way as errors of blocking calls.
+     *
+     * @param call started call
+     * @return result of the call
+     */
+    protected static <T> T await(Future<T> call) {
+        try {
+            return call.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        } catch (InterruptedException e) {
+            call.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
 }
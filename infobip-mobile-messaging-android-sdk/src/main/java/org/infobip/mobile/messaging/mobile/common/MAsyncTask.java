@@ -1,7 +1,5 @@
 package org.infobip.mobile.messaging.mobile.common;
 
-import android.annotation.SuppressLint;
-import android.os.AsyncTask;
 import android.support.annotation.NonNull;
 
 import org.infobip.mobile.messaging.api.support.ApiBackendExceptionWithContent;
@@ -13,14 +11,18 @@ import org.infobip.mobile.messaging.mobile.common.exceptions.BackendCommunicatio
 import org.infobip.mobile.messaging.mobile.common.exceptions.BackendCommunicationExceptionWithContent;
 import org.infobip.mobile.messaging.mobile.common.exceptions.BackendInvalidParameterException;
 import org.infobip.mobile.messaging.mobile.common.exceptions.BackendInvalidParameterExceptionWithContent;
+import org.infobip.mobile.messaging.platform.TaskExecutors;
 
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * Wrapper object over native AsyncTask
- * for easier handling of background operations.
+ * Background task which runs on SDK executors
+ * and delivers its callbacks on UI thread.
  *
  * @author sslavin
  * @since 23/07/2017.
@@ -39,55 +41,18 @@ public abstract class MAsyncTask<IN, OUT> extends IMAsyncTask<IN, OUT> {
         add(ApiErrorCode.NO_REGISTRATION);
     }};
 
-    @SuppressLint("StaticFieldLeak")
-    private final AsyncTask<IN, Void, ResultWrapper<IN, OUT>> asyncTask = new AsyncTask<IN, Void, ResultWrapper<IN, OUT>>() {
-        @Override
-        protected void onPreExecute() {
-            before();
-        }
-
-        @Override
-        protected ResultWrapper<IN, OUT> doInBackground(IN[] ins) {
-            try {
-                if (shouldCancel()) {
-                    return new ResultWrapper<>(ins, true);
-                } else {
-                    OUT out = run(ins);
-                    afterBackground(out);
-                    return new ResultWrapper<>(out);
-                }
-            } catch (Throwable error) {
-                return new ResultWrapper<>(ins, error);
-            }
-        }
-
-        @Override
-        protected void onPostExecute(ResultWrapper<IN, OUT> resultWrapper) {
-            MobileMessagingLogger.v("Result wrapper: ", resultWrapper);
-            if (resultWrapper.cancelled) {
-                cancelled(resultWrapper.inputs);
-                return;
-            }
-
-            if (resultWrapper.error == null) {
-                after(resultWrapper.result);
-                return;
-            }
-
-            Throwable error = backendErrorToTaskError(resultWrapper.error);
-            error(error);
-            error(resultWrapper.inputs, error);
-        }
-    };
+    private final AtomicBoolean cancelled = new AtomicBoolean(false);
+    private volatile IN[] inputs;
+    private volatile Future<?> future;
 
     /**
-     * Starts execution of background task
+     * Starts execution of background task on the SDK I/O executor
      *
      * @param ins input parametes
      */
     @SuppressWarnings({"unused", "unchecked"})
     public void execute(IN... ins) {
-        asyncTask.execute(ins);
+        execute(TaskExecutors.io(), ins);
     }
 
     /**
@@ -97,12 +62,91 @@ public abstract class MAsyncTask<IN, OUT> extends IMAsyncTask<IN, OUT> {
      * @param ins      input parameters.
      */
     @SuppressWarnings({"unused", "unchecked"})
-    public void execute(Executor executor, IN... ins) {
-        asyncTask.executeOnExecutor(executor, ins);
+    public void execute(Executor executor, final IN... ins) {
+        inputs = ins;
+        before();
+
+        Runnable backgroundRunnable = new Runnable() {
+            @Override
+            public void run() {
+                final ResultWrapper<IN, OUT> resultWrapper = runInBackground(ins);
+                TaskExecutors.mainThread().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        deliver(ins, resultWrapper);
+                    }
+                });
+            }
+        };
+
+        if (executor instanceof ExecutorService) {
+            future = ((ExecutorService) executor).submit(backgroundRunnable);
+        } else {
+            executor.execute(backgroundRunnable);
+        }
+    }
+
+    /**
+     * Cancels the task. Task which did not start yet will not be run,
+     * result of a task which is already running will be dropped.
+     * In both cases only the {@link IMAsyncTask#cancelled(Object[])} will be called.
+     */
+    public void cancel() {
+        if (cancelled.getAndSet(true)) {
+            return;
+        }
+
+        Future<?> future = this.future;
+        if (future != null && future.cancel(false)) {
+            TaskExecutors.mainThread().execute(new Runnable() {
+                @Override
+                public void run() {
+                    cancelled(inputs);
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns true if the task was cancelled with {@link #cancel()}
+     */
+    public boolean isCancelled() {
+        return cancelled.get();
     }
 
     // region private methods
 
+    private ResultWrapper<IN, OUT> runInBackground(IN[] ins) {
+        try {
+            if (cancelled.get() || shouldCancel()) {
+                return new ResultWrapper<>(ins, true);
+            } else {
+                OUT out = run(ins);
+                afterBackground(out);
+                return new ResultWrapper<>(out);
+            }
+        } catch (Throwable error) {
+            return new ResultWrapper<>(ins, error);
+        }
+    }
+
+    private void deliver(IN[] ins, ResultWrapper<IN, OUT> resultWrapper) {
+        MobileMessagingLogger.v("Result wrapper: ", resultWrapper);
+        if (resultWrapper.cancelled || cancelled.get()) {
+            cancelled(ins);
+            return;
+        }
+
+        if (resultWrapper.error == null) {
+            after(resultWrapper.result);
+            return;
+        }
+
+        Throwable error = backendErrorToTaskError(resultWrapper.error);
+        error(error);
+        error(resultWrapper.inputs, error);
+    }
+
     private static Throwable backendErrorToTaskError(Throwable originalError) {
         if (isInvalidParameterErrorWithContent(originalError)) {
             return new BackendInvalidParameterExceptionWithContent(originalError.getMessage(), (ApiBackendExceptionWithContent) originalError);
@@ -1,10 +1,11 @@
 package org.infobip.mobile.messaging.mobile.common;
 
-import android.os.Handler;
-import android.os.Looper;
 import android.support.annotation.Nullable;
 
+import org.infobip.mobile.messaging.platform.TaskExecutors;
+
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -14,9 +15,10 @@ import java.util.concurrent.TimeUnit;
 
 public abstract class MRetryableTask<IN, OUT> extends IMAsyncTask<IN, OUT> {
 
-    private final Handler handler = new Handler(Looper.getMainLooper());
-
     private volatile ExecutionContext executionContext;
+    private volatile MAsyncTask<IN, OUT> currentAttempt;
+    private volatile ScheduledFuture<?> scheduledRetry;
+    private volatile boolean cancelled;
     private MRetryPolicy retryPolicy;
 
     private class ExecutionContext {
@@ -60,7 +62,37 @@ public abstract class MRetryableTask<IN, OUT> extends IMAsyncTask<IN, OUT> {
         execute();
     }
 
+    /**
+     * Cancels current attempt and all further retries,
+     * only the {@link IMAsyncTask#cancelled(Object[])} will be called.
+     */
+    public void cancel() {
+        cancelled = true;
+
+        ScheduledFuture<?> scheduledRetry = this.scheduledRetry;
+        if (scheduledRetry != null && scheduledRetry.cancel(false)) {
+            final ExecutionContext executionContext = this.executionContext;
+            TaskExecutors.mainThread().execute(new Runnable() {
+                @Override
+                public void run() {
+                    MRetryableTask.this.cancelled(executionContext != null ? executionContext.args : null);
+                }
+            });
+            return;
+        }
+
+        MAsyncTask<IN, OUT> currentAttempt = this.currentAttempt;
+        if (currentAttempt != null) {
+            currentAttempt.cancel();
+        }
+    }
+
     private void execute() {
+        if (cancelled) {
+            MRetryableTask.this.cancelled(executionContext.args);
+            return;
+        }
+
         MAsyncTask<IN, OUT> asyncTask = new MAsyncTask<IN, OUT>() {
 
             @Override
@@ -102,12 +134,18 @@ public abstract class MRetryableTask<IN, OUT> extends IMAsyncTask<IN, OUT> {
                 }
 
                 executionContext.attempts++;
-                handler.postDelayed(new Runnable() {
+                scheduledRetry = TaskExecutors.scheduler().schedule(new Runnable() {
                     @Override
                     public void run() {
-                        MRetryableTask.this.execute();
+                        TaskExecutors.mainThread().execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                scheduledRetry = null;
+                                MRetryableTask.this.execute();
+                            }
+                        });
                     }
-                }, TimeUnit.SECONDS.toMillis(executionContext.attempts * executionContext.attempts * executionContext.retryPolicy.getBackoffMultiplier()));
+                }, TimeUnit.SECONDS.toMillis(executionContext.attempts * executionContext.attempts * executionContext.retryPolicy.getBackoffMultiplier()), TimeUnit.MILLISECONDS);
             }
 
             @Override
@@ -116,6 +154,7 @@ public abstract class MRetryableTask<IN, OUT> extends IMAsyncTask<IN, OUT> {
             }
         };
 
+        currentAttempt = asyncTask;
         if (executionContext.executor != null) {
             asyncTask.execute(executionContext.executor, executionContext.args);
         } else {
@@ -10,6 +10,8 @@ import org.infobip.mobile.messaging.api.appinstance.AppInstance;
 import org.infobip.mobile.messaging.api.appinstance.MobileApiAppInstance;
 import org.infobip.mobile.messaging.api.appinstance.UserCustomEventBody;
 import org.infobip.mobile.messaging.api.appinstance.UserSessionEventBody;
+import org.infobip.mobile.messaging.dal.sqlite.Outbox;
+import org.infobip.mobile.messaging.dal.sqlite.OutboxQueue;
 import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 import org.infobip.mobile.messaging.mobile.BatchReporter;
 import org.infobip.mobile.messaging.mobile.InternalSdkError;
@@ -21,6 +23,9 @@ import org.infobip.mobile.messaging.mobile.common.MRetryableTask;
 import org.infobip.mobile.messaging.platform.Broadcaster;
 import org.infobip.mobile.messaging.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.Executor;
 
 public class UserEventsSynchronizer {
@@ -61,9 +66,9 @@ public class UserEventsSynchronizer {
 
         final long sessionStartsMillis = mobileMessagingCore.getActiveSessionStartTime();
         long lastReportedSessionStartTime = mobileMessagingCore.getLastReportedActiveSessionStartTime();
-        final String[] storedSessionBounds = mobileMessagingCore.getStoredSessionBounds();
+        final List<Outbox.Item> storedSessionBounds = mobileMessagingCore.getStoredSessionBoundItems();
         AppInstance systemData = getSystemDataForBackend();
-        final UserSessionEventBody userSessionEventBody = UserEventsRequestMapper.createUserSessionEventRequest(sessionStartsMillis, storedSessionBounds, systemData);
+        final UserSessionEventBody userSessionEventBody = UserEventsRequestMapper.createUserSessionEventRequest(sessionStartsMillis, Outbox.payloads(storedSessionBounds), systemData);
 
         // if request cannot be created (missing params) or
         // if we already reported the active session and session bounds are also reported (absent) we don't send a request
@@ -172,29 +177,38 @@ public class UserEventsSynchronizer {
             return;
         }
 
-        batchReporter.put(new Runnable() {
+        int pendingEvents = (int) mobileMessagingCore.getOutbox().count(OutboxQueue.CUSTOM_EVENTS);
+        batchReporter.put(pendingEvents, new Runnable() {
             @Override
             public void run() {
-                new MAsyncTask<Void, Void>() {
+                new MAsyncTask<Void, List<Outbox.Item>>() {
+
+                    private List<Outbox.Item> events = Collections.emptyList();
 
                     @Override
-                    public Void run(Void[] voids) {
-                        final UserCustomEventBody userCustomEventBody = new UserCustomEventBody(mobileMessagingCore.getUnreportedUserCustomEvents());
+                    public List<Outbox.Item> run(Void[] voids) {
+                        events = mobileMessagingCore.getOutbox().peek(OutboxQueue.CUSTOM_EVENTS, OutboxQueue.CUSTOM_EVENTS.getBatchSize());
+                        List<UserCustomEventBody.CustomEvent> customEvents = new ArrayList<>(events.size());
+                        for (Outbox.Item event : events) {
+                            customEvents.add(UserEventsRequestMapper.fromJson(event.getPayload()));
+                        }
+                        final UserCustomEventBody userCustomEventBody = new UserCustomEventBody(customEvents.toArray(new UserCustomEventBody.CustomEvent[0]));
                         MobileMessagingLogger.v("CUSTOM EVENT REPORT >>>", userCustomEventBody);
                         mobileApiAppInstance.sendUserCustomEvents(mobileMessagingCore.getPushRegistrationId(), false, userCustomEventBody);
-                        return null;
+                        return events;
                     }
 
                     @Override
-                    public void after(Void aVoid) {
+                    public void after(List<Outbox.Item> reportedEvents) {
                         MobileMessagingLogger.v("CUSTOM EVENT REPORT DONE <<<");
-                        mobileMessagingCore.setUserCustomEventsReported();
+                        mobileMessagingCore.getOutbox().remove(reportedEvents);
                         broadcaster.customEventsReported();
                     }
 
                     @Override
                     public void error(Throwable error) {
                         MobileMessagingLogger.v("CUSTOM EVENT REPORT ERROR <<<", error);
+                        mobileMessagingCore.getOutbox().markFailed(events);
                         MobileMessagingError mobileMessagingError = MobileMessagingError.createFrom(error);
                         mobileMessagingCore.handleNoRegistrationError(mobileMessagingError);
                         broadcaster.error(mobileMessagingError);
@@ -3,11 +3,15 @@ package org.infobip.mobile.messaging.mobile.messages;
 import org.infobip.mobile.messaging.Message;
 import org.infobip.mobile.messaging.MobileMessagingCore;
 import org.infobip.mobile.messaging.api.messages.MobileApiMessages;
+import org.infobip.mobile.messaging.api.messages.MobileApiMessagesAsync;
 import org.infobip.mobile.messaging.api.messages.SyncMessagesBody;
 import org.infobip.mobile.messaging.api.messages.SyncMessagesResponse;
 import org.infobip.mobile.messaging.cloud.MobileMessageHandler;
+import org.infobip.mobile.messaging.dal.sqlite.Outbox;
+import org.infobip.mobile.messaging.dal.sqlite.OutboxQueue;
 import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 import org.infobip.mobile.messaging.mobile.MobileMessagingError;
+import org.infobip.mobile.messaging.mobile.ReportAggregator;
 import org.infobip.mobile.messaging.mobile.common.MRetryPolicy;
 import org.infobip.mobile.messaging.mobile.common.MRetryableTask;
 import org.infobip.mobile.messaging.platform.Broadcaster;
@@ -16,9 +20,13 @@ import org.infobip.mobile.messaging.stats.MobileMessagingStats;
 import org.infobip.mobile.messaging.stats.MobileMessagingStatsError;
 import org.infobip.mobile.messaging.util.StringUtils;
 
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * @author pandric
@@ -35,6 +43,8 @@ public class MessagesSynchronizer {
     private final MobileMessageHandler mobileMessageHandler;
     private final MRetryPolicy retryPolicy;
     private final MobileApiMessages mobileApiMessages;
+    private final MobileApiMessagesAsync mobileApiMessagesAsync;
+    private final ReportAggregator reportAggregator;
     private volatile Long lastSyncTimeMillis;
 
     public MessagesSynchronizer(
@@ -44,7 +54,25 @@ public class MessagesSynchronizer {
             Broadcaster broadcaster,
             MRetryPolicy retryPolicy,
             MobileMessageHandler mobileMessageHandler,
-            MobileApiMessages mobileApiMessages) {
+            MobileApiMessages mobileApiMessages,
+            ReportAggregator reportAggregator) {
+        this(mobileMessagingCore, stats, executor, broadcaster, retryPolicy, mobileMessageHandler, mobileApiMessages, null, reportAggregator);
+    }
+
+    /**
+     * @param mobileApiMessagesAsync if not null, sync request is started as soon as sync is requested,
+     *                               so it runs concurrently with other requests of the sync cycle
+     */
+    public MessagesSynchronizer(
+            MobileMessagingCore mobileMessagingCore,
+            MobileMessagingStats stats,
+            Executor executor,
+            Broadcaster broadcaster,
+            MRetryPolicy retryPolicy,
+            MobileMessageHandler mobileMessageHandler,
+            MobileApiMessages mobileApiMessages,
+            MobileApiMessagesAsync mobileApiMessagesAsync,
+            ReportAggregator reportAggregator) {
 
         this.mobileMessagingCore = mobileMessagingCore;
         this.stats = stats;
@@ -52,7 +80,9 @@ public class MessagesSynchronizer {
         this.broadcaster = broadcaster;
         this.retryPolicy = retryPolicy;
         this.mobileApiMessages = mobileApiMessages;
+        this.mobileApiMessagesAsync = mobileApiMessagesAsync;
         this.mobileMessageHandler = mobileMessageHandler;
+        this.reportAggregator = reportAggregator;
     }
 
     public void sync() {
@@ -65,18 +95,51 @@ public class MessagesSynchronizer {
                 !mobileMessagingCore.isPushRegistrationEnabled()) {
             return;
         }
+
+        syncMessages();
+    }
+
+    /**
+     * Reports delivery of messages already added to unreported message ids,
+     * reports from a burst of messages are coalesced into a single sync request
+     * @param count number of delivered messages
+     */
+    public void reportDelivery(int count) {
+        reportAggregator.put(count, new Runnable() {
+            @Override
+            public void run() {
+                if (StringUtils.isBlank(mobileMessagingCore.getPushRegistrationId())) {
+                    MobileMessagingLogger.w("Registration not available yet, will report delivery later");
+                    return;
+                }
+
+                if (!mobileMessagingCore.isPushRegistrationEnabled()) {
+                    return;
+                }
+
+                syncMessages();
+            }
+        });
+    }
+
+    private void syncMessages() {
         lastSyncTimeMillis = Time.now();
 
-        final String[] unreportedMessageIds = mobileMessagingCore.getAndRemoveUnreportedMessageIds();
+        final List<Outbox.Item> unreportedMessages = mobileMessagingCore.getOutbox().take(OutboxQueue.DELIVERY_REPORTS, OutboxQueue.DELIVERY_REPORTS.getBatchSize());
+        final String[] unreportedMessageIds = new LinkedHashSet<>(Arrays.asList(Outbox.payloads(unreportedMessages))).toArray(new String[0]);
+        final SyncMessagesBody syncMessagesBody = SyncMessagesBody.make(mobileMessagingCore.getSyncMessagesIds(), unreportedMessageIds);
+        final AtomicReference<Future<SyncMessagesResponse>> startedCall = new AtomicReference<>(startSync(syncMessagesBody));
         new MRetryableTask<Void, List<Message>>() {
             @Override
             public List<Message> run(Void[] objects) {
-                String[] messageIds = mobileMessagingCore.getSyncMessagesIds();
-
-                SyncMessagesBody syncMessagesBody = SyncMessagesBody.make(messageIds, unreportedMessageIds);
-                MobileMessagingLogger.v("SYNC MESSAGES >>>", syncMessagesBody);
-                SyncMessagesResponse syncMessagesResponse = mobileApiMessages.sync(syncMessagesBody);
+                // first attempt waits for the call started in advance, retries call again
+                Future<SyncMessagesResponse> call = startedCall.getAndSet(null);
+                if (call == null) {
+                    MobileMessagingLogger.v("SYNC MESSAGES >>>", syncMessagesBody);
+                }
+                SyncMessagesResponse syncMessagesResponse = call != null ? await(call) : mobileApiMessages.sync(syncMessagesBody);
                 MobileMessagingLogger.v("SYNC MESSAGES DONE <<<", syncMessagesResponse);
+                mobileMessagingCore.getOutbox().remove(unreportedMessages);
                 return MessagesMapper.mapResponseToMessages(syncMessagesResponse.getPayloads());
             }
 
@@ -92,9 +155,14 @@ public class MessagesSynchronizer {
                 }
             }
 
+            @Override
+            public void cancelled(Void[] voids) {
+                mobileMessagingCore.getOutbox().release(unreportedMessages);
+            }
+
             @Override
             public void error(Throwable error) {
-                mobileMessagingCore.addUnreportedMessageIds(unreportedMessageIds);
+                mobileMessagingCore.getOutbox().putBack(unreportedMessages);
                 mobileMessagingCore.setLastHttpException(error);
 
                 MobileMessagingLogger.e("MobileMessaging API returned error (synchronizing messages)! ", error);
@@ -106,4 +174,13 @@ public class MessagesSynchronizer {
                 .retryWith(retryPolicy)
                 .execute(executor);
     }
+
+    private Future<SyncMessagesResponse> startSync(SyncMessagesBody syncMessagesBody) {
+        if (mobileApiMessagesAsync == null) {
+            return null;
+        }
+
+        MobileMessagingLogger.v("SYNC MESSAGES >>>", syncMessagesBody);
+        return mobileApiMessagesAsync.sync(syncMessagesBody);
+    }
 }
@@ -5,11 +5,13 @@ import android.content.Context;
 import org.infobip.mobile.messaging.Message;
 import org.infobip.mobile.messaging.MobileMessaging;
 import org.infobip.mobile.messaging.MobileMessagingCore;
-import org.infobip.mobile.messaging.MobileMessagingProperty;
 import org.infobip.mobile.messaging.api.messages.MoMessagesBody;
 import org.infobip.mobile.messaging.api.messages.MoMessagesResponse;
 import org.infobip.mobile.messaging.api.messages.MobileApiMessages;
+import org.infobip.mobile.messaging.api.messages.MobileApiMessagesAsync;
 import org.infobip.mobile.messaging.api.support.http.serialization.JsonSerializer;
+import org.infobip.mobile.messaging.dal.sqlite.Outbox;
+import org.infobip.mobile.messaging.dal.sqlite.OutboxQueue;
 import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 import org.infobip.mobile.messaging.mobile.InternalSdkError;
 import org.infobip.mobile.messaging.mobile.MobileMessagingError;
@@ -21,15 +23,15 @@ import org.infobip.mobile.messaging.platform.Time;
 import org.infobip.mobile.messaging.stats.MobileMessagingStats;
 import org.infobip.mobile.messaging.stats.MobileMessagingStatsError;
 import org.infobip.mobile.messaging.storage.MessageStoreWrapper;
-import org.infobip.mobile.messaging.util.PreferenceHelper;
 import org.infobip.mobile.messaging.util.StringUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Date;
 import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * @author sslavin
@@ -47,12 +49,39 @@ public class MoMessageSender {
     private final MRetryPolicy retryPolicy;
     private final MRetryPolicy noRetryPolicy;
     private final MobileApiMessages mobileApiMessages;
+    private final MobileApiMessagesAsync mobileApiMessagesAsync;
     private final MessageStoreWrapper messageStoreWrapper;
     private final JsonSerializer jsonSerializer;
 
     abstract class Task extends MRetryableTask<Message, Message[]> {
+
+        private final AtomicReference<Future<MoMessagesResponse>> startedCall = new AtomicReference<>();
+
+        /**
+         * Starts the request in advance with the asynchronous API if it is available,
+         * the first attempt then waits for its result and retries call again
+         */
+        Task start(Message[] messages) {
+            String pushRegistrationId = mobileMessagingCore.getPushRegistrationId();
+            if (mobileApiMessagesAsync == null || StringUtils.isBlank(pushRegistrationId)) {
+                return this;
+            }
+
+            MoMessagesBody moMessagesBody = MoMessageMapper.body(pushRegistrationId, messages);
+            MobileMessagingLogger.v("SEND MO >>>", moMessagesBody);
+            startedCall.set(mobileApiMessagesAsync.sendMO(moMessagesBody));
+            return this;
+        }
+
         @Override
         public Message[] run(Message[] messages) {
+            Future<MoMessagesResponse> call = startedCall.getAndSet(null);
+            if (call != null) {
+                MoMessagesResponse moMessagesResponse = await(call);
+                MobileMessagingLogger.v("SEND MO DONE <<<", moMessagesResponse);
+                return MoMessageMapper.messages(moMessagesResponse);
+            }
+
             if (StringUtils.isBlank(mobileMessagingCore.getPushRegistrationId())) {
                 MobileMessagingLogger.w("Can't send messages without valid registration");
                 throw InternalSdkError.NO_VALID_REGISTRATION.getException();
@@ -69,6 +98,14 @@ public class MoMessageSender {
     }
 
     public MoMessageSender(Context context, MobileMessagingCore mobileMessagingCore, Broadcaster broadcaster, Executor executor, MobileMessagingStats stats, MRetryPolicy retryPolicy, MobileApiMessages mobileApiMessages, MessageStoreWrapper messageStoreWrapper) {
+        this(context, mobileMessagingCore, broadcaster, executor, stats, retryPolicy, mobileApiMessages, null, messageStoreWrapper);
+    }
+
+    /**
+     * @param mobileApiMessagesAsync if not null, {@link #sync()} starts the request as soon as it is called,
+     *                               so it runs concurrently with other requests of the sync cycle
+     */
+    public MoMessageSender(Context context, MobileMessagingCore mobileMessagingCore, Broadcaster broadcaster, Executor executor, MobileMessagingStats stats, MRetryPolicy retryPolicy, MobileApiMessages mobileApiMessages, MobileApiMessagesAsync mobileApiMessagesAsync, MessageStoreWrapper messageStoreWrapper) {
         this.context = context;
         this.mobileMessagingCore = mobileMessagingCore;
         this.broadcaster = broadcaster;
@@ -76,6 +113,7 @@ public class MoMessageSender {
         this.stats = stats;
         this.retryPolicy = retryPolicy;
         this.mobileApiMessages = mobileApiMessages;
+        this.mobileApiMessagesAsync = mobileApiMessagesAsync;
         this.jsonSerializer = new JsonSerializer(false);
         this.messageStoreWrapper = messageStoreWrapper;
         this.noRetryPolicy = new MRetryPolicy.Builder()
@@ -128,13 +166,40 @@ public class MoMessageSender {
     }
 
     public void sync() {
-        Message[] messages = getAndRemoveMessages();
-        if (messages.length == 0) {
+        final Outbox outbox = mobileMessagingCore.getOutbox();
+        final List<Outbox.Item> items = outbox.take(OutboxQueue.MO_MESSAGES, OutboxQueue.MO_MESSAGES.getBatchSize());
+        final List<Outbox.Item> relevantItems = new ArrayList<>(items.size());
+        List<Outbox.Item> outdatedItems = new ArrayList<>();
+        List<Message> messages = new ArrayList<>(items.size());
+        for (Outbox.Item item : items) {
+            Message message = jsonSerializer.deserialize(item.getPayload(), Message.class);
+            if (isOutdated(message)) {
+                outdatedItems.add(item);
+                continue;
+            }
+            relevantItems.add(item);
+            messages.add(message);
+        }
+        outbox.remove(outdatedItems);
+        if (messages.isEmpty()) {
             return;
         }
 
+        Message[] messagesToSend = messages.toArray(new Message[0]);
         new Task() {
 
+            @Override
+            public Message[] run(Message[] messages) {
+                Message[] sentMessages = super.run(messages);
+                outbox.remove(relevantItems);
+                return sentMessages;
+            }
+
+            @Override
+            public void cancelled(Message[] messages) {
+                outbox.release(relevantItems);
+            }
+
             @Override
             public void error(Message[] messages, Throwable error) {
                 MobileMessagingLogger.e("MobileMessaging API returned error (sending messages in retry)! ", error);
@@ -142,22 +207,17 @@ public class MoMessageSender {
                 stats.reportError(MobileMessagingStatsError.MESSAGE_SEND_ERROR);
                 broadcaster.error(MobileMessagingError.createFrom(error));
 
-                saveMessages(messages);
+                outbox.putBack(relevantItems);
             }
         }
+        .start(messagesToSend)
         .retryWith(retryPolicy)
-        .execute(executor, messages);
+        .execute(executor, messagesToSend);
     }
 
     private void saveMessages(Message... messages) {
         String[] jsons = messagesToJson(excludeOutdatedMessages(messages));
-        PreferenceHelper.appendToStringArray(context, MobileMessagingProperty.UNSENT_MO_MESSAGES, jsons);
-    }
-
-    private Message[] getAndRemoveMessages() {
-        String[] jsons = PreferenceHelper.findAndRemoveStringArray(context, MobileMessagingProperty.UNSENT_MO_MESSAGES);
-        Message[] messages = messagesFromJson(jsons);
-        return excludeOutdatedMessages(messages);
+        mobileMessagingCore.getOutbox().append(OutboxQueue.MO_MESSAGES, jsons);
     }
 
     private String[] messagesToJson(Message... messages) {
@@ -172,28 +232,14 @@ public class MoMessageSender {
         return jsons.toArray(new String[0]);
     }
 
-    private Message[] messagesFromJson(String... jsons) {
-        if (jsons == null || jsons.length == 0) {
-            return new Message[0];
-        }
-
-        List<Message> messages = new ArrayList<>(jsons.length);
-        for (String json : jsons) {
-            messages.add(jsonSerializer.deserialize(json, Message.class));
-        }
-        return messages.toArray(new Message[0]);
-    }
-
     private Message[] excludeOutdatedMessages(Message[] messages) {
         if (messages.length == 0) {
             return new Message[0];
         }
 
-        Date now = Time.date();
         List<Message> relevantMessages = new ArrayList<>();
         for (Message message : messages) {
-            long expirationTimestamp = message.getReceivedTimestamp() + MESSAGE_MAX_RETRY_LIFETIME;
-            if (expirationTimestamp < now.getTime()) {
+            if (isOutdated(message)) {
                 continue;
             }
 
@@ -201,4 +247,9 @@ public class MoMessageSender {
         }
         return relevantMessages.toArray(new Message[0]);
     }
-}
\ No newline at end of file
+
+    private boolean isOutdated(Message message) {
+        long expirationTimestamp = message.getReceivedTimestamp() + MESSAGE_MAX_RETRY_LIFETIME;
+        return expirationTimestamp < Time.now();
+    }
+}
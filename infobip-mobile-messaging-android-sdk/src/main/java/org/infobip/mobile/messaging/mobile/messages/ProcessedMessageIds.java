@@ -0,0 +1,164 @@
+package org.infobip.mobile.messaging.mobile.messages;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import org.infobip.mobile.messaging.MobileMessagingProperty;
+import org.infobip.mobile.messaging.platform.Time;
+import org.infobip.mobile.messaging.util.PreferenceHelper;
+import org.infobip.mobile.messaging.util.StringUtils;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded index of ids of messages which were already processed by the SDK.
+ * <br>
+ * Ids are kept in memory ordered by the time they were added, the oldest ones are evicted when the index
+ * grows over the limit or when they expire. The index is loaded from shared preferences on first use
+ * and every modification is written back in the same "messageId, timestamp" format, so that lookups
+ * on the push-receive path do not touch shared preferences.
+ */
+public class ProcessedMessageIds {
+
+    private final Context context;
+    private final int limit;
+    private final long expiryMillis;
+    private LinkedHashMap<String, Long> timestamps;
+
+    public ProcessedMessageIds(Context context, int limit, long expiryMillis) {
+        this.context = context;
+        this.limit = limit;
+        this.expiryMillis = expiryMillis;
+    }
+
+    /**
+     * Checks if the message was already processed
+     * @param messageId id of the message
+     * @return true if the id is in the index and did not expire yet
+     */
+    public synchronized boolean contains(String messageId) {
+        if (messageId == null) {
+            return false;
+        }
+        Long timestamp = index().get(messageId);
+        return timestamp != null && !isExpired(timestamp, Time.now());
+    }
+
+    /**
+     * Adds ids to the index, re-added ids are moved to the end with the new timestamp
+     * @param messageIds ids of processed messages
+     */
+    public synchronized void add(String... messageIds) {
+        if (messageIds == null || messageIds.length == 0) {
+            return;
+        }
+
+        Map<String, Long> index = index();
+        long now = Time.now();
+        for (String messageId : messageIds) {
+            if (messageId == null) {
+                continue;
+            }
+            index.remove(messageId);
+            index.put(messageId, now);
+        }
+        evict(now);
+        persist();
+    }
+
+    /**
+     * Returns ids which did not expire yet, starting from the oldest one
+     */
+    @NonNull
+    public synchronized String[] getAll() {
+        Map<String, Long> index = index();
+        if (evict(Time.now())) {
+            persist();
+        }
+        return index.keySet().toArray(new String[index.size()]);
+    }
+
+    /**
+     * Removes all ids from memory and from shared preferences
+     */
+    public synchronized void clear() {
+        timestamps = new LinkedHashMap<>();
+        PreferenceHelper.remove(context, MobileMessagingProperty.INFOBIP_SYNC_MESSAGES_IDS);
+    }
+
+    private Map<String, Long> index() {
+        if (timestamps == null) {
+            timestamps = load();
+            if (evict(Time.now())) {
+                persist();
+            }
+        }
+        return timestamps;
+    }
+
+    private LinkedHashMap<String, Long> load() {
+        String[] pairs = PreferenceHelper.findStringArray(context, MobileMessagingProperty.INFOBIP_SYNC_MESSAGES_IDS);
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(pairs.length);
+        for (String pair : pairs) {
+            String[] messageIdWithTimestamp = pair.split(StringUtils.COMMA_WITH_SPACE);
+            if (messageIdWithTimestamp.length < 2) {
+                continue;
+            }
+            try {
+                long timestamp = Long.valueOf(messageIdWithTimestamp[1]);
+                entries.add(new AbstractMap.SimpleImmutableEntry<>(messageIdWithTimestamp[0], timestamp));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+
+        Collections.sort(entries, new Comparator<Map.Entry<String, Long>>() {
+            @Override
+            public int compare(Map.Entry<String, Long> e1, Map.Entry<String, Long> e2) {
+                return e1.getValue().compareTo(e2.getValue());
+            }
+        });
+
+        LinkedHashMap<String, Long> loaded = new LinkedHashMap<>(Math.max(entries.size(), limit) * 4 / 3 + 1);
+        for (Map.Entry<String, Long> entry : entries) {
+            loaded.remove(entry.getKey());
+            loaded.put(entry.getKey(), entry.getValue());
+        }
+        return loaded;
+    }
+
+    private boolean evict(long now) {
+        boolean evicted = false;
+        int excess = timestamps.size() - limit;
+        Iterator<Map.Entry<String, Long>> iterator = timestamps.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            if (excess <= 0 && !isExpired(entry.getValue(), now)) {
+                break;
+            }
+            iterator.remove();
+            excess--;
+            evicted = true;
+        }
+        return evicted;
+    }
+
+    private boolean isExpired(long timestamp, long now) {
+        return now - timestamp > expiryMillis;
+    }
+
+    private void persist() {
+        String[] pairs = new String[timestamps.size()];
+        int i = 0;
+        for (Map.Entry<String, Long> entry : timestamps.entrySet()) {
+            pairs[i++] = StringUtils.concat(entry.getKey(), String.valueOf(entry.getValue()), StringUtils.COMMA_WITH_SPACE);
+        }
+        PreferenceHelper.saveStringArray(context, MobileMessagingProperty.INFOBIP_SYNC_MESSAGES_IDS, pairs);
+    }
+}
@@ -2,7 +2,9 @@ package org.infobip.mobile.messaging.mobile.seen;
 
 import org.infobip.mobile.messaging.MobileMessagingCore;
 import org.infobip.mobile.messaging.api.messages.MobileApiMessages;
+import org.infobip.mobile.messaging.api.messages.MobileApiMessagesAsync;
 import org.infobip.mobile.messaging.api.messages.SeenMessages;
+import org.infobip.mobile.messaging.dal.sqlite.Outbox;
 import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 import org.infobip.mobile.messaging.mobile.BatchReporter;
 import org.infobip.mobile.messaging.mobile.InternalSdkError;
@@ -13,7 +15,9 @@ import org.infobip.mobile.messaging.stats.MobileMessagingStats;
 import org.infobip.mobile.messaging.stats.MobileMessagingStatsError;
 import org.infobip.mobile.messaging.util.StringUtils;
 
+import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 
 /**
  * @author sslavin
@@ -26,6 +30,7 @@ public class SeenStatusReporter {
     private final Executor executor;
     private final Broadcaster broadcaster;
     private final MobileApiMessages mobileApiMessages;
+    private final MobileApiMessagesAsync mobileApiMessagesAsync;
     private final BatchReporter batchReporter;
 
     public SeenStatusReporter(
@@ -35,12 +40,28 @@ public class SeenStatusReporter {
             Broadcaster broadcaster,
             MobileApiMessages mobileApiMessages,
             BatchReporter batchReporter) {
+        this(mobileMessagingCore, stats, executor, broadcaster, mobileApiMessages, null, batchReporter);
+    }
+
+    /**
+     * @param mobileApiMessagesAsync if not null, seen report is started as soon as the batch is ready,
+     *                               so it runs concurrently with other requests of the sync cycle
+     */
+    public SeenStatusReporter(
+            MobileMessagingCore mobileMessagingCore,
+            MobileMessagingStats stats,
+            Executor executor,
+            Broadcaster broadcaster,
+            MobileApiMessages mobileApiMessages,
+            MobileApiMessagesAsync mobileApiMessagesAsync,
+            BatchReporter batchReporter) {
 
         this.mobileMessagingCore = mobileMessagingCore;
         this.stats = stats;
         this.executor = executor;
         this.broadcaster = broadcaster;
         this.mobileApiMessages = mobileApiMessages;
+        this.mobileApiMessagesAsync = mobileApiMessagesAsync;
         this.batchReporter = batchReporter;
     }
 
@@ -50,10 +71,16 @@ public class SeenStatusReporter {
             return;
         }
 
-        batchReporter.put(new Runnable() {
+        batchReporter.put(unreportedSeenMessageIds.length, new Runnable() {
             @Override
             public void run() {
+                final List<Outbox.Item> reports = mobileMessagingCore.takeUnreportedSeenReports();
+                final String[] messageIDs = Outbox.payloads(reports);
+                final Future<Void> startedCall = startReportSeen(messageIDs);
                 new MAsyncTask<Void, String[]>() {
+
+                    private volatile boolean attempted;
+
                     @Override
                     public String[] run(Void[] voids) {
 
@@ -62,16 +89,20 @@ public class SeenStatusReporter {
                             throw InternalSdkError.NO_VALID_REGISTRATION.getException();
                         }
 
-                        String[] messageIDs = mobileMessagingCore.getUnreportedSeenMessageIds();
                         if (messageIDs.length == 0) {
                             return messageIDs;
                         }
 
-                        SeenMessages seenMessages = SeenMessagesMapper.fromMessageIds(messageIDs);
-                        MobileMessagingLogger.v("SEEN >>>", seenMessages);
-                        mobileApiMessages.reportSeen(seenMessages);
+                        attempted = true;
+                        if (startedCall != null) {
+                            await(startedCall);
+                        } else {
+                            SeenMessages seenMessages = SeenMessagesMapper.fromMessageIds(messageIDs);
+                            MobileMessagingLogger.v("SEEN >>>", seenMessages);
+                            mobileApiMessages.reportSeen(seenMessages);
+                        }
                         MobileMessagingLogger.v("SEEN DONE <<<");
-                        mobileMessagingCore.removeUnreportedSeenMessageIds(messageIDs);
+                        mobileMessagingCore.getOutbox().remove(reports);
                         return messageIDs;
                     }
 
@@ -81,11 +112,21 @@ public class SeenStatusReporter {
                         broadcaster.seenStatusReported(seenMessageIdsFromReports);
                     }
 
+                    @Override
+                    public void cancelled(Void[] voids) {
+                        mobileMessagingCore.getOutbox().release(reports);
+                    }
+
                     @Override
                     public void error(Throwable error) {
                         mobileMessagingCore.setLastHttpException(error);
 
                         MobileMessagingLogger.e("Error reporting seen status!");
+                        if (attempted) {
+                            mobileMessagingCore.getOutbox().putBack(reports);
+                        } else {
+                            mobileMessagingCore.getOutbox().release(reports);
+                        }
                         stats.reportError(MobileMessagingStatsError.SEEN_REPORTING_ERROR);
                         broadcaster.error(MobileMessagingError.createFrom(error));
                     }
@@ -94,4 +135,14 @@ public class SeenStatusReporter {
             }
         });
     }
+
+    private Future<Void> startReportSeen(String[] messageIDs) {
+        if (mobileApiMessagesAsync == null || messageIDs.length == 0 || StringUtils.isBlank(mobileMessagingCore.getPushRegistrationId())) {
+            return null;
+        }
+
+        SeenMessages seenMessages = SeenMessagesMapper.fromMessageIds(messageIDs);
+        MobileMessagingLogger.v("SEEN >>>", seenMessages);
+        return mobileApiMessagesAsync.reportSeen(seenMessages);
+    }
 }
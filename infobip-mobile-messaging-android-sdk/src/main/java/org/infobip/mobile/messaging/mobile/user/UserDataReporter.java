@@ -138,7 +138,7 @@ public class UserDataReporter {
             public UserBody run(Void[] aVoid) {
                 MobileMessagingLogger.v("FETCHING USER DATA >>>");
                 UserBody userResponse = mobileApiAppInstance.getUser(mobileMessagingCore.getPushRegistrationId());
-                MobileMessagingLogger.v("FETCHING USER DATA <<<", userResponse != null ? userResponse.toString() : null);
+                MobileMessagingLogger.v("FETCHING USER DATA <<<", userResponse);
                 return userResponse;
             }
 
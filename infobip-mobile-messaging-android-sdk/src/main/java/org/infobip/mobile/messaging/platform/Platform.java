@@ -26,7 +26,7 @@ public class Platform {
 
     public static final String os = "Android";
     public static volatile int sdkInt = Build.VERSION.SDK_INT;
-    private static volatile Executor backgroundExecutor = new AsyncTaskExecutor();
+    private static volatile Executor backgroundExecutor = TaskExecutors.io();
 
     public static volatile Lazy<MobileMessagingCore, Context> mobileMessagingCore = createForConstructorAcceptingContext(MobileMessagingCore.class);
     public static volatile Lazy<AndroidBroadcaster, Context> broadcaster = createForConstructorAcceptingContext(AndroidBroadcaster.class);
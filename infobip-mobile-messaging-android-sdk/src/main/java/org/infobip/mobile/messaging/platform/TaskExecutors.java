@@ -0,0 +1,109 @@
+package org.infobip.mobile.messaging.platform;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared executors of the SDK.
+ * <br>
+ * Background work is split into bounded pools of named daemon threads:
+ * <ul>
+ * <li>{@link #io()} for network requests and other background tasks,</li>
+ * <li>{@link #disk()} for asynchronous file writes, serialized on a single thread,</li>
+ * <li>{@link #scheduler()} for delayed work such as retries and batched reports,</li>
+ * <li>{@link #mainThread()} for callbacks which have to run on UI thread.</li>
+ * </ul>
+ * Idle threads of the pools are released after 30 seconds.
+ */
+public class TaskExecutors {
+
+    private static final int IO_POOL_SIZE = 4;
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static ExecutorService io;
+    private static ExecutorService disk;
+    private static ScheduledExecutorService scheduler;
+    private static Executor mainThread;
+
+    public static synchronized ExecutorService io() {
+        if (io == null) {
+            io = newPool("mm-io", IO_POOL_SIZE);
+        }
+        return io;
+    }
+
+    public static synchronized ExecutorService disk() {
+        if (disk == null) {
+            disk = newPool("mm-disk", 1);
+        }
+        return disk;
+    }
+
+    public static synchronized ScheduledExecutorService scheduler() {
+        if (scheduler == null) {
+            scheduler = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("mm-scheduler"));
+        }
+        return scheduler;
+    }
+
+    public static synchronized Executor mainThread() {
+        if (mainThread == null) {
+            mainThread = new MainThreadExecutor();
+        }
+        return mainThread;
+    }
+
+    /**
+     * Creates a new executor which runs tasks one by one in the order they were submitted
+     * @param name name prefix of the thread
+     * @return new serial executor
+     */
+    public static ExecutorService newSerialExecutor(String name) {
+        return newPool(name, 1);
+    }
+
+    private static ExecutorService newPool(String name, int size) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new NamedThreadFactory(name));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static class MainThreadExecutor implements Executor {
+
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void execute(@NonNull Runnable command) {
+            handler.post(command);
+        }
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+
+        private final String name;
+        private final AtomicInteger count = new AtomicInteger(0);
+
+        NamedThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package org.infobip.mobile.messaging.storage;
+
+import android.support.annotation.NonNull;
+
+import org.infobip.mobile.messaging.Message;
+import org.infobip.mobile.messaging.dal.sqlite.DatabaseContract.MessageColumns;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Describes a page of stored messages, newest messages first.
+ * <br>
+ * Use {@link Builder#withStartAfter(Message)} with the last message of the previous page
+ * to request the next page, it stays stable when new messages arrive in between.
+ * <pre>
+ * {@code
+ * MessageQuery firstPage = new MessageQuery.Builder()
+ *         .onlyUnseen()
+ *         .withLimit(20)
+ *         .build();
+ * List<Message> messages = sqliteMessageStore.find(context, firstPage);
+ *
+ * MessageQuery nextPage = new MessageQuery.Builder()
+ *         .onlyUnseen()
+ *         .withStartAfter(messages.get(messages.size() - 1))
+ *         .withLimit(20)
+ *         .build();
+ * }
+ * </pre>
+ *
+ * @see SQLiteMessageStore#find(android.content.Context, MessageQuery)
+ * @see SQLiteMessageStore#iterate(android.content.Context, MessageQuery)
+ */
+public class MessageQuery {
+
+    /**
+     * Order of messages in query results
+     */
+    public static final String ORDER_BY = MessageColumns.RECEIVED_TIMESTAMP + " DESC, " + MessageColumns.MESSAGE_ID + " DESC";
+
+    private final Boolean seen;
+    private final String category;
+    private final Message.Status status;
+    private final Long receivedFrom;
+    private final Long receivedTo;
+    private final Long startAfterTimestamp;
+    private final String startAfterMessageId;
+    private final int limit;
+    private final int offset;
+
+    private MessageQuery(Builder builder) {
+        this.seen = builder.seen;
+        this.category = builder.category;
+        this.status = builder.status;
+        this.receivedFrom = builder.receivedFrom;
+        this.receivedTo = builder.receivedTo;
+        this.startAfterTimestamp = builder.startAfterTimestamp;
+        this.startAfterMessageId = builder.startAfterMessageId;
+        this.limit = builder.limit;
+        this.offset = builder.offset;
+    }
+
+    /**
+     * Maximum number of messages to return
+     * @return limit, zero or less if there is no limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Number of messages to skip
+     * @return offset
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * SQL condition matching the query, to be used together with {@link #getSelectionArgs()}
+     * @return where clause or null if query matches all messages
+     */
+    public String getSelection() {
+        List<String> conditions = new ArrayList<>();
+        if (seen != null) {
+            conditions.add(seen ?
+                    MessageColumns.SEEN_TIMESTAMP + " > 0" :
+                    "(" + MessageColumns.SEEN_TIMESTAMP + " IS NULL OR " + MessageColumns.SEEN_TIMESTAMP + " = 0)");
+        }
+        if (category != null) {
+            conditions.add(MessageColumns.CATEGORY + " = ?");
+        }
+        if (status != null) {
+            conditions.add(MessageColumns.STATUS + " = ?");
+        }
+        if (receivedFrom != null) {
+            conditions.add(MessageColumns.RECEIVED_TIMESTAMP + " >= ?");
+        }
+        if (receivedTo != null) {
+            conditions.add(MessageColumns.RECEIVED_TIMESTAMP + " < ?");
+        }
+        if (startAfterTimestamp != null) {
+            conditions.add("(" + MessageColumns.RECEIVED_TIMESTAMP + " < ? OR (" +
+                    MessageColumns.RECEIVED_TIMESTAMP + " = ? AND " + MessageColumns.MESSAGE_ID + " < ?))");
+        }
+
+        if (conditions.isEmpty()) {
+            return null;
+        }
+
+        StringBuilder selection = new StringBuilder();
+        for (String condition : conditions) {
+            selection.append(selection.length() > 0 ? " AND " : "").append(condition);
+        }
+        return selection.toString();
+    }
+
+    /**
+     * Arguments for placeholders of {@link #getSelection()}
+     * @return selection arguments
+     */
+    public String[] getSelectionArgs() {
+        List<String> args = new ArrayList<>();
+        if (category != null) {
+            args.add(category);
+        }
+        if (status != null) {
+            args.add(status.name());
+        }
+        if (receivedFrom != null) {
+            args.add(String.valueOf(receivedFrom));
+        }
+        if (receivedTo != null) {
+            args.add(String.valueOf(receivedTo));
+        }
+        if (startAfterTimestamp != null) {
+            args.add(String.valueOf(startAfterTimestamp));
+            args.add(String.valueOf(startAfterTimestamp));
+            args.add(startAfterMessageId);
+        }
+        return args.toArray(new String[args.size()]);
+    }
+
+    public static final class Builder {
+
+        private Boolean seen;
+        private String category;
+        private Message.Status status;
+        private Long receivedFrom;
+        private Long receivedTo;
+        private Long startAfterTimestamp;
+        private String startAfterMessageId;
+        private int limit;
+        private int offset;
+
+        /**
+         * Returns only messages which were already seen
+         */
+        public Builder onlySeen() {
+            this.seen = true;
+            return this;
+        }
+
+        /**
+         * Returns only messages which were not seen yet
+         */
+        public Builder onlyUnseen() {
+            this.seen = false;
+            return this;
+        }
+
+        /**
+         * Returns only messages of the provided category
+         * @param category message category
+         */
+        public Builder withCategory(@NonNull String category) {
+            this.category = category;
+            return this;
+        }
+
+        /**
+         * Returns only messages with the provided status
+         * @param status message status
+         */
+        public Builder withStatus(@NonNull Message.Status status) {
+            this.status = status;
+            return this;
+        }
+
+        /**
+         * Returns only messages received at or after the provided time
+         * @param timestamp time in milliseconds, inclusive
+         */
+        public Builder withReceivedFrom(long timestamp) {
+            this.receivedFrom = timestamp;
+            return this;
+        }
+
+        /**
+         * Returns only messages received before the provided time
+         * @param timestamp time in milliseconds, exclusive
+         */
+        public Builder withReceivedTo(long timestamp) {
+            this.receivedTo = timestamp;
+            return this;
+        }
+
+        /**
+         * Returns only messages which come after the provided message in query order
+         * @param message last message of the previous page
+         */
+        public Builder withStartAfter(@NonNull Message message) {
+            this.startAfterTimestamp = message.getReceivedTimestamp();
+            this.startAfterMessageId = message.getMessageId();
+            return this;
+        }
+
+        /**
+         * Limits number of returned messages
+         * @param limit maximum number of messages
+         */
+        public Builder withLimit(int limit) {
+            this.limit = limit;
+            return this;
+        }
+
+        /**
+         * Skips the provided number of messages
+         * @param offset number of messages to skip
+         */
+        public Builder withOffset(int offset) {
+            this.offset = offset;
+            return this;
+        }
+
+        public MessageQuery build() {
+            return new MessageQuery(this);
+        }
+    }
+}
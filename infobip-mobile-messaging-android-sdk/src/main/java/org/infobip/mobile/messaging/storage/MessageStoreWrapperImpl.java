@@ -5,6 +5,7 @@ import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
 import org.infobip.mobile.messaging.Message;
+import org.infobip.mobile.messaging.logging.MessageSupplier;
 import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 
 /**
@@ -29,9 +30,14 @@ public class MessageStoreWrapperImpl implements MessageStoreWrapper {
      * {@inheritDoc}
      */
     @Override
-    public void upsert(@NonNull Message message) {
+    public void upsert(@NonNull final Message message) {
         if (messageStore == null) {
-            MobileMessagingLogger.d("Skipping save message: " + message.getMessageId());
+            MobileMessagingLogger.d(new MessageSupplier() {
+                @Override
+                public String get() {
+                    return "Skipping save message: " + message.getMessageId();
+                }
+            });
             return;
         }
 
@@ -44,8 +50,13 @@ public class MessageStoreWrapperImpl implements MessageStoreWrapper {
     @Override
     public void upsert(@NonNull Message[] messages) {
         if (messageStore == null) {
-            for (Message m : messages) {
-                MobileMessagingLogger.d("Skipping save message: " + m.getMessageId());
+            for (final Message m : messages) {
+                MobileMessagingLogger.d(new MessageSupplier() {
+                    @Override
+                    public String get() {
+                        return "Skipping save message: " + m.getMessageId();
+                    }
+                });
             }
             return;
         }
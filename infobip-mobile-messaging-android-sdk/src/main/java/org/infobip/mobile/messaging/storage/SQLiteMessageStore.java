@@ -1,10 +1,12 @@
 package org.infobip.mobile.messaging.storage;
 
+import android.content.ContentValues;
 import android.content.Context;
 
 import org.infobip.mobile.messaging.Message;
 import org.infobip.mobile.messaging.MobileMessagingCore;
-import org.infobip.mobile.messaging.dal.sqlite.DatabaseHelper;
+import org.infobip.mobile.messaging.dal.sqlite.DatabaseContract.MessageColumns;
+import org.infobip.mobile.messaging.dal.sqlite.DatabaseCursor;
 import org.infobip.mobile.messaging.dal.sqlite.SqliteMessage;
 
 import java.util.ArrayList;
@@ -28,19 +30,88 @@ import java.util.List;
  * @since 29/12/2016.
  */
 
-public class SQLiteMessageStore implements MessageStore {
+public class SQLiteMessageStore implements SeenStatusAwareMessageStore {
 
     public void save(Context context, Message... messages) {
-        DatabaseHelper helper = MobileMessagingCore.getDatabaseHelper(context);
+        List<SqliteMessage> sqliteMessages = new ArrayList<>(messages.length);
         for (Message message : messages) {
-            helper.save(new SqliteMessage(message));
+            sqliteMessages.add(new SqliteMessage(message));
         }
+        MobileMessagingCore.getDatabaseHelper(context).saveAll(sqliteMessages);
+    }
+
+    public void markSeen(Context context, long seenTimestamp, String... messageIds) {
+        ContentValues values = new ContentValues();
+        values.put(MessageColumns.SEEN_TIMESTAMP, seenTimestamp);
+        MobileMessagingCore.getDatabaseHelper(context).update(SqliteMessage.class, values, messageIds);
     }
 
     public List<Message> findAll(Context context) {
         return new ArrayList<Message>(MobileMessagingCore.getDatabaseHelper(context).findAll(SqliteMessage.class));
     }
 
+    /**
+     * Finds a page of stored messages, newest messages first
+     *
+     * @param context current context
+     * @param query   query describing the page
+     * @return messages matching the query
+     */
+    public List<Message> find(Context context, MessageQuery query) {
+        return new ArrayList<Message>(MobileMessagingCore.getDatabaseHelper(context).findAll(SqliteMessage.class,
+                query.getSelection(), query.getSelectionArgs(), MessageQuery.ORDER_BY, query.getLimit(), query.getOffset()));
+    }
+
+    /**
+     * Iterates over stored messages, newest messages first, mapping each message only when it is reached.
+     * Limit and offset of the query are ignored.
+     *
+     * @param context current context
+     * @param query   query to filter messages with
+     * @return lazy cursor over messages, has to be closed if not iterated until the end
+     */
+    public DatabaseCursor<SqliteMessage> iterate(Context context, MessageQuery query) {
+        return MobileMessagingCore.getDatabaseHelper(context).iterate(SqliteMessage.class,
+                query.getSelection(), query.getSelectionArgs(), MessageQuery.ORDER_BY);
+    }
+
+    /**
+     * Finds the most recently received messages
+     *
+     * @param context current context
+     * @param count   maximum number of messages to return
+     * @return latest messages, newest first
+     */
+    public List<Message> findLatest(Context context, int count) {
+        return find(context, new MessageQuery.Builder()
+                .withLimit(count)
+                .build());
+    }
+
+    /**
+     * Finds messages of the provided category
+     *
+     * @param context  current context
+     * @param category message category
+     * @return messages of the category, newest first
+     */
+    public List<Message> findByCategory(Context context, String category) {
+        return find(context, new MessageQuery.Builder()
+                .withCategory(category)
+                .build());
+    }
+
+    /**
+     * Counts messages which were not seen yet
+     *
+     * @param context current context
+     * @return unseen messages count
+     */
+    public long countUnseen(Context context) {
+        return MobileMessagingCore.getDatabaseHelper(context).countAll(SqliteMessage.class,
+                new MessageQuery.Builder().onlyUnseen().build().getSelection());
+    }
+
     public Message findById(Context context, String messageId) {
         return MobileMessagingCore.getDatabaseHelper(context).find(SqliteMessage.class, messageId);
     }
@@ -0,0 +1,23 @@
+package org.infobip.mobile.messaging.storage;
+
+import android.content.Context;
+
+/**
+ * Message store which can mark stored messages as seen without loading them.
+ * <br>
+ * Implement it in your message store if it can update messages in place,
+ * otherwise the SDK updates seen status by loading all messages and saving the matching ones.
+ *
+ * @see SQLiteMessageStore
+ */
+public interface SeenStatusAwareMessageStore extends MessageStore {
+
+    /**
+     * Sets seen timestamp for stored messages with the provided ids
+     *
+     * @param context       current context
+     * @param seenTimestamp time when messages were seen
+     * @param messageIds    ids of messages to update
+     */
+    void markSeen(Context context, long seenTimestamp, String... messageIds);
+}
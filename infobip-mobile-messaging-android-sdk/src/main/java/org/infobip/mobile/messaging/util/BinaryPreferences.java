@@ -0,0 +1,728 @@
+package org.infobip.mobile.messaging.util;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
+import org.infobip.mobile.messaging.platform.TaskExecutors;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+/**
+ * Key-value storage kept in a single binary append-only log.
+ * <br>
+ * Each commit of an editor is appended to the end of the file as one record protected by a checksum,
+ * so only the changed keys are written and all changes of a record are applied atomically -
+ * a record which was not completely written is discarded on the next load. The log is compacted
+ * into a single snapshot record once it grows twice the size of the last snapshot.
+ * <br>
+ * Changes are applied in memory right away and written to the file on a dedicated background thread,
+ * {@link Editor#commit()} waits for the write to complete. Several edits can be grouped into
+ * an atomic transaction with {@link #runTransaction(PreferenceHelper.Transaction)}.
+ */
+public class BinaryPreferences implements SharedPreferences {
+
+    static final String FILE_NAME = "MobileMessagingSDK.kv";
+
+    private static final int MAGIC = 0x4D4D4B56;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final long MIN_COMPACTION_SIZE = 16 * 1024;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final byte OP_CLEAR = 0;
+    private static final byte OP_REMOVE = 1;
+    private static final byte OP_STRING = 2;
+    private static final byte OP_INT = 3;
+    private static final byte OP_LONG = 4;
+    private static final byte OP_FLOAT = 5;
+    private static final byte OP_BOOLEAN = 6;
+    private static final byte OP_STRING_SET = 7;
+
+    private static final Object REMOVED = new Object();
+    private static BinaryPreferences instance = null;
+
+    private final File file;
+    private final ExecutorService writeExecutor;
+    private final Map<String, Object> values = new HashMap<>();
+    private final WeakHashMap<OnSharedPreferenceChangeListener, Object> listeners = new WeakHashMap<>();
+    private int transactionDepth = 0;
+    private ByteArrayOutputStream transactionOps = null;
+    private Set<String> transactionChangedKeys = null;
+    // values the keys had before the transaction changed them
+    private Map<String, Object> transactionUndo = null;
+
+    // accessed only on the write thread
+    private long logSize = 0;
+    private long snapshotSize = 0;
+
+    public static synchronized BinaryPreferences getInstance(Context context) {
+        if (instance == null) {
+            instance = new BinaryPreferences(new File(context.getFilesDir(), FILE_NAME));
+        }
+        return instance;
+    }
+
+    BinaryPreferences(File file) {
+        this.file = file;
+        this.writeExecutor = TaskExecutors.disk();
+        load();
+    }
+
+    // region SharedPreferences
+
+    @Override
+    public synchronized Map<String, ?> getAll() {
+        return new HashMap<>(values);
+    }
+
+    @Nullable
+    @Override
+    public synchronized String getString(String key, @Nullable String defValue) {
+        String value = (String) values.get(key);
+        return value != null ? value : defValue;
+    }
+
+    @Nullable
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized Set<String> getStringSet(String key, @Nullable Set<String> defValues) {
+        Set<String> value = (Set<String>) values.get(key);
+        return value != null ? value : defValues;
+    }
+
+    @Override
+    public synchronized int getInt(String key, int defValue) {
+        Integer value = (Integer) values.get(key);
+        return value != null ? value : defValue;
+    }
+
+    @Override
+    public synchronized long getLong(String key, long defValue) {
+        Long value = (Long) values.get(key);
+        return value != null ? value : defValue;
+    }
+
+    @Override
+    public synchronized float getFloat(String key, float defValue) {
+        Float value = (Float) values.get(key);
+        return value != null ? value : defValue;
+    }
+
+    @Override
+    public synchronized boolean getBoolean(String key, boolean defValue) {
+        Boolean value = (Boolean) values.get(key);
+        return value != null ? value : defValue;
+    }
+
+    @Override
+    public synchronized boolean contains(String key) {
+        return values.containsKey(key);
+    }
+
+    @Override
+    public Editor edit() {
+        return new BinaryEditor();
+    }
+
+    @Override
+    public synchronized void registerOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener) {
+        listeners.put(listener, this);
+    }
+
+    @Override
+    public synchronized void unregisterOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    // endregion
+
+    /**
+     * Runs the transaction atomically.
+     * <br>
+     * Other threads cannot read or write the preferences while the transaction is running,
+     * all changes done within the transaction are written to the file as a single record once it completes.
+     * If the transaction throws, its changes are rolled back and nothing is written.
+     * {@link Editor#commit()} called within the transaction does not wait for the write.
+     *
+     * @param transaction transaction to run
+     * @return result of the transaction
+     */
+    public <Result> Result runTransaction(PreferenceHelper.Transaction<Result> transaction) {
+        synchronized (this) {
+            if (transactionDepth++ == 0) {
+                transactionOps = new ByteArrayOutputStream();
+                transactionChangedKeys = new LinkedHashSet<>();
+                transactionUndo = new HashMap<>();
+            }
+            boolean completed = false;
+            try {
+                Result result = transaction.run();
+                completed = true;
+                return result;
+            } finally {
+                if (--transactionDepth == 0) {
+                    byte[] ops = transactionOps.toByteArray();
+                    Set<String> changedKeys = transactionChangedKeys;
+                    Map<String, Object> undo = transactionUndo;
+                    transactionOps = null;
+                    transactionChangedKeys = null;
+                    transactionUndo = null;
+                    if (!completed) {
+                        rollback(undo);
+                    } else {
+                        if (ops.length > 0) {
+                            enqueueWrite(ops);
+                        }
+                        notifyListeners(changedKeys);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits until all pending changes are written to the file
+     */
+    public void awaitWrites() {
+        try {
+            writeExecutor.submit(new Runnable() {
+                @Override
+                public void run() {
+                }
+            }).get();
+        } catch (Exception e) {
+            MobileMessagingLogger.w("Failed to wait for pending writes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns size of the log file in bytes
+     */
+    public long getFileSize() {
+        awaitWrites();
+        return file.length();
+    }
+
+    // region loading
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+
+        byte[] bytes;
+        try {
+            bytes = readFile(file);
+        } catch (IOException e) {
+            MobileMessagingLogger.e("Cannot read preferences file: " + Log.getStackTraceString(e));
+            return;
+        }
+
+        if (bytes.length < HEADER_SIZE || readInt(bytes, 0) != MAGIC || readInt(bytes, 4) != FORMAT_VERSION) {
+            MobileMessagingLogger.w("Preferences file has unknown format and will be discarded");
+            logSize = 0;
+            return;
+        }
+
+        int offset = HEADER_SIZE;
+        while (offset + RECORD_HEADER_SIZE <= bytes.length) {
+            int length = readInt(bytes, offset);
+            int checksum = readInt(bytes, offset + 4);
+            int payloadOffset = offset + RECORD_HEADER_SIZE;
+            if (length < 0 || payloadOffset + length > bytes.length || checksum(bytes, payloadOffset, length) != checksum) {
+                break;
+            }
+
+            try {
+                readOps(bytes, payloadOffset, length);
+            } catch (IOException e) {
+                MobileMessagingLogger.w("Cannot read preferences record: " + e.getMessage());
+                break;
+            }
+            offset = payloadOffset + length;
+        }
+
+        if (offset < bytes.length) {
+            MobileMessagingLogger.w("Discarding incomplete preferences record at " + offset);
+            truncate(offset);
+        }
+        logSize = offset;
+        snapshotSize = offset;
+    }
+
+    private void readOps(byte[] bytes, int offset, int length) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, offset, length));
+        Map<String, Object> changes = new LinkedHashMap<>();
+        boolean clear = false;
+        while (in.available() > 0) {
+            byte op = in.readByte();
+            if (op == OP_CLEAR) {
+                clear = true;
+                changes.clear();
+                continue;
+            }
+
+            String key = readString(in);
+            switch (op) {
+                case OP_REMOVE:
+                    changes.put(key, REMOVED);
+                    break;
+                case OP_STRING:
+                    changes.put(key, readString(in));
+                    break;
+                case OP_INT:
+                    changes.put(key, in.readInt());
+                    break;
+                case OP_LONG:
+                    changes.put(key, in.readLong());
+                    break;
+                case OP_FLOAT:
+                    changes.put(key, in.readFloat());
+                    break;
+                case OP_BOOLEAN:
+                    changes.put(key, in.readBoolean());
+                    break;
+                case OP_STRING_SET:
+                    int size = in.readInt();
+                    Set<String> set = new HashSet<>(size);
+                    for (int i = 0; i < size; i++) {
+                        set.add(readString(in));
+                    }
+                    changes.put(key, set);
+                    break;
+                default:
+                    throw new IOException("Unknown operation " + op);
+            }
+        }
+
+        // record is applied only when it was read completely
+        if (clear) {
+            values.clear();
+        }
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            if (change.getValue() == REMOVED) {
+                values.remove(change.getKey());
+            } else {
+                values.put(change.getKey(), change.getValue());
+            }
+        }
+    }
+
+    private void truncate(long length) {
+        RandomAccessFile randomAccessFile = null;
+        try {
+            randomAccessFile = new RandomAccessFile(file, "rw");
+            randomAccessFile.setLength(length);
+        } catch (IOException e) {
+            MobileMessagingLogger.e("Cannot truncate preferences file: " + Log.getStackTraceString(e));
+        } finally {
+            closeQuietly(randomAccessFile);
+        }
+    }
+
+    // endregion
+
+    // region writing
+
+    private Future<Boolean> write(boolean clear, Map<String, Object> modifications) {
+        ByteArrayOutputStream ops = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(ops);
+        Set<String> changedKeys = new LinkedHashSet<>();
+        Future<Boolean> future = null;
+
+        synchronized (this) {
+            try {
+                if (clear && !values.isEmpty()) {
+                    out.writeByte(OP_CLEAR);
+                    for (String key : values.keySet()) {
+                        rememberForRollback(key);
+                    }
+                    values.clear();
+                    changedKeys.add(null);
+                }
+
+                for (Map.Entry<String, Object> modification : modifications.entrySet()) {
+                    String key = modification.getKey();
+                    Object value = modification.getValue();
+                    if (value == REMOVED) {
+                        if (!values.containsKey(key)) {
+                            continue;
+                        }
+                        rememberForRollback(key);
+                        values.remove(key);
+                    } else {
+                        if (value.equals(values.get(key))) {
+                            continue;
+                        }
+                        rememberForRollback(key);
+                        values.put(key, value);
+                    }
+                    writeOp(out, key, value);
+                    changedKeys.add(key);
+                }
+                out.flush();
+            } catch (IOException e) {
+                // writing to memory cannot fail
+                MobileMessagingLogger.e(Log.getStackTraceString(e));
+            }
+
+            if (ops.size() == 0) {
+                return null;
+            }
+
+            if (transactionDepth > 0) {
+                transactionOps.write(ops.toByteArray(), 0, ops.size());
+                transactionChangedKeys.addAll(changedKeys);
+                return null;
+            }
+
+            future = enqueueWrite(ops.toByteArray());
+        }
+
+        notifyListeners(changedKeys);
+        return future;
+    }
+
+    private void rememberForRollback(String key) {
+        if (transactionDepth > 0 && !transactionUndo.containsKey(key)) {
+            transactionUndo.put(key, values.containsKey(key) ? values.get(key) : REMOVED);
+        }
+    }
+
+    private void rollback(Map<String, Object> undo) {
+        for (Map.Entry<String, Object> entry : undo.entrySet()) {
+            if (entry.getValue() == REMOVED) {
+                values.remove(entry.getKey());
+            } else {
+                values.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private Future<Boolean> enqueueWrite(final byte[] ops) {
+        return writeExecutor.submit(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                if (!appendRecord(ops)) {
+                    return false;
+                }
+                if (logSize > MIN_COMPACTION_SIZE && logSize > 2 * snapshotSize) {
+                    compact();
+                }
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Appends the record to the log. If writing fails, the log is truncated back to its last complete record,
+     * otherwise a partially written record would make {@link #load()} discard all records appended after it.
+     *
+     * @return true if the record was written
+     */
+    private boolean appendRecord(byte[] ops) {
+        FileOutputStream out = null;
+        try {
+            boolean newFile = logSize < HEADER_SIZE;
+            out = new FileOutputStream(file, !newFile);
+            byte[] record = frame(ops, newFile);
+            out.write(record);
+            out.getFD().sync();
+            logSize = newFile ? record.length : logSize + record.length;
+            return true;
+        } catch (IOException e) {
+            MobileMessagingLogger.e("Cannot write preferences: " + Log.getStackTraceString(e));
+            truncate(logSize < HEADER_SIZE ? 0 : logSize);
+            return false;
+        } finally {
+            closeQuietly(out);
+        }
+    }
+
+    /**
+     * Rewrites the log into a temporary file with a single snapshot record and replaces the log with it.
+     * Records queued after the snapshot was taken are appended again, which is safe since they are idempotent.
+     */
+    private void compact() {
+        byte[] ops;
+        try {
+            ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(snapshot);
+            out.writeByte(OP_CLEAR);
+            synchronized (this) {
+                for (Map.Entry<String, Object> entry : values.entrySet()) {
+                    writeOp(out, entry.getKey(), entry.getValue());
+                }
+            }
+            out.flush();
+            ops = snapshot.toByteArray();
+        } catch (IOException e) {
+            MobileMessagingLogger.e(Log.getStackTraceString(e));
+            return;
+        }
+
+        File compacted = new File(file.getPath() + ".tmp");
+        FileOutputStream out = null;
+        try {
+            out = new FileOutputStream(compacted);
+            byte[] record = frame(ops, true);
+            out.write(record);
+            out.getFD().sync();
+            out.close();
+            out = null;
+            if (!compacted.renameTo(file)) {
+                throw new IOException("Cannot replace preferences file");
+            }
+            logSize = record.length;
+            snapshotSize = record.length;
+        } catch (IOException e) {
+            MobileMessagingLogger.e("Cannot compact preferences: " + Log.getStackTraceString(e));
+            //noinspection ResultOfMethodCallIgnored
+            compacted.delete();
+        } finally {
+            closeQuietly(out);
+        }
+    }
+
+    private static byte[] frame(byte[] ops, boolean withFileHeader) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream((withFileHeader ? HEADER_SIZE : 0) + RECORD_HEADER_SIZE + ops.length);
+        DataOutputStream out = new DataOutputStream(bytes);
+        if (withFileHeader) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+        }
+        out.writeInt(ops.length);
+        out.writeInt(checksum(ops, 0, ops.length));
+        out.write(ops);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeOp(DataOutputStream out, String key, Object value) throws IOException {
+        if (value == REMOVED) {
+            out.writeByte(OP_REMOVE);
+            writeString(out, key);
+        } else if (value instanceof String) {
+            out.writeByte(OP_STRING);
+            writeString(out, key);
+            writeString(out, (String) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(OP_INT);
+            writeString(out, key);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(OP_LONG);
+            writeString(out, key);
+            out.writeLong((Long) value);
+        } else if (value instanceof Float) {
+            out.writeByte(OP_FLOAT);
+            writeString(out, key);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(OP_BOOLEAN);
+            writeString(out, key);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Set) {
+            Set<String> set = (Set<String>) value;
+            out.writeByte(OP_STRING_SET);
+            writeString(out, key);
+            out.writeInt(set.size());
+            for (String string : set) {
+                writeString(out, string);
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported value type " + value.getClass());
+        }
+    }
+
+    // endregion
+
+    private void notifyListeners(final Set<String> changedKeys) {
+        if (changedKeys.isEmpty() || listeners.isEmpty()) {
+            return;
+        }
+
+        final List<OnSharedPreferenceChangeListener> listenersToNotify = new ArrayList<>(listeners.keySet());
+        TaskExecutors.mainThread().execute(new Runnable() {
+            @Override
+            public void run() {
+                for (String key : changedKeys) {
+                    for (OnSharedPreferenceChangeListener listener : listenersToNotify) {
+                        listener.onSharedPreferenceChanged(BinaryPreferences.this, key);
+                    }
+                }
+            }
+        });
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        byte[] bytes = string.getBytes(UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > in.available()) {
+            throw new IOException("Invalid string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 24)
+                | ((bytes[offset + 1] & 0xFF) << 16)
+                | ((bytes[offset + 2] & 0xFF) << 8)
+                | (bytes[offset + 3] & 0xFF);
+    }
+
+    private static int checksum(byte[] bytes, int offset, int length) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(bytes, offset, length);
+        return (int) crc32.getValue();
+    }
+
+    private static byte[] readFile(File file) throws IOException {
+        FileInputStream in = null;
+        try {
+            in = new FileInputStream(file);
+            byte[] bytes = new byte[(int) file.length()];
+            int read = 0;
+            while (read < bytes.length) {
+                int count = in.read(bytes, read, bytes.length - read);
+                if (count < 0) {
+                    break;
+                }
+                read += count;
+            }
+            return read == bytes.length ? bytes : Arrays.copyOf(bytes, read);
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private class BinaryEditor implements Editor {
+
+        private final Map<String, Object> modifications = new LinkedHashMap<>();
+        private boolean clear = false;
+
+        @Override
+        public Editor putString(String key, @Nullable String value) {
+            return put(key, value);
+        }
+
+        @Override
+        public Editor putStringSet(String key, @Nullable Set<String> values) {
+            return put(key, values == null ? null : new HashSet<>(values));
+        }
+
+        @Override
+        public Editor putInt(String key, int value) {
+            return put(key, value);
+        }
+
+        @Override
+        public Editor putLong(String key, long value) {
+            return put(key, value);
+        }
+
+        @Override
+        public Editor putFloat(String key, float value) {
+            return put(key, value);
+        }
+
+        @Override
+        public Editor putBoolean(String key, boolean value) {
+            return put(key, value);
+        }
+
+        @Override
+        public Editor remove(String key) {
+            return put(key, null);
+        }
+
+        @Override
+        public synchronized Editor clear() {
+            clear = true;
+            return this;
+        }
+
+        @Override
+        public boolean commit() {
+            Future<Boolean> future = write(takeClear(), takeModifications());
+            if (future == null) {
+                return true;
+            }
+            try {
+                return future.get();
+            } catch (Exception e) {
+                MobileMessagingLogger.e("Cannot commit preferences: " + e.getMessage());
+                return false;
+            }
+        }
+
+        @Override
+        public void apply() {
+            write(takeClear(), takeModifications());
+        }
+
+        private synchronized Editor put(@NonNull String key, @Nullable Object value) {
+            modifications.put(key, value == null ? REMOVED : value);
+            return this;
+        }
+
+        private synchronized boolean takeClear() {
+            boolean clear = this.clear;
+            this.clear = false;
+            return clear;
+        }
+
+        private synchronized Map<String, Object> takeModifications() {
+            Map<String, Object> taken = new LinkedHashMap<>(modifications);
+            modifications.clear();
+            return taken;
+        }
+    }
+}
@@ -10,11 +10,17 @@ import java.security.Key;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.crypto.Cipher;
 import javax.crypto.spec.SecretKeySpec;
 
 /**
+ * Encrypts and decrypts data with AES.
+ * <br>
+ * Initialized ciphers are kept per thread and reused between operations,
+ * encrypted key names are memoized since there is only a small fixed set of them.
+ *
  * @author sslavin
  * @since 29/08/16.
  */
@@ -22,6 +28,9 @@ public class Cryptor {
 
     private static final String AES_ALGO = "AES/ECB/PKCS5Padding";
     private Key key = null;
+    private final ConcurrentHashMap<String, String> encryptedKeys = new ConcurrentHashMap<>();
+    private final ThreadLocal<Cipher> encryptCipher = new ThreadLocal<>();
+    private final ThreadLocal<Cipher> decryptCipher = new ThreadLocal<>();
 
     public Cryptor(@NonNull String keySecret) {
         byte[] keyBytes = keySecret.getBytes();
@@ -46,6 +55,44 @@ public class Cryptor {
         return Base64.encodeToString(encoded, Base64.NO_WRAP);
     }
 
+    /**
+     * Encrypts name of a preference key, the result is memoized
+     * @param keyName key name to encrypt
+     * @return encrypted key name
+     */
+    public String encryptKey(String keyName) {
+        if (StringUtils.isBlank(keyName)) {
+            return null;
+        }
+
+        String encryptedKey = encryptedKeys.get(keyName);
+        if (encryptedKey != null) {
+            return encryptedKey;
+        }
+
+        encryptedKey = encrypt(keyName);
+        if (encryptedKey != null) {
+            encryptedKeys.put(keyName, encryptedKey);
+        }
+        return encryptedKey;
+    }
+
+    public String[] encrypt(String[] data) {
+        String[] encrypted = new String[data.length];
+        for (int i = 0; i < data.length; i++) {
+            encrypted[i] = encrypt(data[i]);
+        }
+        return encrypted;
+    }
+
+    public String[] decrypt(String[] encryptedBase64Data) {
+        String[] decrypted = new String[encryptedBase64Data.length];
+        for (int i = 0; i < encryptedBase64Data.length; i++) {
+            decrypted[i] = decrypt(encryptedBase64Data[i]);
+        }
+        return decrypted;
+    }
+
     public String decrypt(String encryptedBase64Data) {
         if (StringUtils.isBlank(encryptedBase64Data)) {
             return null;
@@ -60,22 +107,25 @@ public class Cryptor {
     }
 
     private byte[] encodeAES128(byte[] data) {
-        try {
-            Cipher cipher = Cipher.getInstance(AES_ALGO);
-            cipher.init(Cipher.ENCRYPT_MODE, key);
-            return cipher.doFinal(data);
-        } catch (Exception e) {
-            MobileMessagingLogger.d(Log.getStackTraceString(e));
-            return null;
-        }
+        return doFinal(encryptCipher, Cipher.ENCRYPT_MODE, data);
     }
 
     private byte[] decodeAES128(byte[] data) {
+        return doFinal(decryptCipher, Cipher.DECRYPT_MODE, data);
+    }
+
+    private byte[] doFinal(ThreadLocal<Cipher> threadCipher, int mode, byte[] data) {
         try {
-            Cipher cipher = Cipher.getInstance(AES_ALGO);
-            cipher.init(Cipher.DECRYPT_MODE, key);
+            Cipher cipher = threadCipher.get();
+            if (cipher == null) {
+                cipher = Cipher.getInstance(AES_ALGO);
+                cipher.init(mode, key);
+                threadCipher.set(cipher);
+            }
             return cipher.doFinal(data);
         } catch (Exception e) {
+            // cipher might be left in inconsistent state, initialize a new one for the next operation
+            threadCipher.remove();
             MobileMessagingLogger.d(Log.getStackTraceString(e));
             return null;
         }
@@ -3,6 +3,7 @@ package org.infobip.mobile.messaging.util;
 import android.content.Context;
 import android.content.SharedPreferences;
 import android.preference.PreferenceManager;
+import android.support.annotation.Nullable;
 
 import org.infobip.mobile.messaging.MobileMessagingProperty;
 import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
@@ -13,6 +14,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * @author mstipanov
@@ -21,8 +24,18 @@ import java.util.Set;
 public abstract class PreferenceHelper {
     private static final String MM_PREFS_PREFIX = "org.infobip.mobile.messaging";
     private static final Object LOCK = new Object();
+    private static final int LOCK_STRIPES = 16;
+    private static final ReentrantLock[] stripes = new ReentrantLock[LOCK_STRIPES];
     private static Cryptor cryptor = null;
     private static Boolean usePrivateSharedPrefs = null;
+    private static Boolean useBinaryStorage = null;
+    private static final PropertyCache propertyCache = new PropertyCache();
+
+    static {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
 
     protected PreferenceHelper() {
     }
@@ -37,6 +50,17 @@ public abstract class PreferenceHelper {
     }
 
     public static SharedPreferences getDefaultMMSharedPreferences(Context context) {
+        SharedPreferences sharedPreferences;
+        if (usesBinaryStorage(context)) {
+            sharedPreferences = BinaryPreferences.getInstance(context);
+        } else {
+            sharedPreferences = getMMSharedPreferences(context);
+        }
+        propertyCache.attach(sharedPreferences);
+        return sharedPreferences;
+    }
+
+    private static SharedPreferences getMMSharedPreferences(Context context) {
         if (usePrivateSharedPrefs == null) {
             usePrivateSharedPrefs = shouldUsePrivateSharedPrefs(context);
         }
@@ -56,7 +80,15 @@ public abstract class PreferenceHelper {
     }
 
     public static String findString(Context context, MobileMessagingProperty property) {
-        return findString(context, property.getKey(), (String) property.getDefaultValue(), property.isEncrypted());
+        Object cached = propertyCache.get(property);
+        if (cached != PropertyCache.MISS) {
+            return (String) cached;
+        }
+
+        long version = propertyCache.version();
+        String value = findString(context, property.getKey(), (String) property.getDefaultValue(), property.isEncrypted());
+        propertyCache.putLoaded(property, storageKey(context, property), value, version);
+        return value;
     }
 
     public static String findString(Context context, String key, String defaultValue) {
@@ -69,13 +101,22 @@ public abstract class PreferenceHelper {
             return sharedPreferences.getString(key, defaultValue);
         }
 
-        String encryptedKey = getCryptor(context).encrypt(key);
+        String encryptedKey = getCryptor(context).encryptKey(key);
         String encryptedValue = sharedPreferences.getString(encryptedKey, defaultValue);
         return getCryptor(context).decrypt(encryptedValue);
     }
 
     public static void saveString(Context context, MobileMessagingProperty property, String value) {
-        saveString(context, property.getKey(), value, property.isEncrypted());
+        if (value == null) {
+            saveString(context, property.getKey(), null, property.isEncrypted());
+            return;
+        }
+
+        long version = propertyCache.version();
+        String storageKey = storageKey(context, property);
+        String storedValue = property.isEncrypted() ? getCryptor(context).encrypt(value) : value;
+        getDefaultMMSharedPreferences(context).edit().putString(storageKey, storedValue).apply();
+        propertyCache.putWritten(property, storageKey, value, version);
     }
 
     public static void saveString(Context context, String key, String value, boolean encrypted) {
@@ -84,7 +125,7 @@ public abstract class PreferenceHelper {
             return;
         }
 
-        String encryptedKey = getCryptor(context).encrypt(key);
+        String encryptedKey = getCryptor(context).encryptKey(key);
         String encryptedValue = getCryptor(context).encrypt(value);
         saveString(context, encryptedKey, encryptedValue);
     }
@@ -96,6 +137,7 @@ public abstract class PreferenceHelper {
             return;
         }
         sharedPreferences.edit().putString(key, value).apply();
+        propertyCache.invalidate(key);
     }
 
     public static long findLong(Context context, MobileMessagingProperty property) {
@@ -103,7 +145,16 @@ public abstract class PreferenceHelper {
         if (null == defaultValue) {
             defaultValue = 0L;
         }
-        return findLong(context, property.getKey(), (Long) defaultValue);
+
+        Object cached = propertyCache.get(property);
+        if (cached != PropertyCache.MISS) {
+            return (Long) cached;
+        }
+
+        long version = propertyCache.version();
+        long value = findLong(context, property.getKey(), (Long) defaultValue);
+        propertyCache.putLoaded(property, property.getKey(), value, version);
+        return value;
     }
 
     public static long findLong(Context context, String key, long defaultValue) {
@@ -116,12 +167,18 @@ public abstract class PreferenceHelper {
     }
 
     public static void saveLong(Context context, MobileMessagingProperty property, long value) {
-        saveLong(context, property.getKey(), value);
+        long version = propertyCache.version();
+        writeLong(context, property.getKey(), value);
+        propertyCache.putWritten(property, property.getKey(), value, version);
     }
 
     public static void saveLong(Context context, String key, long value) {
-        SharedPreferences sharedPreferences = getDefaultMMSharedPreferences(context);
-        sharedPreferences.edit().putString(key, String.valueOf(value)).apply();
+        writeLong(context, key, value);
+        propertyCache.invalidate(key);
+    }
+
+    private static void writeLong(Context context, String key, long value) {
+        getDefaultMMSharedPreferences(context).edit().putString(key, String.valueOf(value)).apply();
     }
 
     public static <T> Class<T> findClass(Context context, MobileMessagingProperty property) {
@@ -152,7 +209,15 @@ public abstract class PreferenceHelper {
     }
 
     public static boolean findBoolean(Context context, MobileMessagingProperty property) {
-        return findBoolean(context, property.getKey(), Boolean.TRUE.equals(property.getDefaultValue()));
+        Object cached = propertyCache.get(property);
+        if (cached != PropertyCache.MISS) {
+            return (Boolean) cached;
+        }
+
+        long version = propertyCache.version();
+        boolean value = findBoolean(context, property.getKey(), Boolean.TRUE.equals(property.getDefaultValue()));
+        propertyCache.putLoaded(property, property.getKey(), value, version);
+        return value;
     }
 
     public static boolean findBoolean(Context context, String key, boolean defaultValue) {
@@ -166,11 +231,14 @@ public abstract class PreferenceHelper {
     }
 
     public static void saveBoolean(Context context, MobileMessagingProperty property, boolean value) {
-        saveBoolean(context, property.getKey(), value, false);
+        long version = propertyCache.version();
+        getDefaultMMSharedPreferences(context).edit().putBoolean(property.getKey(), value).apply();
+        propertyCache.putWritten(property, property.getKey(), value, version);
     }
 
     public static boolean shouldMigrateToPrivatePrefs(Context context) {
-        return PreferenceHelper.shouldUsePrivateSharedPrefs(context)
+        return !usesBinaryStorage(context)
+                && PreferenceHelper.shouldUsePrivateSharedPrefs(context)
                 && PreferenceHelper.publicPrefsAreNotMigratedToPrivatePrefs(context);
     }
 
@@ -189,6 +257,37 @@ public abstract class PreferenceHelper {
     public static void saveUsePrivateSharedPrefs(Context context, boolean value) {
         usePrivateSharedPrefs = value;
         saveBoolean(context, MobileMessagingProperty.USE_PRIVATE_SHARED_PREFS.getKey(), value, true);
+        propertyCache.clear();
+    }
+
+    public static boolean usesBinaryStorage(Context context) {
+        if (useBinaryStorage == null) {
+            MobileMessagingProperty property = MobileMessagingProperty.USE_BINARY_STORAGE;
+            useBinaryStorage = findBoolean(context, property.getKey(), Boolean.TRUE.equals(property.getDefaultValue()), true);
+        }
+        return useBinaryStorage;
+    }
+
+    /**
+     * Switches storage of the SDK data between shared preferences and {@link BinaryPreferences}.
+     * Existing data is moved to the new storage, the setting is changed only if moving the data succeeds.
+     *
+     * @param context context
+     * @param value true to store data in {@link BinaryPreferences}
+     */
+    public static void saveUseBinaryStorage(Context context, boolean value) {
+        synchronized (LOCK) {
+            if (usesBinaryStorage(context) != value) {
+                boolean migrated = value ? migrateToBinaryStorage(context) : migrateFromBinaryStorage(context);
+                if (!migrated) {
+                    // data stays where it is, so does the setting
+                    return;
+                }
+            }
+            useBinaryStorage = value;
+            saveBoolean(context, MobileMessagingProperty.USE_BINARY_STORAGE.getKey(), value, true);
+            propertyCache.clear();
+        }
     }
 
     public static void saveBoolean(Context context, String key, boolean value) {
@@ -201,6 +300,7 @@ public abstract class PreferenceHelper {
         } else {
             getDefaultMMSharedPreferences(context).edit().putBoolean(key, value).apply();
         }
+        propertyCache.invalidate(key);
     }
 
     public static int findInt(Context context, MobileMessagingProperty property) {
@@ -209,7 +309,16 @@ public abstract class PreferenceHelper {
         if (null != defaultValue) {
             defaultInt = (int) defaultValue;
         }
-        return findInt(context, property.getKey(), defaultInt);
+
+        Object cached = propertyCache.get(property);
+        if (cached != PropertyCache.MISS) {
+            return (Integer) cached;
+        }
+
+        long version = propertyCache.version();
+        int value = findInt(context, property.getKey(), defaultInt);
+        propertyCache.putLoaded(property, property.getKey(), value, version);
+        return value;
     }
 
     public static int findInt(Context context, String key, int defaultValue) {
@@ -217,11 +326,14 @@ public abstract class PreferenceHelper {
     }
 
     public static void saveInt(Context context, MobileMessagingProperty property, int value) {
-        saveInt(context, property.getKey(), value);
+        long version = propertyCache.version();
+        getDefaultMMSharedPreferences(context).edit().putInt(property.getKey(), value).apply();
+        propertyCache.putWritten(property, property.getKey(), value, version);
     }
 
     public static void saveInt(Context context, String key, int value) {
         getDefaultMMSharedPreferences(context).edit().putInt(key, value).apply();
+        propertyCache.invalidate(key);
     }
 
     public static String[] findAndRemoveStringArray(Context context, MobileMessagingProperty property) {
@@ -229,6 +341,7 @@ public abstract class PreferenceHelper {
         editSet(context, property.getKey(), new SetMutator() {
             @Override
             public void mutate(Set<String> set) {
+                strings.clear();
                 strings.addAll(set);
                 set.clear();
             }
@@ -250,13 +363,12 @@ public abstract class PreferenceHelper {
     }
 
     public static <T> T find(Context context, String key, T defaultValue, SetConverter<T> converter) {
-        synchronized (LOCK) {
-            Set<String> value = getDefaultMMSharedPreferences(context).getStringSet(key, null);
-            if (null == value) {
-                return defaultValue;
-            }
-            return converter.convert(value);
+        // stored sets are never modified in place, so a snapshot can be read without locking
+        Set<String> value = getDefaultMMSharedPreferences(context).getStringSet(key, null);
+        if (null == value) {
+            return defaultValue;
         }
+        return converter.convert(value);
     }
 
     public static void appendToStringArray(Context context, MobileMessagingProperty property, String... strings) {
@@ -327,23 +439,64 @@ public abstract class PreferenceHelper {
         editSet(context, key, mutator);
     }
 
+    /**
+     * Mutates the set stored under the key.
+     * <br>
+     * Mutator works on a copy of the set outside of any lock and the result is stored with
+     * {@link #compareAndSetStringSet(Context, String, Set, Set)}, if the set was changed concurrently
+     * the mutator is run again on the new value.
+     *
+     * @param context context
+     * @param key key of the set
+     * @param mutator mutator which may be invoked several times
+     */
     public static void editSet(Context context, String key, SetMutator mutator) {
-        synchronized (LOCK) {
-            SharedPreferences sharedPreferences = getDefaultMMSharedPreferences(context);
-            final Set<String> set = new HashSet<>(sharedPreferences.getStringSet(key, new HashSet<String>()));
+        SharedPreferences sharedPreferences = getDefaultMMSharedPreferences(context);
+        while (true) {
+            Set<String> current = sharedPreferences.getStringSet(key, null);
+            Set<String> set = current != null ? new HashSet<>(current) : new HashSet<String>();
             mutator.mutate(set);
-            if (set.isEmpty()) {
-                remove(context, key);
+            if (compareAndSetStringSet(context, key, current, set)) {
                 return;
             }
-            sharedPreferences.edit().putStringSet(key, set).apply();
+        }
+    }
+
+    /**
+     * Stores the set under the key only if the currently stored set equals to the expected one.
+     * Only operations on the same key are serialized.
+     *
+     * @param context context
+     * @param key key of the set
+     * @param expected expected set or null if no set is expected to be stored
+     * @param update set to store, null or empty set removes the key
+     * @return true if the set was stored
+     */
+    public static boolean compareAndSetStringSet(Context context, String key, @Nullable Set<String> expected, @Nullable Set<String> update) {
+        ReentrantLock lock = stripes[stripe(key)];
+        lock.lock();
+        try {
+            SharedPreferences sharedPreferences = getDefaultMMSharedPreferences(context);
+            Set<String> current = sharedPreferences.getStringSet(key, null);
+            if (current != expected && (current == null || !current.equals(expected))) {
+                return false;
+            }
+
+            if (update == null || update.isEmpty()) {
+                remove(context, key);
+            } else {
+                sharedPreferences.edit().putStringSet(key, new HashSet<>(update)).apply();
+            }
+            return true;
+        } finally {
+            lock.unlock();
         }
     }
 
     public static void remove(Context context, MobileMessagingProperty property) {
         String key = property.getKey();
         if (property.isEncrypted()) {
-            key = getCryptor(context).encrypt(key);
+            key = getCryptor(context).encryptKey(key);
         }
         remove(context, key);
     }
@@ -353,12 +506,13 @@ public abstract class PreferenceHelper {
                 .edit()
                 .remove(key)
                 .apply();
+        propertyCache.invalidate(key);
     }
 
     public static boolean contains(Context context, MobileMessagingProperty property) {
         String key = property.getKey();
         if (property.isEncrypted()) {
-            key = getCryptor(context).encrypt(key);
+            key = getCryptor(context).encryptKey(key);
         }
         return contains(context, key);
     }
@@ -370,7 +524,7 @@ public abstract class PreferenceHelper {
     static boolean publicPrefsContains(Context context, MobileMessagingProperty property) {
         String key = property.getKey();
         if (property.isEncrypted()) {
-            key = getCryptor(context).encrypt(key);
+            key = getCryptor(context).encryptKey(key);
         }
         return getPublicSharedPreferences(context).contains(key);
     }
@@ -378,7 +532,7 @@ public abstract class PreferenceHelper {
     static boolean privatePrefsContains(Context context, MobileMessagingProperty property) {
         String key = property.getKey();
         if (property.isEncrypted()) {
-            key = getCryptor(context).encrypt(key);
+            key = getCryptor(context).encryptKey(key);
         }
         return getPrivateMMSharedPreferences(context).contains(key);
     }
@@ -390,24 +544,7 @@ public abstract class PreferenceHelper {
         for (Map.Entry<String, ?> pref : allPublicPrefEntries) {
             final String key = pref.getKey();
             if (key.startsWith(MM_PREFS_PREFIX)) {
-                final Object value = pref.getValue();
-                try {
-                    if (value instanceof String) {
-                        privatePrefsEditor.putString(key, (String) value);
-                    } else if (value instanceof Integer) {
-                        privatePrefsEditor.putInt(key, (Integer) value);
-                    } else if (value instanceof Long) {
-                        privatePrefsEditor.putLong(key, (Long) value);
-                    } else if (value instanceof Boolean) {
-                        privatePrefsEditor.putBoolean(key, (Boolean) value);
-                    } else if (value instanceof Float) {
-                        privatePrefsEditor.putFloat(key, (Float) value);
-                    } else if (value instanceof Set) {
-                        privatePrefsEditor.putStringSet(key, (Set<String>) value);
-                    }
-                } catch (Exception ignored) {
-                    MobileMessagingLogger.w(String.format("Failed to migrate key %s with value %s", key, value));
-                }
+                putEntry(privatePrefsEditor, key, pref.getValue());
                 publicPrefsEditor.remove(key);
             }
         }
@@ -419,28 +556,232 @@ public abstract class PreferenceHelper {
                 MobileMessagingProperty.APPLICATION_CODE,
                 MobileMessagingProperty.SENDER_ID,
                 MobileMessagingProperty.CLOUD_TOKEN);
+        propertyCache.clear();
+    }
+
+    private static boolean migrateToBinaryStorage(Context context) {
+        SharedPreferences publicPrefs = getPublicSharedPreferences(context);
+        SharedPreferences privatePrefs = getPrivateMMSharedPreferences(context);
+        SharedPreferences.Editor binaryEditor = BinaryPreferences.getInstance(context).edit();
+        SharedPreferences.Editor publicPrefsEditor = publicPrefs.edit();
+        SharedPreferences.Editor privatePrefsEditor = privatePrefs.edit();
+
+        // public prefs are shared with the app, only SDK entries are moved
+        for (Map.Entry<String, ?> pref : publicPrefs.getAll().entrySet()) {
+            String key = pref.getKey();
+            if (key.startsWith(MM_PREFS_PREFIX)) {
+                putEntry(binaryEditor, key, pref.getValue());
+                publicPrefsEditor.remove(key);
+            }
+        }
+        for (MobileMessagingProperty property : MobileMessagingProperty.values()) {
+            String encryptedKey = property.isEncrypted() ? getCryptor(context).encryptKey(property.getKey()) : null;
+            if (encryptedKey != null && publicPrefs.contains(encryptedKey)) {
+                // don't remove required properties to keep backwards compatibility over push reg ID
+                binaryEditor.putString(encryptedKey, publicPrefs.getString(encryptedKey, null));
+            }
+        }
+        for (Map.Entry<String, ?> pref : privatePrefs.getAll().entrySet()) {
+            String key = pref.getKey();
+            if (!isStorageSetting(key)) {
+                putEntry(binaryEditor, key, pref.getValue());
+                privatePrefsEditor.remove(key);
+            }
+        }
+
+        if (!binaryEditor.commit()) {
+            MobileMessagingLogger.e("Failed to migrate data to binary storage");
+            return false;
+        }
+        publicPrefsEditor.apply();
+        privatePrefsEditor.apply();
+        return true;
+    }
+
+    private static boolean migrateFromBinaryStorage(Context context) {
+        BinaryPreferences binaryPreferences = BinaryPreferences.getInstance(context);
+        SharedPreferences.Editor editor = getMMSharedPreferences(context).edit();
+        for (Map.Entry<String, ?> pref : binaryPreferences.getAll().entrySet()) {
+            putEntry(editor, pref.getKey(), pref.getValue());
+        }
+
+        if (!editor.commit()) {
+            MobileMessagingLogger.e("Failed to migrate data from binary storage");
+            return false;
+        }
+        binaryPreferences.edit().clear().commit();
+        return true;
+    }
+
+    private static boolean isStorageSetting(String key) {
+        return MobileMessagingProperty.USE_PRIVATE_SHARED_PREFS.getKey().equals(key)
+                || MobileMessagingProperty.USE_BINARY_STORAGE.getKey().equals(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void putEntry(SharedPreferences.Editor editor, String key, Object value) {
+        try {
+            if (value instanceof String) {
+                editor.putString(key, (String) value);
+            } else if (value instanceof Integer) {
+                editor.putInt(key, (Integer) value);
+            } else if (value instanceof Long) {
+                editor.putLong(key, (Long) value);
+            } else if (value instanceof Boolean) {
+                editor.putBoolean(key, (Boolean) value);
+            } else if (value instanceof Float) {
+                editor.putFloat(key, (Float) value);
+            } else if (value instanceof Set) {
+                editor.putStringSet(key, (Set<String>) value);
+            }
+        } catch (Exception ignored) {
+            MobileMessagingLogger.w(String.format("Failed to migrate key %s with value %s", key, value));
+        }
     }
 
     private static void migrateCryptedEntriesFromPublicToPrivatePrefs(Context context, MobileMessagingProperty... properties) {
         for (MobileMessagingProperty property : properties) {
-            String encryptedKey = getCryptor(context).encrypt(property.getKey());
+            String encryptedKey = getCryptor(context).encryptKey(property.getKey());
             String encryptedValue = getPublicSharedPreferences(context).getString(encryptedKey, (String) property.getDefaultValue());
             saveString(context, encryptedKey, encryptedValue);
             // don't remove required properties to keep backwards compatibility over push reg ID
         }
     }
 
+    /**
+     * Drops all property values cached in memory.
+     * <br>
+     * Has to be called after preferences are cleared directly with {@link SharedPreferences.Editor#clear()},
+     * since listeners are not notified about it on Android versions prior to 11.
+     */
+    public static void invalidateCache() {
+        propertyCache.clear();
+    }
+
+    private static String storageKey(Context context, MobileMessagingProperty property) {
+        if (!property.isEncrypted()) {
+            return property.getKey();
+        }
+        return getCryptor(context).encryptKey(property.getKey());
+    }
+
     public static void registerOnSharedPreferenceChangeListener(Context context, SharedPreferences.OnSharedPreferenceChangeListener listener) {
         getDefaultMMSharedPreferences(context).registerOnSharedPreferenceChangeListener(listener);
     }
 
+    /**
+     * Runs the transaction exclusively to all other transactions and set updates.
+     * Prefer {@link #runTransaction(Context, Transaction, String...)} which serializes only operations on the same keys.
+     *
+     * @param transaction transaction to run
+     * @return result of the transaction
+     */
     public static <Result> Result runTransaction(Transaction<Result> transaction) {
-        synchronized (LOCK) {
+        int[] allStripes = new int[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            allStripes[i] = i;
+        }
+        return runLocked(allStripes, transaction);
+    }
+
+    /**
+     * Runs the transaction atomically against the storage of the SDK data.
+     * When {@link BinaryPreferences} are used, all changes done within the transaction are also stored atomically.
+     *
+     * @param context context
+     * @param transaction transaction to run
+     * @return result of the transaction
+     */
+    public static <Result> Result runTransaction(Context context, final Transaction<Result> transaction) {
+        final SharedPreferences sharedPreferences = getDefaultMMSharedPreferences(context);
+        if (!(sharedPreferences instanceof BinaryPreferences)) {
+            return runTransaction(transaction);
+        }
+        return runTransaction(new Transaction<Result>() {
+            @Override
+            public Result run() {
+                return runBinaryTransaction((BinaryPreferences) sharedPreferences, transaction);
+            }
+        });
+    }
+
+    /**
+     * Runs the transaction while holding locks of the provided keys.
+     * Only transactions and set updates on the same keys are serialized with it.
+     * When {@link BinaryPreferences} are used, all changes done within the transaction are also stored atomically.
+     *
+     * @param context context
+     * @param transaction transaction to run
+     * @param keys all keys read or written by the transaction
+     * @return result of the transaction
+     */
+    public static <Result> Result runTransaction(Context context, final Transaction<Result> transaction, String... keys) {
+        Set<Integer> keyStripes = new TreeSet<>();
+        for (String key : keys) {
+            keyStripes.add(stripe(key));
+        }
+
+        int[] sortedStripes = new int[keyStripes.size()];
+        int i = 0;
+        for (Integer keyStripe : keyStripes) {
+            sortedStripes[i++] = keyStripe;
+        }
+
+        final SharedPreferences sharedPreferences = getDefaultMMSharedPreferences(context);
+        if (!(sharedPreferences instanceof BinaryPreferences)) {
+            return runLocked(sortedStripes, transaction);
+        }
+        // the store is locked after the key stripes, same order as in runTransaction(Context, Transaction)
+        return runLocked(sortedStripes, new Transaction<Result>() {
+            @Override
+            public Result run() {
+                return runBinaryTransaction((BinaryPreferences) sharedPreferences, transaction);
+            }
+        });
+    }
+
+    /**
+     * Changes of a failed transaction are rolled back in the storage, so are values cached while it was running
+     */
+    private static <Result> Result runBinaryTransaction(BinaryPreferences binaryPreferences, Transaction<Result> transaction) {
+        boolean completed = false;
+        try {
+            Result result = binaryPreferences.runTransaction(transaction);
+            completed = true;
+            return result;
+        } finally {
+            if (!completed) {
+                propertyCache.clear();
+            }
+        }
+    }
+
+    private static int stripe(String key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % LOCK_STRIPES;
+    }
+
+    /**
+     * Locks are always taken in ascending order of stripes to avoid deadlocks
+     */
+    private static <Result> Result runLocked(int[] sortedStripes, Transaction<Result> transaction) {
+        int locked = 0;
+        try {
+            for (int stripe : sortedStripes) {
+                stripes[stripe].lock();
+                locked++;
+            }
             return transaction.run();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[sortedStripes[i]].unlock();
+            }
         }
     }
 
     public interface SetMutator {
+        /**
+         * Mutates provided copy of the stored set, might be called several times if the set is changed concurrently
+         */
         void mutate(Set<String> set);
     }
 
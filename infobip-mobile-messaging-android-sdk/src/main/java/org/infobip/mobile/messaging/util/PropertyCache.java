@@ -0,0 +1,130 @@
+package org.infobip.mobile.messaging.util;
+
+import android.content.SharedPreferences;
+
+import org.infobip.mobile.messaging.MobileMessagingProperty;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory cache of decoded property values stored in shared preferences.
+ * <br>
+ * Values are cached on first read and updated on every write done through {@link PreferenceHelper}.
+ * Changes done to preferences by other means are picked up by a change listener.
+ * Reads are lock-free, updates of the cache are serialized on the cache instance and checked against
+ * {@link #version()} so that a value loaded or written concurrently with another write never overwrites it.
+ * The cache monitor is never held while accessing preferences, preferences may call the cache while holding their own locks.
+ */
+class PropertyCache implements SharedPreferences.OnSharedPreferenceChangeListener {
+
+    static final Object MISS = new Object();
+    private static final Object NULL = new Object();
+
+    private final ConcurrentHashMap<MobileMessagingProperty, Object> values = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, MobileMessagingProperty> properties = new ConcurrentHashMap<>();
+    private volatile SharedPreferences preferences;
+    private volatile long version = 0;
+
+    /**
+     * Makes the cache follow the provided preferences, the cache is cleared if they differ from the current ones
+     * @param preferences preferences where properties are stored
+     */
+    void attach(SharedPreferences preferences) {
+        if (this.preferences == preferences) {
+            return;
+        }
+
+        SharedPreferences previous;
+        synchronized (this) {
+            if (this.preferences == preferences) {
+                return;
+            }
+            previous = this.preferences;
+            this.preferences = preferences;
+            clear();
+        }
+
+        if (previous != null) {
+            previous.unregisterOnSharedPreferenceChangeListener(this);
+        }
+        preferences.registerOnSharedPreferenceChangeListener(this);
+    }
+
+    /**
+     * Returns cached value of the property
+     * @param property property to look up
+     * @return cached value or {@link #MISS} if the value is not cached
+     */
+    Object get(MobileMessagingProperty property) {
+        Object value = values.get(property);
+        if (value == null) {
+            return MISS;
+        }
+        return value == NULL ? null : value;
+    }
+
+    /**
+     * Returns version of the cache, the version changes on every write and invalidation
+     */
+    long version() {
+        return version;
+    }
+
+    /**
+     * Caches value loaded from preferences unless the cache changed since the load started
+     * @param property loaded property
+     * @param storageKey key under which the property is stored
+     * @param value loaded value
+     * @param loadedAtVersion {@link #version()} taken before loading the value
+     */
+    synchronized void putLoaded(MobileMessagingProperty property, String storageKey, Object value, long loadedAtVersion) {
+        if (version != loadedAtVersion) {
+            return;
+        }
+        properties.put(storageKey, property);
+        values.put(property, value == null ? NULL : value);
+    }
+
+    /**
+     * Caches value written to preferences unless the cache changed since the write started.
+     * Otherwise another write might have stored a newer value, so the cached value is dropped.
+     * @param property written property
+     * @param storageKey key under which the property is stored
+     * @param value written value
+     * @param writtenAtVersion {@link #version()} taken before writing the value
+     */
+    synchronized void putWritten(MobileMessagingProperty property, String storageKey, Object value, long writtenAtVersion) {
+        properties.put(storageKey, property);
+        if (version++ != writtenAtVersion) {
+            values.remove(property);
+            return;
+        }
+        values.put(property, value == null ? NULL : value);
+    }
+
+    /**
+     * Removes cached value of the property stored under the key
+     * @param storageKey key under which the property is stored
+     */
+    synchronized void invalidate(String storageKey) {
+        version++;
+        MobileMessagingProperty property = properties.get(storageKey);
+        if (property != null) {
+            values.remove(property);
+        }
+    }
+
+    synchronized void clear() {
+        version++;
+        values.clear();
+    }
+
+    @Override
+    public void onSharedPreferenceChanged(SharedPreferences sharedPreferences, String key) {
+        if (key == null) {
+            clear();
+        } else {
+            invalidate(key);
+        }
+    }
+}
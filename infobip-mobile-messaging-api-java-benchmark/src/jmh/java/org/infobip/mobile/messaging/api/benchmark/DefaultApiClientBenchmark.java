@@ -0,0 +1,96 @@
+package org.infobip.mobile.messaging.api.benchmark;
+
+import org.infobip.mobile.messaging.api.messages.SyncMessagesBody;
+import org.infobip.mobile.messaging.api.messages.SyncMessagesResponse;
+import org.infobip.mobile.messaging.api.support.http.client.DefaultApiClient;
+import org.infobip.mobile.messaging.api.support.http.client.HttpMethod;
+import org.infobip.mobile.messaging.api.support.http.client.HttpTransport;
+import org.infobip.mobile.messaging.api.support.http.client.HttpURLConnectionTransport;
+import org.infobip.mobile.messaging.api.support.http.client.InMemoryTransport;
+import org.infobip.mobile.messaging.api.support.http.client.Logger;
+import org.infobip.mobile.messaging.api.support.http.client.OkHttpTransport;
+import org.infobip.mobile.messaging.api.support.http.client.RequestInterceptor;
+import org.infobip.mobile.messaging.api.support.http.client.ResponsePreProcessor;
+import org.infobip.mobile.messaging.api.support.util.MapUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full {@link DefaultApiClient#execute} round trip (query encoding, connection setup, body
+ * serialization, response read and decode) against a server on the loopback interface.
+ * <p>
+ * {@code transport} selects the {@link HttpTransport}: {@code urlconnection} disconnects after every call (default),
+ * {@code keepalive} reuses connections from the platform cache, {@code okhttp} uses a pooled OkHttp client and
+ * {@code inmemory} skips the network to isolate client overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DefaultApiClientBenchmark {
+
+    @Param({"1", "50"})
+    public int messageCount;
+
+    @Param({"urlconnection", "keepalive", "okhttp", "inmemory"})
+    public String transport;
+
+    private LoopbackServer server;
+    private DefaultApiClient apiClient;
+    private String uri;
+    private Map<String, Collection<Object>> queryParams;
+    private Map<String, Collection<Object>> headers;
+    private SyncMessagesBody syncMessagesBody;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] response = DefaultApiClient.JSON_SERIALIZER.serialize(Fixtures.syncMessagesResponse(messageCount)).getBytes("UTF-8");
+        server = new LoopbackServer().respondWith(response).start();
+        apiClient = new DefaultApiClient(DefaultApiClient.DEFAULT_CONNECT_TIMEOUT, DefaultApiClient.DEFAULT_READ_TIMEOUT, null,
+                new RequestInterceptor[0], new ResponsePreProcessor[0], new Logger(), false, false,
+                DefaultApiClient.DEFAULT_COMPRESSION_THRESHOLD, transport(response));
+        uri = server.getBaseUrl() + "mobile/5/messages";
+        queryParams = MapUtils.map("platformType", "GCM");
+        headers = MapUtils.map("pushregistrationid", "push-registration-id");
+        syncMessagesBody = Fixtures.syncMessagesBody(messageCount);
+    }
+
+    private HttpTransport transport(final byte[] response) {
+        switch (transport) {
+            case "keepalive":
+                return new HttpURLConnectionTransport(true);
+            case "okhttp":
+                return new OkHttpTransport();
+            case "inmemory":
+                return new InMemoryTransport(new InMemoryTransport.Handler() {
+                    @Override
+                    public InMemoryTransport.Response handle(InMemoryTransport.RecordedRequest request) {
+                        return new InMemoryTransport.Response(200, null, response);
+                    }
+                });
+            default:
+                return new HttpURLConnectionTransport();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public SyncMessagesResponse syncMessages() {
+        return apiClient.execute(HttpMethod.POST, uri, "application-code", null, queryParams, headers, syncMessagesBody, SyncMessagesResponse.class);
+    }
+}
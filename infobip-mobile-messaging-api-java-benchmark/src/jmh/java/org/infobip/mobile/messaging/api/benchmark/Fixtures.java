@@ -0,0 +1,85 @@
+package org.infobip.mobile.messaging.api.benchmark;
+
+import org.infobip.mobile.messaging.api.geo.EventReport;
+import org.infobip.mobile.messaging.api.geo.EventReportBody;
+import org.infobip.mobile.messaging.api.geo.EventType;
+import org.infobip.mobile.messaging.api.geo.MessagePayload;
+import org.infobip.mobile.messaging.api.messages.MessageResponse;
+import org.infobip.mobile.messaging.api.messages.SyncMessagesBody;
+import org.infobip.mobile.messaging.api.messages.SyncMessagesResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Deterministic payloads shaped like the ones the SDK exchanges with Mobile API.
+ */
+public final class Fixtures {
+
+    private static final String CUSTOM_PAYLOAD = "{\"key1\":\"value1\",\"key2\":42,\"nested\":{\"flag\":true,\"list\":[1,2,3]}}";
+    private static final String INTERNAL_DATA = "{\"sendDateTime\":1507795200000,\"silent\":{\"title\":\"silentTitle\",\"body\":\"silentBody\",\"sound\":\"default\"},"
+            + "\"atts\":[{\"url\":\"https://www.infobip.com/images/logo.png\"}],\"inApp\":true,\"inAppStyle\":\"MODAL\",\"inAppExpiryDateTime\":1507881600000}";
+
+    private Fixtures() {
+    }
+
+    public static String[] messageIds(int count) {
+        String[] ids = new String[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = "message-id-" + i + "-2f2b1a9c-44d1-4e28-9c5e-0d2c3a7e1b8f";
+        }
+        return ids;
+    }
+
+    public static SyncMessagesBody syncMessagesBody(int count) {
+        String[] ids = messageIds(count);
+        return new SyncMessagesBody(ids, Arrays.copyOf(ids, ids.length));
+    }
+
+    public static SyncMessagesResponse syncMessagesResponse(int count) {
+        List<MessageResponse> payloads = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            payloads.add(new MessageResponse(
+                    "message-id-" + i,
+                    "Title of message " + i,
+                    "Body of message number " + i + " which is about as long as a regular campaign push text",
+                    "default",
+                    "true",
+                    "false",
+                    "category",
+                    CUSTOM_PAYLOAD,
+                    INTERNAL_DATA));
+        }
+        return new SyncMessagesResponse(payloads);
+    }
+
+    public static EventReportBody eventReportBody(int count) {
+        Set<MessagePayload> messages = new LinkedHashSet<>(count);
+        Set<EventReport> reports = new LinkedHashSet<>(count);
+        for (int i = 0; i < count; i++) {
+            messages.add(new MessagePayload(
+                    "campaign-message-" + i,
+                    "Geo title " + i,
+                    "Geo body of message number " + i + " sent when the user enters the area",
+                    "default",
+                    true,
+                    "category",
+                    false,
+                    CUSTOM_PAYLOAD,
+                    INTERNAL_DATA));
+            reports.add(new EventReport(EventType.entry, "area-" + i, "campaign-" + i, "campaign-message-" + i, "sdk-message-" + i, (long) i * 1000));
+        }
+        return new EventReportBody(messages, reports, "device-application-instance-id");
+    }
+
+    public static byte[] bytes(int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) ('a' + i % 26);
+        }
+        return bytes;
+    }
+}
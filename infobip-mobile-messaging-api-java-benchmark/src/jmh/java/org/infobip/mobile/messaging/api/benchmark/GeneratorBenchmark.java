@@ -0,0 +1,89 @@
+package org.infobip.mobile.messaging.api.benchmark;
+
+import org.infobip.mobile.messaging.api.appinstance.MobileApiAppInstance;
+import org.infobip.mobile.messaging.api.messages.MobileApiMessages;
+import org.infobip.mobile.messaging.api.messages.SyncMessagesBody;
+import org.infobip.mobile.messaging.api.support.Generator;
+import org.infobip.mobile.messaging.api.support.Tuple;
+import org.infobip.mobile.messaging.api.support.http.client.DefaultApiClient;
+import org.infobip.mobile.messaging.api.support.http.client.HttpMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of {@code Generator.CachingInvocationHandler.invoke}: URI templating, query/header maps
+ * and annotation lookups. The api client is replaced with one that only consumes the arguments,
+ * so no network or serialization cost is included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GeneratorBenchmark {
+
+    private MobileApiAppInstance mobileApiAppInstance;
+    private MobileApiMessages mobileApiMessages;
+    private SyncMessagesBody syncMessagesBody;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        Properties properties = new Properties();
+        properties.setProperty("api.key", "application-code");
+
+        Generator generator = new Generator.Builder()
+                .withBaseUrl("https://mobile.infobip.com/")
+                .withProperties(properties)
+                .build();
+        generator.setApiClient(new ConsumingApiClient(blackhole));
+
+        mobileApiAppInstance = generator.create(MobileApiAppInstance.class);
+        mobileApiMessages = generator.create(MobileApiMessages.class);
+        syncMessagesBody = Fixtures.syncMessagesBody(2);
+    }
+
+    @Benchmark
+    public Object appInstanceGetInstance() {
+        return mobileApiAppInstance.getInstance("push-registration-id");
+    }
+
+    @Benchmark
+    public void appInstancePersonalize() {
+        mobileApiAppInstance.personalize("push-registration-id", true, null);
+    }
+
+    @Benchmark
+    public Object messagesSync() {
+        return mobileApiMessages.sync(syncMessagesBody);
+    }
+
+    private static class ConsumingApiClient extends DefaultApiClient {
+
+        private final Blackhole blackhole;
+
+        ConsumingApiClient(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public <B, R> R execute(HttpMethod method, String uri, String apiKey, Tuple<String, String> credentials, Map<String, Collection<Object>> queryParams, Map<String, Collection<Object>> headers, B body, Class<R> responseType) {
+            blackhole.consume(method);
+            blackhole.consume(uri);
+            blackhole.consume(apiKey);
+            blackhole.consume(credentials);
+            blackhole.consume(queryParams);
+            blackhole.consume(headers);
+            blackhole.consume(body);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.infobip.mobile.messaging.api.benchmark;
+
+import org.infobip.mobile.messaging.api.geo.EventReportBody;
+import org.infobip.mobile.messaging.api.messages.SyncMessagesBody;
+import org.infobip.mobile.messaging.api.messages.SyncMessagesResponse;
+import org.infobip.mobile.messaging.api.support.http.serialization.JsonSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link JsonSerializer} on the request and response models of the sync and geo report calls.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JsonSerializerBenchmark {
+
+    @Param({"1", "50"})
+    public int messageCount;
+
+    private JsonSerializer serializer;
+    private SyncMessagesBody syncMessagesBody;
+    private SyncMessagesResponse syncMessagesResponse;
+    private EventReportBody eventReportBody;
+    private String syncMessagesBodyJson;
+    private String syncMessagesResponseJson;
+    private String eventReportBodyJson;
+
+    @Setup
+    public void setUp() {
+        serializer = new JsonSerializer();
+        syncMessagesBody = Fixtures.syncMessagesBody(messageCount);
+        syncMessagesResponse = Fixtures.syncMessagesResponse(messageCount);
+        eventReportBody = Fixtures.eventReportBody(messageCount);
+        syncMessagesBodyJson = serializer.serialize(syncMessagesBody);
+        syncMessagesResponseJson = serializer.serialize(syncMessagesResponse);
+        eventReportBodyJson = serializer.serialize(eventReportBody);
+    }
+
+    @Benchmark
+    public String serializeSyncMessagesBody() {
+        return serializer.serialize(syncMessagesBody);
+    }
+
+    @Benchmark
+    public SyncMessagesBody deserializeSyncMessagesBody() {
+        return serializer.deserialize(syncMessagesBodyJson, SyncMessagesBody.class);
+    }
+
+    @Benchmark
+    public String serializeSyncMessagesResponse() {
+        return serializer.serialize(syncMessagesResponse);
+    }
+
+    @Benchmark
+    public SyncMessagesResponse deserializeSyncMessagesResponse() {
+        return serializer.deserialize(syncMessagesResponseJson, SyncMessagesResponse.class);
+    }
+
+    @Benchmark
+    public String serializeEventReportBody() {
+        return serializer.serialize(eventReportBody);
+    }
+
+    @Benchmark
+    public EventReportBody deserializeEventReportBody() {
+        return serializer.deserialize(eventReportBodyJson, EventReportBody.class);
+    }
+}
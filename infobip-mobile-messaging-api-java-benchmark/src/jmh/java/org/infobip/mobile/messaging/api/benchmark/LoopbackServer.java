@@ -0,0 +1,78 @@
+package org.infobip.mobile.messaging.api.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Minimal HTTP server bound to the loopback interface which answers every request with the same JSON body.
+ * <p>
+ * Nagle's algorithm is disabled on accepted connections. The JDK server writes response headers and body separately, so with
+ * Nagle enabled every response waits for the client's delayed ACK (~40 ms) and the benchmarks would measure that stall
+ * instead of the client.
+ */
+public class LoopbackServer implements HttpHandler {
+
+    static {
+        // read once by the JDK server configuration, has to be set before the first server is created
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private volatile byte[] response = "{}".getBytes();
+
+    public LoopbackServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        executor = Executors.newFixedThreadPool(4);
+        server.setExecutor(executor);
+        server.createContext("/", this);
+    }
+
+    public LoopbackServer respondWith(byte[] response) {
+        this.response = response;
+        return this;
+    }
+
+    public LoopbackServer start() {
+        server.start();
+        return this;
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            InputStream requestBody = exchange.getRequestBody();
+            byte[] buffer = new byte[8192];
+            //noinspection StatementWithEmptyBody
+            while (requestBody.read(buffer) != -1) {
+            }
+
+            byte[] body = response;
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            OutputStream out = exchange.getResponseBody();
+            out.write(body);
+            out.close();
+        } finally {
+            exchange.close();
+        }
+    }
+}
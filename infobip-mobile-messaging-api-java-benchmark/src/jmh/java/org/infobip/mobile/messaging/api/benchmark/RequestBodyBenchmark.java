@@ -0,0 +1,83 @@
+package org.infobip.mobile.messaging.api.benchmark;
+
+import org.infobip.mobile.messaging.api.geo.EventReportBody;
+import org.infobip.mobile.messaging.api.support.http.client.DefaultApiClient;
+import org.infobip.mobile.messaging.api.support.http.serialization.JsonSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares writing a geo report request body the way {@code DefaultApiClient} used to do it
+ * (serialize to String, encode to byte[], copy through a BufferedOutputStream) with serializing
+ * straight into the connection stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RequestBodyBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int messageCount;
+
+    private JsonSerializer serializer;
+    private EventReportBody body;
+
+    @Setup
+    public void setUp() {
+        serializer = DefaultApiClient.JSON_SERIALIZER;
+        body = Fixtures.eventReportBody(messageCount);
+    }
+
+    @Benchmark
+    public void stringThenBytes(Blackhole blackhole) throws IOException {
+        byte[] bytes = serializer.serialize(body).getBytes("UTF-8");
+        OutputStream outputStream = new BufferedOutputStream(new ConsumingOutputStream(blackhole));
+        outputStream.write(bytes);
+        outputStream.close();
+    }
+
+    @Benchmark
+    public void streaming(Blackhole blackhole) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new ConsumingOutputStream(blackhole), "UTF-8"), 2048);
+        serializer.serialize(body, writer);
+        writer.close();
+    }
+
+    /**
+     * Stands in for the socket stream of the connection.
+     */
+    private static class ConsumingOutputStream extends OutputStream {
+
+        private final Blackhole blackhole;
+
+        ConsumingOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            blackhole.consume(b);
+            blackhole.consume(len);
+        }
+    }
+}
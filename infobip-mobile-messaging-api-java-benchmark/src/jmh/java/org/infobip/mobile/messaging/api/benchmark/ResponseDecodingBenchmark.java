@@ -0,0 +1,64 @@
+package org.infobip.mobile.messaging.api.benchmark;
+
+import com.google.gson.JsonElement;
+
+import org.infobip.mobile.messaging.api.messages.SyncMessagesResponse;
+import org.infobip.mobile.messaging.api.support.http.client.DefaultApiClient;
+import org.infobip.mobile.messaging.api.support.http.client.model.ApiError;
+import org.infobip.mobile.messaging.api.support.http.client.model.ApiResponse;
+import org.infobip.mobile.messaging.api.support.http.serialization.JsonSerializer;
+import org.infobip.mobile.messaging.api.support.util.StreamUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding of a successful response body the way {@code DefaultApiClient} used to do it
+ * (read to String, bind to the response type, bind again to {@link ApiResponse} to look for "requestError")
+ * with single-pass decoding straight from the stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ResponseDecodingBenchmark {
+
+    @Param({"1", "50"})
+    public int messageCount;
+
+    private JsonSerializer serializer;
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws IOException {
+        serializer = DefaultApiClient.JSON_SERIALIZER;
+        body = serializer.serialize(Fixtures.syncMessagesResponse(messageCount)).getBytes("UTF-8");
+    }
+
+    @Benchmark
+    public void stringDoubleDecode(Blackhole blackhole) throws IOException {
+        String s = StreamUtils.readToString(new ByteArrayInputStream(body), "UTF-8", body.length);
+        blackhole.consume(serializer.deserialize(s, SyncMessagesResponse.class));
+        blackhole.consume(serializer.deserialize(s, ApiResponse.class));
+    }
+
+    @Benchmark
+    public void streamingDecode(Blackhole blackhole) throws IOException {
+        JsonElement json = serializer.parse(new InputStreamReader(new ByteArrayInputStream(body), "UTF-8"));
+        blackhole.consume(serializer.deserialize(json, SyncMessagesResponse.class));
+        JsonElement requestError = json.getAsJsonObject().get("requestError");
+        if (requestError != null) {
+            blackhole.consume(serializer.deserialize(requestError, ApiError.class));
+        }
+    }
+}
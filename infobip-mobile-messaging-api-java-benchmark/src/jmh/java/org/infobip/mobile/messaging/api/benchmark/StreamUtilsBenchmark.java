@@ -0,0 +1,67 @@
+package org.infobip.mobile.messaging.api.benchmark;
+
+import org.infobip.mobile.messaging.api.support.util.StreamUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link StreamUtils#readToString} for response bodies of typical sizes, with and without a known length,
+ * against the previous byte-at-a-time implementation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StreamUtilsBenchmark {
+
+    @Param({"1024", "65536", "1048576"})
+    public int size;
+
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        payload = Fixtures.bytes(size);
+    }
+
+    @Benchmark
+    public String readToStringWithLength() throws IOException {
+        return StreamUtils.readToString(new ByteArrayInputStream(payload), "UTF-8", payload.length);
+    }
+
+    @Benchmark
+    public String readToStringWithoutLength() throws IOException {
+        return StreamUtils.readToString(new ByteArrayInputStream(payload), "UTF-8", -1);
+    }
+
+    @Benchmark
+    public String byteAtATime() throws IOException {
+        return readByteAtATime(new ByteArrayInputStream(payload), "UTF-8", payload.length);
+    }
+
+    private static String readByteAtATime(InputStream inputStream, String charsetName, long length) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        int result = inputStream.read();
+        long count = 1;
+        while (result != -1) {
+            buf.write((byte) result);
+            if (count == length) {
+                break;
+            }
+            result = inputStream.read();
+            count++;
+        }
+        return buf.toString(charsetName);
+    }
+}
@@ -0,0 +1,95 @@
+package org.infobip.mobile.messaging.api.benchmark;
+
+import org.infobip.mobile.messaging.api.appinstance.MobileApiAppInstance;
+import org.infobip.mobile.messaging.api.appinstance.MobileApiAppInstanceAsync;
+import org.infobip.mobile.messaging.api.messages.MoMessage;
+import org.infobip.mobile.messaging.api.messages.MoMessagesBody;
+import org.infobip.mobile.messaging.api.messages.MobileApiMessages;
+import org.infobip.mobile.messaging.api.messages.MobileApiMessagesAsync;
+import org.infobip.mobile.messaging.api.messages.SeenMessages;
+import org.infobip.mobile.messaging.api.messages.SyncMessagesBody;
+import org.infobip.mobile.messaging.api.support.Generator;
+import org.infobip.mobile.messaging.api.support.http.client.DefaultApiClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a sync cycle of four calls (installation, messages sync, MO and seen) against a server on the loopback
+ * interface, once through the blocking proxies one after another and once through the asynchronous proxies
+ * running on the shared I/O executor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SyncCycleBenchmark {
+
+    private LoopbackServer server;
+    private MobileApiAppInstance mobileApiAppInstance;
+    private MobileApiMessages mobileApiMessages;
+    private MobileApiAppInstanceAsync mobileApiAppInstanceAsync;
+    private MobileApiMessagesAsync mobileApiMessagesAsync;
+    private SyncMessagesBody syncMessagesBody;
+    private MoMessagesBody moMessagesBody;
+    private SeenMessages seenMessages;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] response = DefaultApiClient.JSON_SERIALIZER.serialize(Fixtures.syncMessagesResponse(1)).getBytes("UTF-8");
+        server = new LoopbackServer().respondWith(response).start();
+
+        Properties properties = new Properties();
+        properties.setProperty("api.key", "application-code");
+        Generator generator = new Generator.Builder()
+                .withBaseUrl(server.getBaseUrl())
+                .withProperties(properties)
+                .build();
+
+        mobileApiAppInstance = generator.create(MobileApiAppInstance.class);
+        mobileApiMessages = generator.create(MobileApiMessages.class);
+        mobileApiAppInstanceAsync = generator.create(MobileApiAppInstanceAsync.class);
+        mobileApiMessagesAsync = generator.create(MobileApiMessagesAsync.class);
+
+        syncMessagesBody = Fixtures.syncMessagesBody(2);
+        moMessagesBody = new MoMessagesBody("push-registration-id",
+                new MoMessage[]{new MoMessage("message-id", "destination", "text", null, null, null)});
+        seenMessages = new SeenMessages(new SeenMessages.Message[]{new SeenMessages.Message("message-id", 1000)});
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public void sequential(Blackhole blackhole) {
+        blackhole.consume(mobileApiAppInstance.getInstance("push-registration-id"));
+        blackhole.consume(mobileApiMessages.sync(syncMessagesBody));
+        blackhole.consume(mobileApiMessages.sendMO(moMessagesBody));
+        mobileApiMessages.reportSeen(seenMessages);
+    }
+
+    @Benchmark
+    public void concurrent(Blackhole blackhole) throws ExecutionException, InterruptedException {
+        Future<?> instance = mobileApiAppInstanceAsync.getInstance("push-registration-id");
+        Future<?> sync = mobileApiMessagesAsync.sync(syncMessagesBody);
+        Future<?> mo = mobileApiMessagesAsync.sendMO(moMessagesBody);
+        Future<?> seen = mobileApiMessagesAsync.reportSeen(seenMessages);
+        blackhole.consume(instance.get());
+        blackhole.consume(sync.get());
+        blackhole.consume(mo.get());
+        blackhole.consume(seen.get());
+    }
+}
@@ -0,0 +1,70 @@
+package org.infobip.mobile.messaging.api.appinstance;
+
+import org.infobip.mobile.messaging.api.support.Generator;
+import org.infobip.mobile.messaging.api.support.http.ApiKey;
+import org.infobip.mobile.messaging.api.support.http.Body;
+import org.infobip.mobile.messaging.api.support.http.HttpRequest;
+import org.infobip.mobile.messaging.api.support.http.Path;
+import org.infobip.mobile.messaging.api.support.http.Query;
+import org.infobip.mobile.messaging.api.support.http.Version;
+import org.infobip.mobile.messaging.api.support.http.client.HttpMethod;
+
+import java.util.Map;
+import java.util.concurrent.Future;
+
+/**
+ * Asynchronous variant of {@link MobileApiAppInstance}, requests are executed on the I/O executor of the generator.
+ * <p>
+ * Usage:
+ * <pre>{@code
+ * MobileApiAppInstanceAsync mobileApiAppInstance = new Generator.Builder().build().create(MobileApiAppInstanceAsync.class);
+ * }</pre>
+ *
+ * @see Generator
+ * @see Generator.Builder#withExecutor(java.util.concurrent.ExecutorService)
+ */
+@ApiKey("${api.key}")
+@HttpRequest("/mobile/{version}/appinstance")
+@Version("1")
+public interface MobileApiAppInstanceAsync {
+
+    @HttpRequest(method = HttpMethod.POST)
+    @Query(name = "ri", value = "true")
+    Future<AppInstance> createInstance(@Body AppInstance instance);
+
+    @HttpRequest(method = HttpMethod.PATCH, value = "{regId}")
+    Future<Void> patchInstance(@Path(name = "regId") String regId,
+                               @Body Map instance);
+
+    @HttpRequest(method = HttpMethod.GET, value = "{regId}")
+    Future<AppInstance> getInstance(@Path(name = "regId") String regId);
+
+    @HttpRequest(method = HttpMethod.PATCH, value = "{regId}/user")
+    Future<Void> patchUser(@Path(name = "regId") String regId,
+                           @Body Map user);
+
+    @HttpRequest(method = HttpMethod.GET, value = "{regId}/user")
+    @Query(name = "ri", value = "true")
+    Future<UserBody> getUser(@Path(name = "regId") String regId);
+
+    @HttpRequest(method = HttpMethod.POST, value = "{regId}/repersonalize")
+    Future<Void> repersonalize(@Path(name = "regId") String regId,
+                               @Body UserPersonalizeBody userPersonalizeBody);
+
+    @HttpRequest(method = HttpMethod.POST, value = "{regId}/depersonalize")
+    Future<Void> depersonalize(@Path(name = "regId") String regId);
+
+    @HttpRequest(method = HttpMethod.POST, value = "{regId}/personalize")
+    Future<Void> personalize(@Path(name = "regId") String regId,
+                             @Query(name = "forceDepersonalize", value = "false") boolean forceDepersonalize,
+                             @Body UserPersonalizeBody userPersonalizeBody);
+
+    @HttpRequest(method = HttpMethod.POST, value = "{regId}/user/events/session")
+    Future<Void> sendUserSessionReport(@Path(name = "regId") String regId,
+                                       @Body UserSessionEventBody userSessionEventBody);
+
+    @HttpRequest(method = HttpMethod.POST, value = "{regId}/user/events/custom")
+    Future<Void> sendUserCustomEvents(@Path(name = "regId") String regId,
+                                      @Query(name = "validate", value = "false") boolean validate,
+                                      @Body UserCustomEventBody userCustomEventBody);
+}
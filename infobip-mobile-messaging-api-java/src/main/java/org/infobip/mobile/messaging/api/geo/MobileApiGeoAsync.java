@@ -0,0 +1,30 @@
+package org.infobip.mobile.messaging.api.geo;
+
+import org.infobip.mobile.messaging.api.support.Generator;
+import org.infobip.mobile.messaging.api.support.http.ApiKey;
+import org.infobip.mobile.messaging.api.support.http.Body;
+import org.infobip.mobile.messaging.api.support.http.HttpRequest;
+import org.infobip.mobile.messaging.api.support.http.Version;
+import org.infobip.mobile.messaging.api.support.http.client.HttpMethod;
+
+import java.util.concurrent.Future;
+
+/**
+ * Asynchronous variant of {@link MobileApiGeo}, requests are executed on the I/O executor of the generator.
+ * <p>
+ * Usage:
+ * <pre>{@code
+ * MobileApiGeoAsync mobileApiGeo = new Generator.Builder().build().create(MobileApiGeoAsync.class);
+ * }</pre>
+ *
+ * @see Generator
+ * @see Generator.Builder#withExecutor(java.util.concurrent.ExecutorService)
+ */
+@ApiKey("${api.key}")
+@HttpRequest("/mobile/{version}/geo")
+@Version("4")
+public interface MobileApiGeoAsync {
+
+    @HttpRequest(method = HttpMethod.POST, value = "event")
+    Future<EventReportResponse> report(@Body() EventReportBody reports);
+}
@@ -0,0 +1,40 @@
+package org.infobip.mobile.messaging.api.messages;
+
+import org.infobip.mobile.messaging.api.support.Generator;
+import org.infobip.mobile.messaging.api.support.http.ApiKey;
+import org.infobip.mobile.messaging.api.support.http.Body;
+import org.infobip.mobile.messaging.api.support.http.HttpRequest;
+import org.infobip.mobile.messaging.api.support.http.Query;
+import org.infobip.mobile.messaging.api.support.http.Version;
+import org.infobip.mobile.messaging.api.support.http.client.HttpMethod;
+
+import java.util.concurrent.Future;
+
+/**
+ * Asynchronous variant of {@link MobileApiMessages}, requests are executed on the I/O executor of the generator.
+ * <p>
+ * Usage:
+ * <pre>{@code
+ * MobileApiMessagesAsync mobileApiMessages = new Generator.Builder().build().create(MobileApiMessagesAsync.class);
+ * }</pre>
+ *
+ * @see Generator
+ * @see Generator.Builder#withExecutor(java.util.concurrent.ExecutorService)
+ */
+@ApiKey("${api.key}")
+@HttpRequest("/mobile/{version}/messages")
+public interface MobileApiMessagesAsync {
+    @Version("1")
+    @HttpRequest(method = HttpMethod.POST, value = "seen")
+    Future<Void> reportSeen(@Body() SeenMessages seenReport);
+
+    @Version("1")
+    @HttpRequest(method = HttpMethod.POST, value = "mo")
+    @Query(name = "platformType", value = "${platform.type:GCM}")
+    Future<MoMessagesResponse> sendMO(@Body() MoMessagesBody moMessagesBody);
+
+    @Version("5")
+    @HttpRequest(method = HttpMethod.POST)
+    @Query(name = "platformType", value = "${platform.type:GCM}")
+    Future<SyncMessagesResponse> sync(@Body() SyncMessagesBody pushMessagesBody);
+}
@@ -0,0 +1,18 @@
+package org.infobip.mobile.messaging.api.support;
+
+/**
+ * Receives result of an asynchronous API call. Proxy methods which accept this type as a parameter
+ * are executed on the I/O executor of {@link Generator}, the callback is invoked on the executor thread.
+ *
+ * @param <T> type of the response, {@link Void} for calls without response body
+ * @see Generator.Builder#withExecutor(java.util.concurrent.ExecutorService)
+ */
+public interface ApiCallback<T> {
+
+    void onSuccess(T result);
+
+    /**
+     * @param error {@link ApiException}, {@link ApiIOException} or other exception thrown by the call
+     */
+    void onError(Throwable error);
+}
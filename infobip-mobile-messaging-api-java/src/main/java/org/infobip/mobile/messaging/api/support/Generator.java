@@ -12,24 +12,38 @@ import org.infobip.mobile.messaging.api.support.http.Queries;
 import org.infobip.mobile.messaging.api.support.http.Query;
 import org.infobip.mobile.messaging.api.support.http.Version;
 import org.infobip.mobile.messaging.api.support.http.client.DefaultApiClient;
+import org.infobip.mobile.messaging.api.support.http.client.DiskResponseCache;
 import org.infobip.mobile.messaging.api.support.http.client.HttpMethod;
+import org.infobip.mobile.messaging.api.support.http.client.HttpTransport;
 import org.infobip.mobile.messaging.api.support.http.client.Logger;
+import org.infobip.mobile.messaging.api.support.http.client.RequestCoalescer;
 import org.infobip.mobile.messaging.api.support.http.client.RequestInterceptor;
 import org.infobip.mobile.messaging.api.support.http.client.ResponsePreProcessor;
 import org.infobip.mobile.messaging.api.support.util.StringUtils;
 
+import java.io.File;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Array;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import lombok.Data;
 import lombok.NonNull;
@@ -60,16 +74,68 @@ public class Generator {
     private ResponsePreProcessor[] responsePreProcessors = new ResponsePreProcessor[0];
     private Logger logger = new Logger();
     private boolean allowUntrustedSSLOnError = false;
+    private boolean compressionEnabled = false;
+    private int compressionThreshold = DefaultApiClient.DEFAULT_COMPRESSION_THRESHOLD;
+    private HttpTransport transport;
+    private ExecutorService executor;
+    private RequestCoalescer requestCoalescer;
+    private DiskResponseCache responseCache;
+
+    /**
+     * Number of threads of the default I/O executor shared by all generators.
+     */
+    public static final int DEFAULT_IO_THREADS = 4;
+
+    private static ExecutorService defaultExecutor;
 
     private DefaultApiClient getApiClient() {
         if (null != apiClient) {
             return apiClient;
         }
         String libraryVersion = properties.getProperty("library.version");
-        apiClient = new DefaultApiClient(connectTimeout, readTimeout, libraryVersion, requestInterceptors, responsePreProcessors, logger, allowUntrustedSSLOnError, userAgentAdditions);
+        apiClient = new DefaultApiClient(connectTimeout, readTimeout, libraryVersion, requestInterceptors, responsePreProcessors, logger, allowUntrustedSSLOnError, compressionEnabled, compressionThreshold, transport, requestCoalescer, responseCache, userAgentAdditions);
         return apiClient;
     }
 
+    private ExecutorService getIoExecutor() {
+        if (null != executor) {
+            return executor;
+        }
+        return defaultExecutor();
+    }
+
+    /**
+     * Bounded pool for asynchronous calls. Threads are created on demand and stop when idle,
+     * so the pool costs nothing when only synchronous proxies are used.
+     */
+    private static synchronized ExecutorService defaultExecutor() {
+        if (null != defaultExecutor) {
+            return defaultExecutor;
+        }
+
+        ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(DEFAULT_IO_THREADS, DEFAULT_IO_THREADS,
+                30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "mm-api-io-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        defaultExecutor = threadPoolExecutor;
+        return defaultExecutor;
+    }
+
+    /**
+     * Creates proxy for the API interface.
+     * <p>
+     * Methods which return {@link Future} or accept {@link ApiCallback} are asynchronous: they return immediately
+     * and execute the request on the I/O executor. The response type is taken from the type argument of the future
+     * or the callback, e.g. {@code Future<SyncMessagesResponse> sync(@Body SyncMessagesBody body)}.
+     */
     @SuppressWarnings("unchecked")
     public <T> T create(@NonNull Class<T> type) {
         CachingInvocationHandler<?> cachingInvocationHandler = proxyCacheMap.get(type);
@@ -193,6 +259,11 @@ public class Generator {
      * @see Builder#withConnectTimeout(int)
      * @see Builder#withReadTimeout(int)
      * @see Builder#withUserAgentAdditions(String...)
+     * @see Builder#withCompression(boolean, int)
+     * @see Builder#withTransport(HttpTransport)
+     * @see Builder#withExecutor(ExecutorService)
+     * @see Builder#withRequestCoalescing(boolean)
+     * @see Builder#withResponseCache(File, long, String)
      */
     public static class Builder {
         private final Generator generator;
@@ -300,6 +371,73 @@ public class Generator {
             return this;
         }
 
+        /**
+         * Will enable gzip compression: responses will be requested gzip-encoded and request bodies
+         * which are at least {@code threshold} bytes long will be sent gzip-encoded. Disabled by default.
+         *
+         * @param enabled   setting
+         * @param threshold minimum size of request body in bytes to compress, default is 1KB
+         * @return {@link Builder}
+         */
+        public Builder withCompression(boolean enabled, int threshold) {
+            generator.compressionEnabled = enabled;
+            generator.compressionThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * Will execute requests with the supplied transport instead of the default {@code HttpURLConnection} one.
+         *
+         * @param transport transport, e.g. {@link org.infobip.mobile.messaging.api.support.http.client.OkHttpTransport}
+         *                  to reuse pooled connections
+         * @return {@link Builder}
+         */
+        public Builder withTransport(@NonNull HttpTransport transport) {
+            generator.transport = transport;
+            return this;
+        }
+
+        /**
+         * Will execute asynchronous calls on the supplied executor. By default a shared pool of
+         * {@link Generator#DEFAULT_IO_THREADS} threads is used.
+         *
+         * @param executor executor for asynchronous calls
+         * @return {@link Builder}
+         */
+        public Builder withExecutor(@NonNull ExecutorService executor) {
+            generator.executor = executor;
+            return this;
+        }
+
+        /**
+         * Will let identical GET requests which are in flight at the same time share one network call,
+         * all callers receive the same response. Disabled by default.
+         * Hit and miss counters are available from {@link Generator#getRequestCoalescer()}.
+         *
+         * @param enabled setting
+         * @return {@link Builder}
+         */
+        public Builder withRequestCoalescing(boolean enabled) {
+            generator.requestCoalescer = enabled ? new RequestCoalescer() : null;
+            return this;
+        }
+
+        /**
+         * Will store GET responses which have {@code ETag}, {@code Last-Modified} or {@code Cache-Control: max-age}
+         * and revalidate them with {@code If-None-Match}/{@code If-Modified-Since}, so that unchanged resources
+         * come back as 304 without body. Disabled by default.
+         * Stored bodies are encrypted with a key derived from {@code secret}.
+         *
+         * @param directory directory to store responses in
+         * @param maxSize   maximum size of stored responses in bytes, least recently used ones are evicted first
+         * @param secret    secret to derive the encryption key from
+         * @return {@link Builder}
+         */
+        public Builder withResponseCache(@NonNull File directory, long maxSize, @NonNull String secret) {
+            generator.responseCache = new DiskResponseCache(directory, maxSize, secret);
+            return this;
+        }
+
         public Generator build() {
             if (StringUtils.isBlank(generator.getBaseUrl())) {
                 throw new IllegalArgumentException("baseUrl is mandatory");
@@ -322,7 +460,7 @@ public class Generator {
         @Override
         public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
             ProxyCache proxyCache = getProxyCache(method);
-            String uri = StringUtils.join("/", baseUrl, proxyCache.getUri());
+            String uri = proxyCache.getUriTemplate().expand(baseUrl, args);
 
             Map<String, Collection<Object>> queryParams = new HashMap<>(proxyCache.getDefaultQueryParams());
             Map<String, Collection<Object>> headerMap = new HashMap<>(proxyCache.getDefaultHeaderMap());
@@ -331,21 +469,18 @@ public class Generator {
 
             Parameter[] parameters = proxyCache.getParameters();
             Object body = null;
+            ApiCallback<Object> callback = null;
             for (int i = 0, parametersLength = parameters.length; i < parametersLength; i++) {
                 Parameter parameter = parameters[i];
                 Object arg = args[i];
-                if (null != parameter.getBody()) {
-                    body = arg;
-                }
-
-                Version version = parameter.getVersion();
-                if (null != version) {
-                    uri = uri.replace("{version}", arg.toString());
+                if (i == proxyCache.getCallbackIndex()) {
+                    //noinspection unchecked
+                    callback = (ApiCallback<Object>) arg;
+                    continue;
                 }
 
-                Path p = parameter.getPath();
-                if (null != p) {
-                    uri = uri.replace("{" + p.name() + "}", arg.toString());
+                if (null != parameter.getBody()) {
+                    body = arg;
                 }
 
                 Query q = parameter.getQuery();
@@ -361,11 +496,13 @@ public class Generator {
                 }
             }
 
-            if (uri.endsWith("/")) {
-                uri = uri.substring(0, uri.length() - 1);
+            HttpMethod httpMethod = getHttpRequestMethod(proxyCache.httpRequests);
+            if (!proxyCache.isAsync()) {
+                return getApiClient().execute(httpMethod, uri, apiKey, credentials, queryParams, headerMap, body, proxyCache.getResponseType());
             }
 
-            return getApiClient().execute(getHttpRequestMethod(proxyCache.httpRequests), uri, apiKey, credentials, queryParams, headerMap, body, method.getReturnType());
+            Future<Object> future = getIoExecutor().submit(new AsyncCall(httpMethod, uri, apiKey, credentials, queryParams, headerMap, body, proxyCache.getResponseType(), callback));
+            return Future.class.equals(method.getReturnType()) ? future : null;
         }
 
         private HttpMethod getHttpRequestMethod(HttpRequest[] httpRequests) {
@@ -388,6 +525,37 @@ public class Generator {
         }
     }
 
+    @Data
+    private class AsyncCall implements Callable<Object> {
+        private final HttpMethod httpMethod;
+        private final String uri;
+        private final String apiKey;
+        private final Tuple<String, String> credentials;
+        private final Map<String, Collection<Object>> queryParams;
+        private final Map<String, Collection<Object>> headerMap;
+        private final Object body;
+        private final Class<?> responseType;
+        private final ApiCallback<Object> callback;
+
+        @Override
+        public Object call() {
+            Object result;
+            try {
+                result = getApiClient().execute(httpMethod, uri, apiKey, credentials, queryParams, headerMap, body, responseType);
+            } catch (RuntimeException e) {
+                if (null != callback) {
+                    callback.onError(e);
+                }
+                throw e;
+            }
+
+            if (null != callback) {
+                callback.onSuccess(result);
+            }
+            return result;
+        }
+    }
+
     @Data
     private class Parameter {
         private final Body body;
@@ -397,15 +565,108 @@ public class Generator {
         private final Version version;
     }
 
+    /**
+     * URI of a proxied method, split once into literal parts and placeholders which are resolved from method arguments
+     * ({@link Path} and {@link Version} parameters) on each invocation.
+     */
+    private static class UriTemplate {
+        private final String[] literals;
+        private final String[] placeholders;
+        private final int[] argumentIndexes;
+        private final int literalsLength;
+
+        UriTemplate(String uri, Parameter[] parameters) {
+            ArrayList<String> literals = new ArrayList<>();
+            ArrayList<String> placeholders = new ArrayList<>();
+            int position = 0;
+            while (true) {
+                int start = uri.indexOf('{', position);
+                int end = start < 0 ? -1 : uri.indexOf('}', start);
+                if (end < 0) {
+                    literals.add(uri.substring(position));
+                    break;
+                }
+                literals.add(uri.substring(position, start));
+                placeholders.add(uri.substring(start, end + 1));
+                position = end + 1;
+            }
+
+            this.literals = literals.toArray(new String[0]);
+            this.placeholders = placeholders.toArray(new String[0]);
+            this.argumentIndexes = new int[this.placeholders.length];
+            int length = 0;
+            for (String literal : this.literals) {
+                length += literal.length();
+            }
+            this.literalsLength = length;
+            for (int i = 0; i < this.placeholders.length; i++) {
+                argumentIndexes[i] = findArgumentIndex(this.placeholders[i], parameters);
+            }
+        }
+
+        private static int findArgumentIndex(String placeholder, Parameter[] parameters) {
+            for (int i = 0; i < parameters.length; i++) {
+                Parameter parameter = parameters[i];
+                if (null != parameter.getVersion() && "{version}".equals(placeholder)) {
+                    return i;
+                }
+                Path path = parameter.getPath();
+                if (null != path && placeholder.equals("{" + path.name() + "}")) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Joins base url with this template using "/" as a separator and resolves placeholders from arguments.
+         * Trailing "/" is removed. Placeholders without a matching argument are kept as they are.
+         */
+        String expand(String baseUrl, Object[] args) {
+            String[] values = new String[placeholders.length];
+            int length = baseUrl.length() + literalsLength + 1;
+            for (int i = 0; i < placeholders.length; i++) {
+                int index = argumentIndexes[i];
+                values[i] = index < 0 ? placeholders[i] : args[index].toString();
+                length += values[i].length();
+            }
+
+            StringBuilder sb = new StringBuilder(length);
+            sb.append(baseUrl);
+            boolean baseEndsWithSeparator = baseUrl.endsWith("/");
+            boolean uriStartsWithSeparator = literals[0].isEmpty() && values.length > 0 ? values[0].startsWith("/") : literals[0].startsWith("/");
+            if (!baseEndsWithSeparator && !uriStartsWithSeparator) {
+                sb.append('/');
+            } else if (baseEndsWithSeparator && uriStartsWithSeparator) {
+                sb.setLength(sb.length() - 1);
+            }
+
+            for (int i = 0; i < values.length; i++) {
+                sb.append(literals[i]).append(values[i]);
+            }
+            sb.append(literals[literals.length - 1]);
+
+            int last = sb.length() - 1;
+            if (last >= 0 && sb.charAt(last) == '/') {
+                sb.setLength(last);
+            }
+            return sb.toString();
+        }
+    }
+
     @Data
     private class ProxyCache {
         private final HttpRequest[] httpRequests;
         private final String uri;
+        private final UriTemplate uriTemplate;
         private final HashMap<String, Collection<Object>> defaultQueryParams;
         private final HashMap<String, Collection<Object>> defaultHeaderMap;
         private final Parameter[] parameters;
         private final String apiKey;
         private final Tuple<String, String> credentials;
+        private final int callbackIndex;
+        private final boolean async;
+        private final Class<?> responseType;
 
         public ProxyCache(Method method) {
             this.httpRequests = createHttpRequest(method);
@@ -413,8 +674,44 @@ public class Generator {
             this.defaultQueryParams = createDefaultQueryParams(method);
             this.defaultHeaderMap = createDefaultHeaderMap(method);
             this.parameters = createParameters(method);
+            this.uriTemplate = new UriTemplate(uri, parameters);
             this.apiKey = findApiKey(method);
             this.credentials = findCredentials(method);
+            this.callbackIndex = findCallbackIndex(method);
+            this.async = callbackIndex >= 0 || Future.class.equals(method.getReturnType());
+            this.responseType = findResponseType(method);
+        }
+
+        private int findCallbackIndex(Method method) {
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            for (int i = 0; i < parameterTypes.length; i++) {
+                if (ApiCallback.class.equals(parameterTypes[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Response type of asynchronous methods is the type argument of {@code Future<T>} or {@code ApiCallback<T>}.
+         */
+        private Class<?> findResponseType(Method method) {
+            if (!async) {
+                return method.getReturnType();
+            }
+
+            Type type = Future.class.equals(method.getReturnType())
+                    ? method.getGenericReturnType()
+                    : method.getGenericParameterTypes()[callbackIndex];
+            if (!(type instanceof ParameterizedType)) {
+                return Void.class;
+            }
+
+            Type argument = ((ParameterizedType) type).getActualTypeArguments()[0];
+            if (argument instanceof ParameterizedType) {
+                argument = ((ParameterizedType) argument).getRawType();
+            }
+            return argument instanceof Class ? (Class<?>) argument : Void.class;
         }
 
         private String findApiKey(Method method) {
@@ -1,29 +1,36 @@
 package org.infobip.mobile.messaging.api.support.http.client;
 
+import com.google.gson.JsonElement;
+
 import org.infobip.mobile.messaging.api.support.ApiBackendException;
 import org.infobip.mobile.messaging.api.support.ApiBackendExceptionWithContent;
 import org.infobip.mobile.messaging.api.support.ApiException;
 import org.infobip.mobile.messaging.api.support.ApiIOException;
 import org.infobip.mobile.messaging.api.support.Tuple;
+import org.infobip.mobile.messaging.api.support.http.client.model.ApiError;
 import org.infobip.mobile.messaging.api.support.http.client.model.ApiResponse;
 import org.infobip.mobile.messaging.api.support.http.serialization.JsonSerializer;
 import org.infobip.mobile.messaging.api.support.util.Base64Encoder;
 import org.infobip.mobile.messaging.api.support.util.StreamUtils;
 import org.infobip.mobile.messaging.api.support.util.StringUtils;
 
-import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.Writer;
 import java.net.URLEncoder;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
 
-import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLHandshakeException;
 
 /**
@@ -35,6 +42,21 @@ public class DefaultApiClient implements ApiClient {
 
     public static final int DEFAULT_READ_TIMEOUT = 60000;
 
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+
+    private static final int HTTP_NOT_MODIFIED = 304;
+
+    /**
+     * Request bodies smaller than this are sent with Content-Length, larger ones are streamed in chunks.
+     * When compression is enabled, compression threshold is used instead.
+     */
+    private static final int STREAMING_THRESHOLD = 8192;
+
+    /**
+     * Gson writes short string fragments, buffering them avoids per-fragment encoder calls.
+     */
+    private static final int WRITER_BUFFER_SIZE = 2048;
+
     public static final JsonSerializer JSON_SERIALIZER = new JsonSerializer();
     private static final JsonSerializer JSON_SERIALIZER_WITH_NULLS = new JsonSerializer(true);
 
@@ -46,6 +68,11 @@ public class DefaultApiClient implements ApiClient {
     private final ResponsePreProcessor[] responsePreProcessors;
     private final Logger logger;
     private final boolean allowUntrustedSSLOnError;
+    private final boolean compressionEnabled;
+    private final int compressionThreshold;
+    private final HttpTransport transport;
+    private final RequestCoalescer requestCoalescer;
+    private final DiskResponseCache responseCache;
     private String userAgent;
 
     public DefaultApiClient() {
@@ -53,6 +80,37 @@ public class DefaultApiClient implements ApiClient {
     }
 
     public DefaultApiClient(int connectTimeout, int readTimeout, String libraryVersion, RequestInterceptor[] interceptors, ResponsePreProcessor[] responsePreProcessors, Logger logger, boolean allowUntrustedSSLOnError, String... userAgentAdditions) {
+        this(connectTimeout, readTimeout, libraryVersion, interceptors, responsePreProcessors, logger, allowUntrustedSSLOnError, false, DEFAULT_COMPRESSION_THRESHOLD, userAgentAdditions);
+    }
+
+    /**
+     * @param compressionEnabled   if true, client will accept gzip-encoded responses and will gzip request bodies
+     *                             which are at least {@code compressionThreshold} bytes long
+     * @param compressionThreshold minimum size of serialized request body in bytes to compress
+     */
+    public DefaultApiClient(int connectTimeout, int readTimeout, String libraryVersion, RequestInterceptor[] interceptors, ResponsePreProcessor[] responsePreProcessors, Logger logger, boolean allowUntrustedSSLOnError, boolean compressionEnabled, int compressionThreshold, String... userAgentAdditions) {
+        this(connectTimeout, readTimeout, libraryVersion, interceptors, responsePreProcessors, logger, allowUntrustedSSLOnError, compressionEnabled, compressionThreshold, null, userAgentAdditions);
+    }
+
+    public DefaultApiClient(int connectTimeout, int readTimeout, String libraryVersion, RequestInterceptor[] interceptors, ResponsePreProcessor[] responsePreProcessors, Logger logger, boolean allowUntrustedSSLOnError, boolean compressionEnabled, int compressionThreshold, HttpTransport transport, String... userAgentAdditions) {
+        this(connectTimeout, readTimeout, libraryVersion, interceptors, responsePreProcessors, logger, allowUntrustedSSLOnError, compressionEnabled, compressionThreshold, transport, null, userAgentAdditions);
+    }
+
+    public DefaultApiClient(int connectTimeout, int readTimeout, String libraryVersion, RequestInterceptor[] interceptors, ResponsePreProcessor[] responsePreProcessors, Logger logger, boolean allowUntrustedSSLOnError, boolean compressionEnabled, int compressionThreshold, HttpTransport transport, RequestCoalescer requestCoalescer, String... userAgentAdditions) {
+        this(connectTimeout, readTimeout, libraryVersion, interceptors, responsePreProcessors, logger, allowUntrustedSSLOnError, compressionEnabled, compressionThreshold, transport, requestCoalescer, null, userAgentAdditions);
+    }
+
+    /**
+     * @param transport        transport to execute requests with, {@link HttpURLConnectionTransport} is used if null
+     * @param requestCoalescer if not null, identical GET requests in flight at the same time will share one call
+     *                         and their callers will receive the same response instance
+     * @param responseCache    if not null, GET responses with validators or max-age will be stored and revalidated,
+     *                         requests with other methods drop stored responses of their resource, its parent
+     *                         and all resources below the parent (query is ignored);
+     *                         fresh stored responses are returned without a network call, so response pre-processors
+     *                         are not invoked for them
+     */
+    public DefaultApiClient(int connectTimeout, int readTimeout, String libraryVersion, RequestInterceptor[] interceptors, ResponsePreProcessor[] responsePreProcessors, Logger logger, boolean allowUntrustedSSLOnError, boolean compressionEnabled, int compressionThreshold, HttpTransport transport, RequestCoalescer requestCoalescer, DiskResponseCache responseCache, String... userAgentAdditions) {
         this.connectTimeout = connectTimeout;
         this.readTimeout = readTimeout;
         this.libraryVersion = libraryVersion;
@@ -61,6 +119,11 @@ public class DefaultApiClient implements ApiClient {
         this.userAgentAdditions = userAgentAdditions;
         this.logger = logger;
         this.allowUntrustedSSLOnError = allowUntrustedSSLOnError;
+        this.compressionEnabled = compressionEnabled;
+        this.compressionThreshold = compressionThreshold;
+        this.transport = transport != null ? transport : new HttpURLConnectionTransport();
+        this.requestCoalescer = requestCoalescer;
+        this.responseCache = responseCache;
     }
 
     @Override
@@ -76,12 +139,22 @@ public class DefaultApiClient implements ApiClient {
 
         logger.d("REQUEST: " + request);
 
-        try {
-            StringBuilder sb = new StringBuilder();
-            for (Map.Entry<String, Collection<Object>> entry : request.queryParams.entrySet()) {
-                appendValue(sb, entry);
-            }
+        if (null != requestCoalescer && request.httpMethod == HttpMethod.GET) {
+            final Request coalescedRequest = request;
+            final Class<R> coalescedResponseType = responseType;
+            return requestCoalescer.execute(coalescingKey(request, responseType), new RequestCoalescer.Call<R>() {
+                @Override
+                public R execute() {
+                    return executeRequest(coalescedRequest, coalescedResponseType);
+                }
+            });
+        }
+
+        return executeRequest(request, responseType);
+    }
 
+    private <R> R executeRequest(Request request, Class<R> responseType) {
+        try {
             try {
                 return executeHTTP(request, responseType, false);
             } catch (SSLHandshakeException ex) {
@@ -103,33 +176,24 @@ public class DefaultApiClient implements ApiClient {
     }
 
     private <R> R executeHTTP(Request request, Class<R> responseType, boolean tryUntrustedSSL) throws IOException {
-        HttpURLConnection urlConnection = null;
-        try {
-            StringBuilder sb = new StringBuilder();
-            for (Map.Entry<String, Collection<Object>> entry : request.queryParams.entrySet()) {
-                appendValue(sb, entry);
+        String url = buildUrl(request);
+        String cacheKey = null;
+        DiskResponseCache.Entry cached = null;
+        if (null != responseCache && request.httpMethod == HttpMethod.GET && !isVoid(responseType)) {
+            cacheKey = cacheKey(url, request);
+            cached = responseCache.get(cacheKey);
+            if (null != cached && cached.isFresh(System.currentTimeMillis())) {
+                // nothing was received, so there is nothing for response pre-processors to see
+                logger.d("CACHED: " + url);
+                return readResponse(request, new ByteArrayInputStream(cached.getBody()), responseType);
             }
+        }
 
-            urlConnection = (HttpURLConnection) new URL(request.uri + sb.toString()).openConnection();
-
+        String method = request.httpMethod == HttpMethod.PATCH ? HttpMethod.POST.name() : request.httpMethod.name();
+        HttpConnection connection = transport.open(method, url, connectTimeout, readTimeout, tryUntrustedSSL);
+        try {
             if (request.httpMethod == HttpMethod.PATCH) {
-                urlConnection.setRequestProperty("X-HTTP-Method-Override", HttpMethod.PATCH.name());
-                urlConnection.setRequestMethod(HttpMethod.POST.name());
-            } else {
-                urlConnection.setRequestMethod(request.httpMethod.name());
-            }
-
-            if (request.httpMethod != HttpMethod.GET) {
-                urlConnection.setDoOutput(true);
-            }
-
-            urlConnection.setUseCaches(false);
-            urlConnection.setDoInput(true);
-            urlConnection.setConnectTimeout(connectTimeout);
-            urlConnection.setReadTimeout(readTimeout);
-
-            if (tryUntrustedSSL && urlConnection instanceof HttpsURLConnection) {
-                UntrustedSSLHelper.trustAllCerts(((HttpsURLConnection) urlConnection));
+                connection.setRequestHeader("X-HTTP-Method-Override", HttpMethod.PATCH.name());
             }
 
             if (null != request.headers) {
@@ -145,45 +209,69 @@ public class DefaultApiClient implements ApiClient {
                     }
                     for (Object v : value) {
                         if (v == null) continue;
-                        urlConnection.setRequestProperty(key, v.toString());
+                        connection.setRequestHeader(key, v.toString());
                     }
                 }
             }
             if (StringUtils.isNotBlank(request.apiKey)) {
-                urlConnection.setRequestProperty("Authorization", "App " + request.apiKey);
+                connection.setRequestHeader("Authorization", "App " + request.apiKey);
             } else if (request.credentials != null && StringUtils.isNotBlank(request.credentials.getLeft()) && StringUtils.isNotBlank(request.credentials.getRight())) {
                 String basicApiKey = Base64Encoder.encode(request.credentials.getLeft() + ":" + request.credentials.getRight());
-                urlConnection.setRequestProperty("Authorization", "Basic " + basicApiKey);
+                connection.setRequestHeader("Authorization", "Basic " + basicApiKey);
+            }
+            connection.setRequestHeader("Accept", "application/json");
+            if (compressionEnabled) {
+                connection.setRequestHeader("Accept-Encoding", "gzip");
             }
-            urlConnection.setRequestProperty("Accept", "application/json");
-            String userAgent = urlConnection.getRequestProperty("User-Agent");
+            String userAgent = connection.getRequestHeader("User-Agent");
             if (null == userAgent) {
-                urlConnection.setRequestProperty("User-Agent", getUserAgent());
+                connection.setRequestHeader("User-Agent", getUserAgent());
+            }
+            if (null != cached) {
+                if (null != cached.getEtag()) {
+                    connection.setRequestHeader("If-None-Match", cached.getEtag());
+                }
+                if (null != cached.getLastModified()) {
+                    connection.setRequestHeader("If-Modified-Since", cached.getLastModified());
+                }
             }
 
             if (null != request.body) {
-                byte[] bytes = jsonSerializer(request.httpMethod).serialize(request.body).getBytes("UTF-8");
-                urlConnection.setRequestProperty("Content-Length", "" + bytes.length);
-                urlConnection.setRequestProperty("Content-Type", "application/json");
-                OutputStream outputStream = null;
+                connection.setRequestHeader("Content-Type", "application/json");
+                int streamingThreshold = compressionEnabled ? compressionThreshold : STREAMING_THRESHOLD;
+                Writer writer = new BufferedWriter(new OutputStreamWriter(new RequestBodyOutputStream(connection, streamingThreshold, compressionEnabled), "UTF-8"), WRITER_BUFFER_SIZE);
                 try {
-                    outputStream = new BufferedOutputStream(urlConnection.getOutputStream());
-                    outputStream.write(bytes);
-                    outputStream.flush();
+                    jsonSerializer(request.httpMethod).serialize(request.body, writer);
                 } finally {
-                    StreamUtils.closeSafely(outputStream);
+                    writer.close();
                 }
             }
 
-            int responseCode = urlConnection.getResponseCode();
-            interceptResponse(responseCode, urlConnection.getHeaderFields());
-            int contentLength = urlConnection.getContentLength();
+            int responseCode = connection.getResponseCode();
+            interceptResponse(responseCode, connection.getResponseHeaders());
+            if (responseCode == HTTP_NOT_MODIFIED && null != cached) {
+                DiskResponseCache.Entry revalidated = cacheEntry(connection, cached.getBody());
+                if (null != revalidated) {
+                    responseCache.put(cacheKey, cacheScopes(url), new DiskResponseCache.Entry(
+                            revalidated.getEtag() != null ? revalidated.getEtag() : cached.getEtag(),
+                            revalidated.getLastModified() != null ? revalidated.getLastModified() : cached.getLastModified(),
+                            revalidated.getExpiresAt(),
+                            cached.getBody()));
+                }
+                return readResponse(request, new ByteArrayInputStream(cached.getBody()), responseType);
+            }
+            long contentLength = connection.getResponseContentLength();
             if (responseCode >= 400) {
                 ApiResponse apiResponse = new ApiResponse(ErrorCode.UNKNOWN_ERROR.value, ErrorCode.UNKNOWN_ERROR.description);
-                if (contentLength > 0) {
-                    InputStream inputStream = urlConnection.getErrorStream();
-                    String s = StreamUtils.readToString(inputStream, "UTF-8", contentLength);
-                    apiResponse = jsonSerializer(request.httpMethod).deserialize(s, ApiResponse.class);
+                InputStream errorStream = connection.getResponseBody();
+                if (contentLength > 0 && errorStream != null) {
+                    InputStream inputStream = decodedStream(connection, errorStream);
+                    try {
+                        JsonElement json = jsonSerializer(request.httpMethod).parse(new InputStreamReader(inputStream, "UTF-8"));
+                        apiResponse = jsonSerializer(request.httpMethod).deserialize(json, ApiResponse.class);
+                    } finally {
+                        StreamUtils.closeSafely(inputStream);
+                    }
                 }
 
                 if (responseCode >= 500) {
@@ -195,36 +283,182 @@ public class DefaultApiClient implements ApiClient {
                 throw new ApiException(tuple.getLeft(), tuple.getRight());
             }
 
-            if (Void.class.equals(responseType) || void.class.equals(responseType) || responseType == null) {
+            if (isVoid(responseType)) {
                 return null;
             }
 
-            InputStream inputStream = urlConnection.getInputStream();
-            String s = StreamUtils.readToString(inputStream, "UTF-8", contentLength);
-            inputStream.close();
-
-            R response = jsonSerializer(request.httpMethod).deserialize(s, responseType);
-            ApiResponse apiResponse = null;
-            try {
-                apiResponse = jsonSerializer(request.httpMethod).deserialize(s, ApiResponse.class);
-            } catch (Exception ignored) {
+            InputStream inputStream = decodedStream(connection, connection.getResponseBody());
+            if (null != cacheKey && null != inputStream) {
+                byte[] body;
+                try {
+                    body = StreamUtils.readToBytes(inputStream, -1);
+                } finally {
+                    StreamUtils.closeSafely(inputStream);
+                }
+                DiskResponseCache.Entry entry = cacheEntry(connection, body);
+                if (null != entry) {
+                    responseCache.put(cacheKey, cacheScopes(url), entry);
+                } else if (null != cached) {
+                    responseCache.remove(cacheKey);
+                }
+                inputStream = new ByteArrayInputStream(body);
             }
-
-            if (apiResponse != null && apiResponse.getRequestError() != null) {
-                Tuple<String, String> tuple = safeGetErrorInfo(apiResponse, ErrorCode.UNKNOWN_API_BACKEND_ERROR.value, ErrorCode.UNKNOWN_API_BACKEND_ERROR.description);
-                throw new ApiBackendExceptionWithContent(tuple.getLeft(), tuple.getRight(), response);
+            return readResponse(request, inputStream, responseType);
+        } finally {
+            connection.close();
+            if (null != responseCache && request.httpMethod != HttpMethod.GET) {
+                // any other method may change the resource as well as related ones
+                // (e.g. PATCH of {regId}/user changes {regId} and POST to {regId}/depersonalize changes {regId}/user),
+                // so next GET of any of them has to fetch it again
+                responseCache.removeScope(parentScope(url));
             }
+        }
+    }
 
-            return response;
+    private <R> R readResponse(Request request, InputStream inputStream, Class<R> responseType) throws IOException {
+        JsonSerializer serializer = jsonSerializer(request.httpMethod);
+        JsonElement json;
+        try {
+            json = serializer.parse(new InputStreamReader(inputStream, "UTF-8"));
         } finally {
-            try {
-                if (urlConnection != null) {
-                    urlConnection.disconnect();
-                }
-            } catch (Exception ignored) {
+            StreamUtils.closeSafely(inputStream);
+        }
+
+        R response = serializer.deserialize(json, responseType);
+        ApiResponse apiResponse = findRequestError(serializer, json);
+        if (apiResponse != null && apiResponse.getRequestError() != null) {
+            Tuple<String, String> tuple = safeGetErrorInfo(apiResponse, ErrorCode.UNKNOWN_API_BACKEND_ERROR.value, ErrorCode.UNKNOWN_API_BACKEND_ERROR.description);
+            throw new ApiBackendExceptionWithContent(tuple.getLeft(), tuple.getRight(), response);
+        }
+
+        return response;
+    }
+
+    private static boolean isVoid(Class<?> responseType) {
+        return Void.class.equals(responseType) || void.class.equals(responseType) || responseType == null;
+    }
+
+    /**
+     * Responses are cached per url and credentials. Other headers are not part of the key
+     * since they carry per-request information (e.g. session id) which does not change the resource.
+     */
+    private static String cacheKey(String url, Request request) {
+        return url + '\n' + request.apiKey + '\n' + request.credentials;
+    }
+
+    /**
+     * Scopes of a stored GET response are its resource path and all parent paths. Since other methods drop the scope
+     * of their parent path, the response is dropped by a request to the same resource, to its parent,
+     * or to any sibling or child of it.
+     */
+    private static List<String> cacheScopes(String url) {
+        String path = resourcePath(url);
+        List<String> scopes = new ArrayList<>();
+        int slash = path.indexOf('/', pathStart(path));
+        while (slash >= 0) {
+            scopes.add(path.substring(0, slash));
+            slash = path.indexOf('/', slash + 1);
+        }
+        scopes.add(path);
+        return scopes;
+    }
+
+    private static String parentScope(String url) {
+        String path = resourcePath(url);
+        int slash = path.lastIndexOf('/');
+        return slash >= pathStart(path) ? path.substring(0, slash) : path;
+    }
+
+    private static String resourcePath(String url) {
+        int query = url.indexOf('?');
+        return query >= 0 ? url.substring(0, query) : url;
+    }
+
+    private static int pathStart(String url) {
+        int scheme = url.indexOf("://");
+        return scheme >= 0 ? scheme + 3 : 0;
+    }
 
+    /**
+     * Creates cache entry according to {@code Cache-Control}, {@code ETag} and {@code Last-Modified} of the response.
+     *
+     * @return entry or null if the response must not or need not be stored
+     */
+    private static DiskResponseCache.Entry cacheEntry(HttpConnection connection, byte[] body) throws IOException {
+        long maxAge = 0;
+        String cacheControl = connection.getResponseHeader("Cache-Control");
+        if (null != cacheControl) {
+            for (String directive : cacheControl.split(",")) {
+                directive = directive.trim().toLowerCase(Locale.US);
+                if (directive.equals("no-store")) {
+                    return null;
+                } else if (directive.equals("no-cache")) {
+                    maxAge = 0;
+                    break;
+                } else if (directive.startsWith("max-age=")) {
+                    try {
+                        maxAge = Math.max(0, Long.parseLong(directive.substring("max-age=".length()).trim()));
+                    } catch (NumberFormatException ignored) {
+                    }
+                }
             }
         }
+
+        String etag = connection.getResponseHeader("ETag");
+        String lastModified = connection.getResponseHeader("Last-Modified");
+        if (null == etag && null == lastModified && maxAge == 0) {
+            return null;
+        }
+        long expiresAt = maxAge > 0 ? System.currentTimeMillis() + maxAge * 1000 : 0;
+        return new DiskResponseCache.Entry(etag, lastModified, expiresAt, body);
+    }
+
+    /**
+     * Requests are identical if they resolve to the same url, credentials, headers and response type.
+     * The key contains credentials, so it must not be logged.
+     */
+    private static String coalescingKey(Request request, Class<?> responseType) {
+        StringBuilder sb = new StringBuilder(128);
+        try {
+            sb.append(buildUrl(request));
+        } catch (UnsupportedEncodingException e) {
+            sb.append(request.uri).append(request.queryParams);
+        }
+        sb.append('\n').append(request.apiKey).append('\n').append(request.credentials);
+        if (null != request.headers) {
+            sb.append('\n').append(new TreeMap<>(request.headers));
+        }
+        sb.append('\n').append(responseType != null ? responseType.getName() : null);
+        return sb.toString();
+    }
+
+    private static InputStream decodedStream(HttpConnection connection, InputStream inputStream) throws IOException {
+        if (inputStream != null && "gzip".equalsIgnoreCase(connection.getResponseHeader("Content-Encoding"))) {
+            return new GZIPInputStream(inputStream);
+        }
+        return inputStream;
+    }
+
+    /**
+     * Looks up "requestError" in the already parsed response, so that the body is read and parsed only once.
+     *
+     * @return response with request error or null if there's no error in the response
+     */
+    private ApiResponse findRequestError(JsonSerializer serializer, JsonElement json) {
+        if (json == null || !json.isJsonObject()) {
+            return null;
+        }
+
+        JsonElement requestError = json.getAsJsonObject().get("requestError");
+        if (requestError == null || requestError.isJsonNull()) {
+            return null;
+        }
+
+        try {
+            return new ApiResponse(serializer.<ApiError>deserialize(requestError, ApiError.class));
+        } catch (Exception ignored) {
+            return null;
+        }
     }
 
     private void interceptErrorResponse(Exception error) {
@@ -281,7 +515,21 @@ public class DefaultApiClient implements ApiClient {
         return new Tuple<>(apiResponse.getRequestError().getServiceException().getMessageId(), apiResponse.getRequestError().getServiceException().getText());
     }
 
-    private void appendValue(StringBuilder sb, Map.Entry<String, Collection<Object>> entry) throws UnsupportedEncodingException {
+    private static String buildUrl(Request request) throws UnsupportedEncodingException {
+        if (null == request.queryParams || request.queryParams.isEmpty()) {
+            return request.uri;
+        }
+
+        StringBuilder sb = new StringBuilder(request.uri.length() + 32 * request.queryParams.size());
+        sb.append(request.uri);
+        int queryStart = sb.length();
+        for (Map.Entry<String, Collection<Object>> entry : request.queryParams.entrySet()) {
+            appendValue(sb, queryStart, entry);
+        }
+        return sb.toString();
+    }
+
+    private static void appendValue(StringBuilder sb, int queryStart, Map.Entry<String, Collection<Object>> entry) throws UnsupportedEncodingException {
         if (null == entry) {
             return;
         }
@@ -296,8 +544,28 @@ public class DefaultApiClient implements ApiClient {
             if (StringUtils.isBlank(s)) {
                 s = "";
             }
-            sb.append(sb.length() == 0 ? "?" : "&").append(URLEncoder.encode(entry.getKey(), "UTF-8")).append("=").append(URLEncoder.encode(s, "UTF-8"));
+            sb.append(sb.length() == queryStart ? '?' : '&');
+            appendEncoded(sb, entry.getKey());
+            sb.append('=');
+            appendEncoded(sb, s);
+        }
+    }
+
+    /**
+     * Appends URL-encoded value. Most query keys and values consist only of characters which
+     * {@link URLEncoder} leaves as they are, those are appended without encoding.
+     */
+    private static void appendEncoded(StringBuilder sb, String s) throws UnsupportedEncodingException {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            boolean unreserved = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '*';
+            if (!unreserved) {
+                sb.append(URLEncoder.encode(s, "UTF-8"));
+                return;
+            }
         }
+        sb.append(s);
     }
 
     private static JsonSerializer jsonSerializer(HttpMethod httpMethod) {
@@ -0,0 +1,357 @@
+package org.infobip.mobile.messaging.api.support.http.client;
+
+import org.infobip.mobile.messaging.api.support.util.StreamUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Bounded on-disk store of GET responses used by {@link DefaultApiClient} for conditional requests.
+ * <p>
+ * Each response is kept in its own file together with its validators ({@code ETag}, {@code Last-Modified})
+ * and expiration time. When the total size of stored bodies exceeds the limit, least recently used entries are evicted.
+ * Recency survives restarts since it is taken from file modification times.
+ * <p>
+ * Entries can be stored with scopes (e.g. resource paths) so that all entries of a scope can be dropped at once
+ * with {@link #removeScope(String)}. Scopes are kept hashed, same as keys.
+ * <p>
+ * Bodies may contain personal data, so they are stored encrypted with AES using a key derived from the supplied secret.
+ * Entries which cannot be decrypted (e.g. written with another secret) are dropped.
+ */
+public class DiskResponseCache {
+
+    private static final int FORMAT_VERSION = 3;
+    private static final String SUFFIX = ".entry3";
+    private static final String CIPHER = "AES/CBC/PKCS5Padding";
+    private static final int IV_LENGTH = 16;
+
+    private final File directory;
+    private final long maxSize;
+    private final SecretKeySpec key;
+    private final SecureRandom random = new SecureRandom();
+    private final LinkedHashMap<String, Long> lru = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<String>> scopeIndex = new HashMap<>();
+    private long size;
+    private boolean initialized;
+
+    @Data
+    @AllArgsConstructor
+    public static class Entry {
+        private final String etag;
+        private final String lastModified;
+        /**
+         * Time in milliseconds until which the entry can be used without revalidation, 0 if it always has to be revalidated.
+         */
+        private final long expiresAt;
+        private final byte[] body;
+
+        public boolean isFresh(long now) {
+            return now < expiresAt;
+        }
+    }
+
+    /**
+     * @param directory directory to keep responses in, created if it does not exist
+     * @param maxSize   maximum total size of stored bodies in bytes
+     * @param secret    secret to derive the encryption key of stored bodies from
+     */
+    public DiskResponseCache(File directory, long maxSize, String secret) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.key = new SecretKeySpec(Arrays.copyOf(sha256(secret), 16), "AES");
+    }
+
+    public synchronized Entry get(String key) {
+        initialize();
+        String name = fileName(key);
+        if (!lru.containsKey(name)) {
+            return null;
+        }
+
+        File file = new File(directory, name);
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (readScopes(in) == null) {
+                removeFile(name);
+                return null;
+            }
+            String etag = emptyToNull(in.readUTF());
+            String lastModified = emptyToNull(in.readUTF());
+            long expiresAt = in.readLong();
+            byte[] iv = new byte[IV_LENGTH];
+            in.readFully(iv);
+            byte[] encrypted = new byte[in.readInt()];
+            in.readFully(encrypted);
+            byte[] body = cipher(Cipher.DECRYPT_MODE, iv).doFinal(encrypted);
+            lru.get(name);
+            //noinspection ResultOfMethodCallIgnored
+            file.setLastModified(System.currentTimeMillis());
+            return new Entry(etag, lastModified, expiresAt, body);
+        } catch (IOException | GeneralSecurityException e) {
+            removeFile(name);
+            return null;
+        } finally {
+            StreamUtils.closeSafely(in);
+        }
+    }
+
+    public synchronized void put(String key, Entry entry) {
+        put(key, Collections.<String>emptyList(), entry);
+    }
+
+    /**
+     * Stores the entry and marks it as belonging to all of the supplied scopes.
+     *
+     * @see #removeScope(String)
+     */
+    public synchronized void put(String key, Collection<String> scopes, Entry entry) {
+        initialize();
+        String name = fileName(key);
+        Set<String> hashedScopes = new HashSet<>();
+        for (String scope : scopes) {
+            hashedScopes.add(hash(scope));
+        }
+        File tmp = new File(directory, name + ".tmp");
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(hashedScopes.size());
+            for (String scope : hashedScopes) {
+                out.writeUTF(scope);
+            }
+            out.writeUTF(nullToEmpty(entry.getEtag()));
+            out.writeUTF(nullToEmpty(entry.getLastModified()));
+            out.writeLong(entry.getExpiresAt());
+            byte[] iv = new byte[IV_LENGTH];
+            random.nextBytes(iv);
+            byte[] encrypted = cipher(Cipher.ENCRYPT_MODE, iv).doFinal(entry.getBody());
+            out.write(iv);
+            out.writeInt(encrypted.length);
+            out.write(encrypted);
+            out.close();
+            out = null;
+
+            File file = new File(directory, name);
+            if (!tmp.renameTo(file)) {
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+                if (!tmp.renameTo(file)) {
+                    //noinspection ResultOfMethodCallIgnored
+                    tmp.delete();
+                    removeFile(name);
+                    return;
+                }
+            }
+
+            scopeIndex.put(name, hashedScopes);
+            Long previous = lru.put(name, file.length());
+            size += file.length() - (previous != null ? previous : 0);
+            evict();
+        } catch (IOException | GeneralSecurityException e) {
+            StreamUtils.closeSafely(out);
+            //noinspection ResultOfMethodCallIgnored
+            tmp.delete();
+        }
+    }
+
+    public synchronized void remove(String key) {
+        initialize();
+        removeFile(fileName(key));
+    }
+
+    /**
+     * Removes all entries which were stored with the supplied scope.
+     */
+    public synchronized void removeScope(String scope) {
+        initialize();
+        String hashedScope = hash(scope);
+        for (String name : lru.keySet().toArray(new String[0])) {
+            Set<String> entryScopes = scopesOf(name);
+            if (entryScopes == null || entryScopes.contains(hashedScope)) {
+                removeFile(name);
+            }
+        }
+    }
+
+    /**
+     * Removes all stored entries.
+     */
+    public synchronized void clear() {
+        initialize();
+        for (String name : lru.keySet().toArray(new String[0])) {
+            removeFile(name);
+        }
+    }
+
+    /**
+     * @return total size of stored entries in bytes
+     */
+    public synchronized long size() {
+        initialize();
+        return size;
+    }
+
+    /**
+     * @return hashed scopes of the entry, read from its file if not known yet, or null if the entry cannot be read
+     */
+    private Set<String> scopesOf(String name) {
+        Set<String> entryScopes = scopeIndex.get(name);
+        if (entryScopes != null) {
+            return entryScopes;
+        }
+
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(new File(directory, name))));
+            entryScopes = readScopes(in);
+        } catch (IOException e) {
+            entryScopes = null;
+        } finally {
+            StreamUtils.closeSafely(in);
+        }
+        if (entryScopes != null) {
+            scopeIndex.put(name, entryScopes);
+        }
+        return entryScopes;
+    }
+
+    /**
+     * Reads the header of the entry up to the validators.
+     *
+     * @return hashed scopes or null if the entry was written in another format
+     */
+    private static Set<String> readScopes(DataInputStream in) throws IOException {
+        if (in.readInt() != FORMAT_VERSION) {
+            return null;
+        }
+        int count = in.readInt();
+        Set<String> entryScopes = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            entryScopes.add(in.readUTF());
+        }
+        return entryScopes;
+    }
+
+    private void removeFile(String name) {
+        scopeIndex.remove(name);
+        Long length = lru.remove(name);
+        if (length != null) {
+            size -= length;
+        }
+        //noinspection ResultOfMethodCallIgnored
+        new File(directory, name).delete();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> iterator = lru.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            iterator.remove();
+            scopeIndex.remove(eldest.getKey());
+            size -= eldest.getValue();
+            //noinspection ResultOfMethodCallIgnored
+            new File(directory, eldest.getKey()).delete();
+        }
+    }
+
+    private void initialize() {
+        if (initialized) {
+            return;
+        }
+        initialized = true;
+
+        //noinspection ResultOfMethodCallIgnored
+        directory.mkdirs();
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File f1, File f2) {
+                long m1 = f1.lastModified();
+                long m2 = f2.lastModified();
+                return m1 < m2 ? -1 : (m1 == m2 ? 0 : 1);
+            }
+        });
+        for (File file : files) {
+            if (!file.getName().endsWith(SUFFIX)) {
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+                continue;
+            }
+            lru.put(file.getName(), file.length());
+            size += file.length();
+        }
+        evict();
+    }
+
+    private Cipher cipher(int mode, byte[] iv) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance(CIPHER);
+        cipher.init(mode, key, new IvParameterSpec(iv));
+        return cipher;
+    }
+
+    private static byte[] sha256(String s) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(s.getBytes("UTF-8"));
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String fileName(String key) {
+        return hash(key) + SUFFIX;
+    }
+
+    private static String hash(String s) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(s.getBytes("UTF-8"));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String nullToEmpty(String s) {
+        return s != null ? s : "";
+    }
+
+    private static String emptyToNull(String s) {
+        return s.isEmpty() ? null : s;
+    }
+}
@@ -0,0 +1,61 @@
+package org.infobip.mobile.messaging.api.support.http.client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single request-response exchange opened by {@link HttpTransport}.
+ * <p>
+ * Request headers have to be set before the body is opened, response is available after the body is closed.
+ */
+public interface HttpConnection extends Closeable {
+
+    /**
+     * Sets request header, replacing any previous value with the same name.
+     */
+    void setRequestHeader(String name, String value);
+
+    /**
+     * @return value of request header or null if the header is not set
+     */
+    String getRequestHeader(String name);
+
+    /**
+     * Opens request body for writing, the body is complete when the stream is closed.
+     *
+     * @param contentLength length of the body in bytes or -1 if the length is not known up front
+     */
+    OutputStream openRequestBody(long contentLength) throws IOException;
+
+    int getResponseCode() throws IOException;
+
+    /**
+     * @return response headers, lookups by header name are case-insensitive where the underlying client allows it
+     */
+    Map<String, List<String>> getResponseHeaders() throws IOException;
+
+    /**
+     * @return value of response header or null if there's no such header
+     */
+    String getResponseHeader(String name) throws IOException;
+
+    /**
+     * @return length of response body or -1 if not known
+     */
+    long getResponseContentLength() throws IOException;
+
+    /**
+     * @return body of the response regardless of the response code, or null if there is no body
+     */
+    InputStream getResponseBody() throws IOException;
+
+    /**
+     * Releases the connection, either by closing it or by returning it to the transport for reuse.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,28 @@
+package org.infobip.mobile.messaging.api.support.http.client;
+
+import java.io.IOException;
+
+/**
+ * Opens HTTP connections for {@link DefaultApiClient}.
+ * <p>
+ * Transport decides how connections are established and whether they are reused between requests.
+ * Single instance is shared by all requests of a client, so implementations must be thread-safe.
+ *
+ * @see HttpURLConnectionTransport
+ * @see OkHttpTransport
+ * @see InMemoryTransport
+ */
+public interface HttpTransport {
+
+    /**
+     * Prepares a request. Nothing is sent before the body is written or the response is requested.
+     *
+     * @param method         HTTP method to send, as it should appear on the wire
+     * @param url            full url including query string
+     * @param connectTimeout connect timeout in milliseconds
+     * @param readTimeout    read timeout in milliseconds
+     * @param trustAllCerts  whether to skip validation of server certificates
+     * @return connection which must be closed by the caller
+     */
+    HttpConnection open(String method, String url, int connectTimeout, int readTimeout, boolean trustAllCerts) throws IOException;
+}
@@ -0,0 +1,138 @@
+package org.infobip.mobile.messaging.api.support.http.client;
+
+import org.infobip.mobile.messaging.api.support.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+
+import javax.net.ssl.HttpsURLConnection;
+
+/**
+ * Transport based on {@link HttpURLConnection}, used by default.
+ * <p>
+ * By default every connection is disconnected after the response is read, the same way the client always worked.
+ * With keep-alive enabled the response stream is closed instead, which lets the platform return the socket
+ * (and its TLS session) to its keep-alive cache.
+ */
+public class HttpURLConnectionTransport implements HttpTransport {
+
+    private final boolean keepAlive;
+
+    public HttpURLConnectionTransport() {
+        this(false);
+    }
+
+    /**
+     * @param keepAlive whether to leave connections to the platform keep-alive cache instead of disconnecting them
+     */
+    public HttpURLConnectionTransport(boolean keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    @Override
+    public HttpConnection open(String method, String url, int connectTimeout, int readTimeout, boolean trustAllCerts) throws IOException {
+        HttpURLConnection urlConnection = (HttpURLConnection) new URL(url).openConnection();
+        urlConnection.setRequestMethod(method);
+        if (!"GET".equals(method)) {
+            urlConnection.setDoOutput(true);
+        }
+        urlConnection.setUseCaches(false);
+        urlConnection.setDoInput(true);
+        urlConnection.setConnectTimeout(connectTimeout);
+        urlConnection.setReadTimeout(readTimeout);
+
+        if (trustAllCerts && urlConnection instanceof HttpsURLConnection) {
+            UntrustedSSLHelper.trustAllCerts(((HttpsURLConnection) urlConnection));
+        }
+        return new Connection(urlConnection, keepAlive);
+    }
+
+    private static class Connection implements HttpConnection {
+
+        private final HttpURLConnection urlConnection;
+        private final boolean keepAlive;
+        private InputStream responseBody;
+        private boolean responded;
+
+        Connection(HttpURLConnection urlConnection, boolean keepAlive) {
+            this.urlConnection = urlConnection;
+            this.keepAlive = keepAlive;
+        }
+
+        @Override
+        public void setRequestHeader(String name, String value) {
+            urlConnection.setRequestProperty(name, value);
+        }
+
+        @Override
+        public String getRequestHeader(String name) {
+            return urlConnection.getRequestProperty(name);
+        }
+
+        /**
+         * Bodies of known length are written with Content-Length but without fixed-length streaming mode:
+         * in streaming mode some implementations cannot provide the error stream of 401 responses.
+         */
+        @Override
+        public OutputStream openRequestBody(long contentLength) throws IOException {
+            if (contentLength >= 0) {
+                urlConnection.setRequestProperty("Content-Length", "" + contentLength);
+            } else {
+                urlConnection.setChunkedStreamingMode(0);
+            }
+            return urlConnection.getOutputStream();
+        }
+
+        @Override
+        public int getResponseCode() throws IOException {
+            int responseCode = urlConnection.getResponseCode();
+            responded = true;
+            return responseCode;
+        }
+
+        @Override
+        public Map<String, List<String>> getResponseHeaders() {
+            return urlConnection.getHeaderFields();
+        }
+
+        @Override
+        public String getResponseHeader(String name) {
+            return urlConnection.getHeaderField(name);
+        }
+
+        @Override
+        public long getResponseContentLength() {
+            return urlConnection.getContentLength();
+        }
+
+        @Override
+        public InputStream getResponseBody() throws IOException {
+            if (responseBody == null) {
+                responseBody = getResponseCode() >= 400 ? urlConnection.getErrorStream() : urlConnection.getInputStream();
+            }
+            return responseBody;
+        }
+
+        @Override
+        public void close() {
+            if (keepAlive && responded) {
+                try {
+                    StreamUtils.closeSafely(getResponseBody());
+                    return;
+                } catch (Exception ignored) {
+                }
+            }
+
+            try {
+                urlConnection.disconnect();
+            } catch (Exception ignored) {
+
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package org.infobip.mobile.messaging.api.support.http.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Transport which never touches the network. Requests are passed to a {@link Handler} which produces responses in memory.
+ * Useful in tests and benchmarks which should exercise the whole client without socket and server overhead.
+ */
+public class InMemoryTransport implements HttpTransport {
+
+    public interface Handler {
+        Response handle(RecordedRequest request) throws IOException;
+    }
+
+    private final Handler handler;
+
+    public InMemoryTransport(Handler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Creates transport which responds to every request with the same JSON response.
+     */
+    public InMemoryTransport(int status, String json) {
+        this(fixed(Response.json(status, json)));
+    }
+
+    @Override
+    public HttpConnection open(String method, String url, int connectTimeout, int readTimeout, boolean trustAllCerts) {
+        return new Connection(handler, method, url);
+    }
+
+    private static Handler fixed(final Response response) {
+        return new Handler() {
+            @Override
+            public Response handle(RecordedRequest request) {
+                return response;
+            }
+        };
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class RecordedRequest {
+        private String method;
+        private String url;
+        private Map<String, String> headers;
+        private byte[] body;
+
+        public String getHeader(String name) {
+            return headers.get(name);
+        }
+
+        public String getBodyAsString() {
+            try {
+                return body != null ? new String(body, "UTF-8") : null;
+            } catch (UnsupportedEncodingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Response {
+        private int status;
+        private Map<String, List<String>> headers;
+        private byte[] body;
+
+        public static Response json(int status, String json) {
+            try {
+                return new Response(status,
+                        Collections.singletonMap("Content-Type", Collections.singletonList("application/json")),
+                        json != null ? json.getBytes("UTF-8") : null);
+            } catch (UnsupportedEncodingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static class Connection implements HttpConnection {
+
+        private final Handler handler;
+        private final String method;
+        private final String url;
+        private final Map<String, String> requestHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        private ByteArrayOutputStream requestBody;
+        private Response response;
+        private Map<String, List<String>> responseHeaders;
+
+        Connection(Handler handler, String method, String url) {
+            this.handler = handler;
+            this.method = method;
+            this.url = url;
+        }
+
+        @Override
+        public void setRequestHeader(String name, String value) {
+            requestHeaders.put(name, value);
+        }
+
+        @Override
+        public String getRequestHeader(String name) {
+            return requestHeaders.get(name);
+        }
+
+        @Override
+        public OutputStream openRequestBody(long contentLength) {
+            if (contentLength >= 0) {
+                requestHeaders.put("Content-Length", "" + contentLength);
+            } else {
+                requestHeaders.put("Transfer-Encoding", "chunked");
+            }
+            requestBody = new ByteArrayOutputStream(contentLength > 0 ? (int) contentLength : 512);
+            return requestBody;
+        }
+
+        @Override
+        public int getResponseCode() throws IOException {
+            return execute().getStatus();
+        }
+
+        @Override
+        public Map<String, List<String>> getResponseHeaders() throws IOException {
+            if (responseHeaders == null) {
+                responseHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+                Map<String, List<String>> headers = execute().getHeaders();
+                if (headers != null) {
+                    responseHeaders.putAll(headers);
+                }
+            }
+            return responseHeaders;
+        }
+
+        @Override
+        public String getResponseHeader(String name) throws IOException {
+            List<String> values = getResponseHeaders().get(name);
+            return values == null || values.isEmpty() ? null : values.get(0);
+        }
+
+        @Override
+        public long getResponseContentLength() throws IOException {
+            byte[] body = execute().getBody();
+            return body != null ? body.length : 0;
+        }
+
+        @Override
+        public InputStream getResponseBody() throws IOException {
+            byte[] body = execute().getBody();
+            return body != null ? new ByteArrayInputStream(body) : null;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private Response execute() throws IOException {
+            if (response == null) {
+                byte[] body = requestBody != null ? requestBody.toByteArray() : null;
+                Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+                headers.putAll(requestHeaders);
+                response = handler.handle(new RecordedRequest(method, url, headers, body));
+                if (response == null) {
+                    throw new IOException("No response for " + method + " " + url);
+                }
+            }
+            return response;
+        }
+    }
+}
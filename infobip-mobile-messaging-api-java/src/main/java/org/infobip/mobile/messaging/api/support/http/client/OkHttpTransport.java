@@ -0,0 +1,202 @@
+package org.infobip.mobile.messaging.api.support.http.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLSocketFactory;
+
+import okhttp3.Headers;
+import okhttp3.OkHttpClient;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+
+/**
+ * Transport based on OkHttp. Connections are pooled by the {@link OkHttpClient} and negotiate HTTP/2 where the server
+ * supports it, so consecutive requests to the backend reuse warm TCP and TLS sessions.
+ * <p>
+ * OkHttp is not a dependency of this library, applications which use this transport have to provide it
+ * ({@code com.squareup.okhttp3:okhttp:3.12.x} or later).
+ * <p>
+ * Request bodies are collected into a pooled buffer before the call is executed.
+ */
+public class OkHttpTransport implements HttpTransport {
+
+    private final OkHttpClient client;
+    private TimeoutClient timeoutClient;
+
+    public OkHttpTransport() {
+        this(new OkHttpClient());
+    }
+
+    /**
+     * @param client client to share connection pool, dispatcher and configuration with;
+     *               timeouts of the client are overridden with timeouts of the api client
+     */
+    public OkHttpTransport(OkHttpClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public HttpConnection open(String method, String url, int connectTimeout, int readTimeout, boolean trustAllCerts) {
+        OkHttpClient client = clientFor(connectTimeout, readTimeout);
+        if (trustAllCerts) {
+            SSLSocketFactory socketFactory = UntrustedSSLHelper.trustAllSocketFactory();
+            if (socketFactory != null) {
+                client = client.newBuilder()
+                        .sslSocketFactory(socketFactory, UntrustedSSLHelper.TRUST_ALL_MANAGER)
+                        .build();
+            }
+        }
+        return new Connection(client, method, url);
+    }
+
+    /**
+     * Derived clients share the connection pool with the original one, the last one is kept
+     * since api client always uses the same timeouts.
+     */
+    private synchronized OkHttpClient clientFor(int connectTimeout, int readTimeout) {
+        if (timeoutClient == null || timeoutClient.connectTimeout != connectTimeout || timeoutClient.readTimeout != readTimeout) {
+            OkHttpClient derived = client.newBuilder()
+                    .connectTimeout(connectTimeout, TimeUnit.MILLISECONDS)
+                    .readTimeout(readTimeout, TimeUnit.MILLISECONDS)
+                    .writeTimeout(readTimeout, TimeUnit.MILLISECONDS)
+                    .build();
+            timeoutClient = new TimeoutClient(connectTimeout, readTimeout, derived);
+        }
+        return timeoutClient.client;
+    }
+
+    private static class TimeoutClient {
+        private final int connectTimeout;
+        private final int readTimeout;
+        private final OkHttpClient client;
+
+        TimeoutClient(int connectTimeout, int readTimeout, OkHttpClient client) {
+            this.connectTimeout = connectTimeout;
+            this.readTimeout = readTimeout;
+            this.client = client;
+        }
+    }
+
+    private static class Connection implements HttpConnection {
+
+        private final OkHttpClient client;
+        private final String method;
+        private final String url;
+        private final Headers.Builder requestHeaders = new Headers.Builder();
+        private Buffer requestBody;
+        private Response response;
+        private Map<String, List<String>> responseHeaders;
+
+        Connection(OkHttpClient client, String method, String url) {
+            this.client = client;
+            this.method = method;
+            this.url = url;
+        }
+
+        @Override
+        public void setRequestHeader(String name, String value) {
+            requestHeaders.set(name, value);
+        }
+
+        @Override
+        public String getRequestHeader(String name) {
+            return requestHeaders.get(name);
+        }
+
+        @Override
+        public OutputStream openRequestBody(long contentLength) {
+            requestBody = new Buffer();
+            return requestBody.outputStream();
+        }
+
+        @Override
+        public int getResponseCode() throws IOException {
+            return execute().code();
+        }
+
+        /**
+         * Header names are kept as received, but looked up case-insensitively like with {@link java.net.HttpURLConnection}.
+         */
+        @Override
+        public Map<String, List<String>> getResponseHeaders() throws IOException {
+            if (responseHeaders != null) {
+                return responseHeaders;
+            }
+
+            Headers headers = execute().headers();
+            Map<String, List<String>> map = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (int i = 0; i < headers.size(); i++) {
+                String name = headers.name(i);
+                List<String> values = map.get(name);
+                if (values == null) {
+                    values = new ArrayList<>(1);
+                    map.put(name, values);
+                }
+                values.add(headers.value(i));
+            }
+            responseHeaders = map;
+            return responseHeaders;
+        }
+
+        @Override
+        public String getResponseHeader(String name) throws IOException {
+            return execute().header(name);
+        }
+
+        @Override
+        public long getResponseContentLength() throws IOException {
+            ResponseBody body = execute().body();
+            return body != null ? body.contentLength() : -1;
+        }
+
+        @Override
+        public InputStream getResponseBody() throws IOException {
+            ResponseBody body = execute().body();
+            return body != null ? body.byteStream() : null;
+        }
+
+        @Override
+        public void close() {
+            if (response != null) {
+                response.close();
+            }
+        }
+
+        private Response execute() throws IOException {
+            if (response != null) {
+                return response;
+            }
+
+            RequestBody body = null;
+            if (requestBody != null) {
+                body = RequestBody.create(null, requestBody.readByteString());
+            } else if (requiresRequestBody(method)) {
+                body = RequestBody.create(null, new byte[0]);
+            }
+
+            okhttp3.Request request = new okhttp3.Request.Builder()
+                    .url(url)
+                    .headers(requestHeaders.build())
+                    .method(method, body)
+                    .build();
+            response = client.newCall(request).execute();
+            return response;
+        }
+
+        /**
+         * OkHttp rejects these methods without a body, {@link java.net.HttpURLConnection} sends them with an empty one.
+         */
+        private static boolean requiresRequestBody(String method) {
+            return "POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method);
+        }
+    }
+}
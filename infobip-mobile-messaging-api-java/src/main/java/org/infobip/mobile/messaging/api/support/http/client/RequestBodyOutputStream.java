@@ -0,0 +1,84 @@
+package org.infobip.mobile.messaging.api.support.http.client;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes request body to the connection without materializing the whole body in memory.
+ * <p>
+ * The first {@code threshold} bytes are kept in memory. If the body ends before reaching the threshold, it is sent at once
+ * with a known Content-Length. Otherwise the body is opened with unknown length, the buffered part is flushed and the rest
+ * of the body is written straight to the connection, gzip-compressed if requested.
+ */
+class RequestBodyOutputStream extends OutputStream {
+
+    private static final int INITIAL_BUFFER_SIZE = 512;
+
+    private final HttpConnection connection;
+    private final int threshold;
+    private final boolean compressLargeBody;
+    private byte[] buffer;
+    private int count;
+    private OutputStream outputStream;
+
+    /**
+     * @param connection        connection to write body to, request headers must already be set
+     * @param threshold         number of bytes to buffer before switching to streaming
+     * @param compressLargeBody whether to gzip the body if it reaches the threshold
+     */
+    RequestBodyOutputStream(HttpConnection connection, int threshold, boolean compressLargeBody) {
+        this.connection = connection;
+        this.threshold = Math.max(threshold, 1);
+        this.compressLargeBody = compressLargeBody;
+        this.buffer = new byte[Math.min(INITIAL_BUFFER_SIZE, this.threshold)];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (outputStream != null) {
+            outputStream.write(b, off, len);
+            return;
+        }
+
+        if (count + len >= threshold) {
+            startStreaming();
+            outputStream.write(b, off, len);
+            return;
+        }
+
+        if (count + len > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.min(Math.max(buffer.length * 2, count + len), threshold));
+        }
+        System.arraycopy(b, off, buffer, count, len);
+        count += len;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (outputStream == null) {
+            outputStream = connection.openRequestBody(count);
+            outputStream.write(buffer, 0, count);
+            buffer = null;
+        }
+        outputStream.close();
+    }
+
+    private void startStreaming() throws IOException {
+        if (compressLargeBody) {
+            connection.setRequestHeader("Content-Encoding", "gzip");
+        }
+        outputStream = connection.openRequestBody(-1);
+        if (compressLargeBody) {
+            outputStream = new GZIPOutputStream(outputStream);
+        }
+        outputStream.write(buffer, 0, count);
+        buffer = null;
+    }
+}
@@ -0,0 +1,91 @@
+package org.infobip.mobile.messaging.api.support.http.client;
+
+import org.infobip.mobile.messaging.api.support.ApiIOException;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets identical requests which are in flight at the same time share a single network call.
+ * <p>
+ * The first caller for a key executes the call, callers which arrive while it is in progress wait for it
+ * and receive the same response instance (or the same exception or error). Responses are not copied,
+ * so callers must not modify them. Nothing is cached after the call completes.
+ * Only idempotent requests should be coalesced, {@link DefaultApiClient} uses it for GET requests.
+ * <p>
+ * Keys may contain credentials, they are never logged nor put into exception messages.
+ */
+public class RequestCoalescer {
+
+    public interface Call<R> {
+        R execute();
+    }
+
+    private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    public <R> R execute(String key, Call<R> call) {
+        InFlight current = new InFlight();
+        InFlight existing = inFlight.putIfAbsent(key, current);
+        if (existing != null) {
+            hits.incrementAndGet();
+            return (R) existing.await();
+        }
+
+        misses.incrementAndGet();
+        try {
+            R result = call.execute();
+            current.result = result;
+            return result;
+        } catch (Throwable t) {
+            current.error = t;
+            throw t;
+        } finally {
+            inFlight.remove(key, current);
+            current.latch.countDown();
+        }
+    }
+
+    /**
+     * @return number of calls which were served by a call already in flight
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return number of calls which went to the network
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    private static class InFlight {
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile Object result;
+        private volatile Throwable error;
+
+        Object await() {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ApiIOException(DefaultApiClient.ErrorCode.API_IO_ERROR.getValue(), "Interrupted while waiting for coalesced request", e);
+            }
+
+            if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            }
+            if (error instanceof Error) {
+                throw (Error) error;
+            }
+            if (error != null) {
+                throw new ApiIOException(DefaultApiClient.ErrorCode.API_IO_ERROR.getValue(), DefaultApiClient.ErrorCode.API_IO_ERROR.getDescription(), error);
+            }
+            return result;
+        }
+    }
+}
@@ -5,32 +5,41 @@ import java.security.cert.X509Certificate;
 
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocketFactory;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
 
 class UntrustedSSLHelper {
 
-    private static TrustManager[] trustAllCerts = new TrustManager[]{
-            new X509TrustManager() {
-                public X509Certificate[] getAcceptedIssuers() {
-                    return null;
-                }
+    static final X509TrustManager TRUST_ALL_MANAGER = new X509TrustManager() {
+        public X509Certificate[] getAcceptedIssuers() {
+            return new X509Certificate[0];
+        }
 
-                public void checkClientTrusted(X509Certificate[] certs, String authType) {
-                }
+        public void checkClientTrusted(X509Certificate[] certs, String authType) {
+        }
 
-                public void checkServerTrusted(X509Certificate[] certs, String authType) {
-                }
-            }
+        public void checkServerTrusted(X509Certificate[] certs, String authType) {
+        }
     };
 
+    private static TrustManager[] trustAllCerts = new TrustManager[]{TRUST_ALL_MANAGER};
+
     static void trustAllCerts(HttpsURLConnection urlConnection) {
+        SSLSocketFactory socketFactory = trustAllSocketFactory();
+        if (socketFactory != null) {
+            urlConnection.setSSLSocketFactory(socketFactory);
+        }
+    }
+
+    static SSLSocketFactory trustAllSocketFactory() {
         try {
             SSLContext sc = SSLContext.getInstance("SSL");
             sc.init(null, trustAllCerts, new SecureRandom());
-            urlConnection.setSSLSocketFactory(sc.getSocketFactory());
+            return sc.getSocketFactory();
         } catch (Exception e) {
             System.err.println("Cannot instantiate trust-all ssl context: " + e);
+            return null;
         }
     }
 }
@@ -3,12 +3,15 @@ package org.infobip.mobile.messaging.api.support.http.serialization;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonParser;
 import com.google.gson.TypeAdapter;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.lang.reflect.Type;
 
 /**
@@ -71,7 +74,41 @@ public class JsonSerializer {
         return gson.fromJson(s, type);
     }
 
+    public <T> T deserialize(JsonElement element, Type type) {
+        return gson.fromJson(element, type);
+    }
+
+    /**
+     * Parses a single JSON document directly from the reader, without buffering it into a String first.
+     * Empty input results in {@link com.google.gson.JsonNull}.
+     *
+     * @param reader source of the document
+     * @return parsed document
+     */
+    public JsonElement parse(Reader reader) {
+        JsonReader jsonReader = new JsonReader(reader);
+        jsonReader.setLenient(true);
+        return new JsonParser().parse(jsonReader);
+    }
+
     public <T> String serialize(T t) {
         return gson.toJson(t);
     }
+
+    /**
+     * Serializes the object directly into the writer, without building an intermediate String.
+     *
+     * @param t      object to serialize
+     * @param writer destination, not flushed or closed by this method
+     */
+    public <T> void serialize(T t, Writer writer) throws IOException {
+        try {
+            gson.toJson(t, writer);
+        } catch (JsonIOException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+    }
 }
@@ -4,34 +4,120 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Arrays;
 
 /**
  * @author mstipanov
  * @since 03.03.2016.
  */
 public abstract class StreamUtils {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    /**
+     * Largest buffer allocated up front from a declared length, bigger contents grow the buffer while they are read.
+     */
+    private static final int MAX_INITIAL_SIZE = 64 * 1024;
+
+    /**
+     * Largest array size which is safe to allocate on all VMs.
+     */
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * Per-thread chunk buffer used when the length of the stream is not known up front (chunked transfer encoding).
+     */
+    private static final ThreadLocal<byte[]> CHUNK = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[CHUNK_SIZE];
+        }
+    };
+
     private StreamUtils() {
     }
 
+    /**
+     * Reads the stream and decodes it into a string.
+     *
+     * @param inputStream stream to read
+     * @param charsetName charset of the content
+     * @param length      number of bytes to read or non-positive value to read until the end of the stream
+     * @return content of the stream
+     */
     public static String readToString(InputStream inputStream, String charsetName, long length) throws IOException {
-        ByteArrayOutputStream buf = new ByteArrayOutputStream();
-        int result = inputStream.read();
-        long count = 1;
-        while (result != -1) {
-            byte b = (byte) result;
-            buf.write(b);
-            if (count == length) {
+        if (length > 0) {
+            byte[] bytes = readUpTo(inputStream, length);
+            return bytes.length > 0 ? new String(bytes, charsetName) : "";
+        }
+
+        byte[] chunk = CHUNK.get();
+        int count = readFully(inputStream, chunk, 0);
+        if (count < chunk.length) {
+            return count > 0 ? new String(chunk, 0, count, charsetName) : "";
+        }
+        return readRemaining(inputStream, chunk).toString(charsetName);
+    }
+
+    /**
+     * Reads the stream into a byte array.
+     *
+     * @param inputStream stream to read
+     * @param length      number of bytes to read or non-positive value to read until the end of the stream
+     * @return content of the stream
+     */
+    public static byte[] readToBytes(InputStream inputStream, long length) throws IOException {
+        if (length > 0) {
+            return readUpTo(inputStream, length);
+        }
+
+        byte[] chunk = CHUNK.get();
+        int count = readFully(inputStream, chunk, 0);
+        if (count < chunk.length) {
+            byte[] bytes = new byte[count];
+            System.arraycopy(chunk, 0, bytes, 0, count);
+            return bytes;
+        }
+        return readRemaining(inputStream, chunk).toByteArray();
+    }
+
+    /**
+     * Reads at most {@code length} bytes. The length comes from the server (Content-Length), so it only bounds the read:
+     * the buffer starts at {@link #MAX_INITIAL_SIZE} at most and doubles while the content actually arrives.
+     */
+    private static byte[] readUpTo(InputStream inputStream, long length) throws IOException {
+        int limit = (int) Math.min(length, MAX_ARRAY_SIZE);
+        byte[] bytes = new byte[Math.min(limit, MAX_INITIAL_SIZE)];
+        int count = readFully(inputStream, bytes, 0);
+        while (count == bytes.length && count < limit) {
+            bytes = Arrays.copyOf(bytes, (int) Math.min((long) bytes.length * 2, limit));
+            count = readFully(inputStream, bytes, count);
+        }
+        return count == bytes.length ? bytes : Arrays.copyOf(bytes, count);
+    }
+
+    private static int readFully(InputStream inputStream, byte[] bytes, int offset) throws IOException {
+        while (offset < bytes.length) {
+            int read = inputStream.read(bytes, offset, bytes.length - offset);
+            if (read == -1) {
                 break;
             }
-            result = inputStream.read();
-            count++;
+            offset += read;
         }
+        return offset;
+    }
 
-        String stringFromStream = buf.toString(charsetName);
-        if (stringFromStream.length() < 1) {
-            return "";
+    /**
+     * Continues reading after the first chunk has been filled completely.
+     */
+    private static ByteArrayOutputStream readRemaining(InputStream inputStream, byte[] chunk) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(chunk.length * 4);
+        buf.write(chunk, 0, chunk.length);
+        int read;
+        while ((read = inputStream.read(chunk)) != -1) {
+            buf.write(chunk, 0, read);
         }
-        return stringFromStream;
+        return buf;
     }
 
     public static long write(String s, OutputStream outputStream, String charsetName) throws IOException {
@@ -54,4 +140,16 @@ public abstract class StreamUtils {
             //ignore
         }
     }
+
+    public static void closeSafely(InputStream inputStream) {
+        if (null == inputStream) {
+            return;
+        }
+
+        try {
+            inputStream.close();
+        } catch (IOException e) {
+            //ignore
+        }
+    }
 }
@@ -1,10 +1,32 @@
 package org.infobip.mobile.messaging.api.support;
 
+import org.infobip.mobile.messaging.api.support.http.Body;
 import org.infobip.mobile.messaging.api.support.http.HttpRequest;
+import org.infobip.mobile.messaging.api.support.http.Path;
+import org.infobip.mobile.messaging.api.support.http.Query;
+import org.infobip.mobile.messaging.api.support.http.Version;
+import org.infobip.mobile.messaging.api.support.http.client.DefaultApiClient;
+import org.infobip.mobile.messaging.api.support.http.client.HttpMethod;
+import org.infobip.mobile.messaging.api.support.http.client.InMemoryTransport;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * @author mstipanov
@@ -13,10 +35,22 @@ import static org.junit.Assert.assertEquals;
 public class GeneratorTest {
 
     private Generator generator;
+    private ExecutorService executor;
 
     @Before
     public void setUp() throws Exception {
         generator = new Generator.Builder().withBaseUrl("X").build();
+        executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                return new Thread(r, "test-io");
+            }
+        });
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
     }
 
     @Test
@@ -45,6 +79,176 @@ public class GeneratorTest {
         generator.create(WrongClass.class).bar();
     }
 
+    @Test
+    public void invoke_shouldJoinBaseUrlAndResolvePathParameters() throws Exception {
+        CapturingApiClient apiClient = new CapturingApiClient();
+        generator = new Generator.Builder().withBaseUrl("https://base.url/").build();
+        generator.setApiClient(apiClient);
+
+        generator.create(TemplatedApi.class).get("abc");
+
+        assertEquals("https://base.url/mobile/2/resource/abc/sub", apiClient.uri);
+        assertEquals("yes", apiClient.queryParams.get("static").iterator().next());
+    }
+
+    @Test
+    public void invoke_shouldAddSeparatorAfterBaseUrl_andRemoveTrailingSeparator() throws Exception {
+        CapturingApiClient apiClient = new CapturingApiClient();
+        generator = new Generator.Builder().withBaseUrl("https://base.url").build();
+        generator.setApiClient(apiClient);
+
+        generator.create(TemplatedApi.class).list("x");
+
+        assertEquals("https://base.url/mobile/1/resource", apiClient.uri);
+        assertEquals("x", apiClient.queryParams.get("filter").iterator().next());
+        assertEquals("yes", apiClient.queryParams.get("static").iterator().next());
+    }
+
+    @Test
+    public void invoke_shouldUseCurrentBaseUrl() throws Exception {
+        CapturingApiClient apiClient = new CapturingApiClient();
+        generator.setApiClient(apiClient);
+        TemplatedApi api = generator.create(TemplatedApi.class);
+
+        generator.setBaseUrl("https://other.url/");
+        api.get("abc");
+
+        assertEquals("https://other.url/mobile/2/resource/abc/sub", apiClient.uri);
+    }
+
+    @Test
+    public void create_asyncMethod_shouldReturnFutureWithResponse_executedOnExecutor() throws Exception {
+        final AtomicReference<String> thread = new AtomicReference<>();
+        AsyncApi api = asyncApi(new InMemoryTransport.Handler() {
+            @Override
+            public InMemoryTransport.Response handle(InMemoryTransport.RecordedRequest request) {
+                thread.set(Thread.currentThread().getName());
+                return InMemoryTransport.Response.json(200, "{\"value\":\"" + request.getBodyAsString().length() + "\"}");
+            }
+        });
+
+        Future<AsyncResponse> future = api.post(new AsyncResponse("body"));
+
+        assertEquals("16", future.get(5, TimeUnit.SECONDS).value);
+        assertEquals("test-io", thread.get());
+    }
+
+    @Test
+    public void create_asyncMethod_withoutResponse_shouldCompleteWithNull() throws Exception {
+        AsyncApi api = asyncApi(new InMemoryTransport(200, null));
+
+        assertNull(api.delete("abc").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void create_asyncMethod_shouldDeliverResultToCallback() throws Exception {
+        AsyncApi api = asyncApi(new InMemoryTransport(200, "{\"value\":\"x\"}"));
+        final AtomicReference<AsyncResponse> result = new AtomicReference<>();
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        api.get("abc", new ApiCallback<AsyncResponse>() {
+            @Override
+            public void onSuccess(AsyncResponse response) {
+                result.set(response);
+                latch.countDown();
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                latch.countDown();
+            }
+        });
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals("x", result.get().value);
+    }
+
+    @Test
+    public void create_asyncMethod_shouldDeliverErrorToFutureAndCallback() throws Exception {
+        AsyncApi api = asyncApi(new InMemoryTransport(500, null));
+        final AtomicReference<Throwable> callbackError = new AtomicReference<>();
+
+        Future<AsyncResponse> future = api.getWithFuture("abc", new ApiCallback<AsyncResponse>() {
+            @Override
+            public void onSuccess(AsyncResponse result) {
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                callbackError.set(error);
+            }
+        });
+
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("Expected exception ExecutionException is not thrown");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ApiBackendException);
+            assertEquals(e.getCause(), callbackError.get());
+        }
+    }
+
+    private AsyncApi asyncApi(InMemoryTransport.Handler handler) {
+        return asyncApi(new InMemoryTransport(handler));
+    }
+
+    private AsyncApi asyncApi(InMemoryTransport transport) {
+        return new Generator.Builder()
+                .withBaseUrl("http://in.memory")
+                .withTransport(transport)
+                .withExecutor(executor)
+                .build()
+                .create(AsyncApi.class);
+    }
+
+    @HttpRequest("/async")
+    private interface AsyncApi {
+        @HttpRequest(method = HttpMethod.POST)
+        Future<AsyncResponse> post(@Body AsyncResponse body);
+
+        @HttpRequest(method = HttpMethod.DELETE, value = "{id}")
+        Future<Void> delete(@Path(name = "id") String id);
+
+        @HttpRequest(method = HttpMethod.GET, value = "{id}")
+        void get(@Path(name = "id") String id, ApiCallback<AsyncResponse> callback);
+
+        @HttpRequest(method = HttpMethod.GET, value = "{id}")
+        Future<AsyncResponse> getWithFuture(@Path(name = "id") String id, ApiCallback<AsyncResponse> callback);
+    }
+
+    private static class AsyncResponse {
+        private String value;
+
+        AsyncResponse(String value) {
+            this.value = value;
+        }
+    }
+
+    @Version("2")
+    @HttpRequest("/mobile/{version}/resource")
+    private interface TemplatedApi {
+        @HttpRequest(method = HttpMethod.GET, value = "{id}/sub")
+        @Query(name = "static", value = "yes")
+        String get(@Path(name = "id") String id);
+
+        @Version("1")
+        @HttpRequest(method = HttpMethod.GET, value = "/")
+        @Query(name = "static", value = "yes")
+        String list(@Query(name = "filter") String filter);
+    }
+
+    private static class CapturingApiClient extends DefaultApiClient {
+        String uri;
+        Map<String, Collection<Object>> queryParams;
+
+        @Override
+        public <B, R> R execute(HttpMethod method, String uri, String apiKey, Tuple<String, String> credentials, Map<String, Collection<Object>> queryParams, Map<String, Collection<Object>> headers, B body, Class<R> responseType) {
+            this.uri = uri;
+            this.queryParams = queryParams;
+            return null;
+        }
+    }
+
     private interface WrongClass {
         @HttpRequest
         String foo();
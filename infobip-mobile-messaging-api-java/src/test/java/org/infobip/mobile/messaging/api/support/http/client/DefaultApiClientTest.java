@@ -12,17 +12,30 @@ import org.infobip.mobile.messaging.api.tools.DebugServer;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentMatcher;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
+import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import fi.iki.elonen.NanoHTTPD;
 import lombok.AllArgsConstructor;
@@ -48,6 +61,9 @@ public class DefaultApiClientTest {
     private DebugServer debugServer;
     private DefaultApiClient apiClient;
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private RequestInterceptor requestInterceptorMock;
     private ResponsePreProcessor responsePreProcessorMock;
 
@@ -211,6 +227,112 @@ public class DefaultApiClientTest {
         }
     }
 
+    @Test
+    public void execute_receivesOK_withRequestErrorAndResponseBody_notExtendingApiResponse() throws Exception {
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, DefaultApiClient.JSON_SERIALIZER.serialize(new SomeApiResponse("1", "Invalid Application ID", 123)));
+
+        try {
+            apiClient.execute(HttpMethod.POST, "http://127.0.0.1:" + debugServer.getListeningPort(), null, null, MapUtils.map(), null, null, SomePlainResponse.class);
+            Assert.fail("Expected exception ApiBackendExceptionWithContent is not thrown");
+        } catch (ApiBackendExceptionWithContent error) {
+            Assert.assertEquals("1", error.getCode());
+            Assert.assertEquals("Invalid Application ID", error.getMessage());
+            Assert.assertEquals(123, ((SomePlainResponse) error.getContent()).getInternalRegistrationId());
+        }
+    }
+
+    @Test
+    public void execute_receivesOK_withEmptyBody() throws Exception {
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, "");
+
+        SomeApiResponse result = apiClient.execute(HttpMethod.GET, "http://127.0.0.1:" + debugServer.getListeningPort(), null, null, MapUtils.map(), null, null, SomeApiResponse.class);
+
+        Assert.assertNull(result);
+    }
+
+    @Test
+    public void execute_withSmallBody_shouldSendContentLength() throws Exception {
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, DefaultApiClient.JSON_SERIALIZER.serialize(new SomeApiResponse(11)));
+
+        apiClient.execute(HttpMethod.POST, "http://127.0.0.1:" + debugServer.getListeningPort(), null, null, MapUtils.map(), null, new SomeApiRequest("Test"), SomeApiResponse.class);
+
+        Assert.assertEquals("15", debugServer.getHeader("Content-Length"));
+        Assert.assertNull(debugServer.getHeader("Transfer-Encoding"));
+        Assert.assertEquals("{\"name\":\"Test\"}", debugServer.getBody());
+    }
+
+    @Test
+    public void execute_withLargeBody_shouldStreamBodyInChunks() throws Exception {
+        String name = new String(new char[100000]).replace('\0', 'x');
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, DefaultApiClient.JSON_SERIALIZER.serialize(new SomeApiResponse(11)));
+
+        SomeApiResponse result = apiClient.execute(HttpMethod.POST, "http://127.0.0.1:" + debugServer.getListeningPort(), null, null, MapUtils.map(), null, new SomeApiRequest(name), SomeApiResponse.class);
+
+        Assert.assertEquals(11, result.getInternalRegistrationId());
+        Assert.assertEquals("chunked", debugServer.getHeader("Transfer-Encoding"));
+        Assert.assertEquals("{\"name\":\"" + name + "\"}", debugServer.getBody());
+    }
+
+    @Test
+    public void execute_withCompression_largeBody_shouldSendGzippedBody() throws Exception {
+        DefaultApiClient compressingClient = compressingApiClient(16);
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, DefaultApiClient.JSON_SERIALIZER.serialize(new SomeApiResponse(11)));
+
+        SomeApiResponse result = compressingClient.execute(HttpMethod.POST, "http://127.0.0.1:" + debugServer.getListeningPort(), null, null, MapUtils.map(), null, new SomeApiRequest("Some long enough name"), SomeApiResponse.class);
+
+        Assert.assertEquals(11, result.getInternalRegistrationId());
+        Assert.assertEquals("gzip", debugServer.getHeader("Content-Encoding"));
+        Assert.assertEquals("gzip", debugServer.getHeader("Accept-Encoding"));
+        Assert.assertEquals("{\"name\":\"Some long enough name\"}", debugServer.getBody());
+    }
+
+    @Test
+    public void execute_withCompression_smallBody_shouldSendPlainBody() throws Exception {
+        DefaultApiClient compressingClient = compressingApiClient(1024);
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, DefaultApiClient.JSON_SERIALIZER.serialize(new SomeApiResponse(11)));
+
+        compressingClient.execute(HttpMethod.POST, "http://127.0.0.1:" + debugServer.getListeningPort(), null, null, MapUtils.map(), null, new SomeApiRequest("Test"), SomeApiResponse.class);
+
+        Assert.assertNull(debugServer.getHeader("Content-Encoding"));
+        Assert.assertEquals("{\"name\":\"Test\"}", debugServer.getBody());
+    }
+
+    @Test
+    public void execute_withCompression_shouldInflateGzippedResponse() throws Exception {
+        DefaultApiClient compressingClient = compressingApiClient(1024);
+        debugServer.respondWithGzip(NanoHTTPD.Response.Status.OK, DefaultApiClient.JSON_SERIALIZER.serialize(new SomeApiResponse(11)));
+
+        SomeApiResponse result = compressingClient.execute(HttpMethod.GET, "http://127.0.0.1:" + debugServer.getListeningPort(), null, null, MapUtils.map(), null, null, SomeApiResponse.class);
+
+        Assert.assertEquals(11, result.getInternalRegistrationId());
+    }
+
+    @Test
+    public void execute_withCompression_shouldInflateGzippedErrorResponse() throws Exception {
+        DefaultApiClient compressingClient = compressingApiClient(1024);
+        debugServer.respondWithGzip(NanoHTTPD.Response.Status.UNAUTHORIZED,
+                DefaultApiClient.JSON_SERIALIZER.serialize(new ApiResponse(
+                        new ApiError(new ApiServiceException("1", "Invalid Application ID")))));
+
+        try {
+            compressingClient.execute(HttpMethod.GET, "http://127.0.0.1:" + debugServer.getListeningPort(), null, null, MapUtils.map(), null, null, SomeApiResponse.class);
+            Assert.fail("Expected exception ApiException is not thrown");
+        } catch (ApiException error) {
+            Assert.assertEquals("1", error.getCode());
+            Assert.assertEquals("Invalid Application ID", error.getMessage());
+        }
+    }
+
+    @Test
+    public void execute_withoutCompression_shouldNotAskForGzip() throws Exception {
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, DefaultApiClient.JSON_SERIALIZER.serialize(new SomeApiResponse(11)));
+
+        apiClient.execute(HttpMethod.POST, "http://127.0.0.1:" + debugServer.getListeningPort(), null, null, MapUtils.map(), null, new SomeApiRequest("Some long enough name"), SomeApiResponse.class);
+
+        Assert.assertNull(debugServer.getHeader("Content-Encoding"));
+        Assert.assertNotEquals("gzip", debugServer.getHeader("Accept-Encoding"));
+    }
+
     @Test
     public void execute_withRequestInterceptors_interceptorsShouldReceiveAllData() throws Exception {
         Map<String, Collection<Object>> givenQueryParams = new HashMap<String, Collection<Object>>() {{
@@ -266,6 +388,426 @@ public class DefaultApiClientTest {
         }}));
     }
 
+    @Test
+    public void execute_withInMemoryTransport_shouldSendRequestAndParseResponse() throws Exception {
+        final List<InMemoryTransport.RecordedRequest> requests = new ArrayList<>();
+        DefaultApiClient inMemoryClient = apiClient(new InMemoryTransport(new InMemoryTransport.Handler() {
+            @Override
+            public InMemoryTransport.Response handle(InMemoryTransport.RecordedRequest request) {
+                requests.add(request);
+                return InMemoryTransport.Response.json(200, DefaultApiClient.JSON_SERIALIZER.serialize(new SomeApiResponse(11)));
+            }
+        }), false);
+
+        SomeApiResponse result = inMemoryClient.execute(HttpMethod.PATCH, "http://in.memory/path", "12345", null, MapUtils.map("applicationId", "xyz"), null, new SomeApiRequest("Test"), SomeApiResponse.class);
+
+        Assert.assertEquals(11, result.getInternalRegistrationId());
+        Assert.assertEquals(1, requests.size());
+        InMemoryTransport.RecordedRequest request = requests.get(0);
+        Assert.assertEquals("POST", request.getMethod());
+        Assert.assertEquals("http://in.memory/path?applicationId=xyz", request.getUrl());
+        Assert.assertEquals("PATCH", request.getHeader("X-HTTP-Method-Override"));
+        Assert.assertEquals("App 12345", request.getHeader("authorization"));
+        Assert.assertEquals("15", request.getHeader("Content-Length"));
+        Assert.assertEquals("{\"name\":\"Test\"}", request.getBodyAsString());
+    }
+
+    @Test
+    public void execute_withInMemoryTransport_shouldParseErrorResponse() throws Exception {
+        DefaultApiClient inMemoryClient = apiClient(new InMemoryTransport(401, DefaultApiClient.JSON_SERIALIZER.serialize(new ApiResponse(
+                new ApiError(new ApiServiceException("1", "Invalid Application ID"))))), false);
+
+        try {
+            inMemoryClient.execute(HttpMethod.GET, "http://in.memory", null, null, MapUtils.map(), null, null, SomeApiResponse.class);
+            Assert.fail("Expected exception ApiException is not thrown");
+        } catch (ApiException error) {
+            Assert.assertEquals("1", error.getCode());
+            Assert.assertEquals("Invalid Application ID", error.getMessage());
+        }
+    }
+
+    @Test
+    public void execute_withOkHttpTransport_receivesOK() throws Exception {
+        DefaultApiClient okHttpClient = apiClient(new OkHttpTransport(), false);
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, DefaultApiClient.JSON_SERIALIZER.serialize(new SomeApiResponse(11)));
+
+        SomeApiResponse result = okHttpClient.execute(HttpMethod.POST, "http://127.0.0.1:" + debugServer.getListeningPort(), "12345", null, MapUtils.map("applicationId", "xyz"), null, new SomeApiRequest("Test"), SomeApiResponse.class);
+
+        Assert.assertEquals(11, result.getInternalRegistrationId());
+        Assert.assertEquals(NanoHTTPD.Method.POST, debugServer.getRequestMethod());
+        Assert.assertEquals("xyz", debugServer.getQueryParameter("applicationId"));
+        Assert.assertEquals("App 12345", debugServer.getHeader("Authorization"));
+        Assert.assertEquals("application/json", debugServer.getHeader("Content-Type"));
+        Assert.assertEquals("{\"name\":\"Test\"}", debugServer.getBody());
+    }
+
+    @Test
+    public void execute_withOkHttpTransport_receivesError() throws Exception {
+        DefaultApiClient okHttpClient = apiClient(new OkHttpTransport(), false);
+        debugServer.respondWith(NanoHTTPD.Response.Status.UNAUTHORIZED,
+                DefaultApiClient.JSON_SERIALIZER.serialize(new ApiResponse(
+                        new ApiError(new ApiServiceException("1", "Invalid Application ID")))));
+
+        try {
+            okHttpClient.execute(HttpMethod.POST, "http://127.0.0.1:" + debugServer.getListeningPort(), null, null, MapUtils.map(), null, new SomeApiRequest("Test"), SomeApiResponse.class);
+            Assert.fail("Expected exception ApiException is not thrown");
+        } catch (ApiException error) {
+            Assert.assertEquals("1", error.getCode());
+            Assert.assertEquals("Invalid Application ID", error.getMessage());
+        }
+    }
+
+    @Test
+    public void execute_withOkHttpTransport_andCompression_shouldGzipBodyAndInflateResponse() throws Exception {
+        DefaultApiClient okHttpClient = apiClient(new OkHttpTransport(), true);
+        debugServer.respondWithGzip(NanoHTTPD.Response.Status.OK, DefaultApiClient.JSON_SERIALIZER.serialize(new SomeApiResponse(11)));
+        String name = new String(new char[2000]).replace('\0', 'x');
+
+        SomeApiResponse result = okHttpClient.execute(HttpMethod.POST, "http://127.0.0.1:" + debugServer.getListeningPort(), null, null, MapUtils.map(), null, new SomeApiRequest(name), SomeApiResponse.class);
+
+        Assert.assertEquals(11, result.getInternalRegistrationId());
+        Assert.assertEquals("gzip", debugServer.getHeader("Content-Encoding"));
+        Assert.assertEquals("{\"name\":\"" + name + "\"}", debugServer.getBody());
+    }
+
+    @Test
+    public void execute_withOkHttpTransport_responseHeadersShouldBeCaseInsensitive() throws Exception {
+        final List<Map<String, List<String>>> receivedHeaders = new ArrayList<>();
+        DefaultApiClient okHttpClient = new DefaultApiClient(DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT, null, new RequestInterceptor[0], new ResponsePreProcessor[]{new ResponsePreProcessor() {
+            @Override
+            public void beforeResponse(int responseCode, Map<String, List<String>> headers) {
+                receivedHeaders.add(headers);
+            }
+
+            @Override
+            public void beforeResponse(Exception error) {
+            }
+        }}, new Logger(), false, false, DefaultApiClient.DEFAULT_COMPRESSION_THRESHOLD, new OkHttpTransport());
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, null, new HashMap<String, String>() {{
+            put("New-Base-URL", "https://new.url");
+        }});
+
+        okHttpClient.execute(HttpMethod.POST, "http://127.0.0.1:" + debugServer.getListeningPort(), null, null, MapUtils.map(), null, null, Void.class);
+
+        Assert.assertEquals(1, receivedHeaders.size());
+        Assert.assertEquals(Collections.singletonList("https://new.url"), receivedHeaders.get(0).get("New-Base-URL"));
+    }
+
+    @Test
+    public void execute_withKeepAliveTransport_shouldExecuteConsecutiveRequests() throws Exception {
+        DefaultApiClient keepAliveClient = apiClient(new HttpURLConnectionTransport(true), false);
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, DefaultApiClient.JSON_SERIALIZER.serialize(new SomeApiResponse(11)));
+
+        for (int i = 0; i < 3; i++) {
+            SomeApiResponse result = keepAliveClient.execute(HttpMethod.POST, "http://127.0.0.1:" + debugServer.getListeningPort(), null, null, MapUtils.map(), null, new SomeApiRequest("Test"), SomeApiResponse.class);
+            Assert.assertEquals(11, result.getInternalRegistrationId());
+        }
+        Assert.assertEquals(3, debugServer.getRequestCount());
+    }
+
+    @Test
+    public void execute_withRequestCoalescing_identicalGetsInFlight_shouldShareOneCall() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        RequestCoalescer coalescer = new RequestCoalescer();
+        final DefaultApiClient coalescingClient = coalescingApiClient(coalescer, new InMemoryTransport.Handler() {
+            @Override
+            public InMemoryTransport.Response handle(InMemoryTransport.RecordedRequest request) throws IOException {
+                calls.incrementAndGet();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+                return InMemoryTransport.Response.json(200, DefaultApiClient.JSON_SERIALIZER.serialize(new SomeApiResponse(11)));
+            }
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<SomeApiResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                futures.add(executor.submit(new Callable<SomeApiResponse>() {
+                    @Override
+                    public SomeApiResponse call() {
+                        return coalescingClient.execute(HttpMethod.GET, "http://in.memory/instance", "12345", null, MapUtils.map("ri", "true"), MapUtils.map("header", "value"), null, SomeApiResponse.class);
+                    }
+                }));
+            }
+            long deadline = System.currentTimeMillis() + 5000;
+            while (coalescer.getHitCount() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            SomeApiResponse first = futures.get(0).get(5, TimeUnit.SECONDS);
+            Assert.assertEquals(11, first.getInternalRegistrationId());
+            Assert.assertSame(first, futures.get(1).get(5, TimeUnit.SECONDS));
+            Assert.assertSame(first, futures.get(2).get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assert.assertEquals(1, calls.get());
+        Assert.assertEquals(2, coalescer.getHitCount());
+        Assert.assertEquals(1, coalescer.getMissCount());
+    }
+
+    @Test
+    public void execute_withRequestCoalescing_shouldNotReuseCompletedCalls_norCoalesceOtherMethods() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        RequestCoalescer coalescer = new RequestCoalescer();
+        DefaultApiClient coalescingClient = coalescingApiClient(coalescer, new InMemoryTransport.Handler() {
+            @Override
+            public InMemoryTransport.Response handle(InMemoryTransport.RecordedRequest request) {
+                calls.incrementAndGet();
+                return InMemoryTransport.Response.json(200, DefaultApiClient.JSON_SERIALIZER.serialize(new SomeApiResponse(11)));
+            }
+        });
+
+        coalescingClient.execute(HttpMethod.GET, "http://in.memory/instance", null, null, MapUtils.map(), null, null, SomeApiResponse.class);
+        coalescingClient.execute(HttpMethod.GET, "http://in.memory/instance", null, null, MapUtils.map(), null, null, SomeApiResponse.class);
+        coalescingClient.execute(HttpMethod.POST, "http://in.memory/instance", null, null, MapUtils.map(), null, new SomeApiRequest("Test"), SomeApiResponse.class);
+
+        Assert.assertEquals(3, calls.get());
+        Assert.assertEquals(0, coalescer.getHitCount());
+        Assert.assertEquals(2, coalescer.getMissCount());
+    }
+
+    @Test
+    public void execute_withRequestCoalescing_shouldShareErrorWithWaitingCallers() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final RequestCoalescer coalescer = new RequestCoalescer();
+        final ApiException error = new ApiException("1", "Invalid Application ID");
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                futures.add(executor.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() {
+                        return coalescer.execute("key", new RequestCoalescer.Call<Object>() {
+                            @Override
+                            public Object execute() {
+                                try {
+                                    release.await(5, TimeUnit.SECONDS);
+                                } catch (InterruptedException ignored) {
+                                }
+                                throw error;
+                            }
+                        });
+                    }
+                }));
+            }
+            long deadline = System.currentTimeMillis() + 5000;
+            while (coalescer.getHitCount() < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<Object> future : futures) {
+                try {
+                    future.get(5, TimeUnit.SECONDS);
+                    Assert.fail("Expected exception ApiException is not thrown");
+                } catch (ExecutionException e) {
+                    Assert.assertSame(error, e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void execute_withResponseCache_shouldRevalidateWithETag_andUseCachedBodyOn304() throws Exception {
+        final List<InMemoryTransport.RecordedRequest> requests = new ArrayList<>();
+        DefaultApiClient cachingClient = cachingApiClient(new InMemoryTransport.Handler() {
+            @Override
+            public InMemoryTransport.Response handle(InMemoryTransport.RecordedRequest request) {
+                requests.add(request);
+                if ("\"v1\"".equals(request.getHeader("If-None-Match"))) {
+                    return new InMemoryTransport.Response(304, headers("ETag", "\"v1\""), null);
+                }
+                return new InMemoryTransport.Response(200, headers("ETag", "\"v1\""),
+                        DefaultApiClient.JSON_SERIALIZER.serialize(new SomeApiResponse(11)).getBytes());
+            }
+        });
+
+        SomeApiResponse first = cachingClient.execute(HttpMethod.GET, "http://in.memory/instance", "12345", null, MapUtils.map(), null, null, SomeApiResponse.class);
+        SomeApiResponse second = cachingClient.execute(HttpMethod.GET, "http://in.memory/instance", "12345", null, MapUtils.map(), null, null, SomeApiResponse.class);
+
+        Assert.assertEquals(11, first.getInternalRegistrationId());
+        Assert.assertEquals(11, second.getInternalRegistrationId());
+        Assert.assertEquals(2, requests.size());
+        Assert.assertNull(requests.get(0).getHeader("If-None-Match"));
+        Assert.assertEquals("\"v1\"", requests.get(1).getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void execute_withResponseCache_shouldNotGoToNetwork_whileResponseIsFresh() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        DefaultApiClient cachingClient = cachingApiClient(new InMemoryTransport.Handler() {
+            @Override
+            public InMemoryTransport.Response handle(InMemoryTransport.RecordedRequest request) {
+                calls.incrementAndGet();
+                return new InMemoryTransport.Response(200, headers("Cache-Control", "private, max-age=600"),
+                        DefaultApiClient.JSON_SERIALIZER.serialize(new SomeApiResponse(11)).getBytes());
+            }
+        });
+
+        cachingClient.execute(HttpMethod.GET, "http://in.memory/instance", null, null, MapUtils.map(), null, null, SomeApiResponse.class);
+        SomeApiResponse result = cachingClient.execute(HttpMethod.GET, "http://in.memory/instance", null, null, MapUtils.map(), null, null, SomeApiResponse.class);
+
+        Assert.assertEquals(11, result.getInternalRegistrationId());
+        Assert.assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void execute_withResponseCache_shouldNotStore_noStoreResponses_norOtherMethods() throws Exception {
+        final List<InMemoryTransport.RecordedRequest> requests = new ArrayList<>();
+        DefaultApiClient cachingClient = cachingApiClient(new InMemoryTransport.Handler() {
+            @Override
+            public InMemoryTransport.Response handle(InMemoryTransport.RecordedRequest request) {
+                requests.add(request);
+                Map<String, List<String>> headers = headers("ETag", "\"v1\"");
+                if (request.getUrl().endsWith("private")) {
+                    headers.put("Cache-Control", Collections.singletonList("no-store"));
+                }
+                return new InMemoryTransport.Response(200, headers,
+                        DefaultApiClient.JSON_SERIALIZER.serialize(new SomeApiResponse(11)).getBytes());
+            }
+        });
+
+        for (int i = 0; i < 2; i++) {
+            cachingClient.execute(HttpMethod.GET, "http://in.memory/private", null, null, MapUtils.map(), null, null, SomeApiResponse.class);
+            cachingClient.execute(HttpMethod.POST, "http://in.memory/instance", null, null, MapUtils.map(), null, new SomeApiRequest("Test"), SomeApiResponse.class);
+        }
+
+        for (InMemoryTransport.RecordedRequest request : requests) {
+            Assert.assertNull(request.getHeader("If-None-Match"));
+        }
+    }
+
+    @Test
+    public void execute_withResponseCache_shouldDropStoredResponse_afterOtherMethodOnSameUrl() throws Exception {
+        final List<InMemoryTransport.RecordedRequest> requests = new ArrayList<>();
+        DefaultApiClient cachingClient = cachingApiClient(new InMemoryTransport.Handler() {
+            @Override
+            public InMemoryTransport.Response handle(InMemoryTransport.RecordedRequest request) {
+                requests.add(request);
+                return new InMemoryTransport.Response(200, headers("ETag", "\"v1\""),
+                        DefaultApiClient.JSON_SERIALIZER.serialize(new SomeApiResponse(11)).getBytes());
+            }
+        });
+
+        cachingClient.execute(HttpMethod.GET, "http://in.memory/instance", "12345", null, MapUtils.map(), null, null, SomeApiResponse.class);
+        cachingClient.execute(HttpMethod.PATCH, "http://in.memory/instance", "12345", null, MapUtils.map(), null, new SomeApiRequest("Test"), null);
+        cachingClient.execute(HttpMethod.GET, "http://in.memory/instance", "12345", null, MapUtils.map(), null, null, SomeApiResponse.class);
+
+        Assert.assertEquals(3, requests.size());
+        Assert.assertNull(requests.get(2).getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void execute_withResponseCache_shouldDropStoredResponses_ofRelatedResources_afterOtherMethod() throws Exception {
+        final List<String> urls = new ArrayList<>();
+        DefaultApiClient cachingClient = cachingApiClient(new InMemoryTransport.Handler() {
+            @Override
+            public InMemoryTransport.Response handle(InMemoryTransport.RecordedRequest request) {
+                urls.add(request.getUrl());
+                return new InMemoryTransport.Response(200, headers("Cache-Control", "private, max-age=600"),
+                        DefaultApiClient.JSON_SERIALIZER.serialize(new SomeApiResponse(11)).getBytes());
+            }
+        });
+        String instance = "http://in.memory/mobile/1/appinstance/regId";
+        Map<String, Collection<Object>> returnInfo = MapUtils.map("ri", true);
+
+        cachingClient.execute(HttpMethod.GET, instance + "/user", "12345", null, returnInfo, null, null, SomeApiResponse.class);
+        cachingClient.execute(HttpMethod.GET, instance, "12345", null, MapUtils.map(), null, null, SomeApiResponse.class);
+        cachingClient.execute(HttpMethod.GET, "http://in.memory/mobile/1/version", "12345", null, MapUtils.map(), null, null, SomeApiResponse.class);
+        cachingClient.execute(HttpMethod.PATCH, instance + "/user", "12345", null, MapUtils.map(), null, new SomeApiRequest("Test"), null);
+        cachingClient.execute(HttpMethod.GET, instance + "/user", "12345", null, returnInfo, null, null, SomeApiResponse.class);
+        cachingClient.execute(HttpMethod.GET, instance, "12345", null, MapUtils.map(), null, null, SomeApiResponse.class);
+        cachingClient.execute(HttpMethod.POST, instance + "/depersonalize", "12345", null, MapUtils.map(), null, null, null);
+        cachingClient.execute(HttpMethod.GET, instance + "/user", "12345", null, returnInfo, null, null, SomeApiResponse.class);
+        cachingClient.execute(HttpMethod.GET, "http://in.memory/mobile/1/version", "12345", null, MapUtils.map(), null, null, SomeApiResponse.class);
+
+        Assert.assertEquals(Arrays.asList(
+                instance + "/user?ri=true",
+                instance,
+                "http://in.memory/mobile/1/version",
+                instance + "/user",
+                instance + "/user?ri=true",
+                instance,
+                instance + "/depersonalize",
+                instance + "/user?ri=true"), urls);
+    }
+
+    private DefaultApiClient cachingApiClient(InMemoryTransport.Handler handler) throws IOException {
+        return new DefaultApiClient(
+                DEFAULT_CONNECT_TIMEOUT,
+                DEFAULT_READ_TIMEOUT,
+                null,
+                new RequestInterceptor[0],
+                new ResponsePreProcessor[0],
+                new Logger(),
+                false,
+                false,
+                DefaultApiClient.DEFAULT_COMPRESSION_THRESHOLD,
+                new InMemoryTransport(handler),
+                null,
+                new DiskResponseCache(temporaryFolder.newFolder(), 64 * 1024, "secret"));
+    }
+
+    private static Map<String, List<String>> headers(String name, String value) {
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put(name, Collections.singletonList(value));
+        return headers;
+    }
+
+    private DefaultApiClient coalescingApiClient(RequestCoalescer coalescer, InMemoryTransport.Handler handler) {
+        return new DefaultApiClient(
+                DEFAULT_CONNECT_TIMEOUT,
+                DEFAULT_READ_TIMEOUT,
+                null,
+                new RequestInterceptor[0],
+                new ResponsePreProcessor[0],
+                new Logger(),
+                false,
+                false,
+                DefaultApiClient.DEFAULT_COMPRESSION_THRESHOLD,
+                new InMemoryTransport(handler),
+                coalescer);
+    }
+
+    private DefaultApiClient apiClient(HttpTransport transport, boolean compressionEnabled) {
+        return new DefaultApiClient(
+                DEFAULT_CONNECT_TIMEOUT,
+                DEFAULT_READ_TIMEOUT,
+                null,
+                new RequestInterceptor[0],
+                new ResponsePreProcessor[0],
+                new Logger(),
+                false,
+                compressionEnabled,
+                DefaultApiClient.DEFAULT_COMPRESSION_THRESHOLD,
+                transport);
+    }
+
+    private DefaultApiClient compressingApiClient(int threshold) {
+        return new DefaultApiClient(
+                DEFAULT_CONNECT_TIMEOUT,
+                DEFAULT_READ_TIMEOUT,
+                null,
+                new RequestInterceptor[0],
+                new ResponsePreProcessor[0],
+                new Logger(),
+                false,
+                true,
+                threshold);
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -286,6 +828,12 @@ public class DefaultApiClientTest {
         }
     }
 
+    @Data
+    @NoArgsConstructor
+    private static class SomePlainResponse {
+        private int internalRegistrationId;
+    }
+
     private static Request matches(final Request givenRequest) {
         return argThat(new ArgumentMatcher<Request>() {
             @Override
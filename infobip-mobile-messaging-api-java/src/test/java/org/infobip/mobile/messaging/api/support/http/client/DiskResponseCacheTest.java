@@ -0,0 +1,136 @@
+package org.infobip.mobile.messaging.api.support.http.client;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DiskResponseCacheTest {
+
+    private static final String SECRET = "secret";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File directory;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = temporaryFolder.newFolder();
+    }
+
+    @Test
+    public void shouldStoreAndReadEntry() {
+        DiskResponseCache cache = new DiskResponseCache(directory, 1024, SECRET);
+
+        cache.put("key", new DiskResponseCache.Entry("\"etag\"", null, 0, new byte[]{1, 2, 3}));
+
+        DiskResponseCache.Entry entry = cache.get("key");
+        assertNotNull(entry);
+        assertEquals("\"etag\"", entry.getEtag());
+        assertNull(entry.getLastModified());
+        assertFalse(entry.isFresh(System.currentTimeMillis()));
+        assertArrayEquals(new byte[]{1, 2, 3}, entry.getBody());
+        assertNull(cache.get("other"));
+    }
+
+    @Test
+    public void shouldKeepEntriesAcrossInstances() {
+        new DiskResponseCache(directory, 1024, SECRET).put("key", new DiskResponseCache.Entry(null, "Wed, 21 Oct 2015 07:28:00 GMT", Long.MAX_VALUE, new byte[]{1}));
+
+        DiskResponseCache.Entry entry = new DiskResponseCache(directory, 1024, SECRET).get("key");
+
+        assertNotNull(entry);
+        assertEquals("Wed, 21 Oct 2015 07:28:00 GMT", entry.getLastModified());
+        assertTrue(entry.isFresh(System.currentTimeMillis()));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntries_whenSizeExceedsLimit() {
+        DiskResponseCache cache = new DiskResponseCache(directory, 350, SECRET);
+
+        cache.put("first", new DiskResponseCache.Entry("1", null, 0, new byte[100]));
+        cache.put("second", new DiskResponseCache.Entry("2", null, 0, new byte[100]));
+        assertNotNull(cache.get("first"));
+        cache.put("third", new DiskResponseCache.Entry("3", null, 0, new byte[100]));
+
+        assertNotNull(cache.get("first"));
+        assertNull(cache.get("second"));
+        assertNotNull(cache.get("third"));
+        assertTrue(cache.size() <= 350);
+        assertEquals(2, directory.list().length);
+    }
+
+    @Test
+    public void shouldRemoveEntry() {
+        DiskResponseCache cache = new DiskResponseCache(directory, 1024, SECRET);
+        cache.put("key", new DiskResponseCache.Entry("1", null, 0, new byte[10]));
+
+        cache.remove("key");
+
+        assertNull(cache.get("key"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldRemoveEntriesOfScope_alsoAfterRestart() {
+        new DiskResponseCache(directory, 1024, SECRET).put("user", Arrays.asList("instance", "instance/user"), new DiskResponseCache.Entry("1", null, 0, new byte[10]));
+        new DiskResponseCache(directory, 1024, SECRET).put("version", Collections.singletonList("version"), new DiskResponseCache.Entry("2", null, 0, new byte[10]));
+
+        DiskResponseCache cache = new DiskResponseCache(directory, 1024, SECRET);
+        cache.put("instance", Collections.singletonList("instance"), new DiskResponseCache.Entry("3", null, 0, new byte[10]));
+        cache.removeScope("instance");
+
+        assertNull(cache.get("user"));
+        assertNull(cache.get("instance"));
+        assertNotNull(cache.get("version"));
+        assertEquals(1, directory.list().length);
+    }
+
+    @Test
+    public void shouldClearAllEntries() {
+        DiskResponseCache cache = new DiskResponseCache(directory, 1024, SECRET);
+        cache.put("first", new DiskResponseCache.Entry("1", null, 0, new byte[10]));
+        cache.put("second", new DiskResponseCache.Entry("2", null, 0, new byte[10]));
+
+        cache.clear();
+
+        assertNull(cache.get("first"));
+        assertNull(cache.get("second"));
+        assertEquals(0, cache.size());
+        assertEquals(0, directory.list().length);
+    }
+
+    @Test
+    public void shouldNotStoreBodyInPlaintext() throws Exception {
+        new DiskResponseCache(directory, 1024, SECRET).put("key", new DiskResponseCache.Entry("1", null, 0, "{\"email\":\"john@infobip.com\"}".getBytes("UTF-8")));
+
+        File[] files = directory.listFiles();
+        assertEquals(1, files.length);
+        assertFalse(new String(Files.readAllBytes(files[0].toPath()), Charset.forName("ISO-8859-1")).contains("john@infobip.com"));
+        assertNotNull(new DiskResponseCache(directory, 1024, SECRET).get("key"));
+    }
+
+    @Test
+    public void shouldDropEntries_writtenWithAnotherSecret() {
+        new DiskResponseCache(directory, 1024, SECRET).put("key", new DiskResponseCache.Entry("1", null, 0, new byte[10]));
+
+        DiskResponseCache cache = new DiskResponseCache(directory, 1024, "another");
+
+        assertNull(cache.get("key"));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,134 @@
+package org.infobip.mobile.messaging.api.support.http.client;
+
+import org.infobip.mobile.messaging.api.support.ApiIOException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class RequestCoalescerTest {
+
+    private static final String KEY = "http://in.memory/instance\nnull\nTuple(left=user, right=password)";
+
+    private RequestCoalescer coalescer;
+    private ExecutorService executor;
+    private CountDownLatch release;
+
+    @Before
+    public void setUp() {
+        coalescer = new RequestCoalescer();
+        executor = Executors.newFixedThreadPool(2);
+        release = new CountDownLatch(1);
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldPassErrorOfCallToWaitingCallers() throws Exception {
+        final Error error = new StackOverflowError();
+        Future<Object> leader = executeInBackground(new RequestCoalescer.Call<Object>() {
+            @Override
+            public Object execute() {
+                awaitRelease();
+                throw error;
+            }
+        });
+        Future<Object> waiter = executeInBackground(new RequestCoalescer.Call<Object>() {
+            @Override
+            public Object execute() {
+                return "not coalesced";
+            }
+        });
+        awaitHits(1);
+        release.countDown();
+
+        for (Future<Object> future : new Future[]{leader, waiter}) {
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                fail("Expected error is not thrown");
+            } catch (ExecutionException e) {
+                assertSame(error, e.getCause());
+            }
+        }
+    }
+
+    @Test
+    public void shouldNotExposeKey_whenWaitingCallerIsInterrupted() throws Exception {
+        executeInBackground(new RequestCoalescer.Call<Object>() {
+            @Override
+            public Object execute() {
+                awaitRelease();
+                return null;
+            }
+        });
+        awaitHits(0);
+
+        final AtomicReference<RuntimeException> thrown = new AtomicReference<>();
+        Thread waiter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    coalescer.execute(KEY, new RequestCoalescer.Call<Object>() {
+                        @Override
+                        public Object execute() {
+                            return null;
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    thrown.set(e);
+                }
+            }
+        });
+        waiter.start();
+        awaitHits(1);
+        waiter.interrupt();
+        waiter.join(5000);
+
+        assertNotNull(thrown.get());
+        assertEquals(ApiIOException.class, thrown.get().getClass());
+        assertFalse(thrown.get().getMessage().contains("password"));
+        assertFalse(thrown.get().getMessage().contains("in.memory"));
+    }
+
+    private Future<Object> executeInBackground(final RequestCoalescer.Call<Object> call) {
+        return executor.submit(new Callable<Object>() {
+            @Override
+            public Object call() {
+                return coalescer.execute(KEY, call);
+            }
+        });
+    }
+
+    private void awaitHits(long hits) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((coalescer.getHitCount() < hits || coalescer.getMissCount() < 1) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.infobip.mobile.messaging.api.support.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StreamUtilsTest {
+
+    @Test
+    public void readToString_withLength_readsOnlyLength() throws Exception {
+        assertThat(StreamUtils.readToString(stream("abcdef"), "UTF-8", 3)).isEqualTo("abc");
+    }
+
+    @Test
+    public void readToString_withoutLength_readsUntilEnd() throws Exception {
+        assertThat(StreamUtils.readToString(stream("abcdef"), "UTF-8", -1)).isEqualTo("abcdef");
+        assertThat(StreamUtils.readToString(stream("abcdef"), "UTF-8", 0)).isEqualTo("abcdef");
+    }
+
+    @Test
+    public void readToString_lengthLargerThanContent_returnsContent() throws Exception {
+        assertThat(StreamUtils.readToString(stream("abc"), "UTF-8", 10)).isEqualTo("abc");
+    }
+
+    @Test
+    public void readToString_hugeOrNegativeLength_doesNotPreallocate() throws Exception {
+        assertThat(StreamUtils.readToString(stream("abc"), "UTF-8", Long.MAX_VALUE)).isEqualTo("abc");
+        assertThat(StreamUtils.readToString(stream("abc"), "UTF-8", Integer.MAX_VALUE)).isEqualTo("abc");
+        assertThat(StreamUtils.readToString(stream("abc"), "UTF-8", Long.MIN_VALUE)).isEqualTo("abc");
+    }
+
+    @Test
+    public void readToBytes_lengthAboveInitialBuffer_growsWhileReading() throws Exception {
+        byte[] bytes = new byte[300000];
+        Arrays.fill(bytes, (byte) 3);
+
+        assertThat(StreamUtils.readToBytes(new TrickleInputStream(new ByteArrayInputStream(bytes)), bytes.length)).isEqualTo(bytes);
+        assertThat(StreamUtils.readToBytes(new ByteArrayInputStream(bytes), 100000)).isEqualTo(Arrays.copyOf(bytes, 100000));
+        assertThat(StreamUtils.readToBytes(new ByteArrayInputStream(bytes), Integer.MAX_VALUE)).isEqualTo(bytes);
+    }
+
+    @Test
+    public void readToString_emptyStream_returnsEmpty() throws Exception {
+        assertThat(StreamUtils.readToString(stream(""), "UTF-8", -1)).isEmpty();
+        assertThat(StreamUtils.readToString(stream(""), "UTF-8", 10)).isEmpty();
+    }
+
+    @Test
+    public void readToString_multibyteCharacters_acrossPartialReads() throws Exception {
+        String s = "\u010d\u0107\u017e\u0161\u0111\u20ac" + new String(new char[20000]).replace('\0', 'x') + "\u00fc";
+
+        assertThat(StreamUtils.readToString(new TrickleInputStream(stream(s)), "UTF-8", s.getBytes("UTF-8").length)).isEqualTo(s);
+        assertThat(StreamUtils.readToString(new TrickleInputStream(stream(s)), "UTF-8", -1)).isEqualTo(s);
+    }
+
+    @Test
+    public void readToBytes_withAndWithoutLength() throws Exception {
+        byte[] bytes = new byte[100000];
+        Arrays.fill(bytes, (byte) 7);
+
+        assertThat(StreamUtils.readToBytes(new ByteArrayInputStream(bytes), bytes.length)).isEqualTo(bytes);
+        assertThat(StreamUtils.readToBytes(new ByteArrayInputStream(bytes), -1)).isEqualTo(bytes);
+        assertThat(StreamUtils.readToBytes(new ByteArrayInputStream(bytes), 200000)).isEqualTo(bytes);
+    }
+
+    private static InputStream stream(String s) throws IOException {
+        return new ByteArrayInputStream(s.getBytes("UTF-8"));
+    }
+
+    /**
+     * Returns at most 7 bytes per read, like a slow network connection.
+     */
+    private static class TrickleInputStream extends FilterInputStream {
+
+        TrickleInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return super.read(b, off, Math.min(len, 7));
+        }
+    }
+}
@@ -2,10 +2,15 @@ package org.infobip.mobile.messaging.api.tools;
 
 import org.infobip.mobile.messaging.api.support.util.StreamUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import fi.iki.elonen.NanoHTTPD;
 
@@ -20,6 +25,7 @@ public class DebugServer extends NanoHTTPD {
     private Method requestMethod;
     private String uri;
     private String body;
+    private boolean gzipResponse;
 
     public DebugServer() {
         super(0);
@@ -35,7 +41,7 @@ public class DebugServer extends NanoHTTPD {
         headers = session.getHeaders();
         body = readBody(session);
 
-        Response response = new Response(status, mimeType, txt);
+        Response response = gzipResponse ? gzipResponse() : new Response(status, mimeType, txt);
         for (String key : responseHeaders.keySet()) {
             response.addHeader(key, responseHeaders.get(key));
         }
@@ -44,29 +50,62 @@ public class DebugServer extends NanoHTTPD {
     }
 
     private String readBody(IHTTPSession session) {
-        if (null != headers) {
+        if (null == headers) {
+            return null;
+        }
+
+        try {
+            byte[] bytes = null;
             String contentLength = headers.get("content-length");
             if (null != contentLength) {
                 long length = Long.parseLong(contentLength);
                 if (length > 0) {
-                    try {
-                        return StreamUtils.readToString(session.getInputStream(), "UTF-8", length);
-                    } catch (IOException e) {
-                        e.printStackTrace();
-                    }
+                    bytes = StreamUtils.readToBytes(session.getInputStream(), length);
                 }
+            } else if ("chunked".equalsIgnoreCase(headers.get("transfer-encoding"))) {
+                bytes = readChunked(session.getInputStream());
             }
-        }
-/*
-        try {
-            return StreamUtils.readToString(session.getInputStream(), "UTF-8");
+
+            if (null == bytes) {
+                return null;
+            }
+
+            if ("gzip".equalsIgnoreCase(headers.get("content-encoding"))) {
+                return StreamUtils.readToString(new GZIPInputStream(new ByteArrayInputStream(bytes)), "UTF-8", -1);
+            }
+            return new String(bytes, "UTF-8");
         } catch (IOException e) {
             e.printStackTrace();
         }
-*/
         return null;
     }
 
+    private byte[] readChunked(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        while (true) {
+            String sizeLine = readLine(inputStream);
+            int extension = sizeLine.indexOf(';');
+            int size = Integer.parseInt((extension < 0 ? sizeLine : sizeLine.substring(0, extension)).trim(), 16);
+            if (size == 0) {
+                readLine(inputStream);
+                return body.toByteArray();
+            }
+            body.write(StreamUtils.readToBytes(inputStream, size));
+            readLine(inputStream);
+        }
+    }
+
+    private String readLine(InputStream inputStream) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int c;
+        while ((c = inputStream.read()) != -1 && c != '\n') {
+            if (c != '\r') {
+                sb.append((char) c);
+            }
+        }
+        return sb.toString();
+    }
+
     public void respondWith(Response.Status status, String json) {
         this.respondWith(status, "application/json", json);
     }
@@ -75,6 +114,29 @@ public class DebugServer extends NanoHTTPD {
         this.status = status;
         this.mimeType = mimeType;
         this.txt = txt;
+        this.gzipResponse = false;
+    }
+
+    public void respondWithGzip(Response.Status status, String json) {
+        this.respondWith(status, json);
+        this.gzipResponse = true;
+    }
+
+    private Response gzipResponse() {
+        try {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            GZIPOutputStream outputStream = new GZIPOutputStream(compressed);
+            outputStream.write(txt.getBytes("UTF-8"));
+            outputStream.close();
+
+            InputStream data = new ByteArrayInputStream(compressed.toByteArray());
+            Response response = new Response(status, mimeType, data);
+            response.addHeader("Content-Encoding", "gzip");
+            response.addHeader("Content-Length", "" + compressed.size());
+            return response;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     public void respondWith(Response.Status status, String body, Map<String, String> headers) {